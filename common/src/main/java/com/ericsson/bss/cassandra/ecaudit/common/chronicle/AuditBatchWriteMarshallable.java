@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditRecord;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.WireOut;
+import net.openhft.chronicle.wire.WriteMarshallable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Writes the {@link AuditRecord}s of a batch to the wire as one compact record.
+ * <p>
+ * The fields which are shared by all records, such as timestamp, client, coordinator, user, batch id and status, are
+ * written once in a header. The header is followed by the operation fields of each record. Only records which share
+ * the same header, as told by {@link #sharesHeader(AuditRecord, AuditRecord)}, may be written together.
+ */
+public class AuditBatchWriteMarshallable implements WriteMarshallable
+{
+    private final List<? extends AuditRecord> auditRecords;
+    private final AuditRecordWritePlan writePlan;
+    private final RecordFormat format;
+    private final WriteDictionary dictionary;
+
+    /**
+     * @param auditRecords     the records of the batch, all sharing the same header
+     * @param configuredFields the fields to write
+     * @throws IllegalArgumentException if the list of records is empty
+     */
+    public AuditBatchWriteMarshallable(List<? extends AuditRecord> auditRecords, FieldSelector configuredFields)
+    {
+        this(auditRecords, configuredFields, RecordFormat.BITMAPPED);
+    }
+
+    /**
+     * @param auditRecords     the records of the batch, all sharing the same header
+     * @param configuredFields the fields to write
+     * @param format           the record format to write
+     * @throws IllegalArgumentException if the list of records is empty
+     */
+    public AuditBatchWriteMarshallable(List<? extends AuditRecord> auditRecords, FieldSelector configuredFields, RecordFormat format)
+    {
+        this(auditRecords, configuredFields, format, WriteDictionary.disabled());
+    }
+
+    /**
+     * @param auditRecords     the records of the batch, all sharing the same header
+     * @param configuredFields the fields to write
+     * @param format           the record format to write
+     * @param dictionary       the dictionary of the roll cycle, only used by the {@link RecordFormat#COMPACT} format
+     * @throws IllegalArgumentException if the list of records is empty
+     */
+    public AuditBatchWriteMarshallable(List<? extends AuditRecord> auditRecords, FieldSelector configuredFields, RecordFormat format, WriteDictionary dictionary)
+    {
+        if (auditRecords.isEmpty())
+        {
+            throw new IllegalArgumentException("A compact batch record must hold at least one record");
+        }
+
+        this.auditRecords = auditRecords;
+        int actualFields = FieldFilterFlavorAdapter.getFieldsAvailableInRecord(auditRecords.get(0), configuredFields.getBitmap());
+        this.writePlan = AuditRecordWritePlan.forBitmap(actualFields);
+        this.format = format;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Check whether two records share the same header, so that they can be written as one compact batch record.
+     *
+     * @param first the first record
+     * @param other the other record
+     * @return {@code true} if all fields but the operation are equal, {@code false} otherwise
+     */
+    public static boolean sharesHeader(AuditRecord first, AuditRecord other)
+    {
+        return Objects.equals(first.getTimestamp(), other.getTimestamp())
+               && Objects.equals(first.getClientAddress(), other.getClientAddress())
+               && Objects.equals(first.getCoordinatorAddress(), other.getCoordinatorAddress())
+               && Objects.equals(first.getUser(), other.getUser())
+               && Objects.equals(first.getBatchId(), other.getBatchId())
+               && first.getStatus() == other.getStatus()
+               && Objects.equals(first.getSubject(), other.getSubject());
+    }
+
+    @Override
+    public void writeMarshallable(@NotNull WireOut wire)
+    {
+        if (format == RecordFormat.COMPACT)
+        {
+            writeCompact(wire);
+            return;
+        }
+
+        // Mandatory fields
+        wire.write(WireTags.KEY_VERSION).int16(WireTags.VALUE_VERSION_CURRENT);
+        wire.write(WireTags.KEY_TYPE).text(WireTags.VALUE_TYPE_AUDIT_BATCH);
+        wire.write(WireTags.KEY_FIELDS).int32(writePlan.getBitmap());
+        // Shared header
+        writePlan.writeHeader(RecordFormat.BITMAPPED, wire, auditRecords.get(0), dictionary);
+        // Operations
+        wire.write(WireTags.KEY_OPERATION_COUNT).int32(auditRecords.size());
+        for (AuditRecord auditRecord : auditRecords)
+        {
+            writePlan.writeOperation(RecordFormat.BITMAPPED, wire, auditRecord, dictionary);
+        }
+    }
+
+    private void writeCompact(WireOut wire)
+    {
+        wire.write(WireTags.KEY_VERSION).int16(WireTags.VALUE_VERSION_3);
+        Bytes<?> bytes = wire.bytes();
+        bytes.writeByte((byte) CompactWireFormat.TYPE_BATCH);
+        bytes.writeByte((byte) writePlan.getHeaderFieldCount());
+        writePlan.writeHeader(RecordFormat.COMPACT, wire, auditRecords.get(0), dictionary);
+        bytes.writeStopBit(auditRecords.size());
+        bytes.writeByte((byte) writePlan.getOperationFieldCount());
+        for (AuditRecord auditRecord : auditRecords)
+        {
+            writePlan.writeOperation(RecordFormat.COMPACT, wire, auditRecord, dictionary);
+        }
+    }
+}
@@ -17,24 +17,57 @@ package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector.Field;
 import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
 import com.ericsson.bss.cassandra.ecaudit.common.record.StoredAuditRecord;
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.core.io.IORuntimeException;
 import net.openhft.chronicle.wire.ReadMarshallable;
 import net.openhft.chronicle.wire.WireIn;
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Reads audit records from the wire.
+ * <p>
+ * A document normally holds a single record. A compact batch document holds the records of a batch, which are
+ * expanded into one {@link StoredAuditRecord} per operation.
+ * <p>
+ * Records of all versions are read, from the original version 0 to the compact binary records of version 3.
+ * Dictionary encoded strings of compact records are resolved with the {@link ReadDictionary} of the reader.
+ */
 public class AuditRecordReadMarshallable implements ReadMarshallable
 {
-    private StoredAuditRecord auditRecord;
+    private final ReadDictionary dictionary;
+
+    private List<StoredAuditRecord> auditRecords;
+
+    /**
+     * Create a marshallable for reading a single document, with a dictionary of its own.
+     */
+    public AuditRecordReadMarshallable()
+    {
+        this(new ReadDictionary());
+    }
+
+    /**
+     * Create a marshallable for reading a single document.
+     *
+     * @param dictionary the dictionary of the roll cycle being read, shared between the documents of the roll cycle
+     */
+    public AuditRecordReadMarshallable(ReadDictionary dictionary)
+    {
+        this.dictionary = dictionary;
+    }
 
     @Override
     public void readMarshallable(@NotNull WireIn wire) throws IORuntimeException
     {
-        if (auditRecord != null)
+        if (auditRecords != null)
         {
             throw new IORuntimeException("Tried to read from wire with used marshallable");
         }
@@ -43,11 +76,17 @@ public class AuditRecordReadMarshallable implements ReadMarshallable
         switch (version)
         {
             case WireTags.VALUE_VERSION_0:
-                auditRecord = readV0(wire);
+                auditRecords = Collections.singletonList(readV0(wire));
+                break;
+            case WireTags.VALUE_VERSION_1:
+                checkV1Type(wire);
+                auditRecords = Collections.singletonList(readBitmappedRecord(wire));
                 break;
-            case WireTags.VALUE_VERSION_1: // NOPMD
             case WireTags.VALUE_VERSION_CURRENT:
-                auditRecord = readBitmappedRecord(wire);
+                auditRecords = readV2Records(wire);
+                break;
+            case WireTags.VALUE_VERSION_3:
+                auditRecords = readV3Records(wire.bytes());
                 break;
             default:
                 throw new IORuntimeException("Unsupported record version: " + version);
@@ -76,9 +115,174 @@ public class AuditRecordReadMarshallable implements ReadMarshallable
                       .build();
     }
 
+    private List<StoredAuditRecord> readV2Records(WireIn wire)
+    {
+        String type = wire.read(WireTags.KEY_TYPE).text();
+        if (WireTags.VALUE_TYPE_AUDIT.equals(type))
+        {
+            return Collections.singletonList(readBitmappedRecord(wire));
+        }
+        if (WireTags.VALUE_TYPE_AUDIT_BATCH.equals(type))
+        {
+            return readCompactBatch(wire);
+        }
+
+        throw new IORuntimeException("Unsupported record type field: " + type);
+    }
+
+    private List<StoredAuditRecord> readCompactBatch(WireIn wire)
+    {
+        int bitmap = wire.read(WireTags.KEY_FIELDS).int32();
+
+        FieldSelector fields = FieldSelector.fromBitmap(bitmap);
+        StoredAuditRecord.Builder headerBuilder = StoredAuditRecord.builder();
+
+        // Read shared header, the fields are written in the same order as in a single record
+        fields.ifSelectedRun(Field.TIMESTAMP, () -> headerBuilder.withTimestamp(wire.read(WireTags.KEY_TIMESTAMP).int64()));
+        fields.ifSelectedRun(Field.CLIENT_IP, () -> headerBuilder.withClientAddress(readInetAddress(wire, WireTags.KEY_CLIENT_IP)));
+        fields.ifSelectedRun(Field.CLIENT_PORT, () -> headerBuilder.withClientPort(wire.read(WireTags.KEY_CLIENT_PORT).int32()));
+        fields.ifSelectedRun(Field.COORDINATOR_IP, () -> headerBuilder.withCoordinatorAddress(readInetAddress(wire, WireTags.KEY_COORDINATOR_IP)));
+        fields.ifSelectedRun(Field.USER, () -> headerBuilder.withUser(wire.read(WireTags.KEY_USER).text()));
+        fields.ifSelectedRun(Field.BATCH_ID, () -> headerBuilder.withBatchId(readBatchId(wire)));
+        fields.ifSelectedRun(Field.STATUS, () -> headerBuilder.withStatus(readStatus(wire)));
+        fields.ifSelectedRun(Field.SUBJECT, () -> headerBuilder.withSubject(wire.read(WireTags.KEY_SUBJECT).text()));
+        StoredAuditRecord header = headerBuilder.build();
+
+        int operationCount = wire.read(WireTags.KEY_OPERATION_COUNT).int32();
+        if (operationCount < 0)
+        {
+            throw new IORuntimeException("Corrupt record operation count field: " + operationCount);
+        }
+
+        // Expand into one record per operation
+        List<StoredAuditRecord> records = new ArrayList<>(operationCount);
+        for (int i = 0; i < operationCount; i++)
+        {
+            StoredAuditRecord.Builder recordBuilder = StoredAuditRecord.builder().basedOn(header);
+            fields.ifSelectedRun(Field.OPERATION, () -> recordBuilder.withOperation(wire.read(WireTags.KEY_OPERATION).text()));
+            fields.ifSelectedRun(Field.OPERATION_NAKED, () -> recordBuilder.withNakedOperation(wire.read(WireTags.KEY_NAKED_OPERATION).text()));
+            records.add(recordBuilder.build());
+        }
+
+        return records;
+    }
+
+    private List<StoredAuditRecord> readV3Records(Bytes<?> bytes)
+    {
+        int type = bytes.readUnsignedByte();
+        if (type == CompactWireFormat.TYPE_RECORD)
+        {
+            StoredAuditRecord.Builder recordBuilder = StoredAuditRecord.builder();
+            readCompactFields(bytes, recordBuilder);
+            return Collections.singletonList(recordBuilder.build());
+        }
+        if (type != CompactWireFormat.TYPE_BATCH)
+        {
+            throw new IORuntimeException("Unsupported record type field: " + type);
+        }
+
+        StoredAuditRecord.Builder headerBuilder = StoredAuditRecord.builder();
+        readCompactFields(bytes, headerBuilder);
+        StoredAuditRecord header = headerBuilder.build();
+
+        long operationCount = bytes.readStopBit();
+        if (operationCount < 0 || operationCount > Integer.MAX_VALUE)
+        {
+            throw new IORuntimeException("Corrupt record operation count field: " + operationCount);
+        }
+
+        List<StoredAuditRecord> records = new ArrayList<>((int) operationCount);
+        int operationFieldCount = bytes.readUnsignedByte();
+        for (int i = 0; i < operationCount; i++)
+        {
+            StoredAuditRecord.Builder recordBuilder = StoredAuditRecord.builder().basedOn(header);
+            for (int j = 0; j < operationFieldCount; j++)
+            {
+                readCompactField(bytes, recordBuilder);
+            }
+            records.add(recordBuilder.build());
+        }
+
+        return records;
+    }
+
+    private void readCompactFields(Bytes<?> bytes, StoredAuditRecord.Builder builder)
+    {
+        int fieldCount = bytes.readUnsignedByte();
+        for (int i = 0; i < fieldCount; i++)
+        {
+            readCompactField(bytes, builder);
+        }
+    }
+
+    private void readCompactField(Bytes<?> bytes, StoredAuditRecord.Builder builder)
+    {
+        int fieldId = bytes.readUnsignedByte();
+        if ((fieldId & CompactWireFormat.DICTIONARY_FLAG) != 0)
+        {
+            readDictionaryField(bytes, CompactWireFormat.fieldOf(fieldId & ~CompactWireFormat.DICTIONARY_FLAG), builder);
+            return;
+        }
+
+        Field field = CompactWireFormat.fieldOf(fieldId);
+        switch (field)
+        {
+            case TIMESTAMP:
+                builder.withTimestamp(bytes.readStopBit());
+                break;
+            case CLIENT_IP:
+                builder.withClientAddress(CompactWireFormat.readInetAddress(bytes, field));
+                break;
+            case CLIENT_PORT:
+                builder.withClientPort((int) bytes.readStopBit());
+                break;
+            case COORDINATOR_IP:
+                builder.withCoordinatorAddress(CompactWireFormat.readInetAddress(bytes, field));
+                break;
+            case USER:
+                builder.withUser(CompactWireFormat.readText(bytes));
+                break;
+            case BATCH_ID:
+                builder.withBatchId(CompactWireFormat.readUuid(bytes));
+                break;
+            case STATUS:
+                builder.withStatus(CompactWireFormat.statusOf(bytes.readUnsignedByte()));
+                break;
+            case OPERATION:
+                builder.withOperation(CompactWireFormat.readText(bytes));
+                break;
+            case OPERATION_NAKED:
+                builder.withNakedOperation(CompactWireFormat.readText(bytes));
+                break;
+            case SUBJECT:
+                builder.withSubject(CompactWireFormat.readText(bytes));
+                break;
+            default:
+                throw new IORuntimeException("Unsupported record field: " + field);
+        }
+    }
+
+    private void readDictionaryField(Bytes<?> bytes, Field field, StoredAuditRecord.Builder builder)
+    {
+        String text = CompactWireFormat.readDictionaryString(bytes, dictionary);
+        switch (field)
+        {
+            case USER:
+                builder.withUser(text);
+                break;
+            case OPERATION:
+                builder.withOperation(text + CompactWireFormat.readText(bytes));
+                break;
+            case OPERATION_NAKED:
+                builder.withNakedOperation(text);
+                break;
+            default:
+                throw new IORuntimeException("Unsupported dictionary record field: " + field);
+        }
+    }
+
     private StoredAuditRecord readBitmappedRecord(WireIn wire)
     {
-        checkV1Type(wire);
         int bitmap = wire.read(WireTags.KEY_FIELDS).int32();
 
         FieldSelector fields = FieldSelector.fromBitmap(bitmap);
@@ -148,13 +352,32 @@ public class AuditRecordReadMarshallable implements ReadMarshallable
         }
     }
 
+    /**
+     * @return the single record read from the wire
+     * @throws IllegalStateException if no record has been read, or if a compact batch holding several records was read
+     */
     public StoredAuditRecord getAuditRecord()
     {
-        if (auditRecord == null)
+        List<StoredAuditRecord> records = getAuditRecords();
+        if (records.size() != 1)
+        {
+            throw new IllegalStateException("Compact batch record holds " + records.size() + " records");
+        }
+
+        return records.get(0);
+    }
+
+    /**
+     * @return the records read from the wire, in order
+     * @throws IllegalStateException if no record has been read
+     */
+    public List<StoredAuditRecord> getAuditRecords()
+    {
+        if (auditRecords == null)
         {
             throw new IllegalStateException("No record has been read from the wire");
         }
 
-        return auditRecord;
+        return auditRecords;
     }
 }
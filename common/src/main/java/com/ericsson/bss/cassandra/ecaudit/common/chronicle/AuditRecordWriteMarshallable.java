@@ -15,40 +15,73 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
 
-import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector.Field;
 import com.ericsson.bss.cassandra.ecaudit.common.record.AuditRecord;
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.wire.WireOut;
 import net.openhft.chronicle.wire.WriteMarshallable;
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Writes an {@link AuditRecord} to the wire using the pre-computed {@link AuditRecordWritePlan} of the fields
+ * available in the record.
+ * <p>
+ * Records are written in the {@link RecordFormat#BITMAPPED} format unless another format is given.
+ */
 public class AuditRecordWriteMarshallable implements WriteMarshallable
 {
     private final AuditRecord auditRecord;
-    private final FieldSelector actualFields;
+    private final AuditRecordWritePlan writePlan;
+    private final RecordFormat format;
+    private final WriteDictionary dictionary;
 
     public AuditRecordWriteMarshallable(AuditRecord auditRecord, FieldSelector configuredFields)
+    {
+        this(auditRecord, configuredFields, RecordFormat.BITMAPPED);
+    }
+
+    public AuditRecordWriteMarshallable(AuditRecord auditRecord, FieldSelector configuredFields, RecordFormat format)
+    {
+        this(auditRecord, configuredFields, format, WriteDictionary.disabled());
+    }
+
+    /**
+     * @param auditRecord      the record to write
+     * @param configuredFields the fields to write
+     * @param format           the record format to write
+     * @param dictionary       the dictionary of the roll cycle, only used by the {@link RecordFormat#COMPACT} format
+     */
+    public AuditRecordWriteMarshallable(AuditRecord auditRecord, FieldSelector configuredFields, RecordFormat format, WriteDictionary dictionary)
     {
         this.auditRecord = auditRecord;
-        this.actualFields = FieldFilterFlavorAdapter.getFieldsAvailableInRecord(auditRecord, configuredFields);
+        int actualFields = FieldFilterFlavorAdapter.getFieldsAvailableInRecord(auditRecord, configuredFields.getBitmap());
+        this.writePlan = AuditRecordWritePlan.forBitmap(actualFields);
+        this.format = format;
+        this.dictionary = dictionary;
     }
 
     @Override
     public void writeMarshallable(@NotNull WireOut wire)
     {
+        if (format == RecordFormat.COMPACT)
+        {
+            writeCompact(wire);
+            return;
+        }
+
         // Mandatory fields
         wire.write(WireTags.KEY_VERSION).int16(WireTags.VALUE_VERSION_CURRENT);
         wire.write(WireTags.KEY_TYPE).text(WireTags.VALUE_TYPE_AUDIT);
-        wire.write(WireTags.KEY_FIELDS).int32(actualFields.getBitmap());
+        wire.write(WireTags.KEY_FIELDS).int32(writePlan.getBitmap());
         // Configurable fields
-        actualFields.ifSelectedRun(Field.TIMESTAMP, () -> wire.write(WireTags.KEY_TIMESTAMP).int64(auditRecord.getTimestamp()));
-        actualFields.ifSelectedRun(Field.CLIENT_IP, () -> wire.write(WireTags.KEY_CLIENT_IP).bytes(auditRecord.getClientAddress().getAddress().getAddress()));
-        actualFields.ifSelectedRun(Field.CLIENT_PORT, () -> wire.write(WireTags.KEY_CLIENT_PORT).int32(auditRecord.getClientAddress().getPort()));
-        actualFields.ifSelectedRun(Field.COORDINATOR_IP, () -> wire.write(WireTags.KEY_COORDINATOR_IP).bytes(auditRecord.getCoordinatorAddress().getAddress()));
-        actualFields.ifSelectedRun(Field.USER, () -> wire.write(WireTags.KEY_USER).text(auditRecord.getUser()));
-        actualFields.ifSelectedRun(Field.BATCH_ID, () -> wire.write(WireTags.KEY_BATCH_ID).uuid(auditRecord.getBatchId().get()));
-        actualFields.ifSelectedRun(Field.STATUS, () -> wire.write(WireTags.KEY_STATUS).text(auditRecord.getStatus().name()));
-        actualFields.ifSelectedRun(Field.OPERATION, () -> wire.write(WireTags.KEY_OPERATION).text(auditRecord.getOperation().getOperationString()));
-        actualFields.ifSelectedRun(Field.OPERATION_NAKED, () -> wire.write(WireTags.KEY_NAKED_OPERATION).text(auditRecord.getOperation().getNakedOperationString()));
-        actualFields.ifSelectedRun(Field.SUBJECT, () -> wire.write(WireTags.KEY_SUBJECT).text(auditRecord.getSubject().get()));
+        writePlan.write(RecordFormat.BITMAPPED, wire, auditRecord, dictionary);
+    }
+
+    private void writeCompact(WireOut wire)
+    {
+        wire.write(WireTags.KEY_VERSION).int16(WireTags.VALUE_VERSION_3);
+        Bytes<?> bytes = wire.bytes();
+        bytes.writeByte((byte) CompactWireFormat.TYPE_RECORD);
+        bytes.writeByte((byte) writePlan.getFieldCount());
+        writePlan.write(RecordFormat.COMPACT, wire, auditRecord, dictionary);
     }
 }
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector.Field;
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditRecord;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.WireOut;
+
+/**
+ * A pre-computed plan of which fields to write, and in which order, for a given field bitmap.
+ * <p>
+ * One plan is created up front for each possible bitmap. The field writers are stateless and shared between all
+ * plans, so writing a record does not allocate any intermediate objects.
+ * <p>
+ * The operation fields may also be written separately from the other fields, which make up the header that all
+ * records of a compact batch share.
+ * <p>
+ * Each plan holds field writers for every {@link RecordFormat}, indexed by format.
+ */
+final class AuditRecordWritePlan
+{
+    /**
+     * The order in which configurable fields are written to the wire.
+     */
+    private static final Field[] WIRE_ORDER = {
+    Field.TIMESTAMP,
+    Field.CLIENT_IP,
+    Field.CLIENT_PORT,
+    Field.COORDINATOR_IP,
+    Field.USER,
+    Field.BATCH_ID,
+    Field.STATUS,
+    Field.OPERATION,
+    Field.OPERATION_NAKED,
+    Field.SUBJECT,
+    };
+
+    private static final AuditRecordWritePlan[] PLANS = createPlans();
+
+    private static final int INITIAL_BUFFER_CAPACITY = 256;
+    private static final int MAX_REUSED_BUFFER_CAPACITY = 65_536;
+    private static final ThreadLocal<StringBuilder> OPERATION_BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    private final int bitmap;
+    private final FieldWriter[][] fieldWriters;
+    private final FieldWriter[][] headerWriters;
+    private final FieldWriter[][] operationWriters;
+
+    @FunctionalInterface
+    private interface FieldWriter
+    {
+        void write(WireOut wire, AuditRecord auditRecord, WriteDictionary dictionary);
+    }
+
+    private AuditRecordWritePlan(int bitmap, FieldWriter[][] fieldWriters, FieldWriter[][] headerWriters, FieldWriter[][] operationWriters)
+    {
+        this.bitmap = bitmap;
+        this.fieldWriters = fieldWriters;
+        this.headerWriters = headerWriters;
+        this.operationWriters = operationWriters;
+    }
+
+    /**
+     * @param bitmap the bitmap of the fields to write
+     * @return the plan for the given bitmap
+     * @throws IllegalArgumentException if the bitmap is out of range
+     */
+    static AuditRecordWritePlan forBitmap(int bitmap)
+    {
+        if (bitmap < 0 || bitmap >= PLANS.length)
+        {
+            throw new IllegalArgumentException("Bitmap value is out of bounds");
+        }
+        return PLANS[bitmap];
+    }
+
+    int getBitmap()
+    {
+        return bitmap;
+    }
+
+    int getFieldCount()
+    {
+        return fieldWriters[0].length;
+    }
+
+    int getHeaderFieldCount()
+    {
+        return headerWriters[0].length;
+    }
+
+    int getOperationFieldCount()
+    {
+        return operationWriters[0].length;
+    }
+
+    /**
+     * Write the selected fields of a record.
+     *
+     * @param format      the record format
+     * @param wire        the wire to write to
+     * @param auditRecord the record to write
+     * @param dictionary  the dictionary of the roll cycle, only used by the {@link RecordFormat#COMPACT} format
+     */
+    void write(RecordFormat format, WireOut wire, AuditRecord auditRecord, WriteDictionary dictionary)
+    {
+        writeAll(fieldWriters[format.ordinal()], wire, auditRecord, dictionary);
+    }
+
+    /**
+     * Write the selected fields of a record, except the operation fields.
+     *
+     * @param format      the record format
+     * @param wire        the wire to write to
+     * @param auditRecord the record to write
+     * @param dictionary  the dictionary of the roll cycle, only used by the {@link RecordFormat#COMPACT} format
+     */
+    void writeHeader(RecordFormat format, WireOut wire, AuditRecord auditRecord, WriteDictionary dictionary)
+    {
+        writeAll(headerWriters[format.ordinal()], wire, auditRecord, dictionary);
+    }
+
+    /**
+     * Write the selected operation fields of a record.
+     *
+     * @param format      the record format
+     * @param wire        the wire to write to
+     * @param auditRecord the record to write
+     * @param dictionary  the dictionary of the roll cycle, only used by the {@link RecordFormat#COMPACT} format
+     */
+    void writeOperation(RecordFormat format, WireOut wire, AuditRecord auditRecord, WriteDictionary dictionary)
+    {
+        writeAll(operationWriters[format.ordinal()], wire, auditRecord, dictionary);
+    }
+
+    private static void writeAll(FieldWriter[] writers, WireOut wire, AuditRecord auditRecord, WriteDictionary dictionary)
+    {
+        for (FieldWriter fieldWriter : writers)
+        {
+            fieldWriter.write(wire, auditRecord, dictionary);
+        }
+    }
+
+    private static AuditRecordWritePlan[] createPlans()
+    {
+        AuditRecordWritePlan[] plans = new AuditRecordWritePlan[1 << Field.values().length];
+        for (int bitmap = 0; bitmap < plans.length; bitmap++)
+        {
+            plans[bitmap] = new AuditRecordWritePlan(bitmap,
+                                                     fieldWritersOf(bitmap, field -> true),
+                                                     fieldWritersOf(bitmap, field -> !isOperationField(field)),
+                                                     fieldWritersOf(bitmap, AuditRecordWritePlan::isOperationField));
+        }
+        return plans;
+    }
+
+    private static FieldWriter[][] fieldWritersOf(int selection, Predicate<Field> predicate)
+    {
+        FieldWriter[][] writers = new FieldWriter[RecordFormat.values().length][];
+        for (RecordFormat format : RecordFormat.values())
+        {
+            writers[format.ordinal()] = Arrays.stream(WIRE_ORDER)
+                                              .filter(field -> (selection & field.getBit()) != 0)
+                                              .filter(predicate)
+                                              .map(field -> fieldWriterOf(format, field))
+                                              .toArray(FieldWriter[]::new);
+        }
+        return writers;
+    }
+
+    private static boolean isOperationField(Field field)
+    {
+        return field == Field.OPERATION || field == Field.OPERATION_NAKED;
+    }
+
+    /**
+     * Render the operation into a reused buffer. The wire needs the full length of the text up front, so the
+     * operation can not be streamed straight into it, but rendering bound values this way avoids an intermediate
+     * string per record.
+     */
+    private static StringBuilder renderOperation(AuditRecord record)
+    {
+        StringBuilder builder = OPERATION_BUFFERS.get();
+        if (builder.capacity() > MAX_REUSED_BUFFER_CAPACITY)
+        {
+            builder = new StringBuilder(INITIAL_BUFFER_CAPACITY);
+            OPERATION_BUFFERS.set(builder);
+        }
+
+        builder.setLength(0);
+        record.getOperation().appendOperationTo(builder);
+        return builder;
+    }
+
+    private static FieldWriter fieldWriterOf(RecordFormat format, Field field)
+    {
+        if (format == RecordFormat.COMPACT)
+        {
+            return compactFieldWriterOf(field);
+        }
+        return fieldWriterOf(field);
+    }
+
+    private static FieldWriter fieldWriterOf(Field field)
+    {
+        switch (field)
+        {
+            case TIMESTAMP:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_TIMESTAMP).int64(record.getTimestamp());
+            case CLIENT_IP:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_CLIENT_IP).bytes(record.getClientAddress().getAddress().getAddress());
+            case CLIENT_PORT:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_CLIENT_PORT).int32(record.getClientAddress().getPort());
+            case COORDINATOR_IP:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_COORDINATOR_IP).bytes(record.getCoordinatorAddress().getAddress());
+            case USER:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_USER).text(record.getUser());
+            case BATCH_ID:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_BATCH_ID).uuid(record.getBatchId().get());
+            case STATUS:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_STATUS).text(record.getStatus().name());
+            case OPERATION:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_OPERATION).text(renderOperation(record));
+            case OPERATION_NAKED:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_NAKED_OPERATION).text(record.getOperation().getNakedOperationString());
+            case SUBJECT:
+                return (wire, record, dictionary) -> wire.write(WireTags.KEY_SUBJECT).text(record.getSubject().get());
+            default:
+                throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+
+    private static FieldWriter compactFieldWriterOf(Field field)
+    {
+        switch (field)
+        {
+            case USER:
+                return (wire, record, dictionary) -> writeCompactText(wire.bytes(), field, record.getUser(), dictionary);
+            case OPERATION:
+                return (wire, record, dictionary) -> writeCompactOperation(wire.bytes(), record, dictionary);
+            case OPERATION_NAKED:
+                return (wire, record, dictionary) -> writeCompactText(wire.bytes(), field, record.getOperation().getNakedOperationString(), dictionary);
+            default:
+                FieldWriter valueWriter = compactValueWriterOf(field);
+                byte fieldId = (byte) CompactWireFormat.fieldId(field);
+                return (wire, record, dictionary) ->
+                {
+                    wire.bytes().writeByte(fieldId);
+                    valueWriter.write(wire, record, dictionary);
+                };
+        }
+    }
+
+    private static void writeCompactText(Bytes<?> bytes, Field field, String text, WriteDictionary dictionary)
+    {
+        if (dictionary.canEncode(text))
+        {
+            bytes.writeByte((byte) (CompactWireFormat.fieldId(field) | CompactWireFormat.DICTIONARY_FLAG));
+            dictionary.write(bytes, text);
+        }
+        else
+        {
+            bytes.writeByte((byte) CompactWireFormat.fieldId(field));
+            bytes.writeUtf8(text);
+        }
+    }
+
+    /**
+     * The statement of an operation, i.e. the naked operation it starts with, is encoded with the dictionary. The rest
+     * of the operation, such as the bound values of a prepared statement, is written as plain text.
+     */
+    private static void writeCompactOperation(Bytes<?> bytes, AuditRecord record, WriteDictionary dictionary)
+    {
+        StringBuilder operation = renderOperation(record);
+        String statement = record.getOperation().getNakedOperationString();
+        if (startsWith(operation, statement) && dictionary.canEncode(statement))
+        {
+            bytes.writeByte((byte) (CompactWireFormat.fieldId(Field.OPERATION) | CompactWireFormat.DICTIONARY_FLAG));
+            dictionary.write(bytes, statement);
+            operation.delete(0, statement.length());
+        }
+        else
+        {
+            bytes.writeByte((byte) CompactWireFormat.fieldId(Field.OPERATION));
+        }
+        bytes.writeUtf8(operation);
+    }
+
+    private static boolean startsWith(CharSequence text, String prefix)
+    {
+        if (text.length() < prefix.length())
+        {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++)
+        {
+            if (text.charAt(i) != prefix.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FieldWriter compactValueWriterOf(Field field)
+    {
+        switch (field)
+        {
+            case TIMESTAMP:
+                return (wire, record, dictionary) -> wire.bytes().writeStopBit(record.getTimestamp());
+            case CLIENT_IP:
+                return (wire, record, dictionary) -> CompactWireFormat.writeInetAddress(wire.bytes(), record.getClientAddress().getAddress());
+            case CLIENT_PORT:
+                return (wire, record, dictionary) -> wire.bytes().writeStopBit(record.getClientAddress().getPort());
+            case COORDINATOR_IP:
+                return (wire, record, dictionary) -> CompactWireFormat.writeInetAddress(wire.bytes(), record.getCoordinatorAddress());
+            case BATCH_ID:
+                return (wire, record, dictionary) -> CompactWireFormat.writeUuid(wire.bytes(), record.getBatchId().get());
+            case STATUS:
+                return (wire, record, dictionary) -> wire.bytes().writeByte((byte) CompactWireFormat.statusCode(record.getStatus()));
+            case SUBJECT:
+                return (wire, record, dictionary) -> wire.bytes().writeUtf8(record.getSubject().get());
+            default:
+                throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector.Field;
+import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+
+/**
+ * Encoding of the compact binary record format.
+ * <p>
+ * A compact record starts with the self-describing version field, so that any reader is able to tell the record
+ * version. The rest of the record is written as raw bytes:
+ * <pre>
+ * record type       byte, {@link #TYPE_RECORD} or {@link #TYPE_BATCH}
+ * field count       byte
+ * fields            field id byte followed by the value, for each field
+ * </pre>
+ * A compact batch continues with the operations of its records, following the fields of the shared header:
+ * <pre>
+ * operation count   stop bit encoded
+ * field count       byte, the number of operation fields of each record
+ * fields            field id byte followed by the value, for each operation field of each record
+ * </pre>
+ * Field ids are the bit positions of the fields in the {@link FieldSelector} bitmap. Timestamps and ports are stop bit
+ * encoded, addresses are prefixed by their length, text is written as length prefixed UTF-8 and status as a one byte
+ * code.
+ * <p>
+ * The user, the naked operation and the statement of the operation may be encoded with the {@link WriteDictionary} of
+ * the roll cycle. Such fields are flagged with {@link #DICTIONARY_FLAG} in their field id. The value starts with a stop
+ * bit encoded code. An odd code defines the string with id {@code code >> 1}, followed by the string itself. An even
+ * code refers to the string with id {@code code >> 1}, which has been defined earlier in the same roll cycle. A
+ * dictionary encoded operation is followed by the rest of the operation, such as the bound values, as plain text.
+ */
+final class CompactWireFormat
+{
+    static final int TYPE_RECORD = 0;
+    static final int TYPE_BATCH = 1;
+    static final int DICTIONARY_FLAG = 0x40;
+
+    private static final Field[] FIELDS_BY_ID = createFieldsById();
+
+    private static final int STATUS_ATTEMPT = 0;
+    private static final int STATUS_SUCCEEDED = 1;
+    private static final int STATUS_FAILED = 2;
+
+    private CompactWireFormat()
+    {
+        // Utility class
+    }
+
+    private static Field[] createFieldsById()
+    {
+        Field[] fields = new Field[Field.values().length];
+        for (Field field : Field.values())
+        {
+            fields[fieldId(field)] = field;
+        }
+        return fields;
+    }
+
+    /**
+     * @param field the field
+     * @return the numeric id of the field
+     */
+    static int fieldId(Field field)
+    {
+        return Integer.numberOfTrailingZeros(field.getBit());
+    }
+
+    /**
+     * @param id the numeric id of a field
+     * @return the field
+     * @throws IORuntimeException if the id is unknown
+     */
+    static Field fieldOf(int id)
+    {
+        if (id < 0 || id >= FIELDS_BY_ID.length)
+        {
+            throw new IORuntimeException("Corrupt record field id: " + id);
+        }
+        return FIELDS_BY_ID[id];
+    }
+
+    static int statusCode(Status status)
+    {
+        switch (status)
+        {
+            case ATTEMPT:
+                return STATUS_ATTEMPT;
+            case SUCCEEDED:
+                return STATUS_SUCCEEDED;
+            case FAILED:
+                return STATUS_FAILED;
+            default:
+                throw new IllegalArgumentException("Unknown status: " + status);
+        }
+    }
+
+    static Status statusOf(int code)
+    {
+        switch (code)
+        {
+            case STATUS_ATTEMPT:
+                return Status.ATTEMPT;
+            case STATUS_SUCCEEDED:
+                return Status.SUCCEEDED;
+            case STATUS_FAILED:
+                return Status.FAILED;
+            default:
+                throw new IORuntimeException("Corrupt record status field: " + code);
+        }
+    }
+
+    static long definitionCode(int id)
+    {
+        return ((long) id << 1) | 1;
+    }
+
+    static long referenceCode(int id)
+    {
+        return (long) id << 1;
+    }
+
+    /**
+     * Read a dictionary encoded string, defining the string in the dictionary if this is its definition.
+     *
+     * @param bytes      the bytes to read from
+     * @param dictionary the dictionary of the roll cycle
+     * @return the string
+     */
+    static String readDictionaryString(Bytes<?> bytes, ReadDictionary dictionary)
+    {
+        long code = bytes.readStopBit();
+        if (code < 0 || code > ((long) Integer.MAX_VALUE << 1 | 1))
+        {
+            throw new IORuntimeException("Corrupt record dictionary code: " + code);
+        }
+
+        int id = (int) (code >> 1);
+        if ((code & 1) == 0)
+        {
+            return dictionary.resolve(id);
+        }
+
+        String text = readText(bytes);
+        dictionary.define(id, text);
+        return text;
+    }
+
+    /**
+     * Read a string written with {@link Bytes#writeUtf8(CharSequence)}.
+     * <p>
+     * {@link Bytes#readUtf8()} leaves the read position in front of an empty string, so the string is read into a
+     * builder instead.
+     *
+     * @param bytes the bytes to read from
+     * @return the string
+     * @throws IORuntimeException if the string is missing
+     */
+    static String readText(Bytes<?> bytes)
+    {
+        StringBuilder builder = new StringBuilder();
+        if (!bytes.readUtf8(builder))
+        {
+            throw new IORuntimeException("Corrupt record text field");
+        }
+        return builder.toString();
+    }
+
+    static void writeInetAddress(Bytes<?> bytes, InetAddress address)
+    {
+        byte[] rawAddress = address.getAddress();
+        bytes.writeByte((byte) rawAddress.length);
+        bytes.write(rawAddress);
+    }
+
+    static InetAddress readInetAddress(Bytes<?> bytes, Field field)
+    {
+        byte[] rawAddress = new byte[bytes.readUnsignedByte()];
+        bytes.read(rawAddress);
+        try
+        {
+            return InetAddress.getByAddress(rawAddress);
+        }
+        catch (UnknownHostException e)
+        {
+            throw new IORuntimeException("Corrupt " + field + " field", e);
+        }
+    }
+
+    static void writeUuid(Bytes<?> bytes, UUID uuid)
+    {
+        bytes.writeLong(uuid.getMostSignificantBits());
+        bytes.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    static UUID readUuid(Bytes<?> bytes)
+    {
+        long mostSignificantBits = bytes.readLong();
+        return new UUID(mostSignificantBits, bytes.readLong());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+
+/**
+ * Compression of the cycle files of a Chronicle queue which have been released by the writer.
+ * <p>
+ * A cycle file is compressed with LZ4 into a file with the same name and the {@link #SUFFIX} appended, e.g.
+ * {@code 20190327-1231.cq4.lz4}. The compressed file is first written under a temporary name and then moved in place,
+ * so a compressed file is always complete. Decompressed files are written as sparse files, see {@link #isZero}.
+ */
+public final class CompressedCycleFiles
+{
+    /**
+     * The suffix of compressed cycle files, appended to the name of the cycle file.
+     */
+    public static final String SUFFIX = ".lz4";
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CompressedCycleFiles()
+    {
+        // Utility class
+    }
+
+    /**
+     * @param file the file to check
+     * @return true if the file is a compressed cycle file
+     */
+    public static boolean isCompressed(File file)
+    {
+        return file.getName().endsWith(SingleChronicleQueue.SUFFIX + SUFFIX);
+    }
+
+    /**
+     * @param file the file to check
+     * @return true if the file is a plain or a compressed cycle file
+     */
+    public static boolean isCycleFile(File file)
+    {
+        return file.getName().endsWith(SingleChronicleQueue.SUFFIX) || isCompressed(file);
+    }
+
+    /**
+     * @param file a plain cycle file
+     * @return the compressed cycle file of the plain cycle file
+     */
+    public static File compressedFileOf(File file)
+    {
+        return new File(file.getPath() + SUFFIX);
+    }
+
+    /**
+     * @param compressedFile a compressed cycle file
+     * @return the name of the plain cycle file of the compressed cycle file
+     */
+    public static String plainNameOf(File compressedFile)
+    {
+        String name = compressedFile.getName();
+        return name.substring(0, name.length() - SUFFIX.length());
+    }
+
+    /**
+     * Compress a cycle file. The plain cycle file is left in place.
+     *
+     * @param file the plain cycle file to compress
+     * @return the compressed cycle file
+     * @throws IOException if the cycle file could not be read, or the compressed file could not be written
+     */
+    public static File compress(File file) throws IOException
+    {
+        File compressedFile = compressedFileOf(file);
+        File temporaryFile = new File(compressedFile.getPath() + TEMPORARY_SUFFIX);
+        try (InputStream in = Files.newInputStream(file.toPath());
+             OutputStream out = new LZ4BlockOutputStream(Files.newOutputStream(temporaryFile.toPath()), BUFFER_SIZE))
+        {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read = in.read(buffer);
+            while (read != -1)
+            {
+                out.write(buffer, 0, read);
+                read = in.read(buffer);
+            }
+        }
+        catch (IOException e)
+        {
+            Files.deleteIfExists(temporaryFile.toPath());
+            throw e;
+        }
+
+        Files.move(temporaryFile.toPath(), compressedFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return compressedFile;
+    }
+
+    /**
+     * Decompress a compressed cycle file.
+     *
+     * @param compressedFile the compressed cycle file
+     * @param targetFile     the plain cycle file to write
+     * @throws IOException if the compressed file could not be read, or the plain file could not be written
+     */
+    public static void decompress(File compressedFile, File targetFile) throws IOException
+    {
+        try (InputStream in = new LZ4BlockInputStream(Files.newInputStream(compressedFile.toPath()));
+             RandomAccessFile out = new RandomAccessFile(targetFile, "rw"))
+        {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long position = 0;
+            int read = in.read(buffer);
+            while (read != -1)
+            {
+                // Leave holes where the cycle file was never written to
+                if (!isZero(buffer, read))
+                {
+                    out.seek(position);
+                    out.write(buffer, 0, read);
+                }
+                position += read;
+                read = in.read(buffer);
+            }
+            out.setLength(position);
+        }
+    }
+
+    /**
+     * Cycle files are sparse and mostly zeroes at the end. Chunks of zeroes are left as holes when a cycle file is
+     * written, so that the written file is sparse as well.
+     *
+     * @param buffer the chunk to check
+     * @param length the length of the chunk in the buffer
+     * @return true if the chunk holds zeroes only
+     */
+    public static boolean isZero(byte[] buffer, int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (buffer[i] != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -32,18 +32,27 @@ final class FieldFilterFlavorAdapter
 
     static FieldSelector getFieldsAvailableInRecord(AuditRecord auditRecord, FieldSelector configuredFields)
     {
-        FieldSelector fields = configuredFields;
+        return FieldSelector.fromBitmap(getFieldsAvailableInRecord(auditRecord, configuredFields.getBitmap()));
+    }
+
+    /**
+     * Same as {@link #getFieldsAvailableInRecord(AuditRecord, FieldSelector)} but operating on the bitmap
+     * representation of the fields, avoiding intermediate field selector instances.
+     */
+    static int getFieldsAvailableInRecord(AuditRecord auditRecord, int configuredBitmap)
+    {
+        int bitmap = configuredBitmap;
 
         if (!auditRecord.getBatchId().isPresent())
         {
-            fields = fields.withoutField(FieldSelector.Field.BATCH_ID);
+            bitmap &= ~FieldSelector.Field.BATCH_ID.getBit();
         }
 
         if (!auditRecord.getSubject().isPresent())
         {
-            fields = fields.withoutField(FieldSelector.Field.SUBJECT);
+            bitmap &= ~FieldSelector.Field.SUBJECT.getBit();
         }
 
-        return fields;
+        return bitmap;
     }
 }
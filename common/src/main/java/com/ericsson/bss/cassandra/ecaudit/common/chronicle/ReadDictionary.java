@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.openhft.chronicle.core.io.IORuntimeException;
+
+/**
+ * A dictionary of the strings read from a roll cycle of the {@link RecordFormat#COMPACT} format.
+ * <p>
+ * Strings are defined as they are read from the records of a roll cycle. Readers which read several roll cycles, or
+ * which start reading in the middle of a roll cycle, are expected to extend this class and to keep the definitions of
+ * the roll cycle currently being read.
+ */
+public class ReadDictionary
+{
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * Define a string.
+     *
+     * @param id   the id of the string
+     * @param text the string
+     */
+    public void define(int id, String text)
+    {
+        while (strings.size() <= id)
+        {
+            strings.add(null);
+        }
+        strings.set(id, text);
+    }
+
+    /**
+     * Resolve a string.
+     *
+     * @param id the id of the string
+     * @return the string
+     * @throws IORuntimeException if the string is not defined
+     */
+    public String resolve(int id)
+    {
+        String text = id < strings.size() ? strings.get(id) : null;
+        if (text == null)
+        {
+            throw new IORuntimeException("Unknown dictionary id: " + id);
+        }
+        return text;
+    }
+
+    /**
+     * Forget all strings.
+     */
+    public void clear()
+    {
+        strings.clear();
+    }
+}
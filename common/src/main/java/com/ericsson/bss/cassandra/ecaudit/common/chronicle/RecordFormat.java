@@ -0,0 +1,32 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+/**
+ * The record formats which audit records may be written in.
+ */
+public enum RecordFormat
+{
+    /**
+     * Self-describing records where each field is written with its name, as written by default.
+     */
+    BITMAPPED,
+    /**
+     * Compact binary records with numeric field ids and variable length integers. Can only be read by ecAudit 3.1.0
+     * or later.
+     */
+    COMPACT
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import net.openhft.chronicle.bytes.Bytes;
+
+/**
+ * A dictionary of the strings written to a roll cycle of the {@link RecordFormat#COMPACT} format.
+ * <p>
+ * The first time a string is written in a roll cycle it is defined in the record, together with its id. Subsequent
+ * records in the same roll cycle only refer to the id. The dictionary is cleared whenever the roll cycle changes, so
+ * that each log file can be read on its own. When the dictionary is full, strings are written as they are.
+ * <p>
+ * This class is not thread safe and is intended to be used by the writer thread only.
+ */
+public final class WriteDictionary
+{
+    private static final WriteDictionary DISABLED = new WriteDictionary(0);
+
+    private final int maxEntries;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private int cycle = Integer.MIN_VALUE;
+
+    /**
+     * Create a new dictionary.
+     *
+     * @param maxEntries the maximum number of strings per roll cycle, the dictionary is disabled if zero or less
+     */
+    public WriteDictionary(int maxEntries)
+    {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return a dictionary which never encodes anything
+     */
+    public static WriteDictionary disabled()
+    {
+        return DISABLED;
+    }
+
+    /**
+     * @return {@code true} if strings may be encoded with this dictionary, {@code false} otherwise
+     */
+    public boolean isEnabled()
+    {
+        return maxEntries > 0;
+    }
+
+    /**
+     * Prepare the dictionary for writing a record to the given roll cycle. All strings are forgotten if the roll
+     * cycle has changed.
+     *
+     * @param rollCycle the roll cycle of the record about to be written
+     */
+    public void useCycle(int rollCycle)
+    {
+        if (isEnabled() && rollCycle != cycle)
+        {
+            ids.clear();
+            cycle = rollCycle;
+        }
+    }
+
+    /**
+     * Forget all strings of the current roll cycle. Used when a record could not be written, since the definitions
+     * of that record never reached the log.
+     */
+    public void reset()
+    {
+        ids.clear();
+    }
+
+    /**
+     * @param text the string to encode
+     * @return {@code true} if the string is or can be defined in the dictionary, {@code false} otherwise
+     */
+    boolean canEncode(String text)
+    {
+        return isEnabled() && (ids.size() < maxEntries || ids.containsKey(text));
+    }
+
+    /**
+     * Write a reference to a string, defining the string first if it is not already in the dictionary. The string
+     * must be encodable as told by {@link #canEncode(String)}.
+     *
+     * @param bytes the bytes to write to
+     * @param text  the string to write
+     */
+    void write(Bytes<?> bytes, String text)
+    {
+        Integer id = ids.get(text);
+        if (id == null)
+        {
+            int newId = ids.size();
+            ids.put(text, newId);
+            bytes.writeStopBit(CompactWireFormat.definitionCode(newId));
+            bytes.writeUtf8(text);
+        }
+        else
+        {
+            bytes.writeStopBit(CompactWireFormat.referenceCode(id));
+        }
+    }
+
+    @VisibleForTesting
+    int size()
+    {
+        return ids.size();
+    }
+}
@@ -16,6 +16,7 @@
 package com.ericsson.bss.cassandra.ecaudit.common.formatter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -23,18 +24,15 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Log message formatter that transforms parameterized log message into a formatting string and its corresponding arguments.
+ * Log message formatter that transforms parameterized log message into a formatted log message.
  * <p>
  * The format for a field is {@code ${<Field Name>}}. With a formatting string like this: {@code "${USER} executed '${OPERATION}' from ${CLIENT_IP}"}
- * and the anchor string {@code "{}"}. {@link #getLogTemplate()} will generated a log template like this:
- * <ul>
- * <li>"{} executed '{}' from {}"</li>
- * </ul>
- * {@link #getArgumentsForEntry(Object)} creates the arguments for a given log entry. The template and arguments together
- * will let a logger (e.g. Slf4J {@code Logger.info(template, arguments)}) create a log message like this:
+ * {@link #format(Object)} will create a log message like this:
  * <ul>
  * <li>"Duke executed 'select * from students;' from 1.2.3.4"</li>
  * </ul>
+ * The formatting string is compiled once into literal segments and field appenders which write directly into a
+ * reusable {@link StringBuilder}.
  * <p>
  * Conditional formatting of fields is also available, which makes it possible to only log the field value and
  * its descriptive text if a value exists. The formatting string {@code "user:${USER}, client:${CLIENT_IP}{?, executed from batch:${BATCH_ID}?}"}
@@ -43,6 +41,10 @@ import java.util.regex.Pattern;
  * <li>"user:Duke, client:1.2.3.4, executed from batch:e501f872-9aab-4f6b-9a52-8ed2f67b1320"</li>
  * <li>"user:Duke, client:1.2.3.4"</li>
  * </ul>
+ * <p>
+ * Optionally, with an anchor string like {@code "{}"}, {@link #getLogTemplate()} and {@link #getArgumentsForEntry(Object)}
+ * provide a log template like {@code "{} executed '{}' from {}"} and its corresponding arguments, to be formatted by
+ * a logger (e.g. Slf4J {@code Logger.info(template, arguments)}).
  *
  * @param <T> The type of log entries the log message formatter should operate on.
  */
@@ -53,19 +55,151 @@ public class LogMessageFormatter<T>
     private static final String COMBINED_FIELDS_EXP = FIELD_EXP + '|' + OPTIONAL_FIELD_EXP;
     private static final Pattern FIELD_PATTERN = Pattern.compile(COMBINED_FIELDS_EXP);
 
+    private static final int INITIAL_BUFFER_CAPACITY = 256;
+    private static final int MAX_REUSED_BUFFER_CAPACITY = 65_536;
+
     private final String logTemplate;
     private final List<Function<T, String>> configuredFieldFunctions;
+    private final Segment<T>[] segments;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    /**
+     * Appends the value of a field directly to a log message.
+     *
+     * @param <T> The type of log entries the field appender operates on.
+     */
+    @FunctionalInterface
+    public interface FieldAppender<T>
+    {
+        /**
+         * @param builder  the builder to append the field value to
+         * @param logEntry the log entry to get the field value from
+         * @return {@code true} if a value was appended, {@code false} if the field has no value
+         */
+        boolean appendTo(StringBuilder builder, T logEntry);
+    }
+
+    /**
+     * A compiled part of the formatting string.
+     */
+    @FunctionalInterface
+    private interface Segment<T>
+    {
+        void appendTo(StringBuilder builder, T logEntry);
+    }
 
     private LogMessageFormatter(Builder<T> builder)
     {
-        logTemplate = getTemplateFromFormatString(builder);
-        configuredFieldFunctions = getConfiguredFieldFunctions(builder);
+        logTemplate = builder.anchor == null ? null : getTemplateFromFormatString(builder);
+        configuredFieldFunctions = builder.anchor == null ? Collections.emptyList() : getConfiguredFieldFunctions(builder);
+        segments = compileSegments(builder);
     }
 
     private static String getTemplateFromFormatString(Builder builder)
     {
-        return builder.format.replaceAll(builder.escapeExpr, builder.escapeWith)
-                             .replaceAll(COMBINED_FIELDS_EXP, builder.anchor);
+        String format = builder.escapeExpr == null
+                        ? builder.format
+                        : builder.format.replaceAll(builder.escapeExpr, builder.escapeWith);
+        return format.replaceAll(COMBINED_FIELDS_EXP, builder.anchor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Segment<T>[] compileSegments(Builder<T> builder)
+    {
+        List<Segment<T>> compiled = new ArrayList<>();
+        Matcher matcher = FIELD_PATTERN.matcher(builder.format);
+        int literalStart = 0;
+        while (matcher.find())
+        {
+            addLiteralSegment(compiled, builder.format.substring(literalStart, matcher.start()));
+            literalStart = matcher.end();
+
+            String normalField = matcher.group(1);
+            if (normalField == null) // Optional field
+            {
+                String descriptionLeft = matcher.group(2);
+                FieldAppender<T> fieldAppender = getFieldAppenderOrThrow(matcher.group(3), builder);
+                String descriptionRight = matcher.group(4);
+                compiled.add((stringBuilder, logEntry) -> appendOptional(stringBuilder, descriptionLeft, fieldAppender, logEntry, descriptionRight));
+            }
+            else // Normal field
+            {
+                FieldAppender<T> fieldAppender = getFieldAppenderOrThrow(normalField, builder);
+                compiled.add((stringBuilder, logEntry) -> appendField(stringBuilder, fieldAppender, logEntry));
+            }
+        }
+        addLiteralSegment(compiled, builder.format.substring(literalStart));
+        return compiled.toArray(new Segment[0]);
+    }
+
+    private static <T> void addLiteralSegment(List<Segment<T>> compiled, String literal)
+    {
+        if (!literal.isEmpty())
+        {
+            compiled.add((stringBuilder, logEntry) -> stringBuilder.append(literal));
+        }
+    }
+
+    private static <T> FieldAppender<T> getFieldAppenderOrThrow(String field, Builder<T> builder)
+    {
+        FieldAppender<T> fieldAppender = builder.fieldAppenders.get(field);
+        if (fieldAppender != null)
+        {
+            return fieldAppender;
+        }
+
+        Function<T, Object> fieldFunction = getFieldFunctionOrThrow(field, builder);
+        return (stringBuilder, logEntry) -> {
+            Object value = fieldFunction.apply(logEntry);
+            if (value == null)
+            {
+                return false;
+            }
+            appendValue(stringBuilder, value);
+            return true;
+        };
+    }
+
+    private static <T> void appendField(StringBuilder builder, FieldAppender<T> fieldAppender, T logEntry)
+    {
+        if (!fieldAppender.appendTo(builder, logEntry))
+        {
+            builder.append((Object) null);
+        }
+    }
+
+    private static <T> void appendOptional(StringBuilder builder, String descriptionLeft, FieldAppender<T> fieldAppender, T logEntry, String descriptionRight)
+    {
+        int mark = builder.length();
+        builder.append(descriptionLeft);
+        if (fieldAppender.appendTo(builder, logEntry))
+        {
+            builder.append(descriptionRight);
+        }
+        else
+        {
+            builder.setLength(mark);
+        }
+    }
+
+    private static void appendValue(StringBuilder builder, Object value)
+    {
+        if (value instanceof CharSequence)
+        {
+            builder.append((CharSequence) value);
+        }
+        else if (value instanceof Integer)
+        {
+            builder.append(((Integer) value).intValue());
+        }
+        else if (value instanceof Long)
+        {
+            builder.append(((Long) value).longValue());
+        }
+        else
+        {
+            builder.append(value);
+        }
     }
 
     private static <T> List<Function<T, String>> getConfiguredFieldFunctions(Builder<T> builder)
@@ -106,6 +240,43 @@ public class LogMessageFormatter<T>
         return value -> value == null ? "" : descriptionLeft + value + descriptionRight;
     }
 
+    /**
+     * Format a log entry.
+     *
+     * @param logEntry the log entry to format
+     * @return the formatted log message
+     */
+    public String format(T logEntry)
+    {
+        StringBuilder builder = buffers.get();
+        if (builder.capacity() > MAX_REUSED_BUFFER_CAPACITY)
+        {
+            builder = new StringBuilder(INITIAL_BUFFER_CAPACITY);
+            buffers.set(builder);
+        }
+
+        builder.setLength(0);
+        formatTo(builder, logEntry);
+        return builder.toString();
+    }
+
+    /**
+     * Format a log entry by appending it to the provided builder.
+     *
+     * @param builder  the builder to append the log message to
+     * @param logEntry the log entry to format
+     */
+    public void formatTo(StringBuilder builder, T logEntry)
+    {
+        for (Segment<T> segment : segments)
+        {
+            segment.appendTo(builder, logEntry);
+        }
+    }
+
+    /**
+     * @return the log template, or {@code null} if no anchor has been configured
+     */
     public String getLogTemplate()
     {
         return logTemplate;
@@ -130,6 +301,7 @@ public class LogMessageFormatter<T>
         private String escapeExpr;
         private String escapeWith;
         private Map<String, Function<T, Object>> availableFields;
+        private Map<String, FieldAppender<T>> fieldAppenders = Collections.emptyMap();
 
         public LogMessageFormatter<T> build()
         {
@@ -160,5 +332,18 @@ public class LogMessageFormatter<T>
             this.availableFields = availableFields;
             return this;
         }
+
+        /**
+         * Fields which are appended directly to the log message by {@link #format(Object)} and
+         * {@link #formatTo(StringBuilder, Object)}, taking precedence over the available field functions.
+         *
+         * @param fieldAppenders the field appenders by field name
+         * @return this builder
+         */
+        public Builder<T> fieldAppenders(Map<String, FieldAppender<T>> fieldAppenders)
+        {
+            this.fieldAppenders = fieldAppenders;
+            return this;
+        }
     }
 }
@@ -29,6 +29,19 @@ public interface AuditOperation
      */
     String getOperationString();
 
+    /**
+     * Append the operation string for this operation to the given builder.
+     * <p>
+     * Implementations which derive the operation string, e.g. by binding values, may render it directly into the
+     * builder without creating an intermediate string.
+     *
+     * @param builder the builder to append the operation to
+     */
+    default void appendOperationTo(StringBuilder builder)
+    {
+        builder.append(getOperationString());
+    }
+
     /**
      * Provide the operation string for this operation without bound values being appended. This applies to
      * prepared statement operations.
@@ -118,6 +118,21 @@ public class StoredAuditRecord
         private Long timestamp;
         private String subject;
 
+        public Builder basedOn(StoredAuditRecord record)
+        {
+            this.clientAddress = record.clientAddress;
+            this.clientPort = record.clientPort;
+            this.coordinatorAddress = record.coordinatorAddress;
+            this.user = record.user;
+            this.batchId = record.batchId;
+            this.status = record.status;
+            this.operation = record.operation;
+            this.nakedOperation = record.nakedOperation;
+            this.timestamp = record.timestamp;
+            this.subject = record.subject;
+            return this;
+        }
+
         public Builder withClientAddress(InetAddress clientAddress)
         {
             this.clientAddress = clientAddress;
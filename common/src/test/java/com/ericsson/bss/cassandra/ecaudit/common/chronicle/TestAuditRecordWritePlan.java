@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector.Field;
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditRecord;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditRecord;
+import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
+import net.openhft.chronicle.wire.ValueOut;
+import net.openhft.chronicle.wire.WireOut;
+import org.mockito.InOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link AuditRecordWritePlan} class.
+ */
+public class TestAuditRecordWritePlan
+{
+    @Test
+    public void testPlanIsSharedPerBitmap()
+    {
+        int bitmap = FieldSelector.DEFAULT_FIELDS.getBitmap();
+
+        assertThat(AuditRecordWritePlan.forBitmap(bitmap)).isSameAs(AuditRecordWritePlan.forBitmap(bitmap));
+        assertThat(AuditRecordWritePlan.forBitmap(bitmap).getBitmap()).isEqualTo(bitmap);
+    }
+
+    @Test
+    public void testPlanContainsSelectedFieldsOnly()
+    {
+        assertThat(AuditRecordWritePlan.forBitmap(FieldSelector.NO_FIELDS.getBitmap()).getFieldCount()).isEqualTo(0);
+        assertThat(AuditRecordWritePlan.forBitmap(FieldSelector.DEFAULT_FIELDS.getBitmap()).getFieldCount()).isEqualTo(8);
+        assertThat(AuditRecordWritePlan.forBitmap(FieldSelector.ALL_FIELDS.getBitmap()).getFieldCount()).isEqualTo(Field.values().length);
+    }
+
+    @Test
+    public void testInvalidBitmap()
+    {
+        assertThatIllegalArgumentException().isThrownBy(() -> AuditRecordWritePlan.forBitmap(-1));
+        assertThatIllegalArgumentException().isThrownBy(() -> AuditRecordWritePlan.forBitmap(1 << Field.values().length));
+    }
+
+    @Test
+    public void testFieldsAreWrittenInWireOrder() throws Exception
+    {
+        UUID batchId = UUID.randomUUID();
+        AuditRecord record = SimpleAuditRecord.builder()
+                                              .withTimestamp(42L)
+                                              .withClientAddress(new InetSocketAddress(InetAddress.getByName("1.2.3.4"), 555))
+                                              .withCoordinatorAddress(InetAddress.getByName("5.6.7.8"))
+                                              .withUser("user")
+                                              .withBatchId(batchId)
+                                              .withStatus(Status.FAILED)
+                                              .withOperation(new SimpleAuditOperation("operation"))
+                                              .withSubject("subject")
+                                              .build();
+        WireOut wire = mock(WireOut.class);
+        ValueOut value = mock(ValueOut.class);
+        when(wire.write(anyString())).thenReturn(value);
+
+        AuditRecordWritePlan.forBitmap(FieldSelector.ALL_FIELDS.getBitmap()).write(RecordFormat.BITMAPPED, wire, record, WriteDictionary.disabled());
+
+        InOrder inOrder = inOrder(wire, value);
+        inOrder.verify(wire).write(WireTags.KEY_TIMESTAMP);
+        inOrder.verify(value).int64(42L);
+        inOrder.verify(wire).write(WireTags.KEY_CLIENT_IP);
+        inOrder.verify(value).bytes(InetAddress.getByName("1.2.3.4").getAddress());
+        inOrder.verify(wire).write(WireTags.KEY_CLIENT_PORT);
+        inOrder.verify(value).int32(555);
+        inOrder.verify(wire).write(WireTags.KEY_COORDINATOR_IP);
+        inOrder.verify(value).bytes(InetAddress.getByName("5.6.7.8").getAddress());
+        inOrder.verify(wire).write(WireTags.KEY_USER);
+        inOrder.verify(value).text("user");
+        inOrder.verify(wire).write(WireTags.KEY_BATCH_ID);
+        inOrder.verify(value).uuid(batchId);
+        inOrder.verify(wire).write(WireTags.KEY_STATUS);
+        inOrder.verify(value).text("FAILED");
+        inOrder.verify(wire).write(WireTags.KEY_OPERATION);
+        inOrder.verify(value).text(textEq("operation"));
+        inOrder.verify(wire).write(WireTags.KEY_NAKED_OPERATION);
+        inOrder.verify(value).text("operation");
+        inOrder.verify(wire).write(WireTags.KEY_SUBJECT);
+        inOrder.verify(value).text("subject");
+        verifyNoMoreInteractions(wire, value);
+    }
+
+    private static CharSequence textEq(String expected)
+    {
+        return argThat(text -> text != null && expected.contentEquals(text));
+    }
+}
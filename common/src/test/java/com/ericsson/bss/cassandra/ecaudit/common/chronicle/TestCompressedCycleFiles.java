@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class TestCompressedCycleFiles
+{
+    private static final int FILE_SIZE = 1024 * 1024;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCompressAndDecompress() throws IOException
+    {
+        File file = givenCycleFile("20190327-1231.cq4");
+        byte[] expectedContent = Files.readAllBytes(file.toPath());
+
+        File compressedFile = CompressedCycleFiles.compress(file);
+        File decompressedFile = new File(temporaryFolder.newFolder(), CompressedCycleFiles.plainNameOf(compressedFile));
+        CompressedCycleFiles.decompress(compressedFile, decompressedFile);
+
+        assertThat(compressedFile.getName()).isEqualTo("20190327-1231.cq4.lz4");
+        assertThat(file).exists();
+        assertThat(decompressedFile.getName()).isEqualTo("20190327-1231.cq4");
+        assertThat(Files.readAllBytes(decompressedFile.toPath())).isEqualTo(expectedContent);
+    }
+
+    @Test
+    public void testCompressedFileIsSmall() throws IOException
+    {
+        File file = givenCycleFile("20190327-1231.cq4");
+
+        File compressedFile = CompressedCycleFiles.compress(file);
+
+        assertThat(compressedFile.length()).isLessThan(file.length() / 20);
+    }
+
+    @Test
+    public void testCompressReplacesExistingCompressedFile() throws IOException
+    {
+        File file = givenCycleFile("20190327-1231.cq4");
+        Files.write(CompressedCycleFiles.compressedFileOf(file).toPath(), new byte[10]);
+
+        File compressedFile = CompressedCycleFiles.compress(file);
+
+        assertThat(compressedFile.length()).isGreaterThan(10);
+        assertThat(temporaryFolder.getRoot().list()).containsExactlyInAnyOrder("20190327-1231.cq4", "20190327-1231.cq4.lz4");
+    }
+
+    @Test
+    public void testCompressMissingFile()
+    {
+        File file = new File(temporaryFolder.getRoot(), "20190327-1231.cq4");
+
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> CompressedCycleFiles.compress(file));
+        assertThat(temporaryFolder.getRoot().list()).isEmpty();
+    }
+
+    @Test
+    public void testCycleFileNames()
+    {
+        assertThat(CompressedCycleFiles.isCycleFile(new File("20190327-1231.cq4"))).isTrue();
+        assertThat(CompressedCycleFiles.isCycleFile(new File("20190327-1231.cq4.lz4"))).isTrue();
+        assertThat(CompressedCycleFiles.isCycleFile(new File("20190327-1231.cq4.lz4.tmp"))).isFalse();
+        assertThat(CompressedCycleFiles.isCycleFile(new File("metadata.cq4t"))).isFalse();
+        assertThat(CompressedCycleFiles.isCompressed(new File("20190327-1231.cq4"))).isFalse();
+        assertThat(CompressedCycleFiles.isCompressed(new File("20190327-1231.cq4.lz4"))).isTrue();
+    }
+
+    private File givenCycleFile(String name) throws IOException
+    {
+        File file = temporaryFolder.newFile(name);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"))
+        {
+            randomAccessFile.setLength(FILE_SIZE);
+            for (int i = 0; i < 100; i++)
+            {
+                randomAccessFile.write(("INSERT INTO ks.tbl (key, value) VALUES (?, ?)['key" + i + "', " + i + "]").getBytes(StandardCharsets.UTF_8));
+            }
+            randomAccessFile.seek(FILE_SIZE / 2);
+            randomAccessFile.write("in the middle".getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+}
@@ -36,4 +36,17 @@ public class TestFieldFilterFlavorAdapter
         assertThat(fields.isSelected(FieldSelector.Field.BATCH_ID)).isFalse();
         assertThat(fields.isSelected(FieldSelector.Field.SUBJECT)).isFalse();
     }
+
+    @Test
+    public void testGetBitmapAvailableInRecord()
+    {
+        AuditRecord recordWithoutOptionals = SimpleAuditRecord.builder().build();
+        int expectedBitmap = FieldSelector.ALL_FIELDS.withoutField(FieldSelector.Field.BATCH_ID)
+                                                     .withoutField(FieldSelector.Field.SUBJECT)
+                                                     .getBitmap();
+
+        int bitmap = FieldFilterFlavorAdapter.getFieldsAvailableInRecord(recordWithoutOptionals, FieldSelector.ALL_FIELDS.getBitmap());
+
+        assertThat(bitmap).isEqualTo(expectedBitmap);
+    }
 }
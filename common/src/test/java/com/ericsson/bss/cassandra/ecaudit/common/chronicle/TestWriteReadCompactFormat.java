@@ -0,0 +1,368 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditRecord;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditRecord;
+import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
+import com.ericsson.bss.cassandra.ecaudit.common.record.StoredAuditRecord;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.ChronicleQueueBuilder;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import net.openhft.chronicle.wire.WriteMarshallable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests writing and reading records in the {@link RecordFormat#COMPACT} format.
+ */
+public class TestWriteReadCompactFormat
+{
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ChronicleQueue chronicleQueue;
+
+    @Before
+    public void before()
+    {
+        chronicleQueue = ChronicleQueueBuilder.single(temporaryFolder.getRoot()).blockSize(1024).build();
+    }
+
+    @After
+    public void after()
+    {
+        chronicleQueue.close();
+    }
+
+    @Test
+    public void writeReadAllFields() throws Exception
+    {
+        AuditRecord expectedAuditRecord = likeGenericRecord().withClientAddress(new InetSocketAddress(InetAddress.getByName("::1"), 65_535))
+                                                             .withBatchId(UUID.randomUUID())
+                                                             .withSubject("bob-the-subject")
+                                                             .build();
+
+        writeToChronicle(new AuditRecordWriteMarshallable(expectedAuditRecord, FieldSelector.ALL_FIELDS, RecordFormat.COMPACT));
+
+        List<StoredAuditRecord> actualAuditRecords = readFromChronicle();
+
+        assertThat(actualAuditRecords).hasSize(1);
+        assertThatRecordsMatch(actualAuditRecords.get(0), expectedAuditRecord);
+        assertThat(actualAuditRecords.get(0).getNakedOperation()).contains("SELECT SOMETHING");
+    }
+
+    @Test
+    public void writeReadEmptyText() throws Exception
+    {
+        AuditRecord expectedAuditRecord = likeGenericRecord().withUser("")
+                                                             .withSubject("")
+                                                             .build();
+
+        writeToChronicle(new AuditRecordWriteMarshallable(expectedAuditRecord, FieldSelector.ALL_FIELDS, RecordFormat.COMPACT));
+
+        List<StoredAuditRecord> actualAuditRecords = readFromChronicle();
+
+        assertThat(actualAuditRecords).hasSize(1);
+        assertThatRecordsMatch(actualAuditRecords.get(0), expectedAuditRecord);
+    }
+
+    @Test
+    public void writeReadStatuses() throws Exception
+    {
+        for (Status status : Status.values())
+        {
+            writeToChronicle(new AuditRecordWriteMarshallable(likeGenericRecord().withStatus(status).build(), FieldSelector.DEFAULT_FIELDS, RecordFormat.COMPACT));
+        }
+
+        ExcerptTailer tailer = chronicleQueue.createTailer();
+        for (Status status : Status.values())
+        {
+            AuditRecordReadMarshallable readMarshallable = new AuditRecordReadMarshallable();
+            tailer.readDocument(readMarshallable);
+            assertThat(readMarshallable.getAuditRecord().getStatus()).contains(status);
+        }
+    }
+
+    @Test
+    public void writeReadNoFields() throws Exception
+    {
+        writeToChronicle(new AuditRecordWriteMarshallable(likeGenericRecord().build(), FieldSelector.NO_FIELDS, RecordFormat.COMPACT));
+
+        StoredAuditRecord actualAuditRecord = readFromChronicle().get(0);
+
+        assertThat(actualAuditRecord.getTimestamp()).isEmpty();
+        assertThat(actualAuditRecord.getOperation()).isEmpty();
+    }
+
+    @Test
+    public void writeReadBatch() throws Exception
+    {
+        List<AuditRecord> expectedAuditRecords = likeBatchRecords(3);
+        FieldSelector fields = FieldSelector.ALL_FIELDS.withoutField(FieldSelector.Field.SUBJECT);
+
+        writeToChronicle(new AuditBatchWriteMarshallable(expectedAuditRecords, fields, RecordFormat.COMPACT));
+
+        List<StoredAuditRecord> actualAuditRecords = readFromChronicle();
+
+        assertThat(actualAuditRecords).hasSize(3);
+        for (int i = 0; i < 3; i++)
+        {
+            assertThatRecordsMatch(actualAuditRecords.get(i), expectedAuditRecords.get(i));
+            assertThat(actualAuditRecords.get(i).getNakedOperation()).contains(expectedAuditRecords.get(i).getOperation().getNakedOperationString());
+        }
+    }
+
+    @Test
+    public void compactRecordIsSmallerThanBitmappedRecord() throws Exception
+    {
+        AuditRecord auditRecord = likeGenericRecord().withBatchId(UUID.randomUUID()).build();
+
+        long bitmappedSize = sizeOf(new AuditRecordWriteMarshallable(auditRecord, FieldSelector.DEFAULT_FIELDS));
+        long compactSize = sizeOf(new AuditRecordWriteMarshallable(auditRecord, FieldSelector.DEFAULT_FIELDS, RecordFormat.COMPACT));
+
+        assertThat(compactSize).isLessThan(bitmappedSize / 2);
+    }
+
+    @Test
+    public void writeReadWithDictionary() throws Exception
+    {
+        List<AuditRecord> expectedAuditRecords = likeBatchRecords(3);
+        WriteDictionary writeDictionary = givenDictionary(16);
+
+        for (AuditRecord auditRecord : expectedAuditRecords)
+        {
+            writeToChronicle(new AuditRecordWriteMarshallable(auditRecord, FieldSelector.ALL_FIELDS, RecordFormat.COMPACT, writeDictionary));
+        }
+
+        ReadDictionary readDictionary = new ReadDictionary();
+        ExcerptTailer tailer = chronicleQueue.createTailer();
+        for (AuditRecord expectedAuditRecord : expectedAuditRecords)
+        {
+            AuditRecordReadMarshallable readMarshallable = new AuditRecordReadMarshallable(readDictionary);
+            tailer.readDocument(readMarshallable);
+            assertThatRecordsMatch(readMarshallable.getAuditRecord(), expectedAuditRecord);
+            assertThat(readMarshallable.getAuditRecord().getNakedOperation()).contains(expectedAuditRecord.getOperation().getNakedOperationString());
+        }
+    }
+
+    @Test
+    public void writeReadBatchWithDictionary() throws Exception
+    {
+        List<AuditRecord> expectedAuditRecords = likeBatchRecords(3);
+
+        writeToChronicle(new AuditBatchWriteMarshallable(expectedAuditRecords, FieldSelector.DEFAULT_FIELDS, RecordFormat.COMPACT, givenDictionary(16)));
+
+        List<StoredAuditRecord> actualAuditRecords = readFromChronicle();
+
+        assertThat(actualAuditRecords).hasSize(3);
+        for (int i = 0; i < 3; i++)
+        {
+            assertThatRecordsMatch(actualAuditRecords.get(i), expectedAuditRecords.get(i));
+        }
+    }
+
+    @Test
+    public void referencedRecordIsSmallerThanDefiningRecord() throws Exception
+    {
+        AuditRecord auditRecord = likeGenericRecord().build();
+        WriteDictionary writeDictionary = givenDictionary(16);
+
+        long definingSize = sizeOf(new AuditRecordWriteMarshallable(auditRecord, FieldSelector.DEFAULT_FIELDS, RecordFormat.COMPACT, writeDictionary));
+        long referencingSize = sizeOf(new AuditRecordWriteMarshallable(auditRecord, FieldSelector.DEFAULT_FIELDS, RecordFormat.COMPACT, writeDictionary));
+
+        assertThat(referencingSize).isLessThan(definingSize - "SELECT SOMETHING".length());
+    }
+
+    @Test
+    public void dictionaryStartsOverInNewCycle() throws Exception
+    {
+        AuditRecord auditRecord = likeGenericRecord().build();
+        WriteDictionary writeDictionary = givenDictionary(16);
+
+        long firstCycleSize = sizeOf(new AuditRecordWriteMarshallable(auditRecord, FieldSelector.DEFAULT_FIELDS, RecordFormat.COMPACT, writeDictionary));
+        writeDictionary.useCycle(2);
+        long secondCycleSize = sizeOf(new AuditRecordWriteMarshallable(auditRecord, FieldSelector.DEFAULT_FIELDS, RecordFormat.COMPACT, writeDictionary));
+
+        assertThat(secondCycleSize).isEqualTo(firstCycleSize);
+        assertThat(writeDictionary.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void fullDictionaryWritesPlainText() throws Exception
+    {
+        AuditRecord expectedAuditRecord = likeGenericRecord().build();
+        WriteDictionary writeDictionary = givenDictionary(1);
+
+        writeToChronicle(new AuditRecordWriteMarshallable(expectedAuditRecord, FieldSelector.DEFAULT_FIELDS, RecordFormat.COMPACT, writeDictionary));
+
+        assertThatRecordsMatch(readFromChronicle().get(0), expectedAuditRecord);
+        assertThat(writeDictionary.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void unknownDictionaryId()
+    {
+        writeToChronicle(wire -> {
+            wire.write(WireTags.KEY_VERSION).int16(WireTags.VALUE_VERSION_3);
+            wire.bytes().writeByte((byte) CompactWireFormat.TYPE_RECORD);
+            wire.bytes().writeByte((byte) 1);
+            wire.bytes().writeByte((byte) (CompactWireFormat.fieldId(FieldSelector.Field.USER) | CompactWireFormat.DICTIONARY_FLAG));
+            wire.bytes().writeStopBit(CompactWireFormat.referenceCode(5));
+        });
+
+        assertThatExceptionOfType(IORuntimeException.class)
+        .isThrownBy(this::readFromChronicle)
+        .withMessage("Unknown dictionary id: 5");
+    }
+
+    @Test
+    public void corruptFieldId()
+    {
+        writeToChronicle(wire -> {
+            wire.write(WireTags.KEY_VERSION).int16(WireTags.VALUE_VERSION_3);
+            wire.bytes().writeByte((byte) CompactWireFormat.TYPE_RECORD);
+            wire.bytes().writeByte((byte) 1);
+            wire.bytes().writeByte((byte) 42);
+        });
+
+        assertThatExceptionOfType(IORuntimeException.class)
+        .isThrownBy(this::readFromChronicle)
+        .withMessage("Corrupt record field id: 42");
+    }
+
+    @Test
+    public void corruptStatus()
+    {
+        writeToChronicle(wire -> {
+            wire.write(WireTags.KEY_VERSION).int16(WireTags.VALUE_VERSION_3);
+            wire.bytes().writeByte((byte) CompactWireFormat.TYPE_RECORD);
+            wire.bytes().writeByte((byte) 1);
+            wire.bytes().writeByte((byte) CompactWireFormat.fieldId(FieldSelector.Field.STATUS));
+            wire.bytes().writeByte((byte) 7);
+        });
+
+        assertThatExceptionOfType(IORuntimeException.class)
+        .isThrownBy(this::readFromChronicle)
+        .withMessage("Corrupt record status field: 7");
+    }
+
+    @Test
+    public void unsupportedType()
+    {
+        writeToChronicle(wire -> {
+            wire.write(WireTags.KEY_VERSION).int16(WireTags.VALUE_VERSION_3);
+            wire.bytes().writeByte((byte) 9);
+        });
+
+        assertThatExceptionOfType(IORuntimeException.class)
+        .isThrownBy(this::readFromChronicle)
+        .withMessage("Unsupported record type field: 9");
+    }
+
+    private SimpleAuditRecord.Builder likeGenericRecord() throws UnknownHostException
+    {
+        return SimpleAuditRecord
+        .builder()
+        .withClientAddress(new InetSocketAddress(InetAddress.getByName("0.1.2.3"), 876))
+        .withCoordinatorAddress(InetAddress.getByName("4.5.6.7"))
+        .withStatus(Status.ATTEMPT)
+        .withOperation(new SimpleAuditOperation("SELECT SOMETHING"))
+        .withUser("bob")
+        .withTimestamp(System.currentTimeMillis());
+    }
+
+    private List<AuditRecord> likeBatchRecords(int count) throws UnknownHostException
+    {
+        UUID batchId = UUID.randomUUID();
+        long timestamp = System.currentTimeMillis();
+        List<AuditRecord> auditRecords = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            auditRecords.add(likeGenericRecord().withBatchId(batchId)
+                                                .withTimestamp(timestamp)
+                                                .withOperation(new SimpleAuditOperation("INSERT INTO ks.tbl (key, value) VALUES (?, ?)['key" + i + "', " + i + "]"))
+                                                .build());
+        }
+        return auditRecords;
+    }
+
+    private static WriteDictionary givenDictionary(int maxEntries)
+    {
+        WriteDictionary writeDictionary = new WriteDictionary(maxEntries);
+        writeDictionary.useCycle(1);
+        return writeDictionary;
+    }
+
+    private static long sizeOf(WriteMarshallable writeMarshallable)
+    {
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+        try
+        {
+            Wire wire = WireType.BINARY.apply(bytes);
+            writeMarshallable.writeMarshallable(wire);
+            return bytes.readRemaining();
+        }
+        finally
+        {
+            bytes.release();
+        }
+    }
+
+    private void writeToChronicle(WriteMarshallable writeMarshallable)
+    {
+        chronicleQueue.acquireAppender().writeDocument(writeMarshallable);
+    }
+
+    private List<StoredAuditRecord> readFromChronicle()
+    {
+        AuditRecordReadMarshallable readMarshallable = new AuditRecordReadMarshallable();
+        chronicleQueue.createTailer().readDocument(readMarshallable);
+        return readMarshallable.getAuditRecords();
+    }
+
+    private void assertThatRecordsMatch(StoredAuditRecord actualAuditRecord, AuditRecord expectedAuditRecord)
+    {
+        assertThat(actualAuditRecord.getBatchId()).isEqualTo(expectedAuditRecord.getBatchId());
+        assertThat(actualAuditRecord.getClientAddress()).contains(expectedAuditRecord.getClientAddress().getAddress());
+        assertThat(actualAuditRecord.getClientPort()).contains(expectedAuditRecord.getClientAddress().getPort());
+        assertThat(actualAuditRecord.getCoordinatorAddress()).contains(expectedAuditRecord.getCoordinatorAddress());
+        assertThat(actualAuditRecord.getStatus()).contains(expectedAuditRecord.getStatus());
+        assertThat(actualAuditRecord.getOperation()).contains(expectedAuditRecord.getOperation().getOperationString());
+        assertThat(actualAuditRecord.getUser()).contains(expectedAuditRecord.getUser());
+        assertThat(actualAuditRecord.getTimestamp()).contains(expectedAuditRecord.getTimestamp());
+        assertThat(actualAuditRecord.getSubject()).isEqualTo(expectedAuditRecord.getSubject());
+    }
+}
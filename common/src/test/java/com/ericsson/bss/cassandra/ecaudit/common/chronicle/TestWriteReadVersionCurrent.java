@@ -18,6 +18,9 @@ package com.ericsson.bss.cassandra.ecaudit.common.chronicle;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.After;
@@ -31,11 +34,14 @@ import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditRecord;
 import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
 import com.ericsson.bss.cassandra.ecaudit.common.record.StoredAuditRecord;
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.core.io.IORuntimeException;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ChronicleQueueBuilder;
 import net.openhft.chronicle.queue.ExcerptAppender;
 import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
 import net.openhft.chronicle.wire.WriteMarshallable;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -98,6 +104,53 @@ public class TestWriteReadVersionCurrent
         assertThatRecordsMatch(actualAuditRecord, expectedAuditRecord);
     }
 
+    @Test
+    public void writeReadCompactBatch() throws Exception
+    {
+        List<AuditRecord> expectedAuditRecords = likeBatchRecords(3);
+
+        ExcerptAppender appender = chronicleQueue.acquireAppender();
+        appender.writeDocument(new AuditBatchWriteMarshallable(expectedAuditRecords, FieldSelector.DEFAULT_FIELDS));
+
+        AuditRecordReadMarshallable readMarshallable = new AuditRecordReadMarshallable();
+        chronicleQueue.createTailer().readDocument(readMarshallable);
+        List<StoredAuditRecord> actualAuditRecords = readMarshallable.getAuditRecords();
+
+        assertThat(actualAuditRecords).hasSize(3);
+        for (int i = 0; i < 3; i++)
+        {
+            assertThatRecordsMatch(actualAuditRecords.get(i), expectedAuditRecords.get(i));
+        }
+        assertThatExceptionOfType(IllegalStateException.class)
+        .isThrownBy(readMarshallable::getAuditRecord)
+        .withMessage("Compact batch record holds 3 records");
+    }
+
+    @Test
+    public void compactBatchIsLessThanHalfTheSizeOfSingleRecords() throws Exception
+    {
+        List<AuditRecord> auditRecords = likeBatchRecords(20);
+
+        long singleRecordsSize = 0;
+        for (AuditRecord auditRecord : auditRecords)
+        {
+            singleRecordsSize += sizeOf(new AuditRecordWriteMarshallable(auditRecord, FieldSelector.DEFAULT_FIELDS));
+        }
+        long compactBatchSize = sizeOf(new AuditBatchWriteMarshallable(auditRecords, FieldSelector.DEFAULT_FIELDS));
+
+        assertThat(compactBatchSize).isLessThan(singleRecordsSize / 2);
+    }
+
+    @Test
+    public void sharedHeader() throws Exception
+    {
+        List<AuditRecord> auditRecords = likeBatchRecords(2);
+        AuditRecord otherStatus = likeGenericRecord().withStatus(Status.FAILED).build();
+
+        assertThat(AuditBatchWriteMarshallable.sharesHeader(auditRecords.get(0), auditRecords.get(1))).isTrue();
+        assertThat(AuditBatchWriteMarshallable.sharesHeader(auditRecords.get(0), otherStatus)).isFalse();
+    }
+
     @Test
     public void tryReuseOnRead() throws Exception
     {
@@ -128,6 +181,36 @@ public class TestWriteReadVersionCurrent
         .withTimestamp(System.currentTimeMillis());
     }
 
+    private List<AuditRecord> likeBatchRecords(int count) throws UnknownHostException
+    {
+        UUID batchId = UUID.randomUUID();
+        long timestamp = System.currentTimeMillis();
+        List<AuditRecord> auditRecords = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            auditRecords.add(likeGenericRecord().withBatchId(batchId)
+                                                .withTimestamp(timestamp)
+                                                .withOperation(new SimpleAuditOperation("INSERT INTO ks.tbl (key, value) VALUES (?, ?)['key" + i + "', " + i + "]"))
+                                                .build());
+        }
+        return auditRecords;
+    }
+
+    private static long sizeOf(WriteMarshallable writeMarshallable)
+    {
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+        try
+        {
+            Wire wire = WireType.BINARY.apply(bytes);
+            writeMarshallable.writeMarshallable(wire);
+            return bytes.readRemaining();
+        }
+        finally
+        {
+            bytes.release();
+        }
+    }
+
     private void writeAuditRecordToChronicle(AuditRecord auditRecord)
     {
         writeAuditRecordToChronicle(auditRecord, FieldSelector.DEFAULT_FIELDS);
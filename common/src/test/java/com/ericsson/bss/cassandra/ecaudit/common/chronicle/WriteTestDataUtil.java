@@ -29,8 +29,10 @@ import net.openhft.chronicle.queue.ChronicleQueueBuilder;
 import net.openhft.chronicle.queue.ExcerptAppender;
 
 import static java.util.Arrays.asList;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 /**
  * Util for creating chronicle test data used for verifying backwards compatibility.
@@ -76,7 +78,7 @@ public class WriteTestDataUtil
 
     private static AuditOperation mockOperation(String operation, String nakedOperation)
     {
-        AuditOperation operationMock = mock(AuditOperation.class);
+        AuditOperation operationMock = mock(AuditOperation.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
         when(operationMock.getOperationString()).thenReturn(operation);
         when(operationMock.getNakedOperationString()).thenReturn(nakedOperation);
         return operationMock;
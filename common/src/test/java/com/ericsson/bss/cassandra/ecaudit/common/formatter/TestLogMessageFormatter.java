@@ -97,6 +97,94 @@ public class TestLogMessageFormatter
         assertThat(logText).isEqualTo("%Value=42%ValuePlus2=44%");
     }
 
+    @Test
+    public void testFormat()
+    {
+        // Given
+        LogMessageFormatter<Integer> formatter = LogMessageFormatter.<Integer>builder()
+                                                 .format("Value=${EQUAL}, ValuePlus1=${PLUS1}")
+                                                 .availableFields(TEST_FIELDS)
+                                                 .build();
+        // When
+        String first = formatter.format(42);
+        String second = formatter.format(7);
+        // Then
+        assertThat(first).isEqualTo("Value=42, ValuePlus1=43");
+        assertThat(second).isEqualTo("Value=7, ValuePlus1=8");
+        assertThat(formatter.getLogTemplate()).isNull();
+    }
+
+    @Test
+    public void testFormatWithOptionalFields()
+    {
+        // Given
+        LogMessageFormatter<Integer> formatter = LogMessageFormatter.<Integer>builder()
+                                                 .format("Value=${EQUAL}{?:ValuePlus1=${PLUS1}?}{?:Empty=${EMPTY}?}:")
+                                                 .availableFields(TEST_FIELDS)
+                                                 .build();
+        // When
+        String logText = formatter.format(99);
+        // Then
+        assertThat(logText).isEqualTo("Value=99:ValuePlus1=100:");
+    }
+
+    @Test
+    public void testFormatMissingValueAndSpecialCharacters()
+    {
+        // Given
+        LogMessageFormatter<Integer> formatter = LogMessageFormatter.<Integer>builder()
+                                                 .format("%{}Value=${EMPTY}%s{}")
+                                                 .availableFields(TEST_FIELDS)
+                                                 .build();
+        // When
+        String logText = formatter.format(1);
+        // Then
+        assertThat(logText).isEqualTo("%{}Value=null%s{}");
+    }
+
+    @Test
+    public void testFormatTo()
+    {
+        // Given
+        LogMessageFormatter<Integer> formatter = LogMessageFormatter.<Integer>builder()
+                                                 .format("${EQUAL}-${PLUS3}")
+                                                 .availableFields(TEST_FIELDS)
+                                                 .build();
+        StringBuilder builder = new StringBuilder("prefix:");
+        // When
+        formatter.formatTo(builder, 1);
+        // Then
+        assertThat(builder.toString()).isEqualTo("prefix:1-4");
+    }
+
+    @Test
+    public void testFieldAppenders()
+    {
+        // Given
+        Map<String, LogMessageFormatter.FieldAppender<Integer>> appenders = ImmutableMap.of("EQUAL", (builder, i) -> {
+            builder.append('<').append(i.intValue()).append('>');
+            return true;
+        }, "ODD", (builder, i) -> {
+            if (i % 2 == 0)
+            {
+                return false;
+            }
+            builder.append("odd");
+            return true;
+        });
+        LogMessageFormatter<Integer> formatter = LogMessageFormatter.<Integer>builder()
+                                                 .format("Value=${EQUAL}{?, Parity=${ODD}?}, ValuePlus1=${PLUS1}")
+                                                 .availableFields(TEST_FIELDS)
+                                                 .fieldAppenders(appenders)
+                                                 .build();
+        // When
+        String oddText = formatter.format(1);
+        String evenText = formatter.format(2);
+        // Then
+        assertThat(oddText).isEqualTo("Value=<1>, Parity=odd, ValuePlus1=2");
+        assertThat(evenText).isEqualTo("Value=<2>, ValuePlus1=3");
+    }
+
     @Test
     public void testGetFieldFunctionOrThrow()
     {
@@ -18,25 +18,30 @@ package com.ericsson.bss.cassandra.ecaudit;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import com.google.common.annotations.VisibleForTesting;
 
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.entry.BoundValueLimits;
 import com.ericsson.bss.cassandra.ecaudit.entry.PreparedAuditOperation;
+import com.ericsson.bss.cassandra.ecaudit.entry.PreparedStatementMetadata;
+import com.ericsson.bss.cassandra.ecaudit.entry.TruncatedAuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.entry.factory.AuditEntryBuilderFactory;
+import com.ericsson.bss.cassandra.ecaudit.entry.factory.PreparedStatementMetadataCache;
 import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.BoundValueSuppressor;
 import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.PrepareAuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.facade.Auditor;
 import com.ericsson.bss.cassandra.ecaudit.utils.Exceptions;
 import org.apache.cassandra.cql3.BatchQueryOptions;
-import org.apache.cassandra.cql3.CQLStatement;
 import org.apache.cassandra.cql3.QueryOptions;
 import org.apache.cassandra.cql3.statements.BatchStatement;
+import org.apache.cassandra.cql3.statements.ParsedStatement;
 import org.apache.cassandra.exceptions.AuthenticationException;
 import org.apache.cassandra.exceptions.RequestExecutionException;
 import org.apache.cassandra.service.ClientState;
@@ -45,6 +50,9 @@ import org.apache.cassandra.utils.MD5Digest;
 
 /**
  * This class will be responsible for populating {@link AuditEntry} instance and passing that to {@link Auditor} instance
+ *
+ * Requests which are audited with several statuses should use an {@link AuditContext} so that the audit entries
+ * are only resolved once per request.
  */
 public class AuditAdapter
 {
@@ -54,19 +62,26 @@ public class AuditAdapter
     private final Auditor auditor;
     private final AuditEntryBuilderFactory entryBuilderFactory;
     private BoundValueSuppressor boundValueSuppressor;
+    private final BoundValueLimits boundValueLimits;
+    private final PreparedStatementMetadataCache preparedStatementCache;
 
     /**
      * Constructor, see {@link AuditAdapterFactory#createAuditAdapter()}
      *
-     * @param auditor             the auditor to use
-     * @param entryBuilderFactory the audit entry builder factory to use
-     * @param boundValueSuppressor the bound value suppressor
+     * @param auditor                the auditor to use
+     * @param entryBuilderFactory    the audit entry builder factory to use
+     * @param boundValueSuppressor   the bound value suppressor
+     * @param boundValueLimits       the maximum rendered lengths of bound values and operations
+     * @param preparedStatementCache the cache of prepared statement metadata
      */
-    AuditAdapter(Auditor auditor, AuditEntryBuilderFactory entryBuilderFactory, BoundValueSuppressor boundValueSuppressor)
+    AuditAdapter(Auditor auditor, AuditEntryBuilderFactory entryBuilderFactory, BoundValueSuppressor boundValueSuppressor, BoundValueLimits boundValueLimits,
+                 PreparedStatementMetadataCache preparedStatementCache)
     {
         this.auditor = auditor;
         this.entryBuilderFactory = entryBuilderFactory;
         this.boundValueSuppressor = boundValueSuppressor;
+        this.boundValueLimits = boundValueLimits;
+        this.preparedStatementCache = preparedStatementCache;
     }
 
     public static AuditAdapter getInstance()
@@ -94,19 +109,27 @@ public class AuditAdapter
      */
     public void auditRegular(String operation, ClientState state, Status status, long timestamp)
     {
-        if (auditor.shouldLogForStatus(status))
-        {
-            AuditEntry logEntry = entryBuilderFactory.createEntryBuilder(operation, state)
-                                                     .client(state.getRemoteAddress())
-                                                     .coordinator(FBUtilities.getBroadcastAddress())
-                                                     .user(state.getUser().getName())
-                                                     .operation(new SimpleAuditOperation(operation))
-                                                     .status(status)
-                                                     .timestamp(timestamp)
-                                                     .build();
+        createRegularContext(operation, state, timestamp).audit(status);
+    }
 
-            auditor.audit(logEntry);
-        }
+    /**
+     * Create an audit context for a regular CQL statement.
+     *
+     * @param operation the CQL statement to audit
+     * @param state     the client state accompanying the statement
+     * @param timestamp the system timestamp for the request
+     * @return the audit context of the request
+     */
+    public AuditContext createRegularContext(String operation, ClientState state, long timestamp)
+    {
+        return new AuditContext(auditor, () -> Collections.singletonList(
+                   entryBuilderFactory.createEntryBuilder(operation, state)
+                                      .client(state.getRemoteAddress())
+                                      .coordinator(FBUtilities.getBroadcastAddress())
+                                      .user(state.getUser().getName())
+                                      .operation(createSimpleOperation(operation))
+                                      .timestamp(timestamp)
+                                      .build()), null);
     }
 
     /**
@@ -134,69 +157,124 @@ public class AuditAdapter
         }
     }
 
+    /**
+     * Get the audit metadata of a prepared statement, resolving it once per prepared statement.
+     *
+     * @param id       the id of the prepared statement
+     * @param prepared the prepared statement
+     * @return the audit metadata of the prepared statement
+     */
+    public PreparedStatementMetadata getPreparedStatementMetadata(MD5Digest id, ParsedStatement.Prepared prepared)
+    {
+        return preparedStatementCache.get(id, prepared, this::resolvePreparedStatementMetadata);
+    }
+
+    private PreparedStatementMetadata resolvePreparedStatementMetadata(ParsedStatement.Prepared prepared)
+    {
+        AuditEntry template = entryBuilderFactory.createEntryBuilder(prepared.statement).build();
+        return new PreparedStatementMetadata(prepared.rawCQLStatement, template, boundValueSuppressor.planFor(prepared.boundNames));
+    }
+
+    /**
+     * Invalidate the audit metadata of a prepared statement which has been evicted.
+     *
+     * @param id the id of the prepared statement
+     */
+    public void invalidatePreparedStatementMetadata(MD5Digest id)
+    {
+        preparedStatementCache.invalidate(id);
+    }
+
     /**
      * Audit a prepared statement.
      *
-     * @param rawStatement the raw prepared statement string
-     * @param statement    the statement to audit
-     * @param state        the client state accompanying the statement
-     * @param options      the options accompanying the statement
-     * @param status       the statement operation status
-     * @param timestamp    the system timestamp for the request
+     * @param metadata  the audit metadata of the prepared statement
+     * @param state     the client state accompanying the statement
+     * @param options   the options accompanying the statement
+     * @param status    the statement operation status
+     * @param timestamp the system timestamp for the request
      */
-    public void auditPrepared(String rawStatement, CQLStatement statement, ClientState state, QueryOptions options, Status status, long timestamp)
+    public void auditPrepared(PreparedStatementMetadata metadata, ClientState state, QueryOptions options, Status status, long timestamp)
     {
-        if (auditor.shouldLogForStatus(status))
-        {
-            AuditEntry logEntry = entryBuilderFactory.createEntryBuilder(statement)
-                                                     .client(state.getRemoteAddress())
-                                                     .coordinator(FBUtilities.getBroadcastAddress())
-                                                     .user(state.getUser().getName())
-                                                     .operation(new PreparedAuditOperation(rawStatement, options, boundValueSuppressor))
-                                                     .status(status)
-                                                     .timestamp(timestamp)
-                                                     .build();
+        createPreparedContext(metadata, state, options, timestamp).audit(status);
+    }
 
-            auditor.audit(logEntry);
-        }
+    /**
+     * Create an audit context for a prepared statement.
+     *
+     * @param metadata  the audit metadata of the prepared statement
+     * @param state     the client state accompanying the statement
+     * @param options   the options accompanying the statement
+     * @param timestamp the system timestamp for the request
+     * @return the audit context of the request
+     */
+    public AuditContext createPreparedContext(PreparedStatementMetadata metadata, ClientState state, QueryOptions options, long timestamp)
+    {
+        return new AuditContext(auditor, () -> Collections.singletonList(
+                   AuditEntry.newBuilder()
+                             .basedOn(metadata.getTemplate())
+                             .client(state.getRemoteAddress())
+                             .coordinator(FBUtilities.getBroadcastAddress())
+                             .user(state.getUser().getName())
+                             .operation(createPreparedOperation(metadata, options))
+                             .timestamp(timestamp)
+                             .build()), null);
+    }
+
+    private AuditOperation createSimpleOperation(String operation)
+    {
+        return TruncatedAuditOperation.create(operation, boundValueLimits.getMaxOperationLength());
+    }
+
+    private PreparedAuditOperation createPreparedOperation(PreparedStatementMetadata metadata, QueryOptions options)
+    {
+        return new PreparedAuditOperation(metadata.getRawStatement(), options, metadata.getSuppressionPlan(), boundValueLimits);
     }
 
     /**
      * Audit a batch statement.
      *
-     * @param statement     the batch statement to audit
-     * @param rawStatements an ordered list of raw statements associated with the statements in the batch
-     * @param uuid          to identify the batch
-     * @param state         the client state accompanying the statement
-     * @param options       the batch options accompanying the statement
-     * @param status        the status of the operation
-     * @param timestamp     the system timestamp for the request
+     * @param statement          the batch statement to audit
+     * @param preparedStatements an ordered list of metadata of the prepared statements in the batch
+     * @param uuid               to identify the batch
+     * @param state              the client state accompanying the statement
+     * @param options            the batch options accompanying the statement
+     * @param status             the status of the operation
+     * @param timestamp          the system timestamp for the request
      */
-    public void auditBatch(BatchStatement statement, List<String> rawStatements, UUID uuid, ClientState state, BatchQueryOptions options, Status status, long timestamp)
+    public void auditBatch(BatchStatement statement, List<PreparedStatementMetadata> preparedStatements, UUID uuid, ClientState state, BatchQueryOptions options, Status status, long timestamp)
     {
-        if (auditor.shouldLogForStatus(status))
-        {
-            AuditEntry.Builder builder = entryBuilderFactory.createBatchEntryBuilder()
-                                                            .client(state.getRemoteAddress())
-                                                            .coordinator(FBUtilities.getBroadcastAddress())
-                                                            .user(state.getUser().getName())
-                                                            .batch(uuid)
-                                                            .status(status)
-                                                            .timestamp(timestamp);
-
-            if (status == Status.FAILED && auditor.shouldLogFailedBatchSummary())
-            {
-                String failedBatchStatement = String.format(BATCH_FAILURE, uuid.toString());
-                auditor.audit(builder.operation(new SimpleAuditOperation(failedBatchStatement)).build());
-            }
-            else
-            {
-                for (AuditEntry entry : getBatchOperations(builder, statement, rawStatements, state, options))
-                {
-                    auditor.audit(entry);
-                }
-            }
-        }
+        createBatchContext(statement, preparedStatements, uuid, state, options, timestamp).audit(status);
+    }
+
+    /**
+     * Create an audit context for a batch statement.
+     *
+     * @param statement          the batch statement to audit
+     * @param preparedStatements an ordered list of metadata of the prepared statements in the batch
+     * @param uuid               to identify the batch
+     * @param state              the client state accompanying the statement
+     * @param options            the batch options accompanying the statement
+     * @param timestamp          the system timestamp for the request
+     * @return the audit context of the request
+     */
+    public AuditContext createBatchContext(BatchStatement statement, List<PreparedStatementMetadata> preparedStatements, UUID uuid, ClientState state, BatchQueryOptions options, long timestamp)
+    {
+        return new AuditContext(auditor,
+                                () -> getBatchOperations(createBatchEntryBuilder(uuid, state, timestamp), preparedStatements, state, options),
+                                () -> createBatchEntryBuilder(uuid, state, timestamp)
+                                      .operation(new SimpleAuditOperation(String.format(BATCH_FAILURE, uuid.toString())))
+                                      .build());
+    }
+
+    private AuditEntry.Builder createBatchEntryBuilder(UUID uuid, ClientState state, long timestamp)
+    {
+        return entryBuilderFactory.createBatchEntryBuilder()
+                                  .client(state.getRemoteAddress())
+                                  .coordinator(FBUtilities.getBroadcastAddress())
+                                  .user(state.getUser().getName())
+                                  .batch(uuid)
+                                  .timestamp(timestamp);
     }
 
     /**
@@ -256,32 +334,35 @@ public class AuditAdapter
     /**
      * Get all the audit entries for a batch
      *
-     * @param builder        the prepared audit entry builder
-     * @param batchStatement the batch statement
-     * @param state          the client state accompanying the statement
-     * @param options        the options to get the operations from
+     * @param builder            the prepared audit entry builder
+     * @param preparedStatements the metadata of the prepared statements in the batch
+     * @param state              the client state accompanying the statement
+     * @param options            the options to get the operations from
      * @return a collection of operations, as strings
      */
-    private Collection<AuditEntry> getBatchOperations(AuditEntry.Builder builder, BatchStatement batchStatement, List<String> rawStatements, ClientState state, BatchQueryOptions options)
+    private List<AuditEntry> getBatchOperations(AuditEntry.Builder builder, List<PreparedStatementMetadata> preparedStatements, ClientState state, BatchQueryOptions options)
     {
-        List<AuditEntry> batchOperations = new ArrayList<>();
+        List<Object> queryOrIdList = options.getQueryOrIdList();
+        List<AuditEntry> batchOperations = new ArrayList<>(queryOrIdList.size());
 
-        // Statements and raw-statements are listed in the same order,
-        // but raw-statement list only contain entries for prepared statements.
+        // Statements and prepared statements are listed in the same order,
+        // but prepared statement list only contain entries for prepared statements.
         int statementIndex = 0;
-        int rawStatementIndex = 0;
-        for (Object queryOrId : options.getQueryOrIdList())
+        int preparedIndex = 0;
+        for (Object queryOrId : queryOrIdList)
         {
             if (queryOrId instanceof MD5Digest)
             {
-                entryBuilderFactory.updateBatchEntryBuilder(builder, batchStatement.getStatements().get(statementIndex));
-                builder.operation(new PreparedAuditOperation(rawStatements.get(rawStatementIndex++), options.forStatement(statementIndex), boundValueSuppressor));
+                PreparedStatementMetadata metadata = preparedStatements.get(preparedIndex++);
+                builder.permissions(metadata.getTemplate().getPermissions())
+                       .resource(metadata.getTemplate().getResource());
+                builder.operation(createPreparedOperation(metadata, options.forStatement(statementIndex)));
                 batchOperations.add(builder.build());
             }
             else
             {
                 entryBuilderFactory.updateBatchEntryBuilder(builder, queryOrId.toString(), state);
-                builder.operation(new SimpleAuditOperation(queryOrId.toString()));
+                builder.operation(createSimpleOperation(queryOrId.toString()));
                 batchOperations.add(builder.build());
             }
             statementIndex++;
@@ -299,6 +380,7 @@ public class AuditAdapter
     public void setBoundValueSuppressor(BoundValueSuppressor suppressor)
     {
         this.boundValueSuppressor = suppressor;
+        preparedStatementCache.invalidateAll();
     }
 
     @VisibleForTesting
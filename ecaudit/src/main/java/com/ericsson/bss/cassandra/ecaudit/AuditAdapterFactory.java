@@ -24,8 +24,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.bss.cassandra.ecaudit.config.AuditConfig;
+import com.ericsson.bss.cassandra.ecaudit.entry.BoundValueLimits;
 import com.ericsson.bss.cassandra.ecaudit.entry.factory.AuditEntryBuilderFactory;
+import com.ericsson.bss.cassandra.ecaudit.entry.factory.PreparedStatementMetadataCache;
+import com.ericsson.bss.cassandra.ecaudit.entry.factory.StatementClassificationCache;
 import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.BoundValueSuppressor;
+import com.ericsson.bss.cassandra.ecaudit.facade.AsyncAuditDispatcher;
 import com.ericsson.bss.cassandra.ecaudit.facade.Auditor;
 import com.ericsson.bss.cassandra.ecaudit.facade.DefaultAuditor;
 import com.ericsson.bss.cassandra.ecaudit.filter.AuditFilter;
@@ -34,6 +38,7 @@ import com.ericsson.bss.cassandra.ecaudit.filter.role.RoleAuditFilter;
 import com.ericsson.bss.cassandra.ecaudit.filter.yaml.YamlAuditFilter;
 import com.ericsson.bss.cassandra.ecaudit.filter.yamlandrole.YamlAndRoleAuditFilter;
 import com.ericsson.bss.cassandra.ecaudit.logger.AuditLogger;
+import com.ericsson.bss.cassandra.ecaudit.metrics.AuditMetrics;
 import com.ericsson.bss.cassandra.ecaudit.obfuscator.PasswordObfuscator;
 import org.apache.cassandra.config.ParameterizedClass;
 import org.apache.cassandra.exceptions.ConfigurationException;
@@ -76,12 +81,41 @@ final class AuditAdapterFactory
         PasswordObfuscator obfuscator = new PasswordObfuscator();
         LogTimingStrategy logStrategy = getLogTimingStrategy(auditConfig);
 
-        Auditor auditor = new DefaultAuditor(logger, filter, obfuscator, logStrategy);
-        AuditEntryBuilderFactory entryBuilderFactory = new AuditEntryBuilderFactory();
+        Auditor auditor = createAuditor(auditConfig, logger, filter, obfuscator, logStrategy);
+        StatementClassificationCache classificationCache = new StatementClassificationCache(auditConfig.getStatementCacheMaxEntries(), new AuditMetrics());
+        AuditEntryBuilderFactory entryBuilderFactory = new AuditEntryBuilderFactory(classificationCache);
 
         BoundValueSuppressor boundValueSuppressor = createBoundValueSuppressor(auditConfig);
+        BoundValueLimits boundValueLimits = createBoundValueLimits(auditConfig);
 
-        return new AuditAdapter(auditor, entryBuilderFactory, boundValueSuppressor);
+        PreparedStatementMetadataCache preparedStatementCache = new PreparedStatementMetadataCache(auditConfig.getStatementCacheMaxEntries());
+
+        return new AuditAdapter(auditor, entryBuilderFactory, boundValueSuppressor, boundValueLimits, preparedStatementCache);
+    }
+
+    private static Auditor createAuditor(AuditConfig auditConfig, AuditLogger logger, AuditFilter filter, PasswordObfuscator obfuscator, LogTimingStrategy logStrategy)
+    {
+        if (!auditConfig.isAsyncAudit())
+        {
+            return new DefaultAuditor(logger, filter, obfuscator, logStrategy);
+        }
+
+        if (LOG.isInfoEnabled())
+        {
+            LOG.info("Audit records will be processed asynchronously with overflow policy {}", auditConfig.getAsyncAuditOverflowPolicy());
+        }
+        try
+        {
+            @SuppressWarnings("PMD.CloseResource") // Closed by a post shutdown hook once started by the auditor
+            AsyncAuditDispatcher dispatcher = new AsyncAuditDispatcher(auditConfig.getAsyncAuditQueueSize(),
+                                                                       auditConfig.getAsyncAuditWorkerThreads(),
+                                                                       auditConfig.getAsyncAuditOverflowPolicy());
+            return new DefaultAuditor(logger, filter, obfuscator, logStrategy, dispatcher);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ConfigurationException(e.getMessage(), e);
+        }
     }
 
     /**
@@ -159,4 +193,16 @@ final class AuditAdapterFactory
         }
         return FBUtilities.construct(suppressorClassName, "BoundValueSuppressor");
     }
+
+    private static BoundValueLimits createBoundValueLimits(AuditConfig auditConfig)
+    {
+        try
+        {
+            return BoundValueLimits.create(auditConfig.getBoundValueMaxLengths(), auditConfig.getOperationMaxLength());
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ConfigurationException(e.getMessage(), e);
+        }
+    }
 }
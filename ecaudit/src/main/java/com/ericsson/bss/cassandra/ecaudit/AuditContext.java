@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.google.common.collect.Iterables;
+
+import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
+import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.facade.Auditor;
+
+/**
+ * The audit context of a single request.
+ * <p>
+ * The audit entries of the request (statement resources and permissions, client, coordinator, user and operations)
+ * are resolved once, the first time a status is to be logged. Each status (attempt, succeeded, failed) is then stamped
+ * onto the resolved entries before they are passed to the {@link Auditor}. The entries of a batch are passed as one
+ * unit, and are stamped lazily as the auditor iterates over them.
+ * <p>
+ * Instances are created by the {@link AuditAdapter}. This class is not thread safe and is intended to be used by the
+ * thread serving the request only.
+ */
+public class AuditContext
+{
+    private final Auditor auditor;
+    private final Supplier<List<AuditEntry>> entryResolver;
+    private final Supplier<AuditEntry> failedBatchSummaryResolver;
+
+    private List<AuditEntry> entries; // lazy initialization
+
+    /**
+     * @param auditor                    the auditor to use
+     * @param entryResolver              resolves the audit entries of the request, without status
+     * @param failedBatchSummaryResolver resolves the summary entry of a failed batch, or null if not a batch request
+     */
+    AuditContext(Auditor auditor, Supplier<List<AuditEntry>> entryResolver, Supplier<AuditEntry> failedBatchSummaryResolver)
+    {
+        this.auditor = auditor;
+        this.entryResolver = entryResolver;
+        this.failedBatchSummaryResolver = failedBatchSummaryResolver;
+    }
+
+    /**
+     * Audit the request with the given status.
+     *
+     * @param status the status of the request
+     */
+    public void audit(Status status)
+    {
+        if (!auditor.shouldLogForStatus(status))
+        {
+            return;
+        }
+
+        if (status == Status.FAILED && failedBatchSummaryResolver != null && auditor.shouldLogFailedBatchSummary())
+        {
+            auditor.audit(withStatus(failedBatchSummaryResolver.get(), status));
+            return;
+        }
+
+        List<AuditEntry> resolvedEntries = getEntries();
+        if (resolvedEntries.size() == 1)
+        {
+            auditor.audit(withStatus(resolvedEntries.get(0), status));
+        }
+        else
+        {
+            auditor.auditAll(Iterables.transform(resolvedEntries, entry -> withStatus(entry, status)));
+        }
+    }
+
+    private List<AuditEntry> getEntries()
+    {
+        if (entries == null)
+        {
+            entries = entryResolver.get();
+        }
+        return entries;
+    }
+
+    private static AuditEntry withStatus(AuditEntry entry, Status status)
+    {
+        return AuditEntry.newBuilder()
+                         .basedOn(entry)
+                         .status(status)
+                         .build();
+    }
+}
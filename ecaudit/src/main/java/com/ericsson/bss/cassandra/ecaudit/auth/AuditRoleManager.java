@@ -189,6 +189,7 @@ public class AuditRoleManager implements IRoleManager
     throws RequestValidationException, RequestExecutionException
     {
         wrappedRoleManager.grantRole(performer, role, grantee);
+        whitelistManager.roleMembershipChanged();
     }
 
     @Override
@@ -196,6 +197,7 @@ public class AuditRoleManager implements IRoleManager
     throws RequestValidationException, RequestExecutionException
     {
         wrappedRoleManager.revokeRole(performer, role, revokee);
+        whitelistManager.roleMembershipChanged();
     }
 
     @Override
@@ -144,6 +144,11 @@ class AuditWhitelistManager
                         .collect(Collectors.toMap(e -> ResourceFactory.toPrintableName(e.getKey()), e -> OperationFactory.toOperationNameCsv(e.getValue())));
     }
 
+    void roleMembershipChanged()
+    {
+        whitelistDataAccess.markRolesChanged();
+    }
+
     void dropRoleWhitelist(RoleResource role)
     {
         whitelistDataAccess.deleteWhitelist(role);
@@ -52,7 +52,10 @@ public final class GrantResource implements IResource
         return new GrantResource(checkNotNull(resource));
     }
 
-    IResource getWrappedResource()
+    /**
+     * @return the wrapped resource, or {@code null} if this is the root-level grant
+     */
+    public IResource getWrappedResource()
     {
         return wrappedResource;
     }
@@ -17,17 +17,26 @@ package com.ericsson.bss.cassandra.ecaudit.auth;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ericsson.bss.cassandra.ecaudit.config.AuditConfig;
 import com.ericsson.bss.cassandra.ecaudit.flavor.CassandraFlavorAdapter;
 import org.apache.cassandra.auth.AuthKeyspace;
 import org.apache.cassandra.auth.IResource;
@@ -35,6 +44,7 @@ import org.apache.cassandra.auth.Permission;
 import org.apache.cassandra.auth.RoleResource;
 import org.apache.cassandra.concurrent.ScheduledExecutors;
 import org.apache.cassandra.config.CFMetaData;
+import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.config.Schema;
 import org.apache.cassandra.config.SchemaConstants;
 import org.apache.cassandra.cql3.CQLStatement;
@@ -55,9 +65,24 @@ import org.apache.cassandra.service.MigrationManager;
 import org.apache.cassandra.service.QueryState;
 import org.apache.cassandra.transport.messages.ResultMessage;
 import org.apache.cassandra.utils.ByteBufferUtil;
+import org.apache.cassandra.utils.UUIDGen;
 
 /**
  * This DAO provides an interface for updating and retrieving role specific audit white-lists.
+ * <p>
+ * White-lists are read from a node-local {@link WhitelistSnapshot} of the white-list table, which is refreshed
+ * periodically and updated when a white-list is changed on this node. The white-list of a role is only read from the
+ * table if the snapshot is disabled or has not been loaded yet.
+ * <p>
+ * Every change of a white-list, or of the roles granted to a role, also writes a new value to a generation marker row
+ * in the white-list table. All nodes poll the marker and notify their change listeners when it changes, so that cached
+ * white-list decisions are invalidated across the cluster shortly after a change. The roles granted to a role are
+ * resolved through the roles cache of Cassandra, which may hold the old roles until it expires. A change of the roles
+ * granted to a role is therefore marked again when the roles cache has expired.
+ * <p>
+ * The marker and the white-lists are stored in different partitions, so a node may see a new marker before it sees the
+ * changed white-list. The snapshot is therefore read at LOCAL_QUORUM when the marker has changed, and a periodic
+ * refresh notifies the change listeners as well if it finds that the content of the snapshot has changed.
  */
 public class WhitelistDataAccess
 {
@@ -66,17 +91,51 @@ public class WhitelistDataAccess
     private static final long SCHEMA_ALIGNMENT_DELAY_MS = Long.getLong("ecaudit.schema_alignment_delay_ms", 120_000L);
     private static final SetSerializer<String> SET_SERIALIZER = SetSerializer.getInstance(UTF8Serializer.instance, UTF8Type.instance);
 
+    private final WhitelistSnapshot snapshot = new WhitelistSnapshot();
+    private final AtomicLong generation = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private final IntSupplier rolesValidity;
+
     private boolean setupCompleted = false;
+    private volatile boolean snapshotEnabled = false;
 
     private static final String DEFAULT_SUPERUSER_NAME = "cassandra";
 
+    // The marker is stored as a white-list row which is never a valid white-list entry, as the resource name is invalid
+    private static final String GENERATION_MARKER_ROLE = "$ecaudit$";
+    private static final String GENERATION_MARKER_RESOURCE = "generation";
+
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private volatile String lastSeenGenerationMarker;
+
     private DeleteStatement deleteWhitelistStatement;
     private SelectStatement loadWhitelistStatement;
+    private SelectStatement loadAllWhitelistsStatement;
     private UpdateStatement addToWhitelistStatement;
     private UpdateStatement removeFromWhitelistStatement;
+    private SelectStatement loadGenerationMarkerStatement;
+    private UpdateStatement updateGenerationMarkerStatement;
 
     private WhitelistDataAccess()
     {
+        this.scheduler = ScheduledExecutors.optionalTasks;
+        this.rolesValidity = DatabaseDescriptor::getRolesValidity;
+    }
+
+    @VisibleForTesting
+    WhitelistDataAccess(ScheduledExecutorService scheduler, IntSupplier rolesValidity,
+                        SelectStatement loadWhitelistStatement, SelectStatement loadAllWhitelistsStatement, UpdateStatement addToWhitelistStatement,
+                        SelectStatement loadGenerationMarkerStatement, UpdateStatement updateGenerationMarkerStatement)
+    {
+        this.scheduler = scheduler;
+        this.rolesValidity = rolesValidity;
+        this.loadWhitelistStatement = loadWhitelistStatement;
+        this.loadAllWhitelistsStatement = loadAllWhitelistsStatement;
+        this.addToWhitelistStatement = addToWhitelistStatement;
+        this.loadGenerationMarkerStatement = loadGenerationMarkerStatement;
+        this.updateGenerationMarkerStatement = updateGenerationMarkerStatement;
+        this.snapshotEnabled = true;
+        this.setupCompleted = true;
     }
 
     public static WhitelistDataAccess getInstance()
@@ -103,6 +162,11 @@ public class WhitelistDataAccess
                 SchemaConstants.AUTH_KEYSPACE_NAME,
                 AuditAuthKeyspace.WHITELIST_TABLE_NAME_V2);
 
+        loadAllWhitelistsStatement = (SelectStatement) prepare(
+                "SELECT role, resource, operations from %s.%s",
+                SchemaConstants.AUTH_KEYSPACE_NAME,
+                AuditAuthKeyspace.WHITELIST_TABLE_NAME_V2);
+
         deleteWhitelistStatement = (DeleteStatement) prepare(
                 "DELETE FROM %s.%s WHERE role = ?",
                 SchemaConstants.AUTH_KEYSPACE_NAME,
@@ -118,12 +182,237 @@ public class WhitelistDataAccess
                 SchemaConstants.AUTH_KEYSPACE_NAME,
                 AuditAuthKeyspace.WHITELIST_TABLE_NAME_V2);
 
+        loadGenerationMarkerStatement = (SelectStatement) prepare(
+                "SELECT operations from %s.%s WHERE role = ? AND resource = ?",
+                SchemaConstants.AUTH_KEYSPACE_NAME,
+                AuditAuthKeyspace.WHITELIST_TABLE_NAME_V2);
+
+        updateGenerationMarkerStatement = (UpdateStatement) prepare(
+                "UPDATE %s.%s SET operations = ? WHERE role = ? AND resource = ?",
+                SchemaConstants.AUTH_KEYSPACE_NAME,
+                AuditAuthKeyspace.WHITELIST_TABLE_NAME_V2);
+
         maybeMigrateTableData();
+        maybeScheduleSnapshotRefresh(AuditConfig.getInstance().getWhitelistSnapshotRefreshInterval());
+        maybeScheduleGenerationCheck(AuditConfig.getInstance().getWhitelistGenerationCheckInterval());
 
         setupCompleted = true;
     }
 
+    private void maybeScheduleSnapshotRefresh(int refreshIntervalInMs)
+    {
+        if (refreshIntervalInMs <= 0)
+        {
+            return;
+        }
+
+        snapshotEnabled = true;
+        tryRefreshSnapshot();
+        scheduler.scheduleWithFixedDelay(this::tryRefreshSnapshot, refreshIntervalInMs, refreshIntervalInMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void maybeScheduleGenerationCheck(int checkIntervalInMs)
+    {
+        if (checkIntervalInMs <= 0)
+        {
+            return;
+        }
+
+        try
+        {
+            lastSeenGenerationMarker = loadGenerationMarker();
+        }
+        catch (RuntimeException e)
+        {
+            LOG.warn("Failed to read audit whitelist generation marker", e);
+        }
+        scheduler.scheduleWithFixedDelay(this::tryCheckGeneration, checkIntervalInMs, checkIntervalInMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void tryCheckGeneration()
+    {
+        try
+        {
+            checkGeneration();
+        }
+        catch (RuntimeException e)
+        {
+            LOG.warn("Failed to check audit whitelist generation marker", e);
+        }
+    }
+
+    /**
+     * Check if the white-lists have been changed on another node since the last check. If so, the snapshot is
+     * refreshed and the change listeners are notified.
+     */
+    @VisibleForTesting
+    void checkGeneration()
+    {
+        String generationMarker = loadGenerationMarker();
+        if (Objects.equals(generationMarker, lastSeenGenerationMarker))
+        {
+            return;
+        }
+
+        lastSeenGenerationMarker = generationMarker;
+        LOG.debug("Audit whitelists changed on another node");
+        refreshSnapshot(ConsistencyLevel.LOCAL_QUORUM, false);
+        notifyChanged();
+    }
+
+    private String loadGenerationMarker()
+    {
+        ResultMessage.Rows rows = loadGenerationMarkerStatement.execute(
+                QueryState.forInternalCalls(),
+                QueryOptions.forInternalCalls(ConsistencyLevel.LOCAL_ONE,
+                                              Arrays.asList(ByteBufferUtil.bytes(GENERATION_MARKER_ROLE),
+                                                            ByteBufferUtil.bytes(GENERATION_MARKER_RESOURCE))),
+                System.nanoTime());
+
+        if (rows.result.isEmpty())
+        {
+            return null;
+        }
+
+        Set<String> values = UntypedResultSet.create(rows.result).one().getSet("operations", UTF8Type.instance);
+        return values == null || values.isEmpty() ? null : values.iterator().next();
+    }
+
+    /**
+     * Register a listener which is notified when the white-lists or the roles granted to a role may have been changed,
+     * on this node or on any other node.
+     *
+     * @param listener the listener to notify
+     */
+    public void addChangeListener(Runnable listener)
+    {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Mark the white-lists as changed, on this node and on all other nodes. Called when the white-list of a role, or
+     * the roles granted to a role, have been changed on this node.
+     */
+    void markChanged()
+    {
+        String generationMarker = UUIDGen.getTimeUUID().toString();
+        lastSeenGenerationMarker = generationMarker;
+        try
+        {
+            updateGenerationMarkerStatement.execute(
+                    QueryState.forInternalCalls(),
+                    QueryOptions.forInternalCalls(ConsistencyLevel.LOCAL_ONE,
+                                                  Arrays.asList(SET_SERIALIZER.serialize(Collections.singleton(generationMarker)),
+                                                                ByteBufferUtil.bytes(GENERATION_MARKER_ROLE),
+                                                                ByteBufferUtil.bytes(GENERATION_MARKER_RESOURCE))),
+                    System.nanoTime());
+        }
+        catch (RuntimeException e)
+        {
+            LOG.warn("Failed to update audit whitelist generation marker, other nodes will apply the change when their caches expire", e);
+        }
+        notifyChanged();
+    }
+
+    /**
+     * Mark the roles granted to a role as changed, on this node and on all other nodes. The change is marked again when
+     * the roles cache of Cassandra has expired on all nodes, so that white-list decisions which are based on the old
+     * roles of the role are invalidated as well.
+     */
+    void markRolesChanged()
+    {
+        markChanged();
+
+        int rolesValidityInMs = rolesValidity.getAsInt();
+        if (rolesValidityInMs > 0)
+        {
+            scheduler.schedule(this::markChanged, rolesValidityInMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void notifyChanged()
+    {
+        for (Runnable listener : changeListeners)
+        {
+            listener.run();
+        }
+        // Incremented after the listeners have run, so that no decision made before they ran is tagged with the new generation
+        generation.incrementAndGet();
+    }
+
+    private void tryRefreshSnapshot()
+    {
+        try
+        {
+            refreshSnapshot();
+        }
+        catch (RuntimeException e)
+        {
+            LOG.warn("Failed to refresh audit whitelist snapshot", e);
+        }
+    }
+
+    /**
+     * Replace the white-list snapshot with the current content of the white-list table. The change listeners are
+     * notified if the content of a loaded snapshot has changed.
+     *
+     * @return true if the snapshot was replaced, false if the snapshot is disabled or if a white-list was changed
+     * during the refresh
+     */
+    public boolean refreshSnapshot()
+    {
+        return refreshSnapshot(ConsistencyLevel.LOCAL_ONE, true);
+    }
+
+    private boolean refreshSnapshot(ConsistencyLevel consistencyLevel, boolean notifyIfChanged)
+    {
+        if (!snapshotEnabled)
+        {
+            return false;
+        }
+
+        long startNanos = System.nanoTime();
+        long version = snapshot.version();
+        // Read after the version, a snapshot which is updated in between is not replaced
+        Map<String, Map<IResource, Set<Permission>>> previousWhitelists = snapshot.getWhitelists();
+
+        ResultMessage.Rows rows = loadAllWhitelistsStatement.execute(
+                QueryState.forInternalCalls(),
+                QueryOptions.forInternalCalls(consistencyLevel, Collections.emptyList()),
+                System.nanoTime());
+
+        Map<String, Map<IResource, Set<Permission>>> whitelists = new HashMap<>();
+        for (UntypedResultSet.Row row : UntypedResultSet.create(rows.result))
+        {
+            if (isValidEntry(row))
+            {
+                whitelists.computeIfAbsent(row.getString("role"), role -> new HashMap<>())
+                          .put(extractResource(row), extractOperationSet(row));
+            }
+        }
+
+        boolean replaced = snapshot.replace(whitelists, version);
+        if (LOG.isDebugEnabled())
+        {
+            LOG.debug("Audit whitelist snapshot of {} roles {} in {} ms", whitelists.size(), replaced ? "loaded" : "discarded",
+                      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+
+        if (replaced && notifyIfChanged && previousWhitelists != null && !previousWhitelists.equals(whitelists))
+        {
+            LOG.debug("Audit whitelists changed since last snapshot");
+            notifyChanged();
+        }
+        return replaced;
+    }
+
     void addToWhitelist(RoleResource role, IResource whitelistResource, Set<Permission> whitelistOperations)
+    {
+        addToWhitelistUnmarked(role, whitelistResource, whitelistOperations);
+        markChanged();
+    }
+
+    private void addToWhitelistUnmarked(RoleResource role, IResource whitelistResource, Set<Permission> whitelistOperations)
     {
         List<ByteBuffer> values = getSerializedUpdateValues(role.getRoleName(), whitelistResource.getName(), whitelistOperations);
 
@@ -131,6 +420,7 @@ public class WhitelistDataAccess
                                         QueryOptions.forInternalCalls(consistencyForRole(role),
                                                                       values),
                                         System.nanoTime());
+        updateSnapshot(role);
     }
 
     static List<ByteBuffer> getSerializedUpdateValues(String role, String resource, Set<Permission> whitelistOperations)
@@ -154,9 +444,35 @@ public class WhitelistDataAccess
                                              QueryOptions.forInternalCalls(consistencyForRole(role),
                                                                            values),
                                              System.nanoTime());
+        updateSnapshot(role);
+        markChanged();
+    }
+
+    private void updateSnapshot(RoleResource role)
+    {
+        if (snapshotEnabled)
+        {
+            snapshot.update(role, loadWhitelist(role));
+        }
+    }
+
+    /**
+     * Get the white-list generation of this node, which is incremented whenever the change listeners are notified.
+     *
+     * @return the current white-list generation
+     */
+    public long getGeneration()
+    {
+        return generation.get();
     }
 
     public Map<IResource, Set<Permission>> getWhitelist(RoleResource role)
+    {
+        Map<IResource, Set<Permission>> whitelist = snapshot.getWhitelist(role);
+        return whitelist != null ? whitelist : loadWhitelist(role);
+    }
+
+    private Map<IResource, Set<Permission>> loadWhitelist(RoleResource role)
     {
         ResultMessage.Rows rows = loadWhitelistStatement.execute(
                 QueryState.forInternalCalls(),
@@ -220,6 +536,8 @@ public class WhitelistDataAccess
                         consistencyForRole(role),
                         Collections.singletonList(ByteBufferUtil.bytes(role.getRoleName()))),
                 System.nanoTime());
+        snapshot.update(role, Collections.emptyMap());
+        markChanged();
     }
 
     private synchronized void maybeCreateTable()
@@ -253,7 +571,7 @@ public class WhitelistDataAccess
         // The delay is to give the node a chance to see its peers before attempting the conversion
         if (Schema.instance.getCFMetaData(SchemaConstants.AUTH_KEYSPACE_NAME, AuditAuthKeyspace.WHITELIST_TABLE_NAME_V1) != null)
         {
-            ScheduledExecutors.optionalTasks.schedule(this::migrateTableData, AuthKeyspace.SUPERUSER_SETUP_DELAY, TimeUnit.MILLISECONDS);
+            scheduler.schedule(this::migrateTableData, AuthKeyspace.SUPERUSER_SETUP_DELAY, TimeUnit.MILLISECONDS);
         }
     }
 
@@ -268,24 +586,38 @@ public class WhitelistDataAccess
                           SchemaConstants.AUTH_KEYSPACE_NAME, AuditAuthKeyspace.WHITELIST_TABLE_NAME_V1),
             ConsistencyLevel.LOCAL_ONE);
 
-            for (UntypedResultSet.Row row : whitelists)
+            migrateWhitelists(whitelists);
+
+            LOG.info("Whitelist data conversion completed. To remove this message - " + // NOPMD
+                     "as a super user perform ALTER ROLE statement on yourself with OPTIONS set to { 'drop_legacy_audit_whitelist_table' : 'now' }");
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Unable to complete conversion of legacy whitelist data (perhaps not enough nodes are upgraded yet). " + // NOPMD
+                     "Conversion should not be considered complete", e);
+        }
+    }
+
+    @VisibleForTesting
+    void migrateWhitelists(Iterable<UntypedResultSet.Row> legacyWhitelists)
+    {
+        try
+        {
+            for (UntypedResultSet.Row row : legacyWhitelists)
             {
                 Set<String> resourceNames = SET_SERIALIZER.deserialize(row.getBytes("resources"));
                 RoleResource role = RoleResource.role(row.getString("role"));
                 for (String resourceName : resourceNames)
                 {
                     IResource resource = ResourceFactory.toResource(resourceName);
-                    addToWhitelist(role, resource, resource.applicablePermissions());
+                    addToWhitelistUnmarked(role, resource, resource.applicablePermissions());
                 }
             }
-
-            LOG.info("Whitelist data conversion completed. To remove this message - " + // NOPMD
-                     "as a super user perform ALTER ROLE statement on yourself with OPTIONS set to { 'drop_legacy_audit_whitelist_table' : 'now' }");
         }
-        catch (Exception e)
+        finally
         {
-            LOG.warn("Unable to complete conversion of legacy whitelist data (perhaps not enough nodes are upgraded yet). " + // NOPMD
-                     "Conversion should not be considered complete", e);
+            // Marked once, rather than for every migrated entry, and also if only some entries were migrated
+            markChanged();
         }
     }
 
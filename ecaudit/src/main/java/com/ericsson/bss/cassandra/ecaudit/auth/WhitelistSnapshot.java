@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.auth;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.apache.cassandra.auth.IResource;
+import org.apache.cassandra.auth.Permission;
+import org.apache.cassandra.auth.RoleResource;
+
+/**
+ * A node-local snapshot of the audit white-lists of all roles.
+ * <p>
+ * The snapshot is an immutable map which is replaced atomically, so readers never block and never see a partial
+ * update. The white-list of a single role is updated by copying the map. A full refresh is discarded if the
+ * white-list of a role was updated while the refresh was reading the white-list table, since the refresh may then
+ * have read the old white-list of that role.
+ */
+class WhitelistSnapshot
+{
+    private volatile Map<String, Map<IResource, Set<Permission>>> whitelists; // null until loaded
+
+    private long version; // guarded by this
+
+    /**
+     * @return true if a snapshot has been loaded
+     */
+    boolean isLoaded()
+    {
+        return whitelists != null;
+    }
+
+    /**
+     * @param role the role
+     * @return the white-list of the role, or null if no snapshot has been loaded
+     */
+    Map<IResource, Set<Permission>> getWhitelist(RoleResource role)
+    {
+        Map<String, Map<IResource, Set<Permission>>> currentWhitelists = whitelists;
+        if (currentWhitelists == null)
+        {
+            return null;
+        }
+
+        return currentWhitelists.getOrDefault(role.getRoleName(), Collections.emptyMap());
+    }
+
+    /**
+     * @return the white-lists of all roles, keyed by role name, or null if no snapshot has been loaded
+     */
+    Map<String, Map<IResource, Set<Permission>>> getWhitelists()
+    {
+        return whitelists;
+    }
+
+    /**
+     * @return the version of the snapshot, to be passed to {@link #replace(Map, long)} when a refresh is complete
+     */
+    synchronized long version()
+    {
+        return version;
+    }
+
+    /**
+     * Replace the snapshot with the white-lists of all roles, unless the snapshot has been updated since the refresh
+     * started.
+     *
+     * @param newWhitelists   the white-lists of all roles, keyed by role name
+     * @param expectedVersion the version of the snapshot when the refresh started
+     * @return true if the snapshot was replaced
+     */
+    synchronized boolean replace(Map<String, Map<IResource, Set<Permission>>> newWhitelists, long expectedVersion)
+    {
+        if (version != expectedVersion)
+        {
+            return false;
+        }
+
+        whitelists = ImmutableMap.copyOf(Maps.transformValues(newWhitelists, WhitelistSnapshot::immutableCopyOf));
+        version++;
+        return true;
+    }
+
+    /**
+     * Update the white-list of one role. Nothing is updated if no snapshot has been loaded.
+     *
+     * @param role      the role
+     * @param whitelist the new white-list of the role
+     */
+    synchronized void update(RoleResource role, Map<IResource, Set<Permission>> whitelist)
+    {
+        version++;
+        if (whitelists == null)
+        {
+            return;
+        }
+
+        Map<String, Map<IResource, Set<Permission>>> copy = new HashMap<>(whitelists);
+        if (whitelist.isEmpty())
+        {
+            copy.remove(role.getRoleName());
+        }
+        else
+        {
+            copy.put(role.getRoleName(), immutableCopyOf(whitelist));
+        }
+        whitelists = ImmutableMap.copyOf(copy);
+    }
+
+    private static Map<IResource, Set<Permission>> immutableCopyOf(Map<IResource, Set<Permission>> whitelist)
+    {
+        return ImmutableMap.copyOf(Maps.transformValues(whitelist, Sets::immutableEnumSet));
+    }
+}
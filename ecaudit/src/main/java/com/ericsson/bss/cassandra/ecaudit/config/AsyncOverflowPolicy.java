@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.config;
+
+/**
+ * What to do with audit records when the queue of the asynchronous audit pipeline is full.
+ */
+@SuppressWarnings("PMD.FieldNamingConventions")
+public enum AsyncOverflowPolicy
+{
+    // Enum values in lower case - to match async_audit_overflow_policy config values
+
+    /**
+     * Block the request thread until there is room in the queue.
+     */
+    block,
+
+    /**
+     * Drop the record and count it in the audit metrics.
+     */
+    drop,
+
+    /**
+     * Drop the record, count it in the audit metrics and write a marker record with the number of lost records.
+     */
+    drop_with_marker
+}
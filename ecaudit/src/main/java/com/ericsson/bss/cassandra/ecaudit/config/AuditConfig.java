@@ -16,6 +16,7 @@
 package com.ericsson.bss.cassandra.ecaudit.config;
 
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
 
@@ -84,6 +85,18 @@ public class AuditConfig
         return yamlConfig.getBoundValueSuppressor();
     }
 
+    public Map<String, Integer> getBoundValueMaxLengths()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getBoundValueMaxLengths();
+    }
+
+    public int getOperationMaxLength()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getOperationMaxLength();
+    }
+
     public int getWhitelistCacheValidity()
     {
         loadConfigIfNeeded();
@@ -120,12 +133,108 @@ public class AuditConfig
         yamlConfig.setWhitelistCacheMaxEntries(whitelistCacheMaxEntries);
     }
 
+    public int getRoleWhitelistCacheValidity()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getRoleWhitelistCacheValidity();
+    }
+
+    public void setRoleWhitelistCacheValidity(int roleWhitelistCacheValidityInMs)
+    {
+        loadConfigIfNeeded();
+        yamlConfig.setRoleWhitelistCacheValidity(roleWhitelistCacheValidityInMs);
+    }
+
+    public int getRoleWhitelistCacheUpdateInterval()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getRoleWhitelistCacheUpdateInterval();
+    }
+
+    public void setRoleWhitelistCacheUpdateInterval(int roleWhitelistCacheUpdateIntervalInMs)
+    {
+        loadConfigIfNeeded();
+        yamlConfig.setRoleWhitelistCacheUpdateInterval(roleWhitelistCacheUpdateIntervalInMs);
+    }
+
+    public int getRoleWhitelistCacheMaxEntries()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getRoleWhitelistCacheMaxEntries();
+    }
+
+    public void setRoleWhitelistCacheMaxEntries(int roleWhitelistCacheMaxEntries)
+    {
+        loadConfigIfNeeded();
+        yamlConfig.setRoleWhitelistCacheMaxEntries(roleWhitelistCacheMaxEntries);
+    }
+
+    public boolean isWhitelistCacheWarmup()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.isWhitelistCacheWarmup();
+    }
+
+    public int getWhitelistCacheWarmupConcurrency()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getWhitelistCacheWarmupConcurrency();
+    }
+
+    public int getWhitelistSnapshotRefreshInterval()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getWhitelistSnapshotRefreshInterval();
+    }
+
+    public int getWhitelistNearCacheMaxEntries()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getWhitelistNearCacheMaxEntries();
+    }
+
+    public int getWhitelistGenerationCheckInterval()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getWhitelistGenerationCheckInterval();
+    }
+
     public boolean isSuppressPrepareStatements()
     {
         loadConfigIfNeeded();
         return yamlConfig.isSuppressPrepareStatements();
     }
 
+    public int getStatementCacheMaxEntries()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getStatementCacheMaxEntries();
+    }
+
+    public boolean isAsyncAudit()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.isAsyncAudit();
+    }
+
+    public int getAsyncAuditQueueSize()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getAsyncAuditQueueSize();
+    }
+
+    public int getAsyncAuditWorkerThreads()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getAsyncAuditWorkerThreads();
+    }
+
+    public AsyncOverflowPolicy getAsyncAuditOverflowPolicy()
+    {
+        loadConfigIfNeeded();
+        return yamlConfig.getAsyncAuditOverflowPolicy();
+    }
+
     private synchronized void loadConfigIfNeeded()
     {
         if (yamlConfig == null)
@@ -30,7 +30,7 @@ import org.apache.cassandra.config.ParameterizedClass;
 /**
  * Data class for configuration
  */
-@SuppressWarnings("PMD.FieldNamingConventions")
+@SuppressWarnings({ "PMD.FieldNamingConventions", "PMD.TooManyFields" })
 public final class AuditYamlConfig
 {
     private static final List<String> DEFAULT_WHITELIST = Collections.emptyList();
@@ -38,6 +38,13 @@ public final class AuditYamlConfig
     private static final String DEFAULT_WRAPPED_AUTHORIZER = CassandraAuthorizer.class.getName();
     private static final String DEFAULT_WRAPPED_AUTHENTICATOR = DecoratedPasswordAuthenticator.class.getName();
     private static final String DEFAULT_BOUND_VALUE_SUPPRESSOR = SuppressNothing.class.getName();
+    private static final int DEFAULT_WHITELIST_CACHE_WARMUP_CONCURRENCY = 4;
+    private static final int DEFAULT_WHITELIST_SNAPSHOT_REFRESH_INTERVAL_IN_MS = 10_000;
+    private static final int DEFAULT_WHITELIST_GENERATION_CHECK_INTERVAL_IN_MS = 1_000;
+    private static final int DEFAULT_STATEMENT_CACHE_MAX_ENTRIES = 10_000;
+    private static final int DEFAULT_ASYNC_AUDIT_QUEUE_SIZE = 65_536;
+    private static final int DEFAULT_ASYNC_AUDIT_WORKER_THREADS = 1;
+    private static final AsyncOverflowPolicy DEFAULT_ASYNC_AUDIT_OVERFLOW_POLICY = AsyncOverflowPolicy.block;
 
     private boolean fromFile = true;
 
@@ -49,10 +56,25 @@ public final class AuditYamlConfig
     public String wrapped_authorizer;
     public String wrapped_authenticator;
     public String bound_value_suppressor;
+    public Map<String, Integer> bound_value_max_lengths;
+    public Integer operation_max_length;
     public Integer whitelist_cache_validity_in_ms;
     public Integer whitelist_cache_update_interval_in_ms;
     public Integer whitelist_cache_max_entries;
+    public Integer role_whitelist_cache_validity_in_ms;
+    public Integer role_whitelist_cache_update_interval_in_ms;
+    public Integer role_whitelist_cache_max_entries;
+    public Boolean whitelist_cache_warmup;
+    public Integer whitelist_cache_warmup_concurrency;
+    public Integer whitelist_snapshot_refresh_interval_in_ms;
+    public Integer whitelist_near_cache_max_entries;
+    public Integer whitelist_generation_check_interval_in_ms;
     public Boolean suppress_prepare_statements;
+    public Integer statement_cache_max_entries;
+    public Boolean async_audit;
+    public Integer async_audit_queue_size;
+    public Integer async_audit_worker_threads;
+    public AsyncOverflowPolicy async_audit_overflow_policy;
 
     static AuditYamlConfig createWithoutFile()
     {
@@ -123,6 +145,16 @@ public final class AuditYamlConfig
         return bound_value_suppressor == null ? DEFAULT_BOUND_VALUE_SUPPRESSOR : bound_value_suppressor;
     }
 
+    Map<String, Integer> getBoundValueMaxLengths()
+    {
+        return bound_value_max_lengths == null ? Collections.emptyMap() : Collections.unmodifiableMap(bound_value_max_lengths);
+    }
+
+    int getOperationMaxLength()
+    {
+        return operation_max_length == null ? 0 : operation_max_length;
+    }
+
     public Integer getWhitelistCacheValidity()
     {
         return whitelist_cache_validity_in_ms == null
@@ -159,10 +191,96 @@ public final class AuditYamlConfig
         this.whitelist_cache_max_entries = whitelistCacheMaxEntries;
     }
 
+    public Integer getRoleWhitelistCacheValidity()
+    {
+        return role_whitelist_cache_validity_in_ms == null
+               ? getWhitelistCacheValidity()
+               : role_whitelist_cache_validity_in_ms;
+    }
+
+    public void setRoleWhitelistCacheValidity(Integer roleWhitelistCacheValidityInMs)
+    {
+        this.role_whitelist_cache_validity_in_ms = roleWhitelistCacheValidityInMs;
+    }
+
+    public Integer getRoleWhitelistCacheUpdateInterval()
+    {
+        return role_whitelist_cache_update_interval_in_ms == null
+               ? getWhitelistCacheUpdateInterval()
+               : role_whitelist_cache_update_interval_in_ms;
+    }
+
+    public void setRoleWhitelistCacheUpdateInterval(Integer roleWhitelistCacheUpdateIntervalInMs)
+    {
+        this.role_whitelist_cache_update_interval_in_ms = roleWhitelistCacheUpdateIntervalInMs;
+    }
+
+    public Integer getRoleWhitelistCacheMaxEntries()
+    {
+        return role_whitelist_cache_max_entries == null
+               ? DatabaseDescriptor.getRolesCacheMaxEntries()
+               : role_whitelist_cache_max_entries;
+    }
+
+    public void setRoleWhitelistCacheMaxEntries(Integer roleWhitelistCacheMaxEntries)
+    {
+        this.role_whitelist_cache_max_entries = roleWhitelistCacheMaxEntries;
+    }
+
+    boolean isWhitelistCacheWarmup()
+    {
+        return whitelist_cache_warmup != null && whitelist_cache_warmup;
+    }
+
+    int getWhitelistCacheWarmupConcurrency()
+    {
+        return whitelist_cache_warmup_concurrency == null ? DEFAULT_WHITELIST_CACHE_WARMUP_CONCURRENCY : whitelist_cache_warmup_concurrency;
+    }
+
+    int getWhitelistSnapshotRefreshInterval()
+    {
+        return whitelist_snapshot_refresh_interval_in_ms == null ? DEFAULT_WHITELIST_SNAPSHOT_REFRESH_INTERVAL_IN_MS : whitelist_snapshot_refresh_interval_in_ms;
+    }
+
+    int getWhitelistNearCacheMaxEntries()
+    {
+        return whitelist_near_cache_max_entries == null ? 0 : whitelist_near_cache_max_entries;
+    }
+
+    int getWhitelistGenerationCheckInterval()
+    {
+        return whitelist_generation_check_interval_in_ms == null ? DEFAULT_WHITELIST_GENERATION_CHECK_INTERVAL_IN_MS : whitelist_generation_check_interval_in_ms;
+    }
+
     public Boolean isSuppressPrepareStatements()
     {
         return suppress_prepare_statements == null
                ? Boolean.TRUE
                : suppress_prepare_statements;
     }
+
+    int getStatementCacheMaxEntries()
+    {
+        return statement_cache_max_entries == null ? DEFAULT_STATEMENT_CACHE_MAX_ENTRIES : statement_cache_max_entries;
+    }
+
+    boolean isAsyncAudit()
+    {
+        return async_audit != null && async_audit;
+    }
+
+    int getAsyncAuditQueueSize()
+    {
+        return async_audit_queue_size == null ? DEFAULT_ASYNC_AUDIT_QUEUE_SIZE : async_audit_queue_size;
+    }
+
+    int getAsyncAuditWorkerThreads()
+    {
+        return async_audit_worker_threads == null ? DEFAULT_ASYNC_AUDIT_WORKER_THREADS : async_audit_worker_threads;
+    }
+
+    AsyncOverflowPolicy getAsyncAuditOverflowPolicy()
+    {
+        return async_audit_overflow_policy == null ? DEFAULT_ASYNC_AUDIT_OVERFLOW_POLICY : async_audit_overflow_policy;
+    }
  }
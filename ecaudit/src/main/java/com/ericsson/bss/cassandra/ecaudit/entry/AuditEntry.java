@@ -39,6 +39,7 @@ public class AuditEntry implements AuditRecord
     private final InetSocketAddress clientAddress;
     private final InetAddress coordinatorAddress;
     private final Set<Permission> permissions;
+    private final long permissionMask;
     private final IResource resource;
     private final AuditOperation operation;
     private final String user;
@@ -56,6 +57,7 @@ public class AuditEntry implements AuditRecord
         this.clientAddress = builder.client;
         this.coordinatorAddress = builder.coordinator;
         this.permissions = builder.permissions;
+        this.permissionMask = builder.permissionMask;
         this.resource = builder.resource;
         this.operation = builder.operation;
         this.user = builder.user;
@@ -90,6 +92,16 @@ public class AuditEntry implements AuditRecord
         return permissions;
     }
 
+    /**
+     * Gets the permissions of this value object as a bitmask.
+     *
+     * @return the permission bitmask, as calculated by {@link PermissionMask#fromPermissions(Set)}
+     */
+    public long getPermissionMask()
+    {
+        return permissionMask;
+    }
+
     public IResource getResource()
     {
         return resource;
@@ -173,6 +185,7 @@ public class AuditEntry implements AuditRecord
         private InetSocketAddress client;
         private InetAddress coordinator;
         private Set<Permission> permissions;
+        private long permissionMask;
         private IResource resource;
         private AuditOperation operation;
         private String user;
@@ -206,6 +219,7 @@ public class AuditEntry implements AuditRecord
         public Builder permissions(Set<Permission> permissions)
         {
             this.permissions = permissions;
+            this.permissionMask = PermissionMask.fromPermissions(permissions);
             return this;
         }
 
@@ -283,6 +297,7 @@ public class AuditEntry implements AuditRecord
             this.client = entry.getClientAddress();
             this.coordinator = entry.getCoordinatorAddress();
             this.permissions = entry.getPermissions();
+            this.permissionMask = entry.getPermissionMask();
             this.resource = entry.getResource();
             this.operation = entry.getOperation();
             this.user = entry.getUser();
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maximum rendered lengths of bound values and of complete operations.
+ * <p>
+ * Bound value limits are configured per {@link TypeFamily}. A value or operation exceeding its limit is cut at the limit
+ * and followed by a truncation marker holding the original size in bytes, e.g. {@code 0x0102...[truncated, 5242880 bytes]}.
+ */
+public final class BoundValueLimits
+{
+    /**
+     * Maximum length of a value or operation which is never truncated.
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final BoundValueLimits NO_LIMITS = new BoundValueLimits(unlimitedValues(), UNLIMITED);
+
+    /**
+     * Families of CQL types which share a bound value limit.
+     */
+    public enum TypeFamily
+    {
+        /**
+         * The ascii, text and varchar types.
+         */
+        TEXT,
+        /**
+         * The blob type.
+         */
+        BLOB,
+        /**
+         * The list, set and map types.
+         */
+        COLLECTION,
+        /**
+         * All other types.
+         */
+        OTHER
+    }
+
+    private final int[] maxValueLengths;
+    private final int maxOperationLength;
+
+    private BoundValueLimits(int[] maxValueLengths, int maxOperationLength)
+    {
+        this.maxValueLengths = maxValueLengths;
+        this.maxOperationLength = maxOperationLength;
+    }
+
+    /**
+     * @return limits which never truncate anything
+     */
+    public static BoundValueLimits none()
+    {
+        return NO_LIMITS;
+    }
+
+    /**
+     * Create bound value limits. A limit of zero means that the value or operation is never truncated.
+     *
+     * @param maxValueLengths    the maximum rendered length of bound values, keyed by case insensitive type family name
+     * @param maxOperationLength the maximum rendered length of an operation, including the bound values of a prepared operation
+     * @return the bound value limits
+     * @throws IllegalArgumentException if a type family is unknown or if a limit is negative
+     */
+    public static BoundValueLimits create(Map<String, Integer> maxValueLengths, int maxOperationLength)
+    {
+        int[] valueLengths = unlimitedValues();
+        for (Map.Entry<String, Integer> entry : maxValueLengths.entrySet())
+        {
+            TypeFamily family = typeFamilyOf(entry.getKey());
+            valueLengths[family.ordinal()] = toLimit("bound value max length for " + entry.getKey(), entry.getValue());
+        }
+
+        return new BoundValueLimits(valueLengths, toLimit("operation max length", maxOperationLength));
+    }
+
+    private static int[] unlimitedValues()
+    {
+        int[] valueLengths = new int[TypeFamily.values().length];
+        Arrays.fill(valueLengths, UNLIMITED);
+        return valueLengths;
+    }
+
+    private static TypeFamily typeFamilyOf(String name)
+    {
+        try
+        {
+            return TypeFamily.valueOf(name.toUpperCase(Locale.ENGLISH));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Unknown bound value type family: " + name, e);
+        }
+    }
+
+    private static int toLimit(String description, Integer maxLength)
+    {
+        if (maxLength == null || maxLength < 0)
+        {
+            throw new IllegalArgumentException("Invalid " + description + ": " + maxLength);
+        }
+        return maxLength == 0 ? UNLIMITED : maxLength;
+    }
+
+    /**
+     * @param family the type family
+     * @return the maximum rendered length of bound values of the given type family, or {@link #UNLIMITED}
+     */
+    public int getMaxValueLength(TypeFamily family)
+    {
+        return maxValueLengths[family.ordinal()];
+    }
+
+    /**
+     * @return the maximum rendered length of an operation, or {@link #UNLIMITED}
+     */
+    public int getMaxOperationLength()
+    {
+        return maxOperationLength;
+    }
+}
@@ -16,9 +16,24 @@
 package com.ericsson.bss.cassandra.ecaudit.entry;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
+import com.ericsson.bss.cassandra.ecaudit.entry.BoundValueLimits.TypeFamily;
+import org.apache.cassandra.cql3.ColumnIdentifier;
 import org.apache.cassandra.cql3.ColumnSpecification;
+import org.apache.cassandra.db.marshal.AbstractType;
+import org.apache.cassandra.db.marshal.AsciiType;
+import org.apache.cassandra.db.marshal.BytesType;
+import org.apache.cassandra.db.marshal.ListType;
+import org.apache.cassandra.db.marshal.MapType;
+import org.apache.cassandra.db.marshal.ReversedType;
+import org.apache.cassandra.db.marshal.SetType;
+import org.apache.cassandra.db.marshal.TupleType;
+import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.db.marshal.UserType;
+import org.apache.cassandra.serializers.CollectionSerializer;
 import org.apache.cassandra.transport.ProtocolVersion;
+import org.apache.cassandra.utils.ByteBufferUtil;
 
 /**
  * This logic is extracted to a flavor specific adapter.
@@ -26,8 +41,11 @@ import org.apache.cassandra.transport.ProtocolVersion;
  * ecAudit comes in different flavors, one for each supported Cassandra version.
  * Flavor adapters encapsulates differences between flavors and simplifies maintenance.
  */
+@SuppressWarnings("PMD.GodClass") // Renders literals of every CQL type family
 final class CqlLiteralFlavorAdapter
 {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     private CqlLiteralFlavorAdapter()
     {
         // Utility class
@@ -37,4 +55,208 @@ final class CqlLiteralFlavorAdapter
     {
         return column.type.asCQL3Type().toCQLLiteral(serializedValue, ProtocolVersion.CURRENT);
     }
+
+    static TypeFamily typeFamilyOf(ColumnSpecification column)
+    {
+        AbstractType<?> type = unwrap(column.type);
+        if (type instanceof UTF8Type || type instanceof AsciiType)
+        {
+            return TypeFamily.TEXT;
+        }
+        if (type instanceof BytesType)
+        {
+            return TypeFamily.BLOB;
+        }
+        if (type instanceof ListType || type instanceof SetType || type instanceof MapType)
+        {
+            return TypeFamily.COLLECTION;
+        }
+        return TypeFamily.OTHER;
+    }
+
+    /**
+     * Append the CQL literal of a value, stopping as soon as the builder reaches the given length.
+     * <p>
+     * Text and blob values are only decoded up to the limit, and collection elements as well as the fields of user
+     * defined types and tuples are rendered one at a time. The literal of other types is rendered in full.
+     *
+     * @param builder         the builder to append the literal to
+     * @param serializedValue the value to render
+     * @param column          the column specification of the value
+     * @param limit           the builder length at which rendering may stop
+     * @return {@code true} if the complete literal was appended, {@code false} if rendering stopped early
+     */
+    static boolean appendCQLLiteral(StringBuilder builder, ByteBuffer serializedValue, ColumnSpecification column, int limit)
+    {
+        return appendLiteral(builder, serializedValue, unwrap(column.type), limit);
+    }
+
+    private static boolean appendLiteral(StringBuilder builder, ByteBuffer value, AbstractType<?> type, int limit)
+    {
+        if (value == null || !value.hasRemaining())
+        {
+            builder.append(type.asCQL3Type().toCQLLiteral(value, ProtocolVersion.CURRENT));
+            return true;
+        }
+
+        if (type instanceof UTF8Type || type instanceof AsciiType)
+        {
+            return appendText(builder, value, type, limit);
+        }
+        if (type instanceof BytesType)
+        {
+            return appendBlob(builder, value, type, limit);
+        }
+
+        return appendComposite(builder, value, type, limit);
+    }
+
+    private static boolean appendComposite(StringBuilder builder, ByteBuffer value, AbstractType<?> type, int limit)
+    {
+        if (type instanceof ListType)
+        {
+            return appendElements(builder, value, ((ListType<?>) type).getElementsType(), null, '[', ']', limit);
+        }
+        if (type instanceof SetType)
+        {
+            return appendElements(builder, value, ((SetType<?>) type).getElementsType(), null, '{', '}', limit);
+        }
+        if (type instanceof MapType)
+        {
+            MapType<?, ?> mapType = (MapType<?, ?>) type;
+            return appendElements(builder, value, mapType.getKeysType(), mapType.getValuesType(), '{', '}', limit);
+        }
+        if (type instanceof UserType)
+        {
+            return appendFields(builder, value, (UserType) type, '{', '}', limit);
+        }
+        if (type instanceof TupleType)
+        {
+            return appendFields(builder, value, (TupleType) type, '(', ')', limit);
+        }
+
+        builder.append(type.asCQL3Type().toCQLLiteral(value, ProtocolVersion.CURRENT));
+        return true;
+    }
+
+    private static boolean appendText(StringBuilder builder, ByteBuffer value, AbstractType<?> type, int limit)
+    {
+        int budget = limit - builder.length();
+        if (value.remaining() <= budget)
+        {
+            builder.append(type.asCQL3Type().toCQLLiteral(value, ProtocolVersion.CURRENT));
+            return true;
+        }
+
+        // Never cut in the middle of a multi byte UTF-8 character
+        int prefixLength = Math.max(budget, 0);
+        while (prefixLength > 0 && (value.get(value.position() + prefixLength) & 0xC0) == 0x80)
+        {
+            prefixLength--;
+        }
+
+        ByteBuffer prefix = value.duplicate();
+        prefix.limit(prefix.position() + prefixLength);
+        String text = StandardCharsets.UTF_8.decode(prefix).toString();
+        builder.append('\'');
+        for (int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+            if (c == '\'')
+            {
+                builder.append('\'');
+            }
+            builder.append(c);
+        }
+        return false;
+    }
+
+    private static boolean appendBlob(StringBuilder builder, ByteBuffer value, AbstractType<?> type, int limit)
+    {
+        long budget = (long) limit - builder.length() - 2;
+        if (value.remaining() * 2L <= budget)
+        {
+            builder.append(type.asCQL3Type().toCQLLiteral(value, ProtocolVersion.CURRENT));
+            return true;
+        }
+
+        int prefixLength = (int) Math.max((budget + 1) / 2, 0);
+        builder.append("0x");
+        for (int i = value.position(); i < value.position() + prefixLength; i++)
+        {
+            int b = value.get(i) & 0xFF;
+            builder.append(HEX_DIGITS[b >>> 4]).append(HEX_DIGITS[b & 0x0F]);
+        }
+        return false;
+    }
+
+    private static boolean appendElements(StringBuilder builder, ByteBuffer value, AbstractType<?> elementType, AbstractType<?> mappedType, char open, char close, int limit)
+    {
+        ByteBuffer input = value.duplicate();
+        int size = CollectionSerializer.readCollectionSize(input, ProtocolVersion.CURRENT);
+        builder.append(open);
+        for (int i = 0; i < size; i++)
+        {
+            if (builder.length() >= limit)
+            {
+                return false;
+            }
+            if (i > 0)
+            {
+                builder.append(", ");
+            }
+            if (!appendLiteral(builder, CollectionSerializer.readValue(input, ProtocolVersion.CURRENT), elementType, limit))
+            {
+                return false;
+            }
+            if (mappedType != null)
+            {
+                builder.append(": ");
+                if (!appendLiteral(builder, CollectionSerializer.readValue(input, ProtocolVersion.CURRENT), mappedType, limit))
+                {
+                    return false;
+                }
+            }
+        }
+        builder.append(close);
+        return true;
+    }
+
+    private static boolean appendFields(StringBuilder builder, ByteBuffer value, TupleType type, char open, char close, int limit)
+    {
+        ByteBuffer input = value.duplicate();
+        builder.append(open);
+        // A value may hold fewer fields than declared, if fields were added to the type later
+        for (int i = 0; i < type.size() && input.hasRemaining(); i++)
+        {
+            if (builder.length() >= limit)
+            {
+                return false;
+            }
+            if (i > 0)
+            {
+                builder.append(", ");
+            }
+            if (type instanceof UserType)
+            {
+                builder.append(ColumnIdentifier.maybeQuote(((UserType) type).fieldNameAsString(i))).append(": ");
+            }
+            int size = input.getInt();
+            if (size < 0)
+            {
+                builder.append("null");
+            }
+            else if (!appendLiteral(builder, ByteBufferUtil.readBytes(input, size), type.type(i), limit))
+            {
+                return false;
+            }
+        }
+        builder.append(close);
+        return true;
+    }
+
+    private static AbstractType<?> unwrap(AbstractType<?> type)
+    {
+        return type instanceof ReversedType ? ((ReversedType<?>) type).baseType : type;
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry;
+
+import java.util.Set;
+
+import org.apache.cassandra.auth.Permission;
+
+/**
+ * Represents a set of permissions as a {@code long} bitmask, with one bit per {@link Permission} ordinal.
+ * <p>
+ * The bitmask of an {@link AuditEntry} is calculated once when the entry is built. Filters and cache keys can then test
+ * and compare permissions without iterating over, or hashing, the permission set.
+ */
+public final class PermissionMask
+{
+    /**
+     * The bitmask of an empty set of permissions.
+     */
+    public static final long NONE = 0L;
+
+    private static final Permission[] PERMISSIONS = Permission.values();
+
+    static
+    {
+        if (PERMISSIONS.length > Long.SIZE)
+        {
+            throw new IllegalStateException("Too many permissions for a permission bitmask: " + PERMISSIONS.length);
+        }
+    }
+
+    private PermissionMask()
+    {
+        // Utility class
+    }
+
+    /**
+     * @param permission the permission
+     * @return the bitmask of the given permission
+     */
+    public static long fromPermission(Permission permission)
+    {
+        return 1L << permission.ordinal();
+    }
+
+    /**
+     * @param permissions the permissions, may be {@code null}
+     * @return the bitmask of the given permissions, or {@link #NONE} if {@code null}
+     */
+    public static long fromPermissions(Set<Permission> permissions)
+    {
+        if (permissions == null)
+        {
+            return NONE;
+        }
+
+        long mask = NONE;
+        for (Permission permission : permissions)
+        {
+            mask |= fromPermission(permission);
+        }
+        return mask;
+    }
+
+    /**
+     * @param mask       the bitmask to test
+     * @param permission the permission to look for
+     * @return true if the bitmask contains the given permission
+     */
+    public static boolean contains(long mask, Permission permission)
+    {
+        return (mask & fromPermission(permission)) != NONE;
+    }
+
+    /**
+     * Get the permission of the lowest bit in a bitmask. The permissions of a bitmask are iterated by clearing the
+     * lowest bit with {@code mask &= mask - 1} until the bitmask is {@link #NONE}.
+     *
+     * @param mask the bitmask, must not be {@link #NONE}
+     * @return the permission of the lowest bit in the bitmask
+     */
+    public static Permission lowest(long mask)
+    {
+        return PERMISSIONS[Long.numberOfTrailingZeros(mask)];
+    }
+}
@@ -17,11 +17,13 @@ package com.ericsson.bss.cassandra.ecaudit.entry;
 
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
 
 import com.ericsson.bss.cassandra.ecaudit.common.record.AuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.BoundValueSuppressor;
+import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.SuppressionPlan;
 
 import org.apache.cassandra.cql3.ColumnSpecification;
 import org.apache.cassandra.cql3.QueryOptions;
@@ -31,7 +33,11 @@ import org.apache.cassandra.cql3.QueryOptions;
  *
  * This implementation provides lazy binding of parameters to prepared statement until the operation string is requested
  * the first time. The effective operation/statement will be cached and used on subsequent calls to
- * {@link #getOperationString()}.
+ * {@link #getOperationString()} and {@link #appendOperationTo(StringBuilder)}. The first call to
+ * {@link #appendOperationTo(StringBuilder)} renders the operation straight into the builder without caching it, since
+ * most operations are only logged once. The operation is cached when it is appended a second time.
+ *
+ * Bound values and the operation as a whole are truncated according to the configured {@link BoundValueLimits}.
  *
  * This implementation is not thread safe.
  */
@@ -40,7 +46,9 @@ public class PreparedAuditOperation implements AuditOperation
     private final String preparedStatement;
     private final QueryOptions options;
     private String effectiveStatement; // lazy initialization
-    private final BoundValueSuppressor boundValueSuppressor;
+    private boolean appended;
+    private final Function<List<ColumnSpecification>, SuppressionPlan> suppressionPlanner;
+    private final BoundValueLimits boundValueLimits;
 
     /**
      * Construct a new prepared audit operation based on the prepared statement and options.
@@ -53,10 +61,49 @@ public class PreparedAuditOperation implements AuditOperation
      *            the suppressor to process bound values
      */
     public PreparedAuditOperation(String preparedStatement, QueryOptions options, BoundValueSuppressor boundValueSuppressor)
+    {
+        this(preparedStatement, options, boundValueSuppressor, BoundValueLimits.none());
+    }
+
+    /**
+     * Construct a new prepared audit operation based on the prepared statement and options.
+     *
+     * @param preparedStatement
+     *            the prepared statement
+     * @param options
+     *            the query options of an operation
+     * @param boundValueSuppressor
+     *            the suppressor to process bound values
+     * @param boundValueLimits
+     *            the maximum rendered lengths of bound values and of the operation
+     */
+    public PreparedAuditOperation(String preparedStatement, QueryOptions options, BoundValueSuppressor boundValueSuppressor, BoundValueLimits boundValueLimits)
+    {
+        this.preparedStatement = preparedStatement;
+        this.options = options;
+        this.suppressionPlanner = boundValueSuppressor::planFor;
+        this.boundValueLimits = boundValueLimits;
+    }
+
+    /**
+     * Construct a new prepared audit operation based on the prepared statement and options, using a suppression plan
+     * resolved when the statement was prepared.
+     *
+     * @param preparedStatement
+     *            the prepared statement
+     * @param options
+     *            the query options of an operation
+     * @param suppressionPlan
+     *            the suppression plan of the bound values of the prepared statement
+     * @param boundValueLimits
+     *            the maximum rendered lengths of bound values and of the operation
+     */
+    public PreparedAuditOperation(String preparedStatement, QueryOptions options, SuppressionPlan suppressionPlan, BoundValueLimits boundValueLimits)
     {
         this.preparedStatement = preparedStatement;
         this.options = options;
-        this.boundValueSuppressor = boundValueSuppressor;
+        this.suppressionPlanner = columns -> suppressionPlan;
+        this.boundValueLimits = boundValueLimits;
     }
 
     @Override
@@ -70,6 +117,26 @@ public class PreparedAuditOperation implements AuditOperation
         return effectiveStatement;
     }
 
+    @Override
+    public void appendOperationTo(StringBuilder builder)
+    {
+        if (effectiveStatement == null && appended)
+        {
+            int start = builder.length();
+            appendBoundStatement(builder);
+            effectiveStatement = builder.substring(start);
+        }
+        else if (effectiveStatement == null)
+        {
+            appended = true;
+            appendBoundStatement(builder);
+        }
+        else
+        {
+            builder.append(effectiveStatement);
+        }
+    }
+
     /**
      * Bind marked values in the given prepared statement.
      *
@@ -82,43 +149,114 @@ public class PreparedAuditOperation implements AuditOperation
             return preparedStatement;
         }
 
-        return preparedWithValues();
+        StringBuilder fullStatement = new StringBuilder(preparedStatement.length() * 2);
+        appendStatementWithValues(fullStatement);
+        return fullStatement.toString();
     }
 
-    private String preparedWithValues()
+    private void appendBoundStatement(StringBuilder builder)
     {
-        StringBuilder fullStatement = new StringBuilder(preparedStatement);
-
-        fullStatement.append('[');
-
-        if (options.getValues().isEmpty())
+        if (options.hasColumnSpecifications())
         {
-            fullStatement.append(']');
+            appendStatementWithValues(builder);
         }
         else
         {
-            Queue<ByteBuffer> values = new LinkedList<>(options.getValues());
-            for (ColumnSpecification column : options.getColumnSpecifications())
+            builder.append(preparedStatement);
+        }
+    }
+
+    private void appendStatementWithValues(StringBuilder builder)
+    {
+        int start = builder.length();
+        int operationLimit = limitOf(start, boundValueLimits.getMaxOperationLength());
+        builder.append(preparedStatement).append('[');
+
+        List<ByteBuffer> values = options.getValues();
+        boolean complete = true;
+        if (!values.isEmpty())
+        {
+            List<ColumnSpecification> columns = options.getColumnSpecifications();
+            SuppressionPlan suppressionPlan = suppressionPlanner.apply(columns);
+            Iterator<ByteBuffer> valueIterator = values.iterator();
+            for (int i = 0; i < columns.size() && valueIterator.hasNext(); i++)
             {
-                ByteBuffer value = values.remove();
-                String valueString;
-                try
+                if (builder.length() >= operationLimit)
                 {
-                    valueString = boundValueSuppressor.suppress(column, value)
-                                .orElseGet(() -> CqlLiteralFlavorAdapter.toCQLLiteral(value, column));
+                    complete = false;
+                    break;
                 }
-                catch (BufferUnderflowException e)
+                if (i > 0)
                 {
-                    valueString = "null";
+                    builder.append(", ");
                 }
-                fullStatement.append(valueString).append(", ");
+                appendValue(builder, suppressionPlan, i, columns.get(i), valueIterator.next(), operationLimit);
             }
+        }
 
-            fullStatement.setLength(fullStatement.length() - 1);
-            fullStatement.setCharAt(fullStatement.length() - 1, ']');
+        builder.append(']');
+        if (!complete || builder.length() > operationLimit)
+        {
+            builder.setLength(Math.min(builder.length(), operationLimit));
+            appendTruncationMarker(builder, totalSize(values));
         }
+    }
 
-        return fullStatement.toString();
+    private void appendValue(StringBuilder builder, SuppressionPlan suppressionPlan, int index, ColumnSpecification column, ByteBuffer value, int operationLimit)
+    {
+        int start = builder.length();
+        try
+        {
+            String suppressedValue = suppressionPlan.suppress(index, column, value);
+            if (suppressedValue != null)
+            {
+                builder.append(suppressedValue);
+                return;
+            }
+
+            int maxValueLength = boundValueLimits.getMaxValueLength(CqlLiteralFlavorAdapter.typeFamilyOf(column));
+            if (maxValueLength == BoundValueLimits.UNLIMITED && operationLimit == Integer.MAX_VALUE)
+            {
+                builder.append(CqlLiteralFlavorAdapter.toCQLLiteral(value, column));
+                return;
+            }
+
+            int limit = Math.min(limitOf(start, maxValueLength), operationLimit);
+            boolean complete = CqlLiteralFlavorAdapter.appendCQLLiteral(builder, value, column, limit);
+            if (!complete || builder.length() > limit)
+            {
+                builder.setLength(Math.min(builder.length(), limit));
+                appendTruncationMarker(builder, value == null ? 0 : value.remaining());
+            }
+        }
+        catch (BufferUnderflowException e)
+        {
+            builder.setLength(start);
+            builder.append("null");
+        }
+    }
+
+    private static int limitOf(int start, int maxLength)
+    {
+        return (int) Math.min((long) start + maxLength, Integer.MAX_VALUE);
+    }
+
+    private static void appendTruncationMarker(StringBuilder builder, long originalBytes)
+    {
+        builder.append("...[truncated, ").append(originalBytes).append(" bytes]");
+    }
+
+    private static long totalSize(List<ByteBuffer> values)
+    {
+        long size = 0;
+        for (ByteBuffer value : values)
+        {
+            if (value != null)
+            {
+                size += value.remaining();
+            }
+        }
+        return size;
     }
 
     @Override
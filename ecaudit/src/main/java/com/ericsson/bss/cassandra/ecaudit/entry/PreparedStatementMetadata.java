@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry;
+
+import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.SuppressionPlan;
+
+/**
+ * The audit metadata of a prepared statement which is the same for every execution of the statement.
+ * <p>
+ * The metadata is resolved once per prepared statement, so that executions only need to attach client, user,
+ * bound values and status.
+ */
+public final class PreparedStatementMetadata
+{
+    private final String rawStatement;
+    private final AuditEntry template;
+    private final SuppressionPlan suppressionPlan;
+
+    /**
+     * @param rawStatement    the raw prepared statement string
+     * @param template        the template entry carrying the resolved permissions and resource of the statement
+     * @param suppressionPlan the suppression plan of the bound values of the statement
+     */
+    public PreparedStatementMetadata(String rawStatement, AuditEntry template, SuppressionPlan suppressionPlan)
+    {
+        this.rawStatement = rawStatement;
+        this.template = template;
+        this.suppressionPlan = suppressionPlan;
+    }
+
+    /**
+     * @return the raw prepared statement string, i.e. the naked operation
+     */
+    public String getRawStatement()
+    {
+        return rawStatement;
+    }
+
+    /**
+     * @return the template entry carrying the permissions and resource of the statement
+     */
+    public AuditEntry getTemplate()
+    {
+        return template;
+    }
+
+    /**
+     * @return the suppression plan of the bound values of the statement
+     */
+    public SuppressionPlan getSuppressionPlan()
+    {
+        return suppressionPlan;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry;
+
+import com.google.common.base.Utf8;
+
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditOperation;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
+
+/**
+ * Wraps an unprepared operation/statement which is longer than the operation max length of the {@link BoundValueLimits}.
+ *
+ * The operation is cut at the max length and followed by a truncation marker holding its original size in bytes, e.g.
+ * {@code INSERT INTO ks.tbl (id, data) VALUES (1, 'aaa...[truncated, 5242880 bytes]}. The operation is truncated when it
+ * is rendered, so that passwords in the complete operation can be obfuscated first, see {@link #getFullOperationString()}.
+ *
+ * This implementation is not thread safe.
+ */
+public final class TruncatedAuditOperation implements AuditOperation
+{
+    private final String operationString;
+    private final int maxLength;
+    private String truncatedOperationString; // lazy initialization
+
+    private TruncatedAuditOperation(String operationString, int maxLength)
+    {
+        this.operationString = operationString;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Create an audit operation for an unprepared operation/statement, which is truncated if it exceeds the max length.
+     *
+     * @param operationString the operation/statement to wrap
+     * @param maxLength       the maximum rendered length of the operation, or {@link BoundValueLimits#UNLIMITED}
+     * @return the audit operation
+     */
+    public static AuditOperation create(String operationString, int maxLength)
+    {
+        if (operationString.length() <= maxLength)
+        {
+            return new SimpleAuditOperation(operationString);
+        }
+
+        return new TruncatedAuditOperation(operationString, maxLength);
+    }
+
+    /**
+     * @return the complete operation, before truncation
+     */
+    public String getFullOperationString()
+    {
+        return operationString;
+    }
+
+    /**
+     * Create an audit operation for a modified operation, e.g. with obfuscated passwords, truncated like this one.
+     *
+     * @param modifiedOperationString the complete modified operation
+     * @return the audit operation
+     */
+    public AuditOperation withOperationString(String modifiedOperationString)
+    {
+        return create(modifiedOperationString, maxLength);
+    }
+
+    @Override
+    public String getOperationString()
+    {
+        if (truncatedOperationString == null)
+        {
+            StringBuilder builder = new StringBuilder(maxLength + 32);
+            appendOperationTo(builder);
+            truncatedOperationString = builder.toString();
+        }
+
+        return truncatedOperationString;
+    }
+
+    @Override
+    public void appendOperationTo(StringBuilder builder)
+    {
+        if (truncatedOperationString == null)
+        {
+            // Never cut in the middle of a surrogate pair
+            int length = Character.isHighSurrogate(operationString.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+            builder.append(operationString, 0, length)
+                   .append("...[truncated, ").append(Utf8.encodedLength(operationString)).append(" bytes]");
+        }
+        else
+        {
+            builder.append(truncatedOperationString);
+        }
+    }
+
+    @Override
+    public String getNakedOperationString()
+    {
+        return getOperationString();
+    }
+}
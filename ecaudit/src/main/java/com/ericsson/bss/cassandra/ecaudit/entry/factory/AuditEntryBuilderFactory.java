@@ -98,6 +98,17 @@ public class AuditEntryBuilderFactory
     private static final Set<Permission> AUTHORIZE_PERMISSIONS = ImmutableSet.of(Permission.AUTHORIZE);
 
     private final StatementResourceAdapter statementResourceAdapter = new StatementResourceAdapter();
+    private final StatementClassificationCache classificationCache;
+
+    public AuditEntryBuilderFactory()
+    {
+        this(StatementClassificationCache.disabled());
+    }
+
+    public AuditEntryBuilderFactory(StatementClassificationCache classificationCache)
+    {
+        this.classificationCache = classificationCache;
+    }
 
     public Builder createAuthenticationEntryBuilder()
     {
@@ -121,19 +132,56 @@ public class AuditEntryBuilderFactory
 
     private Builder createEntryBuilderForUnpreparedStatement(String operation, ClientState state)
     {
+        String keyspace = state.getRawKeyspace();
+        AuditEntry template = classificationCache.get(keyspace, operation);
+        if (template != null)
+        {
+            return AuditEntry.newBuilder().basedOn(template);
+        }
+
         try
         {
             CQLStatement statement = QueryProcessor.getStatement(operation, state).statement;
-            return createEntryBuilder(statement);
+            Builder builder = createEntryBuilder(statement);
+            if (isCacheable(statement))
+            {
+                classificationCache.put(keyspace, operation, builder.build());
+            }
+            return builder;
         }
         catch (InvalidRequestException e)
         {
             LOG.trace("Failed to prepare statement - trying direct parsing", e);
             ParsedStatement parsedStatement = getParsedStatement(operation, state);
-            return createEntryBuilder(parsedStatement);
+            Builder builder = createEntryBuilder(parsedStatement);
+            if (isCacheable(parsedStatement))
+            {
+                classificationCache.put(keyspace, operation, builder.build());
+            }
+            return builder;
         }
     }
 
+    /**
+     * Only data manipulation statements are cached. Their classification is given by the query string and the
+     * session keyspace alone, and they don't carry credentials which should be kept out of the cache.
+     */
+    private static boolean isCacheable(CQLStatement statement)
+    {
+        return statement instanceof SelectStatement
+               || statement instanceof ModificationStatement
+               || statement instanceof BatchStatement
+               || statement instanceof TruncateStatement;
+    }
+
+    private static boolean isCacheable(ParsedStatement parsedStatement)
+    {
+        return parsedStatement instanceof SelectStatement.RawStatement
+               || parsedStatement instanceof ModificationStatement.Parsed
+               || parsedStatement instanceof BatchStatement.Parsed
+               || parsedStatement instanceof TruncateStatement;
+    }
+
     private ParsedStatement getParsedStatement(String operation, ClientState state)
     {
         ParsedStatement parsedStatement = QueryProcessor.parseStatement(operation);
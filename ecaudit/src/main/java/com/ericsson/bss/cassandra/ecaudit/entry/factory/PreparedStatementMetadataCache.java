@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry.factory;
+
+import java.lang.ref.WeakReference;
+import java.util.function.Function;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import com.ericsson.bss.cassandra.ecaudit.entry.PreparedStatementMetadata;
+import org.apache.cassandra.cql3.statements.ParsedStatement;
+import org.apache.cassandra.utils.MD5Digest;
+
+/**
+ * A bounded cache of the audit metadata of prepared statements, keyed by statement id.
+ * <p>
+ * Cassandra doesn't notify anyone when it evicts a prepared statement. Each cached entry therefore remembers the
+ * prepared statement instance it was resolved for. When Cassandra evicts a statement and it is prepared again the new
+ * instance no longer matches, and the metadata is resolved again. Only a weak reference is kept, so the cache never
+ * holds on to prepared statements which Cassandra has evicted.
+ */
+public class PreparedStatementMetadataCache
+{
+    private final boolean enabled;
+    private final Cache<MD5Digest, CacheEntry> cache;
+
+    /**
+     * Create a new prepared statement metadata cache.
+     *
+     * @param maxEntries the maximum number of cached statements, the cache is disabled if zero or less
+     */
+    public PreparedStatementMetadataCache(int maxEntries)
+    {
+        this.enabled = maxEntries > 0;
+        this.cache = CacheBuilder.newBuilder().maximumSize(Math.max(0, maxEntries)).build();
+    }
+
+    /**
+     * Get the metadata of a prepared statement, resolving it if not already cached.
+     *
+     * @param id       the id of the prepared statement
+     * @param prepared the prepared statement
+     * @param resolver resolves the metadata of the prepared statement
+     * @return the metadata of the prepared statement
+     */
+    public PreparedStatementMetadata get(MD5Digest id, ParsedStatement.Prepared prepared, Function<ParsedStatement.Prepared, PreparedStatementMetadata> resolver)
+    {
+        if (!enabled)
+        {
+            return resolver.apply(prepared);
+        }
+
+        CacheEntry entry = cache.getIfPresent(id);
+        if (entry != null && entry.isFor(prepared))
+        {
+            return entry.metadata;
+        }
+
+        PreparedStatementMetadata metadata = resolver.apply(prepared);
+        cache.put(id, new CacheEntry(prepared, metadata));
+        return metadata;
+    }
+
+    /**
+     * Invalidate the metadata of an evicted prepared statement.
+     *
+     * @param id the id of the prepared statement
+     */
+    public void invalidate(MD5Digest id)
+    {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Invalidate the metadata of all prepared statements.
+     */
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    @VisibleForTesting
+    long size()
+    {
+        return cache.size();
+    }
+
+    private static final class CacheEntry
+    {
+        private final WeakReference<ParsedStatement.Prepared> prepared;
+        private final PreparedStatementMetadata metadata;
+
+        CacheEntry(ParsedStatement.Prepared prepared, PreparedStatementMetadata metadata)
+        {
+            this.prepared = new WeakReference<>(prepared);
+            this.metadata = metadata;
+        }
+
+        boolean isFor(ParsedStatement.Prepared candidate)
+        {
+            return prepared.get() == candidate;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry.factory;
+
+import java.util.Objects;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.metrics.AuditMetrics;
+
+/**
+ * A bounded cache of how unprepared statements are classified for audit, i.e. which permissions and resource
+ * they map to.
+ * <p>
+ * The classification of a statement may depend on the keyspace of the client session, so entries are keyed
+ * on both the raw keyspace and the query string. Classified entries are stored as template {@link AuditEntry}
+ * instances carrying only permissions and resource.
+ * <p>
+ * Statements longer than {@value #MAX_STATEMENT_LENGTH} characters are not cached. Such statements typically carry
+ * large literal values, are unlikely to be repeated, and would keep the query strings in memory.
+ */
+public class StatementClassificationCache
+{
+    @VisibleForTesting
+    static final int MAX_STATEMENT_LENGTH = 1024;
+
+    private static final StatementClassificationCache DISABLED = new StatementClassificationCache(0, null);
+
+    private final boolean enabled;
+    private final Cache<CacheKey, AuditEntry> cache;
+    private final AuditMetrics auditMetrics;
+
+    /**
+     * Create a new statement classification cache.
+     *
+     * @param maxEntries   the maximum number of cached statements, the cache is disabled if zero or less
+     * @param auditMetrics the metrics to report cache hits and misses to
+     */
+    public StatementClassificationCache(int maxEntries, AuditMetrics auditMetrics)
+    {
+        this.enabled = maxEntries > 0;
+        this.cache = CacheBuilder.newBuilder().maximumSize(Math.max(0, maxEntries)).build();
+        this.auditMetrics = auditMetrics;
+    }
+
+    /**
+     * @return a cache instance which never caches anything
+     */
+    public static StatementClassificationCache disabled()
+    {
+        return DISABLED;
+    }
+
+    /**
+     * Get the classification of a statement.
+     *
+     * @param keyspace  the raw keyspace of the client session, may be null
+     * @param operation the query string
+     * @return the template entry of the statement, or null if the statement is not cached
+     */
+    AuditEntry get(String keyspace, String operation)
+    {
+        if (!isCacheable(operation))
+        {
+            return null;
+        }
+
+        AuditEntry template = cache.getIfPresent(new CacheKey(keyspace, operation));
+        if (template == null)
+        {
+            auditMetrics.statementCacheMiss();
+        }
+        else
+        {
+            auditMetrics.statementCacheHit();
+        }
+        return template;
+    }
+
+    /**
+     * Store the classification of a statement.
+     *
+     * @param keyspace  the raw keyspace of the client session, may be null
+     * @param operation the query string
+     * @param template  the template entry carrying the resolved permissions and resource
+     */
+    void put(String keyspace, String operation, AuditEntry template)
+    {
+        if (isCacheable(operation))
+        {
+            cache.put(new CacheKey(keyspace, operation), template);
+        }
+    }
+
+    private boolean isCacheable(String operation)
+    {
+        return enabled && operation.length() <= MAX_STATEMENT_LENGTH;
+    }
+
+    @VisibleForTesting
+    long size()
+    {
+        return cache.size();
+    }
+
+    private static final class CacheKey
+    {
+        private final String keyspace;
+        private final String operation;
+        private final int hashCode;
+
+        CacheKey(String keyspace, String operation)
+        {
+            this.keyspace = keyspace;
+            this.operation = operation;
+            this.hashCode = Objects.hash(keyspace, operation);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof CacheKey))
+            {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return hashCode == other.hashCode
+                   && operation.equals(other.operation)
+                   && Objects.equals(keyspace, other.keyspace);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -15,6 +15,8 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.entry.suppressor;
 
+import java.util.List;
+
 import org.apache.cassandra.cql3.ColumnSpecification;
 
 import static com.ericsson.bss.cassandra.ecaudit.utils.Strings.removeFrozenBrackets;
@@ -29,4 +31,30 @@ public abstract class AbstractSuppressor implements BoundValueSuppressor
     {
         return "<" + removeFrozenBrackets(column.type.asCQL3Type().toString()) + ">";
     }
+
+    /**
+     * Compute the suppression plan for the bound columns of a prepared statement, with the decision of each column
+     * resolved up front.
+     * <p>
+     * Only to be used by suppressors whose decisions depend on the column only, as the plan is computed without
+     * any bound value. The plan is computed when the statement is prepared and kept with its prepared statement
+     * metadata.
+     *
+     * @param columns the bound columns of the prepared statement
+     * @return the suppression plan of the bound columns
+     */
+    protected SuppressionPlan columnPlanFor(List<ColumnSpecification> columns)
+    {
+        String[] suppressedValues = new String[columns.size()];
+        boolean suppressesAny = false;
+        for (int i = 0; i < suppressedValues.length; i++)
+        {
+            suppressedValues[i] = suppress(columns.get(i), null).orElse(null);
+            suppressesAny |= suppressedValues[i] != null;
+        }
+
+        return suppressesAny
+               ? (index, column, value) -> suppressedValues[index]
+               : SuppressionPlan.SUPPRESS_NOTHING;
+    }
 }
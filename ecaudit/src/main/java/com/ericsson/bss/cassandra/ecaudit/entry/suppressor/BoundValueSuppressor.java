@@ -16,6 +16,7 @@
 package com.ericsson.bss.cassandra.ecaudit.entry.suppressor;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.cassandra.cql3.ColumnSpecification;
@@ -34,4 +35,19 @@ public interface BoundValueSuppressor
      * should not be suppressed.
      */
     Optional<String> suppress(ColumnSpecification column, ByteBuffer value);
+
+    /**
+     * Creates the suppression plan for the bound columns of a prepared statement.
+     * <p>
+     * The plan is created when a statement is prepared and is kept with the metadata of the prepared statement.
+     * The default plan invokes {@link #suppress(ColumnSpecification, ByteBuffer)} for every bound value. Suppressors
+     * whose decisions only depend on the column may return a plan with the decisions resolved up front.
+     *
+     * @param columns the bound columns of the prepared statement
+     * @return the suppression plan of the bound columns
+     */
+    default SuppressionPlan planFor(List<ColumnSpecification> columns)
+    {
+        return (index, column, value) -> suppress(column, value).orElse(null);
+    }
 }
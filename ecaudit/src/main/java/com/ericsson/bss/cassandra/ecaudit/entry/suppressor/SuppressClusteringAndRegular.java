@@ -16,6 +16,7 @@
 package com.ericsson.bss.cassandra.ecaudit.entry.suppressor;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.cassandra.config.ColumnDefinition;
@@ -23,6 +24,12 @@ import org.apache.cassandra.cql3.ColumnSpecification;
 
 public class SuppressClusteringAndRegular extends AbstractSuppressor
 {
+    @Override
+    public SuppressionPlan planFor(List<ColumnSpecification> columns)
+    {
+        return columnPlanFor(columns);
+    }
+
     @Override
     public Optional<String> suppress(ColumnSpecification column, ByteBuffer value)
     {
@@ -16,6 +16,7 @@
 package com.ericsson.bss.cassandra.ecaudit.entry.suppressor;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.cassandra.cql3.ColumnSpecification;
@@ -27,4 +28,10 @@ public class SuppressNothing implements BoundValueSuppressor
     {
         return Optional.empty(); // No values should be suppressed
     }
+
+    @Override
+    public SuppressionPlan planFor(List<ColumnSpecification> columns)
+    {
+        return SuppressionPlan.SUPPRESS_NOTHING;
+    }
 }
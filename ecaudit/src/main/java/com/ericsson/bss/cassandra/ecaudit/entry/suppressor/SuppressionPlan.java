@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry.suppressor;
+
+import java.nio.ByteBuffer;
+
+import org.apache.cassandra.cql3.ColumnSpecification;
+
+/**
+ * The suppression decisions for the bound columns of a prepared statement.
+ */
+@FunctionalInterface
+public interface SuppressionPlan
+{
+    /**
+     * A plan which never suppresses any value.
+     */
+    SuppressionPlan SUPPRESS_NOTHING = (index, column, value) -> null;
+
+    /**
+     * Creates an suppressed string representation of the bound value only IF the column should be suppressed.
+     *
+     * @param index  the index of the bound column in the prepared statement
+     * @param column the column to check
+     * @param value  the value that may be suppressed
+     * @return the suppressed string representation of the bound value, or {@code null} if the value should not be
+     * suppressed.
+     */
+    String suppress(int index, ColumnSpecification column, ByteBuffer value);
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.facade;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.bss.cassandra.ecaudit.config.AsyncOverflowPolicy;
+import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import org.apache.cassandra.concurrent.NamedThreadFactory;
+import org.apache.cassandra.service.StorageService;
+
+/**
+ * Hands off audit entries from request threads to a pool of dedicated audit workers.
+ * <p>
+ * The request thread only enqueues the entry. Filtering, obfuscation and logging is performed by the workers.
+ * The entries of a batch are enqueued as one unit, and occupy a single slot in the queue.
+ * The {@link AsyncOverflowPolicy} decides what happens when the queue is full.
+ * <p>
+ * Records are processed in order when a single worker thread is used.
+ * <p>
+ * When started the dispatcher registers a post shutdown hook with Cassandra, which stops accepting new entries and
+ * lets the workers process the entries still in the queue before they are stopped. Entries which are handed off while
+ * the dispatcher is closed are either processed by the closing thread or dropped, and producers blocked on a full
+ * queue give up when the dispatcher is closed.
+ */
+public class AsyncAuditDispatcher implements AutoCloseable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncAuditDispatcher.class);
+
+    private static final long LOST_RECORDS_POLL_INTERVAL_MS = 1000;
+    private static final long CLOSE_TIMEOUT_MS = 10_000;
+    private static final long BLOCKED_PUT_RECHECK_INTERVAL_MS = 100;
+
+    private final BlockingQueue<List<AuditEntry>> queue;
+    private final int workerThreads;
+    private final AsyncOverflowPolicy overflowPolicy;
+    private final AtomicLong lostRecords = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Consumer<Runnable> shutdownHooks;
+
+    private Consumer<AuditEntry> processor;
+    private Consumer<List<AuditEntry>> bulkProcessor;
+    private LongConsumer lostRecordsReporter;
+    private volatile boolean started;
+    private volatile boolean active;
+
+    /**
+     * Create a new dispatcher. The dispatcher will not accept entries until it is started.
+     *
+     * @param queueSize      the maximum number of entries, or batches of entries, waiting to be processed
+     * @param workerThreads  the number of worker threads
+     * @param overflowPolicy what to do when the queue is full
+     */
+    public AsyncAuditDispatcher(int queueSize, int workerThreads, AsyncOverflowPolicy overflowPolicy)
+    {
+        this(queueSize, workerThreads, overflowPolicy, AsyncAuditDispatcher::addPostShutdownHook);
+    }
+
+    @VisibleForTesting
+    AsyncAuditDispatcher(int queueSize, int workerThreads, AsyncOverflowPolicy overflowPolicy, Consumer<Runnable> shutdownHooks)
+    {
+        if (queueSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid async audit queue size: " + queueSize);
+        }
+        if (workerThreads <= 0)
+        {
+            throw new IllegalArgumentException("Invalid number of async audit worker threads: " + workerThreads);
+        }
+
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.workerThreads = workerThreads;
+        this.overflowPolicy = overflowPolicy;
+        this.shutdownHooks = shutdownHooks;
+    }
+
+    private static void addPostShutdownHook(Runnable hook)
+    {
+        StorageService.instance.addPostShutdownHook(hook);
+    }
+
+    /**
+     * Start the worker threads. The entries of a batch are passed one by one to the processor.
+     *
+     * @param processor           invoked on a worker thread for each entry
+     * @param lostRecordsReporter invoked on a worker thread with the number of dropped entries, only used with the
+     *                            {@link AsyncOverflowPolicy#drop_with_marker} policy
+     */
+    void start(Consumer<AuditEntry> processor, LongConsumer lostRecordsReporter)
+    {
+        start(processor, entries -> entries.forEach(processor), lostRecordsReporter);
+    }
+
+    /**
+     * Start the worker threads. Nothing happens if the dispatcher is already started.
+     *
+     * @param processor           invoked on a worker thread for each single entry
+     * @param bulkProcessor       invoked on a worker thread for the entries of each batch
+     * @param lostRecordsReporter invoked on a worker thread with the number of dropped entries, only used with the
+     *                            {@link AsyncOverflowPolicy#drop_with_marker} policy
+     */
+    synchronized void start(Consumer<AuditEntry> processor, Consumer<List<AuditEntry>> bulkProcessor, LongConsumer lostRecordsReporter)
+    {
+        if (started)
+        {
+            return;
+        }
+
+        this.processor = processor;
+        this.bulkProcessor = bulkProcessor;
+        this.lostRecordsReporter = lostRecordsReporter;
+        active = true;
+        started = true;
+
+        NamedThreadFactory threadFactory = new NamedThreadFactory("Audit Worker");
+        for (int i = 0; i < workerThreads; i++)
+        {
+            Thread worker = threadFactory.newThread(this::workerLoop);
+            workers.add(worker);
+            worker.start();
+        }
+        shutdownHooks.accept(this::close);
+    }
+
+    /**
+     * @return {@code true} if the dispatcher has been started, also if it has been closed since
+     */
+    boolean isStarted()
+    {
+        return started;
+    }
+
+    /**
+     * Hand off an entry to the worker threads.
+     *
+     * @param entry the entry to process
+     * @return {@code true} if the entry was enqueued, {@code false} if it was dropped
+     */
+    boolean dispatch(AuditEntry entry)
+    {
+        return enqueue(Collections.singletonList(entry));
+    }
+
+    /**
+     * Hand off the entries of a batch to the worker threads as one unit.
+     *
+     * @param entries the entries to process
+     * @return {@code true} if the entries were enqueued, {@code false} if they were dropped
+     */
+    boolean dispatchAll(List<AuditEntry> entries)
+    {
+        return enqueue(entries);
+    }
+
+    private boolean enqueue(List<AuditEntry> entries)
+    {
+        if (!active)
+        {
+            throw new IllegalStateException("Async audit dispatcher is not active");
+        }
+
+        boolean enqueued = overflowPolicy == AsyncOverflowPolicy.block
+                           ? putWhileActive(entries)
+                           : queue.offer(entries);
+
+        // The dispatcher may have been closed after the check above, and after the queue was drained
+        if (enqueued && (active || !queue.remove(entries)))
+        {
+            return true;
+        }
+
+        lostRecords.addAndGet(entries.size());
+        return false;
+    }
+
+    private boolean putWhileActive(List<AuditEntry> entries)
+    {
+        try
+        {
+            while (!queue.offer(entries, BLOCKED_PUT_RECHECK_INTERVAL_MS, TimeUnit.MILLISECONDS))
+            {
+                if (!active)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        catch (InterruptedException e)
+        {
+            LOG.warn("Interrupted while sending audit entry to worker");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void workerLoop()
+    {
+        try
+        {
+            while (active || !queue.isEmpty())
+            {
+                List<AuditEntry> entries = queue.poll(LOST_RECORDS_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                maybeReportLostRecords();
+                if (entries != null)
+                {
+                    process(entries);
+                }
+            }
+            maybeReportLostRecords();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void process(List<AuditEntry> entries)
+    {
+        try
+        {
+            if (entries.size() == 1)
+            {
+                processor.accept(entries.get(0));
+            }
+            else
+            {
+                bulkProcessor.accept(entries);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            LOG.error("Failed to process audit entry", e);
+        }
+    }
+
+    private void maybeReportLostRecords()
+    {
+        if (overflowPolicy != AsyncOverflowPolicy.drop_with_marker || lostRecords.get() == 0)
+        {
+            return;
+        }
+
+        long lost = lostRecords.getAndSet(0);
+        if (lost > 0)
+        {
+            try
+            {
+                lostRecordsReporter.accept(lost);
+            }
+            catch (RuntimeException e)
+            {
+                LOG.error("Failed to report {} lost audit records", lost, e);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int queuedEntries()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting new entries and wait for the workers to process the entries still in the queue. Entries which
+     * are enqueued after the workers have stopped are processed by the calling thread. Workers which have not finished
+     * within {@value #CLOSE_TIMEOUT_MS} milliseconds are interrupted, and the entries left in the queue are lost.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if (!active)
+        {
+            return;
+        }
+
+        active = false;
+        if (joinWorkers())
+        {
+            drainQueue();
+        }
+        else
+        {
+            discardQueue();
+        }
+        workers.clear();
+    }
+
+    private boolean joinWorkers()
+    {
+        try
+        {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MS);
+            for (Thread worker : workers)
+            {
+                TimeUnit.NANOSECONDS.timedJoin(worker, Math.max(1, deadline - System.nanoTime()));
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        return workers.stream().noneMatch(Thread::isAlive);
+    }
+
+    private void drainQueue()
+    {
+        // Entries enqueued by producers which passed the active check before the workers made their last poll
+        List<AuditEntry> entries = queue.poll();
+        while (entries != null)
+        {
+            process(entries);
+            entries = queue.poll();
+        }
+        maybeReportLostRecords();
+    }
+
+    private void discardQueue()
+    {
+        for (Thread worker : workers)
+        {
+            worker.interrupt();
+        }
+
+        List<List<AuditEntry>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        int remainingRecords = remaining.stream().mapToInt(List::size).sum();
+        lostRecords.addAndGet(remainingRecords);
+        if (remainingRecords > 0)
+        {
+            LOG.warn("Async audit workers stopped with {} audit records left in queue", remainingRecords);
+        }
+    }
+}
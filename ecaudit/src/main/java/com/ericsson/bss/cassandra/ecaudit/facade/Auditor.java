@@ -35,6 +35,19 @@ public interface Auditor
      */
     void audit(AuditEntry logEntry);
 
+    /**
+     * Commit the audit log entries of a batch to the audit log.
+     * <p>
+     * The entries may be resolved lazily while iterating. By default each entry is audited separately, in order.
+     *
+     * @param logEntries
+     *            the log entries to commit
+     */
+    default void auditAll(Iterable<AuditEntry> logEntries)
+    {
+        logEntries.forEach(this::audit);
+    }
+
     /**
      * Setup is called once upon system startup to initialize the Auditor.
      *
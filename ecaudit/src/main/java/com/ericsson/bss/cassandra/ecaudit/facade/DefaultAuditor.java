@@ -15,20 +15,31 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.facade;
 
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.bss.cassandra.ecaudit.LogTimingStrategy;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
 import com.ericsson.bss.cassandra.ecaudit.filter.AuditFilter;
 import com.ericsson.bss.cassandra.ecaudit.logger.AuditLogger;
 import com.ericsson.bss.cassandra.ecaudit.metrics.AuditMetrics;
 import com.ericsson.bss.cassandra.ecaudit.obfuscator.AuditObfuscator;
+import org.apache.cassandra.auth.DataResource;
+import org.apache.cassandra.auth.IResource;
+import org.apache.cassandra.utils.FBUtilities;
 
 /**
  * Default implementation of {@link Auditor} which will do following task required to auditing:
@@ -36,39 +47,132 @@ import com.ericsson.bss.cassandra.ecaudit.obfuscator.AuditObfuscator;
  * - Filtering populated {@link AuditEntry} instance using {@link AuditFilter}
  * - Obfuscation on filtered using {@link AuditObfuscator}
  * - Write log entry using {@link AuditLogger}
+ * <p>
+ * If an {@link AsyncAuditDispatcher} is provided these tasks are performed on dedicated worker threads
+ * and the calling thread will only hand off the entry. The dispatcher is started by {@link #setup()}, or by the
+ * first audited entry if the auditor is used without setup, e.g. by the query logger.
+ * <p>
+ * The entries of a batch are handled as one unit. The filter is consulted once per distinct user, resource and
+ * permissions in the batch, and the remaining entries are passed to each logger in one call.
  */
 public class DefaultAuditor implements Auditor
 {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultAuditor.class);
 
+    static final String LOST_RECORDS_USER = "ecaudit";
+    private static final String LOST_RECORDS_OPERATION = "%d audit records lost due to full audit queue";
+
     private final List<AuditLogger> loggers = new ArrayList<>();
     private final AuditFilter filter;
     private final AuditObfuscator obfuscator;
     private final AuditMetrics auditMetrics;
+    private final AsyncAuditDispatcher asyncDispatcher;
     private LogTimingStrategy logTimingStrategy;
 
     public DefaultAuditor(AuditLogger logger, AuditFilter filter, AuditObfuscator obfuscator, LogTimingStrategy logTimingStrategy)
     {
-        this(logger, filter, obfuscator, new AuditMetrics(), logTimingStrategy);
+        this(logger, filter, obfuscator, new AuditMetrics(), logTimingStrategy, null);
+    }
+
+    /**
+     * Create an auditor which perform filtering, obfuscation and logging asynchronously.
+     *
+     * @param logger            the audit logger
+     * @param filter            the audit filter
+     * @param obfuscator        the audit obfuscator
+     * @param logTimingStrategy the log timing strategy
+     * @param asyncDispatcher   the dispatcher which hand off entries to worker threads
+     */
+    public DefaultAuditor(AuditLogger logger, AuditFilter filter, AuditObfuscator obfuscator, LogTimingStrategy logTimingStrategy, AsyncAuditDispatcher asyncDispatcher)
+    {
+        this(logger, filter, obfuscator, new AuditMetrics(), logTimingStrategy, asyncDispatcher);
     }
 
     DefaultAuditor(AuditLogger logger, AuditFilter filter, AuditObfuscator obfuscator, AuditMetrics auditMetrics, LogTimingStrategy logTimingStrategy)
+    {
+        this(logger, filter, obfuscator, auditMetrics, logTimingStrategy, null);
+    }
+
+    DefaultAuditor(AuditLogger logger, AuditFilter filter, AuditObfuscator obfuscator, AuditMetrics auditMetrics, LogTimingStrategy logTimingStrategy, AsyncAuditDispatcher asyncDispatcher)
     {
         loggers.add(logger);
         this.filter = filter;
         this.obfuscator = obfuscator;
         this.auditMetrics = auditMetrics;
         this.logTimingStrategy = logTimingStrategy;
+        this.asyncDispatcher = asyncDispatcher;
     }
 
     @Override
     public void setup()
     {
         filter.setup();
+        if (asyncDispatcher != null)
+        {
+            maybeStartAsyncDispatcher();
+        }
+    }
+
+    private void maybeStartAsyncDispatcher()
+    {
+        if (!asyncDispatcher.isStarted())
+        {
+            asyncDispatcher.start(this::auditNow, this::auditAllNow, this::auditLostRecords);
+        }
     }
 
     @Override
     public void audit(AuditEntry logEntry)
+    {
+        if (asyncDispatcher == null)
+        {
+            auditNow(logEntry);
+            return;
+        }
+
+        maybeStartAsyncDispatcher();
+        if (!asyncDispatcher.dispatch(logEntry))
+        {
+            auditMetrics.dropAuditRequest();
+        }
+    }
+
+    @Override
+    public void auditAll(Iterable<AuditEntry> logEntries)
+    {
+        if (asyncDispatcher == null)
+        {
+            auditAllNow(logEntries);
+            return;
+        }
+
+        maybeStartAsyncDispatcher();
+        List<AuditEntry> entries = Lists.newArrayList(logEntries);
+        if (!asyncDispatcher.dispatchAll(entries))
+        {
+            auditMetrics.dropAuditRequests(entries.size());
+        }
+    }
+
+    private void auditAllNow(Iterable<AuditEntry> logEntries)
+    {
+        Map<FilterKey, Boolean> filterDecisions = new HashMap<>();
+        List<AuditEntry> obfuscatedEntries = new ArrayList<>();
+        for (AuditEntry logEntry : logEntries)
+        {
+            if (filterDecisions.computeIfAbsent(new FilterKey(logEntry), key -> shouldAudit(logEntry)))
+            {
+                obfuscatedEntries.add(obfuscator.obfuscate(logEntry));
+            }
+        }
+
+        if (!obfuscatedEntries.isEmpty())
+        {
+            performAuditAll(obfuscatedEntries);
+        }
+    }
+
+    private void auditNow(AuditEntry logEntry)
     {
         if (shouldAudit(logEntry))
         {
@@ -77,6 +181,31 @@ public class DefaultAuditor implements Auditor
         }
     }
 
+    private void auditLostRecords(long lostRecords)
+    {
+        LOG.warn("{} audit records lost due to full audit queue", lostRecords);
+        performAudit(createLostRecordsEntry(lostRecords));
+    }
+
+    /**
+     * Create a marker entry for records which were dropped by the async pipeline.
+     * The marker entry is logged directly, it will not pass the filter nor the obfuscator.
+     */
+    static AuditEntry createLostRecordsEntry(long lostRecords)
+    {
+        InetAddress coordinator = FBUtilities.getBroadcastAddress();
+        return AuditEntry.newBuilder()
+                         .client(new InetSocketAddress(coordinator, AuditEntry.UNKNOWN_PORT))
+                         .coordinator(coordinator)
+                         .user(LOST_RECORDS_USER)
+                         .permissions(Collections.emptySet())
+                         .resource(DataResource.root())
+                         .operation(new SimpleAuditOperation(String.format(LOST_RECORDS_OPERATION, lostRecords)))
+                         .status(Status.FAILED)
+                         .timestamp(System.currentTimeMillis())
+                         .build();
+    }
+
     private boolean shouldAudit(AuditEntry logEntry)
     {
         long start = System.nanoTime();
@@ -110,6 +239,20 @@ public class DefaultAuditor implements Auditor
         }
     }
 
+    private void performAuditAll(List<AuditEntry> logEntries)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            loggers.forEach(logger -> logger.logAll(logEntries));
+        }
+        finally
+        {
+            long end = System.nanoTime();
+            auditMetrics.logAuditRequest(end - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
     @Override
     public boolean shouldLogForStatus(Status status)
     {
@@ -145,4 +288,47 @@ public class DefaultAuditor implements Auditor
     {
         loggers.remove(logger);
     }
+
+    /**
+     * The parts of an entry which the filter decision depends on.
+     */
+    private static final class FilterKey
+    {
+        private final String user;
+        private final IResource resource;
+        private final long permissionMask;
+        private final int hashCode;
+
+        FilterKey(AuditEntry logEntry)
+        {
+            this.user = logEntry.getUser();
+            this.resource = logEntry.getResource();
+            this.permissionMask = logEntry.getPermissionMask();
+            this.hashCode = Objects.hash(user, resource, permissionMask);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof FilterKey))
+            {
+                return false;
+            }
+            FilterKey other = (FilterKey) o;
+            return hashCode == other.hashCode
+                   && permissionMask == other.permissionMask
+                   && Objects.equals(user, other.user)
+                   && Objects.equals(resource, other.resource);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
 }
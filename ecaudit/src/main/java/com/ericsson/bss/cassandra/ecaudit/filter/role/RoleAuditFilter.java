@@ -15,9 +15,11 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.filter.role;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.UncheckedExecutionException;
@@ -25,14 +27,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.bss.cassandra.ecaudit.auth.WhitelistDataAccess;
+import com.ericsson.bss.cassandra.ecaudit.config.AuditConfig;
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.entry.PermissionMask;
 import com.ericsson.bss.cassandra.ecaudit.filter.AuditFilter;
+import com.ericsson.bss.cassandra.ecaudit.metrics.AuditMetrics;
 import com.ericsson.bss.cassandra.ecaudit.utils.Exceptions;
 import org.apache.cassandra.auth.IResource;
 import org.apache.cassandra.auth.Permission;
 import org.apache.cassandra.auth.Resources;
 import org.apache.cassandra.auth.RoleResource;
 import org.apache.cassandra.auth.Roles;
+import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.exceptions.UnavailableException;
 
 /**
@@ -44,34 +50,97 @@ import org.apache.cassandra.exceptions.UnavailableException;
  * e.g. the grant resource "grants/data/aKeyspace" can be white-listed for SELECT operations,
  * then no SELECT operations on tables in "aKeyspace" will we audited IF the user/role have permissions to perform that
  * operation.
+ * <p>
+ * The whitelist decisions are cached per user, resource and operations, and optionally in a small near cache per
+ * thread in front of the shared cache. The whitelist of each role is cached as well, and can optionally be loaded for
+ * all roles when the filter is set up, so that the node starts serving requests with a warm cache. The caches are
+ * invalidated whenever a whitelist, or the roles granted to a role, are changed on any node.
  */
 public class RoleAuditFilter implements AuditFilter
 {
     private static final Logger LOG = LoggerFactory.getLogger(RoleAuditFilter.class);
 
     private final Function<RoleResource, Set<RoleResource>> getRolesFunction;
+    private final Supplier<Set<RoleResource>> getAllRolesFunction;
     private final RoleAuditFilterCache filterCache;
+    private final RoleAuditFilterNearCache nearCache; // null if disabled
+    private final RoleWhitelistCache whitelistCache;
     private final WhitelistDataAccess whitelistDataAccess;
     private final AuditFilterAuthorizer auditFilterAuthorizer;
+    private final AuditConfig auditConfig;
 
     public RoleAuditFilter()
     {
-        this(Roles::getRoles, WhitelistDataAccess.getInstance(), new AuditFilterAuthorizer());
+        this(Roles::getRoles, () -> DatabaseDescriptor.getRoleManager().getAllRoles(), WhitelistDataAccess.getInstance(), new AuditFilterAuthorizer(), AuditConfig.getInstance());
     }
 
     @VisibleForTesting
     RoleAuditFilter(Function<RoleResource, Set<RoleResource>> getRolesFunction, WhitelistDataAccess whitelistDataAccess, AuditFilterAuthorizer auditFilterAuthorizer)
+    {
+        this(getRolesFunction, Collections::emptySet, whitelistDataAccess, auditFilterAuthorizer, AuditConfig.getInstance());
+    }
+
+    @VisibleForTesting
+    RoleAuditFilter(Function<RoleResource, Set<RoleResource>> getRolesFunction, Supplier<Set<RoleResource>> getAllRolesFunction,
+                    WhitelistDataAccess whitelistDataAccess, AuditFilterAuthorizer auditFilterAuthorizer, AuditConfig auditConfig)
     {
         this.getRolesFunction = getRolesFunction;
-        this.filterCache = new RoleAuditFilterCache(this::isWhitelistedUnchecked);
+        this.getAllRolesFunction = getAllRolesFunction;
+        this.filterCache = new RoleAuditFilterCache(this::isWhitelistedUnchecked, auditConfig);
+        this.nearCache = createNearCache(whitelistDataAccess, auditConfig);
+        this.whitelistCache = new RoleWhitelistCache(whitelistDataAccess::getWhitelist, auditConfig, new AuditMetrics());
         this.whitelistDataAccess = whitelistDataAccess;
         this.auditFilterAuthorizer = auditFilterAuthorizer;
+        this.auditConfig = auditConfig;
+    }
+
+    private static RoleAuditFilterNearCache createNearCache(WhitelistDataAccess whitelistDataAccess, AuditConfig auditConfig)
+    {
+        int maxEntries = auditConfig.getWhitelistNearCacheMaxEntries();
+        long validity = Math.min(auditConfig.getWhitelistCacheValidity(), auditConfig.getWhitelistCacheUpdateInterval());
+        if (maxEntries <= 0 || validity <= 0)
+        {
+            return null;
+        }
+
+        return new RoleAuditFilterNearCache(maxEntries, validity, whitelistDataAccess::getGeneration);
     }
 
     @Override
     public void setup()
     {
+        whitelistDataAccess.addChangeListener(this::invalidateCaches);
         whitelistDataAccess.setup();
+        maybeWarmUpCache();
+    }
+
+    private void invalidateCaches()
+    {
+        filterCache.invalidate();
+        whitelistCache.invalidate();
+    }
+
+    private void maybeWarmUpCache()
+    {
+        if (!auditConfig.isWhitelistCacheWarmup())
+        {
+            return;
+        }
+
+        if (auditConfig.getRoleWhitelistCacheValidity() <= 0)
+        {
+            LOG.info("Skipping whitelist cache warm-up since the role whitelist cache is disabled");
+            return;
+        }
+
+        new WhitelistCacheWarmup(getAllRolesFunction, this::warmUpRole, auditConfig.getWhitelistCacheWarmupConcurrency()).run();
+    }
+
+    private void warmUpRole(RoleResource role)
+    {
+        // Resolving the roles of the role warms up the roles cache of Cassandra
+        getRolesFunction.apply(role);
+        whitelistCache.getWhitelist(role);
     }
 
     @Override
@@ -112,7 +181,27 @@ public class RoleAuditFilter implements AuditFilter
 
     private boolean isWhitelistedMaybeUnavailable(AuditEntry logEntry)
     {
-        RoleAuditFilterCacheKey cacheKey = new RoleAuditFilterCacheKey(logEntry.getUser(), logEntry.getResource(), logEntry.getPermissions());
+        if (nearCache == null)
+        {
+            return isWhitelistedInFilterCache(new RoleAuditFilterCacheKey(logEntry.getUser(), logEntry.getResource(), logEntry.getPermissionMask()));
+        }
+
+        int hashCode = RoleAuditFilterCacheKey.hashCodeOf(logEntry.getUser(), logEntry.getResource(), logEntry.getPermissionMask());
+        Boolean cachedDecision = nearCache.get(logEntry.getUser(), logEntry.getResource(), logEntry.getPermissionMask(), hashCode);
+        if (cachedDecision != null)
+        {
+            return cachedDecision;
+        }
+
+        long generation = whitelistDataAccess.getGeneration();
+        RoleAuditFilterCacheKey cacheKey = new RoleAuditFilterCacheKey(logEntry.getUser(), logEntry.getResource(), logEntry.getPermissionMask());
+        boolean whitelisted = isWhitelistedInFilterCache(cacheKey);
+        nearCache.put(cacheKey, generation, whitelisted);
+        return whitelisted;
+    }
+
+    private boolean isWhitelistedInFilterCache(RoleAuditFilterCacheKey cacheKey)
+    {
         try
         {
             return filterCache.isWhitelisted(cacheKey);
@@ -127,8 +216,15 @@ public class RoleAuditFilter implements AuditFilter
     {
         Set<RoleResource> roles = getRoles(cacheKey.getUser());
         List<? extends IResource> operationResourceChain = Resources.chain(cacheKey.getResource());
-        return cacheKey.getPermissions().stream()
-                       .allMatch(permission -> isOperationWhitelistedOnResourceByRoles(permission, operationResourceChain, roles, cacheKey.getUser()));
+        for (long remaining = cacheKey.getPermissionMask(); remaining != PermissionMask.NONE; remaining &= remaining - 1)
+        {
+            Permission permission = PermissionMask.lowest(remaining);
+            if (!isOperationWhitelistedOnResourceByRoles(permission, operationResourceChain, roles, cacheKey.getUser()))
+            {
+                return false;
+            }
+        }
+        return true;
     }
 
     private Set<RoleResource> getRoles(String username)
@@ -145,10 +241,10 @@ public class RoleAuditFilter implements AuditFilter
 
     private boolean isOperationWhitelistedOnResourceByRole(Permission operation, List<? extends IResource> operationResourceChain, RoleResource role, String user)
     {
-        RoleWhitelistChecker whitelistChecker = new RoleWhitelistChecker(operation, operationResourceChain, whitelistDataAccess.getWhitelist(role));
+        RoleWhitelist whitelist = whitelistCache.getWhitelist(role);
 
-        return whitelistChecker.isWhitelisted()
-               || whitelistChecker.isGrantWhitelisted()
+        return whitelist.isWhitelisted(operation, operationResourceChain)
+               || whitelist.isGrantWhitelisted(operation, operationResourceChain)
                   && auditFilterAuthorizer.isOperationAuthorizedForUser(operation, user, operationResourceChain);
     }
 }
@@ -16,22 +16,29 @@
 package com.ericsson.bss.cassandra.ecaudit.filter.role;
 
 import java.util.Objects;
-import java.util.Set;
 
+import com.ericsson.bss.cassandra.ecaudit.entry.PermissionMask;
 import org.apache.cassandra.auth.IResource;
-import org.apache.cassandra.auth.Permission;
 
+/**
+ * The key of a whitelist decision in the {@link RoleAuditFilterCache}.
+ * <p>
+ * The permissions are held as a {@link PermissionMask} and the hash code is calculated once, so that looking up a key
+ * doesn't hash or compare permission sets.
+ */
 public class RoleAuditFilterCacheKey
 {
     private final String user;
     private final IResource resource;
-    private final Set<Permission> permissions;
+    private final long permissionMask;
+    private final int hashCode;
 
-    RoleAuditFilterCacheKey(String user, IResource resource, Set<Permission> permissions)
+    RoleAuditFilterCacheKey(String user, IResource resource, long permissionMask)
     {
         this.user = user;
         this.resource = resource;
-        this.permissions = permissions;
+        this.permissionMask = permissionMask;
+        this.hashCode = calculateHashCode();
     }
 
     public String getUser()
@@ -44,9 +51,9 @@ public class RoleAuditFilterCacheKey
         return resource;
     }
 
-    public Set<Permission> getPermissions()
+    public long getPermissionMask()
     {
-        return permissions;
+        return permissionMask;
     }
 
     @Override
@@ -61,14 +68,41 @@ public class RoleAuditFilterCacheKey
             return false;
         }
         RoleAuditFilterCacheKey cacheKey = (RoleAuditFilterCacheKey) o;
-        return Objects.equals(user, cacheKey.user) &&
-               Objects.equals(resource, cacheKey.resource) &&
-               Objects.equals(permissions, cacheKey.permissions);
+        return permissionMask == cacheKey.permissionMask &&
+               Objects.equals(user, cacheKey.user) &&
+               Objects.equals(resource, cacheKey.resource);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(user, resource, permissions);
+        return hashCode;
+    }
+
+    private int calculateHashCode()
+    {
+        return hashCodeOf(user, resource, permissionMask);
+    }
+
+    /**
+     * Calculate the hash code of a key without creating it.
+     *
+     * @param user           the user
+     * @param resource       the resource
+     * @param permissionMask the permission bitmask
+     * @return the hash code of a key with the given values
+     */
+    static int hashCodeOf(String user, IResource resource, long permissionMask)
+    {
+        int result = 31 + Objects.hashCode(user);
+        result = 31 * result + Objects.hashCode(resource);
+        return 31 * result + Long.hashCode(permissionMask);
+    }
+
+    boolean matches(String otherUser, IResource otherResource, long otherPermissionMask)
+    {
+        return permissionMask == otherPermissionMask &&
+               Objects.equals(user, otherUser) &&
+               Objects.equals(resource, otherResource);
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.filter.role;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import org.apache.cassandra.auth.IResource;
+
+/**
+ * A small cache of whitelist decisions in front of the shared {@link RoleAuditFilterCache}.
+ * <p>
+ * Each thread has its own direct-mapped table of decisions, indexed by the hash code of the
+ * {@link RoleAuditFilterCacheKey}. The same few users, resources and operations are audited over and over by the
+ * threads serving long-lived client connections. Most lookups are therefore served without creating a cache key or
+ * accessing the shared cache.
+ * <p>
+ * A decision is valid until the given white-list generation changes, or until it has been cached for longer than the
+ * validity of the near cache. The validity is normally set to the update interval of the shared cache, so that near
+ * cached decisions are refreshed about as often as the shared cache is.
+ */
+class RoleAuditFilterNearCache
+{
+    private final int mask;
+    private final long validityNanos;
+    private final LongSupplier generationSupplier;
+    private final ThreadLocal<Entry[]> tables;
+
+    /**
+     * @param maxEntries         the number of decisions cached per thread, rounded up to the nearest power of two
+     * @param validityMillis     the maximum time a decision is cached, in milliseconds
+     * @param generationSupplier supplies the current white-list generation
+     */
+    RoleAuditFilterNearCache(int maxEntries, long validityMillis, LongSupplier generationSupplier)
+    {
+        if (maxEntries <= 0 || maxEntries > (1 << 16))
+        {
+            throw new IllegalArgumentException("Invalid whitelist near cache size: " + maxEntries);
+        }
+
+        int capacity = Integer.highestOneBit(maxEntries) == maxEntries ? maxEntries : Integer.highestOneBit(maxEntries) << 1;
+        this.mask = capacity - 1;
+        this.validityNanos = TimeUnit.MILLISECONDS.toNanos(validityMillis);
+        this.generationSupplier = generationSupplier;
+        this.tables = ThreadLocal.withInitial(() -> new Entry[capacity]);
+    }
+
+    /**
+     * Get a cached decision.
+     *
+     * @param user           the user
+     * @param resource       the resource
+     * @param permissionMask the permission bitmask
+     * @param hashCode       the hash code of the key, as calculated by {@link RoleAuditFilterCacheKey#hashCodeOf}
+     * @return the cached decision, or {@code null} if not cached
+     */
+    Boolean get(String user, IResource resource, long permissionMask, int hashCode)
+    {
+        Entry entry = tables.get()[index(hashCode)];
+        if (entry == null
+            || entry.generation != generationSupplier.getAsLong()
+            || System.nanoTime() - entry.cachedAtNanos > validityNanos
+            || !entry.key.matches(user, resource, permissionMask))
+        {
+            return null;
+        }
+        return entry.whitelisted;
+    }
+
+    /**
+     * Cache a decision, replacing any decision cached at the same index.
+     *
+     * @param key         the key of the decision
+     * @param generation  the white-list generation read before the decision was made
+     * @param whitelisted the decision
+     */
+    void put(RoleAuditFilterCacheKey key, long generation, boolean whitelisted)
+    {
+        tables.get()[index(key.hashCode())] = new Entry(key, generation, System.nanoTime(), whitelisted);
+    }
+
+    private int index(int hashCode)
+    {
+        return (hashCode ^ (hashCode >>> 16)) & mask;
+    }
+
+    @VisibleForTesting
+    int capacity()
+    {
+        return mask + 1;
+    }
+
+    private static final class Entry
+    {
+        private final RoleAuditFilterCacheKey key;
+        private final long generation;
+        private final long cachedAtNanos;
+        private final Boolean whitelisted;
+
+        Entry(RoleAuditFilterCacheKey key, long generation, long cachedAtNanos, boolean whitelisted)
+        {
+            this.key = key;
+            this.generation = generation;
+            this.cachedAtNanos = cachedAtNanos;
+            this.whitelisted = whitelisted;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.filter.role;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.ericsson.bss.cassandra.ecaudit.auth.GrantResource;
+import com.ericsson.bss.cassandra.ecaudit.entry.PermissionMask;
+import org.apache.cassandra.auth.IResource;
+import org.apache.cassandra.auth.Permission;
+import org.apache.cassandra.auth.Resources;
+
+/**
+ * The whitelist of a role, compiled into a tree of resources.
+ * <p>
+ * Each node in the tree represents a resource which is whitelisted, or which is the parent of a whitelisted resource.
+ * The node holds the directly whitelisted and the grant whitelisted operations on its resource as permission bitmasks.
+ * Checking an operation on a resource is then a single descent along the resource chain with a bit test on each level,
+ * without any allocation.
+ * <p>
+ * Instances are immutable once compiled and may be shared between threads.
+ */
+public final class RoleWhitelist
+{
+    private static final RoleWhitelist EMPTY = new RoleWhitelist(new ResourceNode(), PermissionMask.NONE);
+
+    private final ResourceNode root;
+    private final long rootGrantMask;
+
+    private RoleWhitelist(ResourceNode root, long rootGrantMask)
+    {
+        this.root = root;
+        this.rootGrantMask = rootGrantMask;
+    }
+
+    /**
+     * Compile the whitelist of a role.
+     *
+     * @param whitelist the whitelisted operations of the role, keyed by resource
+     * @return the compiled whitelist
+     */
+    static RoleWhitelist compile(Map<IResource, Set<Permission>> whitelist)
+    {
+        if (whitelist.isEmpty())
+        {
+            return EMPTY;
+        }
+
+        ResourceNode root = new ResourceNode();
+        long rootGrantMask = PermissionMask.NONE;
+        for (Map.Entry<IResource, Set<Permission>> entry : whitelist.entrySet())
+        {
+            long mask = PermissionMask.fromPermissions(entry.getValue());
+            if (entry.getKey() instanceof GrantResource)
+            {
+                IResource wrappedResource = ((GrantResource) entry.getKey()).getWrappedResource();
+                if (wrappedResource == null)
+                {
+                    rootGrantMask |= mask;
+                }
+                else
+                {
+                    root.getOrCreateDescendant(wrappedResource).grantMask |= mask;
+                }
+            }
+            else
+            {
+                root.getOrCreateDescendant(entry.getKey()).directMask |= mask;
+            }
+        }
+
+        return new RoleWhitelist(root, rootGrantMask);
+    }
+
+    /**
+     * @param operation     the operation to check
+     * @param resourceChain the resource chain of the operation, as returned by {@link Resources#chain(IResource)}
+     * @return true if the operation is directly whitelisted on the resource or any of its parents
+     */
+    boolean isWhitelisted(Permission operation, List<? extends IResource> resourceChain)
+    {
+        return anyResourceMatch(PermissionMask.fromPermission(operation), resourceChain, false);
+    }
+
+    /**
+     * @param operation     the operation to check
+     * @param resourceChain the resource chain of the operation, as returned by {@link Resources#chain(IResource)}
+     * @return true if grants of the operation are whitelisted on the resource, any of its parents or on all resources
+     */
+    boolean isGrantWhitelisted(Permission operation, List<? extends IResource> resourceChain)
+    {
+        long bit = PermissionMask.fromPermission(operation);
+        return (rootGrantMask & bit) != PermissionMask.NONE || anyResourceMatch(bit, resourceChain, true);
+    }
+
+    private boolean anyResourceMatch(long bit, List<? extends IResource> resourceChain, boolean grant)
+    {
+        // The resource chain starts with the resource itself and ends with its root
+        ResourceNode node = root;
+        for (int i = resourceChain.size() - 1; i >= 0; i--)
+        {
+            node = node.children.get(resourceChain.get(i));
+            if (node == null)
+            {
+                return false;
+            }
+
+            long mask = grant ? node.grantMask : node.directMask;
+            if ((mask & bit) != PermissionMask.NONE)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class ResourceNode
+    {
+        private Map<IResource, ResourceNode> children = Collections.emptyMap();
+        private long directMask;
+        private long grantMask;
+
+        ResourceNode getOrCreateDescendant(IResource resource)
+        {
+            List<? extends IResource> resourceChain = Resources.chain(resource);
+            ResourceNode node = this;
+            for (int i = resourceChain.size() - 1; i >= 0; i--)
+            {
+                node = node.getOrCreateChild(resourceChain.get(i));
+            }
+            return node;
+        }
+
+        private ResourceNode getOrCreateChild(IResource resource)
+        {
+            if (children.isEmpty())
+            {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(resource, r -> new ResourceNode());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.filter.role;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import com.ericsson.bss.cassandra.ecaudit.config.AuditConfig;
+import com.ericsson.bss.cassandra.ecaudit.metrics.AuditMetrics;
+import org.apache.cassandra.auth.AuthCache;
+import org.apache.cassandra.auth.IResource;
+import org.apache.cassandra.auth.Permission;
+import org.apache.cassandra.auth.RoleResource;
+
+/**
+ * Caches the whitelist of each role, beneath the {@link RoleAuditFilterCache}.
+ * <p>
+ * The whitelist of a role is shared by all users holding the role, so a miss in the filter cache only loads the
+ * whitelists of roles which have not been seen recently. Whitelists are compiled into a {@link RoleWhitelist} as they
+ * are loaded, so that a cached whitelist is checked without allocation. The cache has its own validity, update
+ * interval and size, and reports its requests and loads through {@link AuditMetrics}.
+ */
+public class RoleWhitelistCache extends AuthCache<RoleResource, RoleWhitelist>
+{
+    private static final AtomicInteger UNIQUE_ID = new AtomicInteger();
+
+    private final AuditMetrics auditMetrics;
+
+    RoleWhitelistCache(Function<RoleResource, Map<IResource, Set<Permission>>> loadFunction)
+    {
+        this(loadFunction, AuditConfig.getInstance(), new AuditMetrics());
+    }
+
+    @VisibleForTesting
+    RoleWhitelistCache(Function<RoleResource, Map<IResource, Set<Permission>>> loadFunction, AuditConfig auditConfig, AuditMetrics auditMetrics)
+    {
+        super("RoleWhitelistCache" + UNIQUE_ID.incrementAndGet(), // Unique name is needed for unit tests to work
+              auditConfig::setRoleWhitelistCacheValidity,
+              auditConfig::getRoleWhitelistCacheValidity,
+              auditConfig::setRoleWhitelistCacheUpdateInterval,
+              auditConfig::getRoleWhitelistCacheUpdateInterval,
+              auditConfig::setRoleWhitelistCacheMaxEntries,
+              auditConfig::getRoleWhitelistCacheMaxEntries,
+              timed(loadFunction, auditMetrics),
+              () -> true);
+        this.auditMetrics = auditMetrics;
+    }
+
+    private static Function<RoleResource, RoleWhitelist> timed(Function<RoleResource, Map<IResource, Set<Permission>>> loadFunction, AuditMetrics auditMetrics)
+    {
+        return role -> {
+            long startNanos = System.nanoTime();
+            try
+            {
+                return RoleWhitelist.compile(loadFunction.apply(role));
+            }
+            finally
+            {
+                auditMetrics.roleWhitelistCacheLoad(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    public RoleWhitelist getWhitelist(RoleResource role)
+    {
+        auditMetrics.roleWhitelistCacheRequest();
+        try
+        {
+            return get(role);
+        }
+        catch (Exception e)
+        {
+            // The call to get() may throw ExecutionException in version 3.11.4 and older
+            // We're catching Exception here to remain compatible with those older versions
+            throw new UncheckedExecutionException(e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.filter.role;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.cassandra.auth.RoleResource;
+import org.apache.cassandra.concurrent.NamedThreadFactory;
+
+/**
+ * Warms up the whitelist caches by loading the data of every role in parallel, with bounded concurrency.
+ * <p>
+ * The warm-up is best effort. A role which fails to load is logged and skipped, and the node continues to start if
+ * the warm-up doesn't complete within {@link #WARMUP_TIMEOUT_MS}.
+ */
+class WhitelistCacheWarmup
+{
+    private static final Logger LOG = LoggerFactory.getLogger(WhitelistCacheWarmup.class);
+
+    private static final long WARMUP_TIMEOUT_MS = Long.getLong("ecaudit.whitelist_cache_warmup_timeout_ms", 60_000L);
+
+    private final Supplier<Set<RoleResource>> allRolesSupplier;
+    private final Consumer<RoleResource> roleLoader;
+    private final int concurrency;
+
+    /**
+     * @param allRolesSupplier supplies all roles in the cluster
+     * @param roleLoader       loads the data of one role into the caches
+     * @param concurrency      the maximum number of roles to load in parallel
+     */
+    WhitelistCacheWarmup(Supplier<Set<RoleResource>> allRolesSupplier, Consumer<RoleResource> roleLoader, int concurrency)
+    {
+        if (concurrency <= 0)
+        {
+            throw new IllegalArgumentException("Invalid whitelist cache warm-up concurrency: " + concurrency);
+        }
+
+        this.allRolesSupplier = allRolesSupplier;
+        this.roleLoader = roleLoader;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Load the data of all roles and wait for the warm-up to complete.
+     *
+     * @return the number of roles which were loaded
+     */
+    int run()
+    {
+        Set<RoleResource> roles;
+        try
+        {
+            roles = allRolesSupplier.get();
+        }
+        catch (RuntimeException e)
+        {
+            LOG.warn("Skipping whitelist cache warm-up, failed to list roles", e);
+            return 0;
+        }
+
+        if (roles.isEmpty())
+        {
+            return 0;
+        }
+
+        long startNanos = System.nanoTime();
+        AtomicInteger loadedRoles = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, roles.size()), new NamedThreadFactory("WhitelistCacheWarmup"));
+        for (RoleResource role : roles)
+        {
+            executor.execute(() -> loadRole(role, loadedRoles));
+        }
+        executor.shutdown();
+
+        awaitCompletion(executor);
+
+        if (LOG.isInfoEnabled())
+        {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            LOG.info("Warmed up whitelist cache with {} of {} roles in {} ms", loadedRoles.get(), roles.size(), elapsedMillis);
+        }
+        return loadedRoles.get();
+    }
+
+    private void loadRole(RoleResource role, AtomicInteger loadedRoles)
+    {
+        try
+        {
+            roleLoader.accept(role);
+            loadedRoles.incrementAndGet();
+        }
+        catch (RuntimeException e)
+        {
+            if (LOG.isWarnEnabled())
+            {
+                LOG.warn("Failed to warm up whitelist cache for {}", role.getRoleName(), e);
+            }
+        }
+    }
+
+    private static void awaitCompletion(ExecutorService executor)
+    {
+        try
+        {
+            if (!executor.awaitTermination(WARMUP_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+            {
+                LOG.warn("Whitelist cache warm-up timeout - continuing startup");
+                executor.shutdownNow();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
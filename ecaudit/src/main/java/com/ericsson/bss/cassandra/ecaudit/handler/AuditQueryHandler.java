@@ -26,7 +26,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.bss.cassandra.ecaudit.AuditAdapter;
+import com.ericsson.bss.cassandra.ecaudit.AuditContext;
 import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
+import com.ericsson.bss.cassandra.ecaudit.entry.PreparedStatementMetadata;
 import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.cql3.BatchQueryOptions;
 import org.apache.cassandra.cql3.CQLStatement;
@@ -57,7 +59,7 @@ public class AuditQueryHandler implements QueryHandler
 
     // This ThreadLocal is populated on calls to getPrepared() in order to build context for
     // prepared statements. It is used for prepared single and batch statements.
-    private final ThreadLocal<List<String>> preparedRawCqlStatements = ThreadLocal.withInitial(ArrayList::new);
+    private final ThreadLocal<List<PreparedStatementMetadata>> preparedStatements = ThreadLocal.withInitial(ArrayList::new);
 
     /**
      * Create a stand-alone instance of {@link AuditQueryHandler} that uses a default configuration for audit logging
@@ -105,16 +107,17 @@ public class AuditQueryHandler implements QueryHandler
     throws RequestExecutionException, RequestValidationException
     {
         long timestamp = System.currentTimeMillis();
-        auditAdapter.auditRegular(query, state.getClientState(), Status.ATTEMPT, timestamp);
+        AuditContext auditContext = auditAdapter.createRegularContext(query, state.getClientState(), timestamp);
+        auditContext.audit(Status.ATTEMPT);
         try
         {
             ResultMessage result = wrappedQueryHandler.process(query, state, options, customPayload, queryStartNanoTime);
-            auditAdapter.auditRegular(query, state.getClientState(), Status.SUCCEEDED, timestamp);
+            auditContext.audit(Status.SUCCEEDED);
             return result;
         }
         catch (RuntimeException e)
         {
-            auditAdapter.auditRegular(query, state.getClientState(), Status.FAILED, timestamp);
+            auditContext.audit(Status.FAILED);
             throw e;
         }
     }
@@ -126,39 +129,40 @@ public class AuditQueryHandler implements QueryHandler
     {
         try
         {
-            List<String> rawCqlStatementList = preparedRawCqlStatements.get();
-            if (rawCqlStatementList.isEmpty())
+            List<PreparedStatementMetadata> preparedStatementList = preparedStatements.get();
+            if (preparedStatementList.isEmpty())
             {
-                // There is no raw CQL statement in the list if call is coming on the Thrift interface
+                // There is no prepared statement in the list if call is coming on the Thrift interface
                 return wrappedQueryHandler.processPrepared(statement, state, options, customPayload,
                                                            queryStartNanoTime);
             }
 
-            String rawCqlStatement = rawCqlStatementList.get(0);
-            return processPreparedWithAudit(statement, rawCqlStatement, state, options, customPayload,
+            PreparedStatementMetadata metadata = preparedStatementList.get(0);
+            return processPreparedWithAudit(statement, metadata, state, options, customPayload,
                                             queryStartNanoTime);
         }
         finally
         {
-            preparedRawCqlStatements.remove();
+            preparedStatements.remove();
         }
     }
 
-    private ResultMessage processPreparedWithAudit(CQLStatement statement, String rawCqlStatement, QueryState state,
+    private ResultMessage processPreparedWithAudit(CQLStatement statement, PreparedStatementMetadata metadata, QueryState state,
                                                    QueryOptions options, Map<String, ByteBuffer> customPayload, long queryStartNanoTime)
     throws RequestExecutionException, RequestValidationException
     {
         long timestamp = System.currentTimeMillis();
-        auditAdapter.auditPrepared(rawCqlStatement, statement, state.getClientState(), options, Status.ATTEMPT, timestamp);
+        AuditContext auditContext = auditAdapter.createPreparedContext(metadata, state.getClientState(), options, timestamp);
+        auditContext.audit(Status.ATTEMPT);
         try
         {
             ResultMessage result = wrappedQueryHandler.processPrepared(statement, state, options, customPayload, queryStartNanoTime);
-            auditAdapter.auditPrepared(rawCqlStatement, statement, state.getClientState(), options, Status.SUCCEEDED, timestamp);
+            auditContext.audit(Status.SUCCEEDED);
             return result;
         }
         catch (RuntimeException e)
         {
-            auditAdapter.auditPrepared(rawCqlStatement, statement, state.getClientState(), options, Status.FAILED, timestamp);
+            auditContext.audit(Status.FAILED);
             throw e;
         }
     }
@@ -170,31 +174,32 @@ public class AuditQueryHandler implements QueryHandler
     {
         try
         {
-            List<String> rawCqlStatementList = preparedRawCqlStatements.get();
-            return processBatchWithAudit(statement, rawCqlStatementList, state, options, customPayload, queryStartNanoTime);
+            List<PreparedStatementMetadata> preparedStatementList = preparedStatements.get();
+            return processBatchWithAudit(statement, preparedStatementList, state, options, customPayload, queryStartNanoTime);
         }
         finally
         {
-            preparedRawCqlStatements.remove();
+            preparedStatements.remove();
         }
     }
 
-    private ResultMessage processBatchWithAudit(BatchStatement statement, List<String> rawCqlStatements,
+    private ResultMessage processBatchWithAudit(BatchStatement statement, List<PreparedStatementMetadata> preparedStatementList,
                                                 QueryState state, BatchQueryOptions options, Map<String, ByteBuffer> customPayload, long queryStartNanoTime)
     throws RequestExecutionException, RequestValidationException
     {
         UUID uuid = UUIDGen.getTimeUUID();
         long timestamp = System.currentTimeMillis();
-        auditAdapter.auditBatch(statement, rawCqlStatements, uuid, state.getClientState(), options, Status.ATTEMPT, timestamp);
+        AuditContext auditContext = auditAdapter.createBatchContext(statement, preparedStatementList, uuid, state.getClientState(), options, timestamp);
+        auditContext.audit(Status.ATTEMPT);
         try
         {
             ResultMessage result = wrappedQueryHandler.processBatch(statement, state, options, customPayload, queryStartNanoTime);
-            auditAdapter.auditBatch(statement, rawCqlStatements, uuid, state.getClientState(), options, Status.SUCCEEDED, timestamp);
+            auditContext.audit(Status.SUCCEEDED);
             return result;
         }
         catch (RuntimeException e)
         {
-            auditAdapter.auditBatch(statement, rawCqlStatements, uuid, state.getClientState(), options, Status.FAILED, timestamp);
+            auditContext.audit(Status.FAILED);
             throw e;
         }
     }
@@ -216,15 +221,29 @@ public class AuditQueryHandler implements QueryHandler
             throw e;
         }
 
+        warmPreparedStatementMetadata(preparedStatement.statementId);
         return preparedStatement;
     }
+
+    /**
+     * Resolve the audit metadata of a statement as it is prepared, rather than on its first execution.
+     */
+    private void warmPreparedStatementMetadata(MD5Digest id)
+    {
+        ParsedStatement.Prepared prepared = wrappedQueryHandler.getPrepared(id);
+        if (prepared != null && !"".equals(prepared.rawCQLStatement))
+        {
+            auditAdapter.getPreparedStatementMetadata(id, prepared);
+        }
+    }
     @Override
     public ParsedStatement.Prepared getPrepared(MD5Digest id)
     {
         ParsedStatement.Prepared prepared = wrappedQueryHandler.getPrepared(id);
         if (prepared == null)
         {
-            preparedRawCqlStatements.remove();
+            preparedStatements.remove();
+            auditAdapter.invalidatePreparedStatementMetadata(id);
             return null; // Return null to client, will trigger a new attempt
         }
 
@@ -232,10 +251,11 @@ public class AuditQueryHandler implements QueryHandler
         if ("".equals(prepared.rawCQLStatement))
         {
             QueryProcessor.instance.evictPrepared(id);
+            auditAdapter.invalidatePreparedStatementMetadata(id);
             return null; // Return null to client, will trigger a re-prepare
         }
 
-        preparedRawCqlStatements.get().add(prepared.rawCQLStatement);
+        preparedStatements.get().add(auditAdapter.getPreparedStatementMetadata(id, prepared));
 
         return prepared;
     }
@@ -243,8 +263,8 @@ public class AuditQueryHandler implements QueryHandler
     @Override
     public ParsedStatement.Prepared getPreparedForThrift(Integer id)
     {
-        // Not possible to update preparedRawCqlStatements here as we don't have a usable id
-        // Also no point in clearing preparedRawCqlStatements as it should already be empty.
+        // Not possible to update preparedStatements here as we don't have a usable id
+        // Also no point in clearing preparedStatements as it should already be empty.
         return wrappedQueryHandler.getPreparedForThrift(id);
     }
 }
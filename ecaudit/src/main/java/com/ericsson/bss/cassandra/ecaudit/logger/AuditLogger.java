@@ -15,6 +15,7 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.logger;
 
+import java.util.List;
 import java.util.Map;
 
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
@@ -35,4 +36,17 @@ public interface AuditLogger
      * @param logEntry the entry to commit to the log
      */
     void log(AuditEntry logEntry);
+
+    /**
+     * Add the entries of a batch to the audit log.
+     * <p>
+     * Implementations may override this to hand off all entries as one unit. By default each entry is logged
+     * separately, in order.
+     *
+     * @param logEntries the entries to commit to the log
+     */
+    default void logAll(List<AuditEntry> logEntries)
+    {
+        logEntries.forEach(this::log);
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+import java.util.Set;
+
+/**
+ * Escapes a set of characters by prefixing them with a backslash.
+ * <p>
+ * The characters are compiled into a lookup table once. Each input is scanned in a single pass and is only copied
+ * if it contains a character that needs escaping.
+ */
+class CharacterEscaper
+{
+    private static final char ESCAPE = '\\';
+
+    private final boolean[] escapeTable;
+
+    /**
+     * @param escapeCharacters the characters to escape, each given as a single character string
+     * @throws IllegalArgumentException if an escape character is not exactly one character
+     */
+    CharacterEscaper(Set<String> escapeCharacters)
+    {
+        int maxCharacter = -1;
+        for (String escapeCharacter : escapeCharacters)
+        {
+            if (escapeCharacter.length() != 1)
+            {
+                throw new IllegalArgumentException("Invalid escape character: " + escapeCharacter);
+            }
+            maxCharacter = Math.max(maxCharacter, escapeCharacter.charAt(0));
+        }
+
+        escapeTable = new boolean[maxCharacter + 1];
+        for (String escapeCharacter : escapeCharacters)
+        {
+            escapeTable[escapeCharacter.charAt(0)] = true;
+        }
+    }
+
+    /**
+     * @param input the string to escape
+     * @return the escaped string, or the input itself if no character needed escaping
+     */
+    String escape(String input)
+    {
+        int firstEscape = indexOfEscape(input);
+        if (firstEscape < 0)
+        {
+            return input;
+        }
+
+        StringBuilder builder = new StringBuilder(input.length() + 16);
+        builder.append(input, 0, firstEscape);
+        for (int i = firstEscape; i < input.length(); i++)
+        {
+            char c = input.charAt(i);
+            if (needsEscape(c))
+            {
+                builder.append(ESCAPE);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Escape the tail of a builder in place.
+     *
+     * @param builder the builder holding the characters to escape
+     * @param start   the index of the first character to escape
+     */
+    void escapeFrom(StringBuilder builder, int start)
+    {
+        if (escapeTable.length == 0)
+        {
+            return;
+        }
+
+        int end = builder.length();
+        int escapes = 0;
+        for (int i = start; i < end; i++)
+        {
+            if (needsEscape(builder.charAt(i)))
+            {
+                escapes++;
+            }
+        }
+        if (escapes == 0)
+        {
+            return;
+        }
+
+        builder.setLength(end + escapes);
+        int target = end + escapes - 1;
+        for (int i = end - 1; i >= start && target > i; i--)
+        {
+            char c = builder.charAt(i);
+            builder.setCharAt(target--, c);
+            if (needsEscape(c))
+            {
+                builder.setCharAt(target--, ESCAPE);
+            }
+        }
+    }
+
+    private int indexOfEscape(String input)
+    {
+        if (escapeTable.length == 0)
+        {
+            return -1;
+        }
+
+        for (int i = 0; i < input.length(); i++)
+        {
+            if (needsEscape(input.charAt(i)))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean needsEscape(char c)
+    {
+        return c < escapeTable.length && escapeTable[c];
+    }
+}
@@ -15,41 +15,74 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.logger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditBatchWriteMarshallable;
 import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditRecordWriteMarshallable;
 import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.RecordFormat;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.WriteDictionary;
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import net.openhft.chronicle.wire.WriteMarshallable;
 
 public class ChronicleAuditLogger implements AuditLogger
 {
     private static final Logger LOG = LoggerFactory.getLogger(ChronicleAuditLogger.class);
 
+    /**
+     * The maximum number of operations in one compact batch record, which keeps the record well below the maximum
+     * document size of the Chronicle queue. Larger batches are written as several compact batch records.
+     */
+    static final int MAX_BATCH_RECORD_OPERATIONS = 100;
+
     private final ChronicleWriter writer;
     private final FieldSelector configuredFields;
+    private final RecordFormat recordFormat;
+    private final WriteDictionary dictionary;
+    private final boolean compactBatches;
 
     public ChronicleAuditLogger(Map<String, String> parameters)
     {
         ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(parameters);
         writer = new ChronicleWriter(config);
         configuredFields = config.getFields();
+        recordFormat = config.getRecordFormat();
+        dictionary = writer.getDictionary();
+        compactBatches = config.isCompactBatches();
     }
 
     @VisibleForTesting
     ChronicleAuditLogger(ChronicleWriter writer, FieldSelector configuredFields)
+    {
+        this(writer, configuredFields, RecordFormat.BITMAPPED);
+    }
+
+    @VisibleForTesting
+    ChronicleAuditLogger(ChronicleWriter writer, FieldSelector configuredFields, RecordFormat recordFormat)
+    {
+        this(writer, configuredFields, recordFormat, false);
+    }
+
+    @VisibleForTesting
+    ChronicleAuditLogger(ChronicleWriter writer, FieldSelector configuredFields, RecordFormat recordFormat, boolean compactBatches)
     {
         this.writer = writer;
         this.configuredFields = configuredFields;
+        this.recordFormat = recordFormat;
+        this.dictionary = WriteDictionary.disabled();
+        this.compactBatches = compactBatches;
     }
 
     @Override
     public void log(AuditEntry logEntry)
     {
-        AuditRecordWriteMarshallable auditRecordWriteMarshallable = new AuditRecordWriteMarshallable(logEntry, configuredFields);
+        AuditRecordWriteMarshallable auditRecordWriteMarshallable = new AuditRecordWriteMarshallable(logEntry, configuredFields, recordFormat, dictionary);
         try
         {
             writer.put(auditRecordWriteMarshallable);
@@ -60,4 +93,47 @@ public class ChronicleAuditLogger implements AuditLogger
             Thread.currentThread().interrupt();
         }
     }
+
+    @Override
+    public void logAll(List<AuditEntry> logEntries)
+    {
+        List<WriteMarshallable> marshallables = new ArrayList<>(logEntries.size());
+        int runStart = 0;
+        for (int i = 1; i <= logEntries.size(); i++)
+        {
+            if (i == logEntries.size() || !continuesRun(logEntries.get(runStart), logEntries.get(i), i - runStart))
+            {
+                marshallables.add(toMarshallable(logEntries.subList(runStart, i)));
+                runStart = i;
+            }
+        }
+
+        try
+        {
+            writer.putAll(marshallables);
+        }
+        catch (InterruptedException e)
+        {
+            LOG.warn("Interrupted while sending messages to Chronicle writer");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * When compact batches are enabled, consecutive entries sharing client, coordinator, user, batch id, status and
+     * timestamp are written as one compact batch record, carrying the shared header once followed by the operations.
+     */
+    private boolean continuesRun(AuditEntry runStart, AuditEntry entry, int runLength)
+    {
+        return compactBatches
+               && runLength < MAX_BATCH_RECORD_OPERATIONS
+               && AuditBatchWriteMarshallable.sharesHeader(runStart, entry);
+    }
+
+    private WriteMarshallable toMarshallable(List<AuditEntry> run)
+    {
+        return run.size() == 1
+               ? new AuditRecordWriteMarshallable(run.get(0), configuredFields, recordFormat, dictionary)
+               : new AuditBatchWriteMarshallable(run, configuredFields, recordFormat, dictionary);
+    }
 }
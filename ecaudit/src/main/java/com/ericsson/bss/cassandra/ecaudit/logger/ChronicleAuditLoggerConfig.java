@@ -25,6 +25,7 @@ import java.util.Optional;
 import com.google.common.base.Splitter;
 
 import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.RecordFormat;
 import com.ericsson.bss.cassandra.ecaudit.utils.Exceptions;
 import net.openhft.chronicle.queue.RollCycle;
 import net.openhft.chronicle.queue.RollCycles;
@@ -36,13 +37,28 @@ class ChronicleAuditLoggerConfig
     private static final String CONFIG_ROLL_CYCLE = "roll_cycle";
     private static final String CONFIG_MAX_LOG_SIZE = "max_log_size";
     private static final String CONFIG_FIELDS = "fields";
+    private static final String CONFIG_BUFFER_SIZE = "buffer_size";
+    private static final String CONFIG_WAIT_STRATEGY = "wait_strategy";
+    private static final String CONFIG_RECORD_FORMAT = "record_format";
+    private static final String CONFIG_DICTIONARY_ENCODING = "dictionary_encoding";
+    private static final String CONFIG_COMPACT_BATCHES = "compact_batches";
+    private static final String CONFIG_CYCLE_COMPRESSION = "cycle_compression";
+    private static final String CONFIG_ARCHIVE_DIR = "archive_dir";
+    private static final String CONFIG_ARCHIVE_MAX_RATE = "archive_max_rate";
     private static final long DEFAULT_MAX_LOG_SIZE = 16L * 1024L * 1024L * 1024L; // 16 GB
+    private static final int MAX_BUFFER_SIZE = 1 << 20;
 
     private final Path logPath;
     private final RollCycle rollCycle;
     private final long maxLogSize;
     private final FieldSelector fieldSelector;
-
+    private final int bufferSize;
+    private final WaitStrategy waitStrategy;
+    private final RecordFormat recordFormat;
+    private final boolean dictionaryEncoding;
+    private final boolean compactBatches;
+    private final CycleCompression cycleCompression;
+    private final CycleFileRemoval cycleFileRemoval;
 
     ChronicleAuditLoggerConfig(Map<String, String> parameters)
     {
@@ -50,6 +66,13 @@ class ChronicleAuditLoggerConfig
         rollCycle = resolveRollCycle(parameters);
         maxLogSize = resolveMaxLogSize(parameters);
         fieldSelector = resolveFields(parameters);
+        bufferSize = resolveBufferSize(parameters);
+        waitStrategy = resolveWaitStrategy(parameters);
+        recordFormat = resolveRecordFormat(parameters);
+        dictionaryEncoding = resolveDictionaryEncoding(parameters, recordFormat);
+        compactBatches = resolveCompactBatches(parameters);
+        cycleCompression = resolveCycleCompression(parameters);
+        cycleFileRemoval = resolveCycleFileRemoval(parameters, logPath);
     }
 
     private static Path resolveLogPath(Map<String, String> parameters)
@@ -101,6 +124,150 @@ class ChronicleAuditLoggerConfig
         return size;
     }
 
+    private static int resolveBufferSize(Map<String, String> parameters)
+    {
+        int size;
+        try
+        {
+            size = Optional.ofNullable(parameters.get(CONFIG_BUFFER_SIZE))
+                           .map(Integer::valueOf)
+                           .orElse(ChronicleWriter.DEFAULT_BUFFER_SIZE);
+        }
+        catch (NumberFormatException e)
+        {
+            throw Exceptions.appendCause(new ConfigurationException("Invalid chronicle logger buffer size: " + parameters.get(CONFIG_BUFFER_SIZE)), e);
+        }
+
+        if (size <= 0 || size > MAX_BUFFER_SIZE)
+        {
+            throw new ConfigurationException("Invalid chronicle logger buffer size: " + parameters.get(CONFIG_BUFFER_SIZE));
+        }
+
+        return size;
+    }
+
+    private static WaitStrategy resolveWaitStrategy(Map<String, String> parameters)
+    {
+        try
+        {
+            return Optional.ofNullable(parameters.get(CONFIG_WAIT_STRATEGY))
+                           .map(WaitStrategy::valueOf)
+                           .orElse(ChronicleWriter.DEFAULT_WAIT_STRATEGY);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ConfigurationException("Invalid chronicle logger wait strategy: " + parameters.get(CONFIG_WAIT_STRATEGY), e);
+        }
+    }
+
+    private static RecordFormat resolveRecordFormat(Map<String, String> parameters)
+    {
+        try
+        {
+            return Optional.ofNullable(parameters.get(CONFIG_RECORD_FORMAT))
+                           .map(RecordFormat::valueOf)
+                           .orElse(RecordFormat.BITMAPPED);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ConfigurationException("Invalid chronicle logger record format: " + parameters.get(CONFIG_RECORD_FORMAT), e);
+        }
+    }
+
+    private static boolean resolveDictionaryEncoding(Map<String, String> parameters, RecordFormat recordFormat)
+    {
+        String value = parameters.getOrDefault(CONFIG_DICTIONARY_ENCODING, "false");
+        if (!"true".equals(value) && !"false".equals(value))
+        {
+            throw new ConfigurationException("Invalid chronicle logger dictionary encoding: " + value);
+        }
+
+        boolean enabled = Boolean.parseBoolean(value);
+        if (enabled && recordFormat != RecordFormat.COMPACT)
+        {
+            throw new ConfigurationException("Chronicle logger dictionary encoding requires the " + RecordFormat.COMPACT + " record format");
+        }
+
+        return enabled;
+    }
+
+    private static boolean resolveCompactBatches(Map<String, String> parameters)
+    {
+        String value = parameters.getOrDefault(CONFIG_COMPACT_BATCHES, "false");
+        if (!"true".equals(value) && !"false".equals(value))
+        {
+            throw new ConfigurationException("Invalid chronicle logger compact batches: " + value);
+        }
+
+        return Boolean.parseBoolean(value);
+    }
+
+    private static CycleCompression resolveCycleCompression(Map<String, String> parameters)
+    {
+        try
+        {
+            return Optional.ofNullable(parameters.get(CONFIG_CYCLE_COMPRESSION))
+                           .map(CycleCompression::valueOf)
+                           .orElse(CycleCompression.NONE);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ConfigurationException("Invalid chronicle logger cycle compression: " + parameters.get(CONFIG_CYCLE_COMPRESSION), e);
+        }
+    }
+
+    private static CycleFileRemoval resolveCycleFileRemoval(Map<String, String> parameters, Path logPath)
+    {
+        long maxArchiveRate = resolveMaxArchiveRate(parameters);
+        if (!parameters.containsKey(CONFIG_ARCHIVE_DIR))
+        {
+            if (maxArchiveRate != CycleFileRemoval.UNTHROTTLED)
+            {
+                throw new ConfigurationException("Chronicle logger archive max rate requires the '" + CONFIG_ARCHIVE_DIR + "' parameter option");
+            }
+            return CycleFileRemoval.deleting();
+        }
+
+        Path archivePath;
+        try
+        {
+            archivePath = Paths.get(parameters.get(CONFIG_ARCHIVE_DIR));
+        }
+        catch (InvalidPathException e)
+        {
+            throw new ConfigurationException("Invalid chronicle logger archive directory path: " + parameters.get(CONFIG_ARCHIVE_DIR), e);
+        }
+
+        if (archivePath.toAbsolutePath().normalize().equals(logPath.toAbsolutePath().normalize()))
+        {
+            throw new ConfigurationException("Chronicle logger archive directory must not be the log directory: " + parameters.get(CONFIG_ARCHIVE_DIR));
+        }
+
+        return CycleFileRemoval.archivingTo(archivePath, maxArchiveRate);
+    }
+
+    private static long resolveMaxArchiveRate(Map<String, String> parameters)
+    {
+        long rate;
+        try
+        {
+            rate = Optional.ofNullable(parameters.get(CONFIG_ARCHIVE_MAX_RATE))
+                           .map(Long::valueOf)
+                           .orElse(CycleFileRemoval.UNTHROTTLED);
+        }
+        catch (NumberFormatException e)
+        {
+            throw Exceptions.appendCause(new ConfigurationException("Invalid chronicle logger archive max rate: " + parameters.get(CONFIG_ARCHIVE_MAX_RATE)), e);
+        }
+
+        if (rate < 0)
+        {
+            throw new ConfigurationException("Invalid chronicle logger archive max rate: " + parameters.get(CONFIG_ARCHIVE_MAX_RATE));
+        }
+
+        return rate;
+    }
+
     private static void mandatoryConfig(String option, Map<String, String> parameters)
     {
         if (!parameters.containsKey(option))
@@ -146,6 +313,41 @@ class ChronicleAuditLoggerConfig
         return maxLogSize;
     }
 
+    int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    WaitStrategy getWaitStrategy()
+    {
+        return waitStrategy;
+    }
+
+    RecordFormat getRecordFormat()
+    {
+        return recordFormat;
+    }
+
+    boolean isDictionaryEncoding()
+    {
+        return dictionaryEncoding;
+    }
+
+    boolean isCompactBatches()
+    {
+        return compactBatches;
+    }
+
+    CycleCompression getCycleCompression()
+    {
+        return cycleCompression;
+    }
+
+    CycleFileRemoval getCycleFileRemoval()
+    {
+        return cycleFileRemoval;
+    }
+
     public FieldSelector getFields()
     {
         return fieldSelector;
@@ -15,72 +15,202 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.logger;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.WriteDictionary;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ChronicleQueueBuilder;
 import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.wire.DocumentContext;
 import net.openhft.chronicle.wire.WriteMarshallable;
 import org.apache.cassandra.concurrent.NamedThreadFactory;
 
+/**
+ * Writes records to the Chronicle queue on a dedicated writer thread.
+ * <p>
+ * Producers publish records to a lock-free ring buffer. The writer thread drains the ring buffer in batches and
+ * appends the records back-to-back. The records of a batch are published as one unit and occupy a single slot in the
+ * ring buffer. The {@link WaitStrategy} decides how the writer thread waits for new records and how producers wait when
+ * the ring buffer is full.
+ * <p>
+ * When dictionary encoding is enabled, the writer thread tells the {@link WriteDictionary} which roll cycle each record
+ * is written to, so that the dictionary can start over in each roll cycle.
+ * <p>
+ * A record which fails to be written is rolled back and logged, the writer thread continues with the next record.
+ * Producers fail fast if the writer thread has stopped.
+ */
 class ChronicleWriter implements AutoCloseable
 {
-    private static final int BUFFER_SIZE = 256;
+    private static final Logger LOG = LoggerFactory.getLogger(ChronicleWriter.class);
+
+    static final int DEFAULT_BUFFER_SIZE = 256;
+    static final WaitStrategy DEFAULT_WAIT_STRATEGY = WaitStrategy.PARK;
+    static final int DICTIONARY_MAX_ENTRIES = 4096;
+
+    private static final int MAX_BATCH_SIZE = 256;
 
     private final Thread writerThread = new NamedThreadFactory("Chronicle Writer").newThread(this::writerLoop);
-    private final BlockingQueue<WriteMarshallable> queue;
+    private final MpscRingBuffer<List<? extends WriteMarshallable>> ringBuffer;
+    private final WaitStrategy waitStrategy;
     private final ChronicleQueue chronicle;
     private final ExcerptAppender appender;
+    private final WriteDictionary dictionary;
+    private final SizeRotatingStoreFileListener storeFileListener; // Only set when created from configuration
 
     private volatile boolean active = true;
 
     ChronicleWriter(ChronicleAuditLoggerConfig config)
     {
-        chronicle = ChronicleQueueBuilder.single(config.getLogPath().toFile())
-                             .rollCycle(config.getRollCycle())
-                             .storeFileListener(new SizeRotatingStoreFileListener(config.getLogPath(), config.getMaxLogSize()))
-                             .build();
+        this(config, new SizeRotatingStoreFileListener(config.getLogPath(), config.getMaxLogSize(), config.getCycleCompression(),
+                                                             config.getCycleFileRemoval()));
+    }
 
-        appender = chronicle.acquireAppender();
-        queue = new ArrayBlockingQueue<>(BUFFER_SIZE);
-        writerThread.start();
+    private ChronicleWriter(ChronicleAuditLoggerConfig config, SizeRotatingStoreFileListener storeFileListener)
+    {
+        this(ChronicleQueueBuilder.single(config.getLogPath().toFile())
+                                  .rollCycle(config.getRollCycle())
+                                  .storeFileListener(storeFileListener)
+                                  .build(),
+             config.getBufferSize(),
+             config.getWaitStrategy(),
+             config.isDictionaryEncoding() ? new WriteDictionary(DICTIONARY_MAX_ENTRIES) : WriteDictionary.disabled(),
+             storeFileListener);
     }
 
     @VisibleForTesting
     ChronicleWriter(ChronicleQueue chronicle)
+    {
+        this(chronicle, DEFAULT_BUFFER_SIZE, DEFAULT_WAIT_STRATEGY);
+    }
+
+    @VisibleForTesting
+    ChronicleWriter(ChronicleQueue chronicle, int bufferSize, WaitStrategy waitStrategy)
+    {
+        this(chronicle, bufferSize, waitStrategy, WriteDictionary.disabled());
+    }
+
+    @VisibleForTesting
+    ChronicleWriter(ChronicleQueue chronicle, int bufferSize, WaitStrategy waitStrategy, WriteDictionary dictionary)
+    {
+        this(chronicle, bufferSize, waitStrategy, dictionary, null);
+    }
+
+    private ChronicleWriter(ChronicleQueue chronicle, int bufferSize, WaitStrategy waitStrategy, WriteDictionary dictionary,
+                            SizeRotatingStoreFileListener storeFileListener)
     {
         this.chronicle = chronicle;
+        this.dictionary = dictionary;
+        this.storeFileListener = storeFileListener;
+        this.ringBuffer = new MpscRingBuffer<>(bufferSize);
+        this.waitStrategy = waitStrategy;
         appender = chronicle.acquireAppender();
-        queue = new ArrayBlockingQueue<>(BUFFER_SIZE);
         writerThread.start();
     }
 
+    /**
+     * @return the dictionary of the roll cycle currently written to, which must only be used while writing records
+     */
+    WriteDictionary getDictionary()
+    {
+        return dictionary;
+    }
+
     void put(WriteMarshallable marshallable) throws InterruptedException
+    {
+        putAll(Collections.singletonList(marshallable));
+    }
+
+    /**
+     * Publish the records of a batch as one unit. The records are appended back-to-back, in order.
+     *
+     * @param marshallables the records to write
+     * @throws InterruptedException  if interrupted while waiting for space in the ring buffer
+     * @throws IllegalStateException if the writer has been closed or the writer thread has stopped
+     */
+    void putAll(List<? extends WriteMarshallable> marshallables) throws InterruptedException
     {
         if (!active)
         {
             throw new IllegalStateException("Chronicle audit writer has been deactivated");
         }
 
-        queue.put(marshallable);
+        int idleCount = 0;
+        while (!ringBuffer.offer(marshallables))
+        {
+            if (Thread.interrupted())
+            {
+                throw new InterruptedException();
+            }
+            if (!writerThread.isAlive())
+            {
+                throw new IllegalStateException("Chronicle audit writer thread has stopped");
+            }
+            waitStrategy.idle(idleCount++);
+        }
     }
 
     private void writerLoop()
     {
-        try
+        Consumer<List<? extends WriteMarshallable>> writer = this::writeAll;
+        int idleCount = 0;
+        while (active && !Thread.currentThread().isInterrupted())
         {
-            while (active)
+            if (ringBuffer.drain(writer, MAX_BATCH_SIZE) > 0)
             {
-                WriteMarshallable marshallable = queue.take();
-                appender.writeDocument(marshallable);
+                idleCount = 0;
+            }
+            else
+            {
+                waitStrategy.idle(idleCount);
+                // Saturated, as the writer may be idle for a very long time
+                if (idleCount < Integer.MAX_VALUE)
+                {
+                    idleCount++;
+                }
             }
         }
-        catch (InterruptedException e)
+    }
+
+    private void writeAll(List<? extends WriteMarshallable> marshallables)
+    {
+        for (WriteMarshallable marshallable : marshallables)
         {
-            Thread.currentThread().interrupt();
+            try
+            {
+                write(marshallable);
+            }
+            catch (RuntimeException e)
+            {
+                LOG.error("Failed to write audit record to Chronicle queue", e);
+            }
+        }
+    }
+
+    private void write(WriteMarshallable marshallable)
+    {
+        try (DocumentContext context = appender.writingDocument())
+        {
+            try
+            {
+                if (dictionary.isEnabled())
+                {
+                    // The roll cycle of the document is settled once the document is acquired
+                    dictionary.useCycle(appender.cycle());
+                }
+                marshallable.writeMarshallable(context.wire());
+            }
+            catch (RuntimeException e)
+            {
+                context.rollbackOnClose();
+                dictionary.reset();
+                throw e;
+            }
         }
     }
 
@@ -104,5 +234,9 @@ class ChronicleWriter implements AutoCloseable
         }
 
         chronicle.close();
+        if (storeFileListener != null)
+        {
+            storeFileListener.close();
+        }
     }
 }
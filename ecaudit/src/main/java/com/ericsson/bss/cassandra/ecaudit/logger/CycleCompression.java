@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+/**
+ * Decides whether the Chronicle cycle files which have been released by the writer are compressed.
+ */
+enum CycleCompression
+{
+    /**
+     * Released cycle files are kept as they are.
+     */
+    NONE,
+
+    /**
+     * Released cycle files are compressed with LZ4 in the background. Compressed cycle files can only be read by eclog
+     * 3.1.0 or later.
+     */
+    LZ4
+}
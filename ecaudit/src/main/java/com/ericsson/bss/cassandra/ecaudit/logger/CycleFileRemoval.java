@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.CompressedCycleFiles;
+
+/**
+ * Removes the Chronicle cycle files which are rotated out of the log directory, either by deleting them or by moving
+ * them to an archive directory.
+ * <p>
+ * A file is moved to the archive directory by renaming it when possible. If the archive directory is on another file
+ * system the file is copied in chunks, at a throttled rate if configured, and then deleted. Chunks of zeroes are left
+ * as holes in the copy, see {@link CompressedCycleFiles#isZero}, and do not count toward the archive rate.
+ * The copy is written under a temporary name and moved in place, so an archived file is always complete.
+ */
+final class CycleFileRemoval
+{
+    /**
+     * Archive rate which is not throttled.
+     */
+    static final long UNTHROTTLED = 0;
+
+    private static final CycleFileRemoval DELETING = new CycleFileRemoval(null, UNTHROTTLED);
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Path archivePath;
+    private final long maxArchiveRate;
+    private final RateLimiter rateLimiter; // Only set when throttled
+
+    private CycleFileRemoval(Path archivePath, long maxArchiveRate)
+    {
+        this.archivePath = archivePath;
+        this.maxArchiveRate = maxArchiveRate;
+        this.rateLimiter = maxArchiveRate == UNTHROTTLED ? null : RateLimiter.create(maxArchiveRate);
+    }
+
+    /**
+     * @return a removal which deletes rotated files
+     */
+    static CycleFileRemoval deleting()
+    {
+        return DELETING;
+    }
+
+    /**
+     * @param archivePath    the directory to move rotated files to
+     * @param maxArchiveRate the maximum number of bytes per second to copy to the archive directory, or
+     *                       {@link #UNTHROTTLED}
+     * @return a removal which moves rotated files to the archive directory
+     */
+    static CycleFileRemoval archivingTo(Path archivePath, long maxArchiveRate)
+    {
+        if (maxArchiveRate < 0)
+        {
+            throw new IllegalArgumentException("Invalid archive rate: " + maxArchiveRate);
+        }
+        return new CycleFileRemoval(archivePath, maxArchiveRate);
+    }
+
+    /**
+     * @return the archive directory, or null if rotated files are deleted
+     */
+    Path getArchivePath()
+    {
+        return archivePath;
+    }
+
+    /**
+     * @return the maximum number of bytes per second to copy to the archive directory, or {@link #UNTHROTTLED}
+     */
+    long getMaxArchiveRate()
+    {
+        return maxArchiveRate;
+    }
+
+    /**
+     * Remove a rotated file from the log directory. This may block for a long time and should not be invoked by the
+     * writer thread.
+     *
+     * @param file the file to remove
+     * @throws IOException if the file could not be deleted or archived
+     */
+    void remove(File file) throws IOException
+    {
+        if (archivePath == null)
+        {
+            Files.delete(file.toPath());
+        }
+        else
+        {
+            archive(file.toPath());
+        }
+    }
+
+    private void archive(Path file) throws IOException
+    {
+        Files.createDirectories(archivePath);
+        Path target = archivePath.resolve(file.getFileName());
+        try
+        {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            // The archive directory is on another file system
+            copy(file, target);
+            Files.delete(file);
+        }
+    }
+
+    @VisibleForTesting
+    void copy(Path file, Path target) throws IOException
+    {
+        Path temporaryFile = archivePath.resolve(file.getFileName() + TEMPORARY_SUFFIX);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             RandomAccessFile out = new RandomAccessFile(temporaryFile.toFile(), "rw"))
+        {
+            out.setLength(0);
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+            long size = in.size();
+            long position = 0;
+            while (position < size)
+            {
+                buffer.clear();
+                int read = in.read(buffer, position);
+                if (read == -1)
+                {
+                    break;
+                }
+
+                // Leave holes where the cycle file was never written to
+                if (!CompressedCycleFiles.isZero(buffer.array(), read))
+                {
+                    if (rateLimiter != null)
+                    {
+                        rateLimiter.acquire(read);
+                    }
+                    buffer.flip();
+                    out.getChannel().write(buffer, position);
+                }
+                position += read;
+            }
+            out.setLength(position);
+        }
+        catch (IOException e)
+        {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        }
+
+        Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -19,14 +19,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.CompressedCycleFiles;
 
 class FileQueueBootstrapper
 {
@@ -46,23 +47,43 @@ class FileQueueBootstrapper
     }
 
     void discoverFiles()
+    {
+        discoverFiles(listFiles());
+    }
+
+    /**
+     * List the cycle files in the log directory, without touching the discovered files. This is the part of the
+     * discovery which goes to the file system.
+     *
+     * @return the cycle files in the log directory, in chronological order
+     */
+    List<File> listFiles()
     {
         try
         {
             // Chronicle use filenames which allow sorting in chronological order
-            // Example filename for MINUTELY rolling policy: 20190327-1231.cq4
-            discoveredFiles = Files.list(path)
-                                   .filter(Files::isRegularFile)
-                                   .map(Path::toFile)
-                                   .filter(file -> file.getPath().endsWith(SingleChronicleQueue.SUFFIX))
-                                   .sorted()
-                                   .collect(Collectors.toList());
+            // Example filename for MINUTELY rolling policy: 20190327-1231.cq4, or 20190327-1231.cq4.lz4 if compressed
+            return Files.list(path)
+                        .filter(Files::isRegularFile)
+                        .map(Path::toFile)
+                        .filter(CompressedCycleFiles::isCycleFile)
+                        .filter(file -> !isCompressedTwin(file))
+                        .sorted()
+                        .collect(Collectors.toList());
         }
         catch (IOException e)
         {
             LOG.warn("Failed to list existing Chronicle files");
-            discoveredFiles = Collections.emptyList();
+            return new ArrayList<>();
         }
+    }
+
+    /**
+     * @param files the cycle files in the log directory, as listed by {@link #listFiles()}
+     */
+    void discoverFiles(List<File> files)
+    {
+        discoveredFiles = files;
 
         for (File discoveredFile : discoveredFiles)
         {
@@ -73,17 +94,38 @@ class FileQueueBootstrapper
         }
     }
 
-    void excludeActiveFile(File file)
+    /**
+     * A cycle file may still be around next to its compressed file if the plug-in stopped after the file was
+     * compressed but before it was deleted. The plain file is kept, and the cycle is compressed again.
+     */
+    private static boolean isCompressedTwin(File file)
+    {
+        return CompressedCycleFiles.isCompressed(file)
+               && new File(file.getParentFile(), CompressedCycleFiles.plainNameOf(file)).exists();
+    }
+
+    void excludeFile(File file)
     {
         discoveredFiles.remove(file);
     }
 
-    void enqueueOn(SizeTrackedFileQueue releasedFileQueue)
+    void excludeFiles(Predicate<File> predicate)
+    {
+        discoveredFiles.removeIf(predicate);
+    }
+
+    /**
+     * @param releasedFileQueue the queue to put the discovered files on
+     * @return the discovered files, in chronological order
+     */
+    List<File> enqueueOn(SizeTrackedFileQueue releasedFileQueue)
     {
+        List<File> enqueuedFiles = new ArrayList<>(discoveredFiles);
         for (File existingFile : discoveredFiles)
         {
             releasedFileQueue.offer(existingFile);
         }
         discoveredFiles.clear();
+        return enqueuedFiles;
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free, multi-producer single-consumer ring buffer.
+ * <p>
+ * Each slot carries a sequence number which tells whether the slot is free for the producer claiming a given
+ * position, or holds an element published for the consumer. Producers claim positions with a CAS on a shared
+ * counter and never block each other while publishing. The single consumer drains published elements in batches.
+ * <p>
+ * The capacity is always rounded up to the nearest power of two.
+ *
+ * @param <E> the element type
+ */
+class MpscRingBuffer<E>
+{
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerPosition = new AtomicLong();
+
+    // Only accessed by the single consumer thread
+    private long consumerPosition;
+
+    /**
+     * @param requestedCapacity the minimum capacity of the buffer
+     */
+    MpscRingBuffer(int requestedCapacity)
+    {
+        if (requestedCapacity <= 0 || requestedCapacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Invalid ring buffer capacity: " + requestedCapacity);
+        }
+
+        capacity = roundToPowerOfTwo(requestedCapacity);
+        mask = capacity - 1;
+        elements = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+        {
+            sequences.set(i, i);
+        }
+    }
+
+    private static int roundToPowerOfTwo(int value)
+    {
+        int highestBit = Integer.highestOneBit(value);
+        return highestBit == value ? value : highestBit << 1;
+    }
+
+    int capacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Try to publish an element. May be invoked concurrently by any number of producers.
+     *
+     * @param element the element to publish
+     * @return {@code true} if the element was published, {@code false} if the buffer is full
+     */
+    boolean offer(E element)
+    {
+        long position;
+        int index;
+        while (true)
+        {
+            position = producerPosition.get();
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0)
+            {
+                if (producerPosition.compareAndSet(position, position + 1))
+                {
+                    break;
+                }
+            }
+            else if (difference < 0)
+            {
+                return false;
+            }
+        }
+
+        elements.lazySet(index, element);
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Drain published elements in order. Must only be invoked by the single consumer.
+     *
+     * @param consumer the consumer of the drained elements
+     * @param limit    the maximum number of elements to drain
+     * @return the number of drained elements
+     */
+    int drain(Consumer<E> consumer, int limit)
+    {
+        int drained = 0;
+        while (drained < limit)
+        {
+            int index = (int) (consumerPosition & mask);
+            if (sequences.get(index) != consumerPosition + 1)
+            {
+                break;
+            }
+
+            E element = elements.get(index);
+            elements.lazySet(index, null);
+            sequences.lazySet(index, consumerPosition + capacity);
+            consumerPosition++;
+            drained++;
+
+            consumer.accept(element);
+        }
+        return drained;
+    }
+}
@@ -16,33 +16,96 @@
 package com.ericsson.bss.cassandra.ecaudit.logger;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.CompressedCycleFiles;
 import net.openhft.chronicle.queue.impl.StoreFileListener;
+import org.apache.cassandra.concurrent.NamedThreadFactory;
 
-class SizeRotatingStoreFileListener implements StoreFileListener
+/**
+ * Keeps the Chronicle cycle files released by the writer below the max log size, by removing the oldest files.
+ * <p>
+ * The accounting of released files is done in the Chronicle callbacks, but all file system housekeeping is done by a
+ * background lifecycle thread, so that the writer never waits for a file to be deleted, archived or compressed.
+ * Rotated files are deleted, or moved to an archive directory, as decided by the {@link CycleFileRemoval}. A rotated
+ * file counts toward the accounted size until its removal has completed. If the accounting gets out of step with the
+ * log directory, the lifecycle thread lists the log directory again.
+ * <p>
+ * With {@link CycleCompression#LZ4}, released cycle files are compressed on a background thread, and it is the size
+ * of the compressed file which counts toward the max log size from then on. A released cycle file is only compressed
+ * once the writer has moved on to a later roll cycle, since Chronicle may release and acquire the active cycle file
+ * again.
+ */
+class SizeRotatingStoreFileListener implements StoreFileListener, AutoCloseable
 {
     private static final Logger LOG = LoggerFactory.getLogger(SizeRotatingStoreFileListener.class);
 
     private final SizeTrackedFileQueue releasedFileQueue = new SizeTrackedFileQueue();
+    private final NavigableMap<Integer, File> uncompressedCycles = new TreeMap<>();
     private final FileQueueBootstrapper bootstrapper;
     private final long maxLogSize;
+    private final CycleCompression compression;
+    private final CycleFileRemoval removal;
+    private final ExecutorService lifecycleExecutor;
+
+    private int latestAcquiredCycle = Integer.MIN_VALUE;
+    private boolean rediscoveryScheduled;
+
+    SizeRotatingStoreFileListener(Path path, long maxLogSize, CycleCompression compression, CycleFileRemoval removal)
+    {
+        this(path, maxLogSize, compression, removal, Executors.newSingleThreadExecutor(new NamedThreadFactory("Chronicle File Lifecycle")));
+    }
 
-    SizeRotatingStoreFileListener(Path path, long maxLogSize)
+    @VisibleForTesting
+    SizeRotatingStoreFileListener(Path path, long maxLogSize, CycleCompression compression, CycleFileRemoval removal, ExecutorService lifecycleExecutor)
     {
-        LOG.debug("Rotating Chronicle audit logs at threshold {} bytes", maxLogSize);
+        LOG.debug("Rotating Chronicle audit logs at threshold {} bytes, with {} compression", maxLogSize, compression);
         bootstrapper = new FileQueueBootstrapper(path);
         this.maxLogSize = maxLogSize;
-        reset();
+        this.compression = compression;
+        this.removal = removal;
+        this.lifecycleExecutor = lifecycleExecutor;
+        bootstrapper.discoverFiles();
+    }
+
+    private void scheduleRediscovery()
+    {
+        if (!rediscoveryScheduled)
+        {
+            rediscoveryScheduled = true;
+            lifecycleExecutor.execute(this::rediscoverFiles);
+        }
     }
 
-    private void reset()
+    /**
+     * Start over from the files which are actually in the log directory. The directory is listed outside of the lock,
+     * so that the writer callbacks are not held up by the file system.
+     */
+    private void rediscoverFiles()
     {
+        onRediscovered(bootstrapper.listFiles());
+    }
+
+    private synchronized void onRediscovered(List<File> files)
+    {
+        rediscoveryScheduled = false;
         releasedFileQueue.clear();
-        bootstrapper.discoverFiles();
+        uncompressedCycles.clear();
+        bootstrapper.discoverFiles(files);
+        // Files which are being removed are still around, but must not be removed twice
+        bootstrapper.excludeFiles(releasedFileQueue::isPendingRemoval);
     }
 
     @Override
@@ -53,17 +116,27 @@ class SizeRotatingStoreFileListener implements StoreFileListener
             LOG.debug("Chronicle acquired [{}] {} at {} bytes", cycle, file.getPath(), file.length());
         }
 
+        latestAcquiredCycle = Math.max(latestAcquiredCycle, cycle);
+
         if (bootstrapper.isBootstrapping())
         {
-            bootstrapper.excludeActiveFile(file);
-            bootstrapper.enqueueOn(releasedFileQueue);
+            bootstrapper.excludeFile(file);
+            for (File existingFile : bootstrapper.enqueueOn(releasedFileQueue))
+            {
+                if (!CompressedCycleFiles.isCompressed(existingFile))
+                {
+                    maybeCompress(existingFile);
+                }
+            }
             // We may be above threshold at this point
             // But we'll reclaim disk space on next call to onReleased()
         }
+
+        compressCyclesBefore(latestAcquiredCycle);
     }
 
     @Override
-    public void onReleased(int cycle, File file)
+    public synchronized void onReleased(int cycle, File file)
     {
         if(LOG.isDebugEnabled())
         {
@@ -71,43 +144,156 @@ class SizeRotatingStoreFileListener implements StoreFileListener
         }
 
         releasedFileQueue.offer(file);
+        if (cycle < latestAcquiredCycle)
+        {
+            maybeCompress(file);
+        }
+        else
+        {
+            uncompressedCycles.put(cycle, file);
+        }
         maybeRotate();
     }
 
+    private void compressCyclesBefore(int cycle)
+    {
+        Iterator<Map.Entry<Integer, File>> iterator = uncompressedCycles.headMap(cycle, false).entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            maybeCompress(iterator.next().getValue());
+            iterator.remove();
+        }
+    }
+
+    private void maybeCompress(File file)
+    {
+        if (compression == CycleCompression.LZ4)
+        {
+            lifecycleExecutor.execute(() -> compress(file));
+        }
+    }
+
+    private void compress(File file)
+    {
+        File compressedFile;
+        try
+        {
+            compressedFile = CompressedCycleFiles.compress(file);
+        }
+        catch (IOException e)
+        {
+            // The file may have been rotated before it was compressed
+            if (file.exists() && LOG.isWarnEnabled())
+            {
+                LOG.warn("Failed to compress Chronicle file {}", file.getPath(), e);
+            }
+            return;
+        }
+
+        if(LOG.isDebugEnabled())
+        {
+            LOG.debug("Compressed Chronicle file {} from {} to {} bytes", file.getPath(), file.length(), compressedFile.length());
+        }
+
+        // Files are deleted outside of the lock, so that the writer callbacks are not held up by the file system
+        if (onCompressed(file, compressedFile))
+        {
+            deleteFile(file);
+        }
+        else
+        {
+            // The file was rotated while being compressed
+            deleteFile(compressedFile);
+        }
+    }
+
+    private synchronized boolean onCompressed(File file, File compressedFile)
+    {
+        return releasedFileQueue.replace(file, compressedFile);
+    }
+
     private void maybeRotate()
     {
-        while (releasedFileQueue.accumulatedFileSize() > maxLogSize)
+        // Files which are pending removal are on disk until removed, but are already on their way out
+        while (releasedFileQueue.accumulatedFileSize() - releasedFileQueue.pendingRemovalSize() > maxLogSize)
         {
-            if (!tryDeleteOldestFile())
+            if (!tryRemoveOldestFile())
             {
-                reset();
+                scheduleRediscovery();
                 return;
             }
         }
     }
 
-    private boolean tryDeleteOldestFile()
+    private boolean tryRemoveOldestFile()
     {
-        File toDelete = releasedFileQueue.poll();
-        if (toDelete == null)
+        File toRemove = releasedFileQueue.pollForRemoval();
+        if (toRemove == null)
         {
-            LOG.error("Above audit file threshold but no Chronicle file to delete");
+            LOG.error("Above audit file threshold but no Chronicle file to remove");
             return false;
         }
 
+        uncompressedCycles.values().remove(toRemove);
+        lifecycleExecutor.execute(() -> remove(toRemove));
+        return true;
+    }
+
+    private void remove(File file)
+    {
         if(LOG.isDebugEnabled())
         {
-            LOG.debug("Deleting Chronicle file {} at {} bytes", toDelete.getPath(), toDelete.getPath().length());
+            LOG.debug("Removing Chronicle file {} at {} bytes", file.getPath(), file.length());
+        }
+
+        try
+        {
+            removal.remove(file);
         }
-        if (!toDelete.delete())
+        catch (IOException e)
         {
-            if(LOG.isErrorEnabled())
+            if (LOG.isErrorEnabled())
             {
-                LOG.error("Failed to delete Chronicle file {}", toDelete.getPath());
+                LOG.error("Failed to remove Chronicle file {}", file.getPath(), e);
             }
-            return false;
+            onRemovalFailed(file);
+            rediscoverFiles();
+            return;
         }
 
-        return true;
+        onRemoved(file);
+    }
+
+    private synchronized void onRemoved(File file)
+    {
+        releasedFileQueue.removed(file);
+    }
+
+    private synchronized void onRemovalFailed(File file)
+    {
+        releasedFileQueue.removed(file);
+    }
+
+    @VisibleForTesting
+    synchronized long accountedFileSize()
+    {
+        return releasedFileQueue.accumulatedFileSize();
+    }
+
+    private static void deleteFile(File file)
+    {
+        if (!file.delete() && LOG.isErrorEnabled())
+        {
+            LOG.error("Failed to delete Chronicle file {}", file.getPath());
+        }
+    }
+
+    /**
+     * Stop the lifecycle thread. Removals and compressions which are already scheduled are completed in the background.
+     */
+    @Override
+    public void close()
+    {
+        lifecycleExecutor.shutdown();
     }
 }
@@ -16,17 +16,41 @@
 package com.ericsson.bss.cassandra.ecaudit.logger;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
 
+/**
+ * Tracks the size of the released store files. Files which are polled for removal still count toward the accumulated
+ * size until they are reported as removed, since they remain on disk until then.
+ */
 class SizeTrackedFileQueue
 {
     private final Queue<File> releasedStoreFiles = new LinkedList<>();
+    private final Map<File, Long> pendingRemovals = new HashMap<>();
     private long bytesInStoreFiles;
+    private long bytesInPendingRemovals;
 
+    /**
+     * @return the size of the queued files and the files which are pending removal
+     */
     long accumulatedFileSize()
     {
-        return bytesInStoreFiles;
+        return bytesInStoreFiles + bytesInPendingRemovals;
+    }
+
+    /**
+     * @return the size of the files which are pending removal
+     */
+    long pendingRemovalSize()
+    {
+        return bytesInPendingRemovals;
+    }
+
+    boolean isPendingRemoval(File file)
+    {
+        return pendingRemovals.containsKey(file);
     }
 
     void offer(File file)
@@ -36,18 +60,67 @@ class SizeTrackedFileQueue
         bytesInStoreFiles += file.length();
     }
 
-    File poll()
+    /**
+     * Poll the oldest file, which keeps counting toward the accumulated size until {@link #removed(File)} is called.
+     *
+     * @return the oldest file, or null if the queue is empty
+     */
+    File pollForRemoval()
     {
         File file = releasedStoreFiles.poll();
 
         if (file != null)
         {
-            bytesInStoreFiles -= file.length();
+            long length = file.length();
+            bytesInStoreFiles -= length;
+            bytesInPendingRemovals += length;
+            pendingRemovals.put(file, length);
         }
 
         return file;
     }
 
+    /**
+     * Stop counting a file polled for removal, whether or not it was actually removed.
+     *
+     * @param file the file polled for removal
+     */
+    void removed(File file)
+    {
+        Long length = pendingRemovals.remove(file);
+        if (length != null)
+        {
+            bytesInPendingRemovals -= length;
+        }
+    }
+
+    /**
+     * Replace a file in the queue, keeping its position in the queue.
+     *
+     * @param file        the file to replace
+     * @param replacement the file to replace it with
+     * @return true if the file was replaced, false if the file is no longer in the queue
+     */
+    boolean replace(File file, File replacement)
+    {
+        boolean replaced = false;
+        for (int i = releasedStoreFiles.size(); i > 0; i--)
+        {
+            File queuedFile = releasedStoreFiles.poll();
+            if (!replaced && queuedFile.equals(file))
+            {
+                bytesInStoreFiles += replacement.length() - file.length();
+                queuedFile = replacement;
+                replaced = true;
+            }
+            releasedStoreFiles.offer(queuedFile);
+        }
+        return replaced;
+    }
+
+    /**
+     * Clear the queued files. Files which are pending removal are kept until they are reported as removed.
+     */
     void clear()
     {
         releasedStoreFiles.clear();
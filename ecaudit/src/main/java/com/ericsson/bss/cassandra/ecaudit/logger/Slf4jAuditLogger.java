@@ -27,6 +27,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.bss.cassandra.ecaudit.common.formatter.LogMessageFormatter;
+import com.ericsson.bss.cassandra.ecaudit.common.formatter.LogMessageFormatter.FieldAppender;
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
 import org.apache.cassandra.exceptions.ConfigurationException;
 import org.jetbrains.annotations.Nullable;
@@ -78,9 +79,8 @@ public class Slf4jAuditLogger implements AuditLogger
         {
             return LogMessageFormatter.<AuditEntry>builder()
                    .format(auditConfig.getLogFormat())
-                   .anchor("{}")
-                   .escape("\\{\\}", "\\\\{}")
                    .availableFields(getAvailableFieldFunctionMap(auditConfig))
+                   .fieldAppenders(getFieldAppenderMap(auditConfig))
                    .build();
         }
         catch (IllegalArgumentException e)
@@ -91,28 +91,33 @@ public class Slf4jAuditLogger implements AuditLogger
 
     static Map<String, Function<AuditEntry, Object>> getAvailableFieldFunctionMap(Slf4jAuditLoggerConfig auditConfig)
     {
+        CharacterEscaper escaper = new CharacterEscaper(auditConfig.getEscapeCharacters());
         return ImmutableMap.<String, Function<AuditEntry, Object>>builder()
                .put("CLIENT_IP", entry -> entry.getClientAddress().getAddress().getHostAddress())
                .put("CLIENT_PORT", entry -> getPortOrNull(entry.getClientAddress()))
                .put("COORDINATOR_IP", entry -> entry.getCoordinatorAddress().getHostAddress())
-               .put("USER", entry -> sanitize(entry.getUser(), auditConfig))
+               .put("USER", entry -> escaper.escape(entry.getUser()))
                .put("BATCH_ID", entry -> entry.getBatchId().orElse(null))
                .put("STATUS", AuditEntry::getStatus)
-               .put("OPERATION", entry -> sanitize(entry.getOperation().getOperationString(), auditConfig))
-               .put("OPERATION_NAKED", entry -> sanitize(entry.getOperation().getNakedOperationString(), auditConfig))
+               .put("OPERATION", entry -> escaper.escape(entry.getOperation().getOperationString()))
+               .put("OPERATION_NAKED", entry -> escaper.escape(entry.getOperation().getNakedOperationString()))
                .put("TIMESTAMP", getTimeFunction(auditConfig))
-               .put("SUBJECT", entry -> entry.getSubject().map(s -> sanitize(s, auditConfig)).orElse(null))
+               .put("SUBJECT", entry -> entry.getSubject().map(escaper::escape).orElse(null))
                .build();
     }
 
-    private static String sanitize(String input, Slf4jAuditLoggerConfig auditConfig)
+    /**
+     * Fields which are rendered directly into the log message buffer, avoiding intermediate strings.
+     */
+    static Map<String, FieldAppender<AuditEntry>> getFieldAppenderMap(Slf4jAuditLoggerConfig auditConfig)
     {
-        String sanitized = input;
-        for (String escapeCharacter : auditConfig.getEscapeCharacters())
-        {
-            sanitized = sanitized.replaceAll(escapeCharacter, "\\\\" + escapeCharacter);
-        }
-        return sanitized;
+        CharacterEscaper escaper = new CharacterEscaper(auditConfig.getEscapeCharacters());
+        return ImmutableMap.of("OPERATION", (builder, entry) -> {
+            int start = builder.length();
+            entry.getOperation().appendOperationTo(builder);
+            escaper.escapeFrom(builder, start);
+            return true;
+        });
     }
 
     @Nullable
@@ -138,7 +143,7 @@ public class Slf4jAuditLogger implements AuditLogger
     {
         if(auditLogger.isInfoEnabled())
         {
-            auditLogger.info(formatter.getLogTemplate(), formatter.getArgumentsForEntry(logEntry));
+            auditLogger.info(formatter.format(logEntry));
         }
     }
 }
@@ -24,10 +24,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import org.apache.cassandra.exceptions.ConfigurationException;
 
 class Slf4jAuditLoggerConfig
 {
+    private static final Logger LOG = LoggerFactory.getLogger(Slf4jAuditLoggerConfig.class);
+
     private static final String CONFIG_LOG_FORMAT = "log_format";
     private static final String CONFIG_TIME_FORMAT = "time_format";
     private static final String CONFIG_TIME_ZONE = "time_zone";
@@ -92,7 +97,15 @@ class Slf4jAuditLoggerConfig
         for (String escapeChar : escape.split(","))
         {
             String trimmed = escapeChar.trim();
-            if (!trimmed.isEmpty())
+            if (trimmed.length() > 1)
+            {
+                // Entries used to be regular expressions, skip them rather than refusing to start
+                if (LOG.isWarnEnabled())
+                {
+                    LOG.warn("Ignoring SLF4J logger escape character parameter '{}', each entry must be a single character", trimmed);
+                }
+            }
+            else if (!trimmed.isEmpty())
             {
                 escapeChars.add(trimmed);
             }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides how the Chronicle writer thread waits for new records, and how producers wait for a free slot when the
+ * ring buffer is full.
+ */
+enum WaitStrategy
+{
+    /**
+     * Spin without backing off. Lowest latency, but keeps a core busy at all times.
+     */
+    BUSY_SPIN
+    {
+        @Override
+        void idle(int idleCount)
+        {
+            // Spin
+        }
+    },
+
+    /**
+     * Yield the processor between attempts.
+     */
+    YIELD
+    {
+        @Override
+        void idle(int idleCount)
+        {
+            Thread.yield();
+        }
+    },
+
+    /**
+     * Yield for a short while and then park between attempts, progressively longer up to
+     * {@value #MAX_PARK_MICROS} microseconds. Uses little CPU when idle, and wakes up rarely when idle for a long time.
+     */
+    PARK
+    {
+        @Override
+        void idle(int idleCount)
+        {
+            if (idleCount < YIELD_ATTEMPTS)
+            {
+                Thread.yield();
+            }
+            else
+            {
+                LockSupport.parkNanos(parkNanos(idleCount - YIELD_ATTEMPTS));
+            }
+        }
+    };
+
+    private static final int YIELD_ATTEMPTS = 100;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_PARK_MICROS = 10_000;
+    private static final long MAX_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(MAX_PARK_MICROS);
+    private static final int MAX_PARK_SHIFT = Long.numberOfLeadingZeros(MIN_PARK_NANOS) - Long.numberOfLeadingZeros(MAX_PARK_NANOS) + 1;
+
+    /**
+     * @param parkCount the number of consecutive parks so far
+     * @return the time to park, doubled for each park from {@link #MIN_PARK_NANOS} up to {@link #MAX_PARK_NANOS}
+     */
+    static long parkNanos(int parkCount)
+    {
+        return Math.min(MIN_PARK_NANOS << Math.min(parkCount, MAX_PARK_SHIFT), MAX_PARK_NANOS);
+    }
+
+    /**
+     * Wait before the next attempt.
+     *
+     * @param idleCount the number of consecutive attempts that have been idle
+     */
+    abstract void idle(int idleCount);
+}
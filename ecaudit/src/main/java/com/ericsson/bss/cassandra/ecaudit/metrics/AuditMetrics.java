@@ -18,6 +18,7 @@ package com.ericsson.bss.cassandra.ecaudit.metrics;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 import org.apache.cassandra.metrics.CassandraMetricsRegistry;
 
@@ -30,20 +31,35 @@ public class AuditMetrics
     private static final String METRIC_TYPE = "Audit";
     private static final String METRIC_NAME_FILTER = "Filter";
     private static final String METRIC_NAME_LOG = "Log";
+    private static final String METRIC_NAME_DROPPED = "Dropped";
+    private static final String METRIC_NAME_STATEMENT_CACHE_HIT = "StatementCacheHit";
+    private static final String METRIC_NAME_STATEMENT_CACHE_MISS = "StatementCacheMiss";
+    private static final String METRIC_NAME_ROLE_WHITELIST_CACHE_REQUEST = "RoleWhitelistCacheRequest";
+    private static final String METRIC_NAME_ROLE_WHITELIST_CACHE_LOAD = "RoleWhitelistCacheLoad";
     private static final String MBEAN_BASE = GROUP_NAME + ":type=" + METRIC_TYPE + ",name=";
 
     private final Timer auditFilterTimer;
     private final Timer auditTimer;
+    private final Meter droppedMeter;
+    private final Meter statementCacheHitMeter;
+    private final Meter statementCacheMissMeter;
+    private final Meter roleWhitelistCacheRequestMeter;
+    private final Timer roleWhitelistCacheLoadTimer;
 
     public AuditMetrics()
     {
-        this(CassandraMetricsRegistry.Metrics::timer);
+        this(CassandraMetricsRegistry.Metrics::timer, CassandraMetricsRegistry.Metrics::meter);
     }
 
-    AuditMetrics(Function<CassandraMetricsRegistry.MetricName, Timer> timerFunction)
+    AuditMetrics(Function<CassandraMetricsRegistry.MetricName, Timer> timerFunction, Function<CassandraMetricsRegistry.MetricName, Meter> meterFunction)
     {
         auditFilterTimer = timerFunction.apply(createMetricName(METRIC_NAME_FILTER));
         auditTimer = timerFunction.apply(createMetricName(METRIC_NAME_LOG));
+        droppedMeter = meterFunction.apply(createMetricName(METRIC_NAME_DROPPED));
+        statementCacheHitMeter = meterFunction.apply(createMetricName(METRIC_NAME_STATEMENT_CACHE_HIT));
+        statementCacheMissMeter = meterFunction.apply(createMetricName(METRIC_NAME_STATEMENT_CACHE_MISS));
+        roleWhitelistCacheRequestMeter = meterFunction.apply(createMetricName(METRIC_NAME_ROLE_WHITELIST_CACHE_REQUEST));
+        roleWhitelistCacheLoadTimer = timerFunction.apply(createMetricName(METRIC_NAME_ROLE_WHITELIST_CACHE_LOAD));
     }
 
     /**
@@ -68,6 +84,60 @@ public class AuditMetrics
         auditTimer.update(time, timeUnit);
     }
 
+    /**
+     * Mark an audit record as dropped because the asynchronous audit queue was full.
+     */
+    public void dropAuditRequest()
+    {
+        droppedMeter.mark();
+    }
+
+    /**
+     * Mark a number of audit records as dropped because the asynchronous audit queue was full.
+     *
+     * @param count the number of dropped audit records
+     */
+    public void dropAuditRequests(long count)
+    {
+        droppedMeter.mark(count);
+    }
+
+    /**
+     * Mark a statement classification as served from the statement cache.
+     */
+    public void statementCacheHit()
+    {
+        statementCacheHitMeter.mark();
+    }
+
+    /**
+     * Mark a statement classification as resolved by parsing the statement.
+     */
+    public void statementCacheMiss()
+    {
+        statementCacheMissMeter.mark();
+    }
+
+    /**
+     * Mark a request for the whitelist of a role in the role whitelist cache.
+     */
+    public void roleWhitelistCacheRequest()
+    {
+        roleWhitelistCacheRequestMeter.mark();
+    }
+
+    /**
+     * Add timing for loading the whitelist of a role into the role whitelist cache, on a cache miss or on a background
+     * refresh.
+     *
+     * @param time     the time spent loading
+     * @param timeUnit the time unit of the provided time
+     */
+    public void roleWhitelistCacheLoad(long time, TimeUnit timeUnit)
+    {
+        roleWhitelistCacheLoadTimer.update(time, timeUnit);
+    }
+
     /**
      * Copied from org.apache.cassandra.metrics.DefaultNameFactory but with tailored group name.
      *
@@ -15,18 +15,16 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.obfuscator;
 
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.apache.cassandra.auth.IResource;
 import org.apache.cassandra.auth.Permission;
 import org.apache.cassandra.auth.RoleResource;
 
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.entry.PermissionMask;
+import com.ericsson.bss.cassandra.ecaudit.entry.TruncatedAuditOperation;
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Sets;
 
 /**
  * Implements an {@link AuditObfuscator} that obfuscated passwords,
@@ -36,13 +34,7 @@ public class PasswordObfuscator implements AuditObfuscator
 {
     private final static String PASSWORD_OBFUSCATED = "*****";
 
-    private static final int PATTERN_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.DOTALL;
-
-    private final static String REGEX_PASSWORD_GROUP = "password";
-    private final static Pattern PASSWORD_PATTERN =
-            Pattern.compile(".*password\\s*=?\\s*'(?<password>[^\\s]+)'.*", PATTERN_FLAGS);
-
-    private final static Set<Permission> PASSWORD_PERMISSIONS = ImmutableSet.of(Permission.CREATE, Permission.ALTER);
+    private final static long PASSWORD_PERMISSIONS = PermissionMask.fromPermissions(ImmutableSet.of(Permission.CREATE, Permission.ALTER));
 
     @Override
     public AuditEntry obfuscate(AuditEntry entry)
@@ -51,12 +43,19 @@ public class PasswordObfuscator implements AuditObfuscator
         {
             AuditEntry obfuscatedEntry = entry;
 
-            String obfuscatedOperation = obfuscateOperation(entry.getOperation().getOperationString());
-            if (!entry.getOperation().getOperationString().equals(obfuscatedOperation))
+            // Truncated operations are obfuscated before they are cut, which could leave a partial password behind
+            AuditOperation operation = entry.getOperation();
+            String operationString = operation instanceof TruncatedAuditOperation
+                                     ? ((TruncatedAuditOperation) operation).getFullOperationString()
+                                     : operation.getOperationString();
+            String obfuscatedOperation = obfuscateOperation(operationString);
+            if (!operationString.equals(obfuscatedOperation))
             {
                 obfuscatedEntry = AuditEntry.newBuilder()
                         .basedOn(entry)
-                        .operation(new SimpleAuditOperation(obfuscatedOperation))
+                        .operation(operation instanceof TruncatedAuditOperation
+                                   ? ((TruncatedAuditOperation) operation).withOperationString(obfuscatedOperation)
+                                   : new SimpleAuditOperation(obfuscatedOperation))
                         .build();
             }
             return obfuscatedEntry;
@@ -68,7 +67,7 @@ public class PasswordObfuscator implements AuditObfuscator
     private boolean shouldObfuscate(AuditEntry entry)
     {
         return !entry.hasKnownOperation()
-               || isRoleResource(entry.getResource()) && isPasswordPermission(entry.getPermissions());
+               || isRoleResource(entry.getResource()) && isPasswordPermission(entry.getPermissionMask());
     }
 
     private boolean isRoleResource(IResource resource)
@@ -76,36 +75,18 @@ public class PasswordObfuscator implements AuditObfuscator
         return resource instanceof RoleResource;
     }
 
-    private boolean isPasswordPermission(Set<Permission> permissions)
+    private boolean isPasswordPermission(long permissionMask)
     {
-        return Sets.intersection(permissions, PASSWORD_PERMISSIONS).size() > 0;
+        return (permissionMask & PASSWORD_PERMISSIONS) != PermissionMask.NONE;
     }
 
     /**
-     * Obfuscate password in the given query, if present
-     * @param operation the query to obfuscate password in
-     * @return a query with an obfuscated password if present
+     * Obfuscate passwords in the given query, if present
+     * @param operation the query to obfuscate passwords in
+     * @return a query with obfuscated passwords if present
      */
     private String obfuscateOperation(String operation)
     {
-        Matcher passwordMatcher = PASSWORD_PATTERN.matcher(operation);
-        if (passwordMatcher.matches())
-        {
-            return obfuscateOperation(passwordMatcher, operation);
-        }
-
-        return operation;
-    }
-
-    private String obfuscateOperation(Matcher matcher, String operation)
-    {
-        StringBuilder obfuscated = new StringBuilder();
-        int matchStart = matcher.start(REGEX_PASSWORD_GROUP);
-        int matchStop = matcher.end(REGEX_PASSWORD_GROUP);
-
-        obfuscated.append(operation, 0, matchStart).append(PASSWORD_OBFUSCATED).append(operation.substring(matchStop));
-
-        return obfuscated.toString();
+        return PasswordScanner.obfuscate(operation, PASSWORD_OBFUSCATED);
     }
-
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.obfuscator;
+
+/**
+ * A linear time scanner which masks password values in an operation string.
+ * <p>
+ * A password value is a string literal following the {@code password} keyword (case insensitive), optionally
+ * separated by whitespace and an {@code =} sign. Both quoted ({@code 'pass''word'}) and dollar-quoted
+ * ({@code $$password$$}) literals are recognized, and every occurrence in the operation is masked.
+ * <p>
+ * Operations which fail to parse may not contain well-formed literals. To stay on the safe side a quoted value is
+ * also considered to extend to the last quote in the same non-whitespace run of characters, e.g. the full value of
+ * {@code password 'sec'ret'} is masked.
+ * <p>
+ * Each character of the operation is inspected a bounded number of times, so the cost is linear in the length of
+ * the operation regardless of its content.
+ */
+final class PasswordScanner
+{
+    private static final String KEYWORD = "password";
+    private static final char QUOTE = '\'';
+    private static final String DOLLAR_QUOTE = "$$";
+
+    private final String operation;
+    private final String replacement;
+
+    @SuppressWarnings("PMD.AvoidStringBufferField") // Scanner instances are short-lived
+    private StringBuilder obfuscated; // lazy initialization
+    private int copied;
+
+    // Cached non-whitespace run, shared by all quoted values starting within the run
+    private int runEnd = -1;
+    private int runLastQuote = -1;
+
+    private boolean unterminatedQuote;
+    private boolean unterminatedDollarQuote;
+
+    private PasswordScanner(String operation, String replacement)
+    {
+        this.operation = operation;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Mask all password values in the given operation.
+     *
+     * @param operation   the operation to mask passwords in
+     * @param replacement the replacement of each password value
+     * @return the masked operation, or the operation itself if no password value was found
+     */
+    static String obfuscate(String operation, String replacement)
+    {
+        int keyword = indexOfKeyword(operation, 0);
+        if (keyword < 0)
+        {
+            return operation;
+        }
+
+        return new PasswordScanner(operation, replacement).obfuscateFrom(keyword);
+    }
+
+    private String obfuscateFrom(int firstKeyword)
+    {
+        int keyword = firstKeyword;
+        while (keyword >= 0)
+        {
+            int next = maskValueAfter(keyword + KEYWORD.length());
+            keyword = indexOfKeyword(operation, next);
+        }
+
+        if (obfuscated == null)
+        {
+            return operation;
+        }
+
+        return obfuscated.append(operation, copied, operation.length()).toString();
+    }
+
+    /**
+     * @param afterKeyword the position right after a password keyword
+     * @return the position to continue searching for keywords from
+     */
+    private int maskValueAfter(int afterKeyword)
+    {
+        int valueStart = skipAssignment(afterKeyword);
+        if (valueStart >= operation.length())
+        {
+            return valueStart;
+        }
+
+        if (operation.charAt(valueStart) == QUOTE)
+        {
+            int contentEnd = Math.max(findQuoteEnd(valueStart), findLastQuoteInRun(valueStart));
+            return contentEnd < 0 ? afterKeyword : mask(valueStart + 1, contentEnd);
+        }
+
+        if (operation.startsWith(DOLLAR_QUOTE, valueStart))
+        {
+            int contentEnd = findDollarQuoteEnd(valueStart + DOLLAR_QUOTE.length());
+            return contentEnd < 0 ? afterKeyword : mask(valueStart + DOLLAR_QUOTE.length(), contentEnd);
+        }
+
+        return afterKeyword;
+    }
+
+    private int mask(int contentStart, int contentEnd)
+    {
+        if (obfuscated == null)
+        {
+            obfuscated = new StringBuilder(operation.length());
+        }
+        obfuscated.append(operation, copied, contentStart).append(replacement);
+        copied = contentEnd;
+        return contentEnd + 1;
+    }
+
+    private int skipAssignment(int position)
+    {
+        int i = skipWhitespace(position);
+        if (i < operation.length() && operation.charAt(i) == '=')
+        {
+            i = skipWhitespace(i + 1);
+        }
+        return i;
+    }
+
+    private int skipWhitespace(int position)
+    {
+        int i = position;
+        while (i < operation.length() && isWhitespace(operation.charAt(i)))
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Find the closing quote of a quoted literal, where two consecutive quotes represent an escaped quote.
+     */
+    private int findQuoteEnd(int openingQuote)
+    {
+        if (unterminatedQuote)
+        {
+            return -1;
+        }
+
+        int i = openingQuote + 1;
+        while (i < operation.length())
+        {
+            if (operation.charAt(i) == QUOTE)
+            {
+                if (i + 1 < operation.length() && operation.charAt(i + 1) == QUOTE)
+                {
+                    i += 2;
+                    continue;
+                }
+                return i;
+            }
+            i++;
+        }
+
+        // Don't scan to the end again for later keywords
+        unterminatedQuote = true;
+        return -1;
+    }
+
+    /**
+     * Find the last quote in the non-whitespace run following the opening quote, at least one character apart.
+     */
+    private int findLastQuoteInRun(int openingQuote)
+    {
+        int runStart = openingQuote + 1;
+        if (runStart >= runEnd)
+        {
+            runLastQuote = -1;
+            runEnd = runStart;
+            while (runEnd < operation.length() && !isWhitespace(operation.charAt(runEnd)))
+            {
+                if (operation.charAt(runEnd) == QUOTE)
+                {
+                    runLastQuote = runEnd;
+                }
+                runEnd++;
+            }
+        }
+
+        return runLastQuote > runStart ? runLastQuote : -1;
+    }
+
+    private int findDollarQuoteEnd(int contentStart)
+    {
+        if (unterminatedDollarQuote)
+        {
+            return -1;
+        }
+
+        int end = operation.indexOf(DOLLAR_QUOTE, contentStart);
+        unterminatedDollarQuote = end < 0;
+        return end;
+    }
+
+    private static int indexOfKeyword(String operation, int fromIndex)
+    {
+        int last = operation.length() - KEYWORD.length();
+        for (int i = fromIndex; i <= last; i++)
+        {
+            char c = operation.charAt(i);
+            if ((c == 'p' || c == 'P') && operation.regionMatches(true, i, KEYWORD, 0, KEYWORD.length()))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same definition of whitespace as the {@code \s} character class of regular expressions.
+     */
+    private static boolean isWhitespace(char c)
+    {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
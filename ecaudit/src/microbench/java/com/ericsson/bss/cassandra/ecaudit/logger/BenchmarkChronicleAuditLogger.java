@@ -34,6 +34,7 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -62,7 +63,13 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 @State(Scope.Benchmark)
 public class BenchmarkChronicleAuditLogger
 {
-    private final ChronicleAuditLogger logger;
+    @Param({ "256", "4096" })
+    private String bufferSize;
+
+    @Param({ "PARK", "YIELD" })
+    private String waitStrategy;
+
+    private ChronicleAuditLogger logger;
     private AuditEntry auditEntry;
 
     public static void main(String[] args) throws RunnerException
@@ -75,12 +82,15 @@ public class BenchmarkChronicleAuditLogger
         new Runner(opt).run();
     }
 
-    public BenchmarkChronicleAuditLogger()
+    @Setup(Level.Trial)
+    public void setupLogger()
     {
         File tempDir = Files.createTempDir();
         tempDir.deleteOnExit();
 
-        Map<String, String> config = ImmutableMap.of("log_dir", tempDir.getPath());
+        Map<String, String> config = ImmutableMap.of("log_dir", tempDir.getPath(),
+                                                     "buffer_size", bufferSize,
+                                                     "wait_strategy", waitStrategy);
 
         logger = new ChronicleAuditLogger(config);
     }
@@ -104,4 +114,18 @@ public class BenchmarkChronicleAuditLogger
     {
         logger.log(auditEntry);
     }
+
+    @Benchmark
+    @Threads(8)
+    public void benchmarkGetLogString8Threads()
+    {
+        logger.log(auditEntry);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void benchmarkGetLogString32Threads()
+    {
+        logger.log(auditEntry);
+    }
 }
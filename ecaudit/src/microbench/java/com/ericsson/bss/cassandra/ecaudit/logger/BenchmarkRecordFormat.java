@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditRecordReadMarshallable;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditRecordWriteMarshallable;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.RecordFormat;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
+import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
+import com.ericsson.bss.cassandra.ecaudit.common.record.StoredAuditRecord;
+import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.Wire;
+import net.openhft.chronicle.wire.WireType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of encoding and decoding Chronicle records in each record format.
+ *
+ * The number of bytes per record of each format is printed when the trial is set up.
+ *
+ * Run this directly in IntelliJ (if you have a working JMH plugin).
+ *
+ * Or, run in from the command line (with more accurate results)
+ * - mvn package -DskipTests
+ * - mvn dependency:unpack-dependencies
+ * - java -cp target/classes:target/test-classes:target/dependency com.ericsson.bss.cassandra.ecaudit.logger.BenchmarkRecordFormat
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class BenchmarkRecordFormat
+{
+    @Param({ "BITMAPPED", "COMPACT" })
+    private String recordFormat;
+
+    private AuditRecordWriteMarshallable writeMarshallable;
+    private Bytes<?> encodeBytes;
+    private Wire encodeWire;
+    private Bytes<?> decodeBytes;
+    private Wire decodeWire;
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+                      .include(BenchmarkRecordFormat.class.getSimpleName())
+                      .forks(1)
+                      .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        AuditEntry auditEntry = AuditEntry.newBuilder()
+                                          .timestamp(System.currentTimeMillis())
+                                          .client(new InetSocketAddress(InetAddress.getLocalHost(), 52_678))
+                                          .coordinator(InetAddress.getLocalHost())
+                                          .user("cassandra")
+                                          .batch(UUID.randomUUID())
+                                          .status(Status.SUCCEEDED)
+                                          .operation(new SimpleAuditOperation("INSERT INTO ks.tbl (key, value) VALUES (?, ?)['key', 42]"))
+                                          .build();
+        writeMarshallable = new AuditRecordWriteMarshallable(auditEntry, FieldSelector.DEFAULT_FIELDS, RecordFormat.valueOf(recordFormat));
+
+        encodeBytes = Bytes.elasticByteBuffer();
+        encodeWire = WireType.BINARY_LIGHT.apply(encodeBytes);
+
+        decodeBytes = Bytes.elasticByteBuffer();
+        decodeWire = WireType.BINARY_LIGHT.apply(decodeBytes);
+        writeMarshallable.writeMarshallable(decodeWire);
+
+        System.out.printf("%n%s record format: %d bytes per record%n", recordFormat, decodeBytes.readRemaining());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        encodeBytes.release();
+        decodeBytes.release();
+    }
+
+    @Benchmark
+    public Bytes<?> benchmarkEncode()
+    {
+        encodeBytes.clear();
+        writeMarshallable.writeMarshallable(encodeWire);
+        return encodeBytes;
+    }
+
+    @Benchmark
+    public StoredAuditRecord benchmarkDecode()
+    {
+        decodeBytes.readPosition(0);
+        AuditRecordReadMarshallable readMarshallable = new AuditRecordReadMarshallable();
+        readMarshallable.readMarshallable(decodeWire);
+        return readMarshallable.getAuditRecord();
+    }
+}
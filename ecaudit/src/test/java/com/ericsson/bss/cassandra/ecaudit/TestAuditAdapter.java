@@ -40,8 +40,12 @@ import com.ericsson.bss.cassandra.ecaudit.common.record.AuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.entry.BoundValueLimits;
+import com.ericsson.bss.cassandra.ecaudit.entry.PreparedStatementMetadata;
 import com.ericsson.bss.cassandra.ecaudit.entry.factory.AuditEntryBuilderFactory;
+import com.ericsson.bss.cassandra.ecaudit.entry.factory.PreparedStatementMetadataCache;
 import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.BoundValueSuppressor;
+import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.SuppressionPlan;
 import com.ericsson.bss.cassandra.ecaudit.facade.Auditor;
 import com.ericsson.bss.cassandra.ecaudit.test.mode.ClientInitializer;
 import org.apache.cassandra.auth.AuthenticatedUser;
@@ -54,7 +58,7 @@ import org.apache.cassandra.cql3.ColumnIdentifier;
 import org.apache.cassandra.cql3.ColumnSpecification;
 import org.apache.cassandra.cql3.QueryOptions;
 import org.apache.cassandra.cql3.statements.BatchStatement;
-import org.apache.cassandra.cql3.statements.ModificationStatement;
+import org.apache.cassandra.cql3.statements.ParsedStatement;
 import org.apache.cassandra.db.ConsistencyLevel;
 import org.apache.cassandra.db.marshal.UTF8Type;
 import org.apache.cassandra.dht.IPartitioner;
@@ -73,7 +77,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -132,9 +138,11 @@ public class TestAuditAdapter
     {
         clientAddress = InetAddress.getByName(CLIENT_IP);
         clientSocketAddress = new InetSocketAddress(clientAddress, CLIENT_PORT);
-        auditAdapter = new AuditAdapter(mockAuditor, mockAuditEntryBuilderFactory, mockBoundValueSuppressor);
+        auditAdapter = new AuditAdapter(mockAuditor, mockAuditEntryBuilderFactory, mockBoundValueSuppressor, BoundValueLimits.none(),
+                                        new PreparedStatementMetadataCache(10));
         when(mockState.getUser()).thenReturn(mockUser);
         when(mockAuditor.shouldLogForStatus(any(Status.class))).thenReturn(true);
+        lenient().doCallRealMethod().when(mockAuditor).auditAll(any());
     }
 
     @After
@@ -213,11 +221,11 @@ public class TestAuditAdapter
         when(mockOptions.getValues()).thenReturn(values);
         when(mockOptions.getColumnSpecifications()).thenReturn(columns);
         when(mockOptions.hasColumnSpecifications()).thenReturn(true);
+        ParsedStatement.Prepared prepared = givenPreparedStatement();
 
-        AuditEntry.Builder entryBuilder = AuditEntry.newBuilder().permissions(PERMISSIONS).resource(RESOURCE);
-        when(mockAuditEntryBuilderFactory.createEntryBuilder(eq(mockStatement))).thenReturn(entryBuilder);
-
-        auditAdapter.auditPrepared(PREPARED_STATEMENT, mockStatement, mockState, mockOptions, Status.ATTEMPT, TIMESTAMP);
+        // When
+        PreparedStatementMetadata metadata = auditAdapter.getPreparedStatementMetadata(PREPARED_STATEMENT_ID, prepared);
+        auditAdapter.auditPrepared(metadata, mockState, mockOptions, Status.ATTEMPT, TIMESTAMP);
 
         // Then
         verifyNoMoreInteractions(mockOptions);
@@ -239,8 +247,9 @@ public class TestAuditAdapter
     {
         // Given
         when(mockAuditor.shouldLogForStatus(any(Status.class))).thenReturn(false);
+        PreparedStatementMetadata metadata = new PreparedStatementMetadata(PREPARED_STATEMENT, AuditEntry.newBuilder().build(), SuppressionPlan.SUPPRESS_NOTHING);
         // When
-        auditAdapter.auditPrepared(PREPARED_STATEMENT, mockStatement, mockState, mockOptions, Status.ATTEMPT, TIMESTAMP);
+        auditAdapter.auditPrepared(metadata, mockState, mockOptions, Status.ATTEMPT, TIMESTAMP);
         // Then
         verifyNoMoreInteractions(mockAuditor, mockAuditEntryBuilderFactory);
     }
@@ -295,6 +304,7 @@ public class TestAuditAdapter
         auditAdapter.auditBatch(mockBatchStatement, Collections.emptyList(), expectedBatchId, mockState, mockBatchOptions, Status.ATTEMPT, TIMESTAMP);
 
         // Then
+        verify(mockAuditor).auditAll(any());
         List<AuditEntry> entries = getAuditEntries(3);
         assertThat(entries).extracting(AuditEntry::getClientAddress).containsOnly(clientSocketAddress);
         assertThat(entries).extracting(AuditEntry::getUser).containsOnly(USER);
@@ -318,16 +328,17 @@ public class TestAuditAdapter
         when(mockOptions.getValues()).thenReturn(values);
         when(mockOptions.getColumnSpecifications()).thenReturn(columns);
         when(mockOptions.hasColumnSpecifications()).thenReturn(true);
+        ParsedStatement.Prepared prepared = givenPreparedStatement();
 
-        when(mockBatchStatement.getStatements()).thenReturn(singletonList(mock(ModificationStatement.class)));
         when(mockBatchOptions.getQueryOrIdList()).thenReturn(singletonList(PREPARED_STATEMENT_ID));
         when(mockUser.getName()).thenReturn(USER);
         when(mockState.getRemoteAddress()).thenReturn(clientSocketAddress);
 
-        AuditEntry.Builder entryBuilder = AuditEntry.newBuilder().permissions(PERMISSIONS).resource(RESOURCE);
-        when(mockAuditEntryBuilderFactory.createBatchEntryBuilder()).thenReturn(entryBuilder);
+        when(mockAuditEntryBuilderFactory.createBatchEntryBuilder()).thenReturn(AuditEntry.newBuilder());
 
-        auditAdapter.auditBatch(mockBatchStatement, Arrays.asList(PREPARED_STATEMENT), BATCH_ID, mockState, mockBatchOptions, Status.ATTEMPT, TIMESTAMP);
+        // When
+        PreparedStatementMetadata metadata = auditAdapter.getPreparedStatementMetadata(PREPARED_STATEMENT_ID, prepared);
+        auditAdapter.auditBatch(mockBatchStatement, singletonList(metadata), BATCH_ID, mockState, mockBatchOptions, Status.ATTEMPT, TIMESTAMP);
 
         // Then
         verifyNoMoreInteractions(mockOptions);
@@ -343,6 +354,42 @@ public class TestAuditAdapter
         assertThat(entry.getTimestamp()).isEqualTo(TIMESTAMP);
     }
 
+    @Test
+    public void testPreparedStatementMetadataIsResolvedOnce()
+    {
+        // Given
+        ParsedStatement.Prepared prepared = givenPreparedStatement();
+
+        // When
+        PreparedStatementMetadata metadata1 = auditAdapter.getPreparedStatementMetadata(PREPARED_STATEMENT_ID, prepared);
+        PreparedStatementMetadata metadata2 = auditAdapter.getPreparedStatementMetadata(PREPARED_STATEMENT_ID, prepared);
+
+        // Then
+        assertThat(metadata2).isSameAs(metadata1);
+        assertThat(metadata1.getRawStatement()).isEqualTo(PREPARED_STATEMENT);
+        assertThat(metadata1.getTemplate().getPermissions()).isEqualTo(PERMISSIONS);
+        assertThat(metadata1.getTemplate().getResource()).isEqualTo(RESOURCE);
+        assertThat(metadata1.getSuppressionPlan()).isSameAs(SuppressionPlan.SUPPRESS_NOTHING);
+        verify(mockAuditEntryBuilderFactory, times(1)).createEntryBuilder(eq(mockStatement));
+        verify(mockBoundValueSuppressor, times(1)).planFor(eq(prepared.boundNames));
+    }
+
+    @Test
+    public void testPreparedStatementMetadataIsResolvedAgainWhenInvalidated()
+    {
+        // Given
+        ParsedStatement.Prepared prepared = givenPreparedStatement();
+
+        // When
+        PreparedStatementMetadata metadata1 = auditAdapter.getPreparedStatementMetadata(PREPARED_STATEMENT_ID, prepared);
+        auditAdapter.invalidatePreparedStatementMetadata(PREPARED_STATEMENT_ID);
+        PreparedStatementMetadata metadata2 = auditAdapter.getPreparedStatementMetadata(PREPARED_STATEMENT_ID, prepared);
+
+        // Then
+        assertThat(metadata2).isNotSameAs(metadata1);
+        verify(mockAuditEntryBuilderFactory, times(2)).createEntryBuilder(eq(mockStatement));
+    }
+
     @Test
     public void testProcessBatchNoLogTimeStrategy()
     {
@@ -354,6 +401,74 @@ public class TestAuditAdapter
         verifyNoMoreInteractions(mockAuditor, mockAuditEntryBuilderFactory);
     }
 
+    @Test
+    public void testRegularContextResolvesEntryOnce()
+    {
+        // Given
+        when(mockUser.getName()).thenReturn(USER);
+        when(mockState.getRemoteAddress()).thenReturn(clientSocketAddress);
+
+        AuditEntry.Builder entryBuilder = AuditEntry.newBuilder().permissions(PERMISSIONS).resource(RESOURCE);
+        when(mockAuditEntryBuilderFactory.createEntryBuilder(eq(STATEMENT), eq(mockState))).thenReturn(entryBuilder);
+
+        // When
+        AuditContext context = auditAdapter.createRegularContext(STATEMENT, mockState, TIMESTAMP);
+        context.audit(Status.ATTEMPT);
+        context.audit(Status.SUCCEEDED);
+
+        // Then
+        verify(mockAuditEntryBuilderFactory, times(1)).createEntryBuilder(eq(STATEMENT), eq(mockState));
+        List<AuditEntry> entries = getAuditEntries(2);
+        assertThat(entries).extracting(AuditEntry::getStatus).containsExactly(Status.ATTEMPT, Status.SUCCEEDED);
+        assertThat(entries).extracting(AuditEntry::getOperation).extracting(AuditOperation::getOperationString).containsOnly(STATEMENT);
+        assertThat(entries).extracting(AuditEntry::getUser).containsOnly(USER);
+        assertThat(entries).extracting(AuditEntry::getResource).containsOnly(RESOURCE);
+        assertThat(entries).extracting(AuditEntry::getTimestamp).containsOnly(TIMESTAMP);
+    }
+
+    @Test
+    public void testContextIsNotResolvedWhenStatusIsNotLogged()
+    {
+        // Given
+        when(mockAuditor.shouldLogForStatus(any(Status.class))).thenReturn(false);
+        // When
+        AuditContext context = auditAdapter.createRegularContext(STATEMENT, mockState, TIMESTAMP);
+        context.audit(Status.ATTEMPT);
+        context.audit(Status.SUCCEEDED);
+        // Then
+        verifyNoMoreInteractions(mockAuditor, mockAuditEntryBuilderFactory);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testBatchContextResolvesStatementsOnce()
+    {
+        // Given
+        List<Object> expectedQueries = Arrays.asList("query1", "query2");
+
+        when(mockBatchOptions.getQueryOrIdList()).thenReturn(expectedQueries);
+        when(mockUser.getName()).thenReturn(USER);
+        when(mockState.getRemoteAddress()).thenReturn(clientSocketAddress);
+
+        AuditEntry.Builder entryBuilder = AuditEntry.newBuilder().permissions(PERMISSIONS).resource(RESOURCE);
+        when(mockAuditEntryBuilderFactory.createBatchEntryBuilder()).thenReturn(entryBuilder);
+
+        // When
+        AuditContext context = auditAdapter.createBatchContext(mockBatchStatement, Collections.emptyList(), BATCH_ID, mockState, mockBatchOptions, TIMESTAMP);
+        context.audit(Status.ATTEMPT);
+        context.audit(Status.FAILED);
+
+        // Then
+        verify(mockAuditor).shouldLogFailedBatchSummary();
+        verify(mockAuditEntryBuilderFactory, times(1)).updateBatchEntryBuilder(any(AuditEntry.Builder.class), eq("query1"), eq(mockState));
+        verify(mockAuditEntryBuilderFactory, times(1)).updateBatchEntryBuilder(any(AuditEntry.Builder.class), eq("query2"), eq(mockState));
+        List<AuditEntry> entries = getAuditEntries(4);
+        assertThat(entries).extracting(AuditEntry::getStatus).containsExactly(Status.ATTEMPT, Status.ATTEMPT, Status.FAILED, Status.FAILED);
+        assertThat(entries).extracting(AuditEntry::getOperation).extracting(AuditOperation::getOperationString).containsExactly("query1", "query2", "query1", "query2");
+        assertThat(entries).extracting(AuditEntry::getBatchId).containsOnly(Optional.of(BATCH_ID));
+        verify(mockAuditor, times(2)).auditAll(any());
+    }
+
     @Test
     public void testProcessAuth()
     {
@@ -444,6 +559,16 @@ public class TestAuditAdapter
         return rawValues;
     }
 
+    private ParsedStatement.Prepared givenPreparedStatement()
+    {
+        ParsedStatement.Prepared prepared = new ParsedStatement.Prepared(mockStatement);
+        prepared.rawCQLStatement = PREPARED_STATEMENT;
+        when(mockBoundValueSuppressor.planFor(eq(prepared.boundNames))).thenReturn(SuppressionPlan.SUPPRESS_NOTHING);
+        when(mockAuditEntryBuilderFactory.createEntryBuilder(eq(mockStatement)))
+            .thenAnswer(invocation -> AuditEntry.newBuilder().permissions(PERMISSIONS).resource(RESOURCE));
+        return prepared;
+    }
+
     private AuditEntry getAuditEntry()
     {
         ArgumentCaptor<AuditEntry> captor = ArgumentCaptor.forClass(AuditEntry.class);
@@ -181,6 +181,7 @@ public class TestAuditRoleManager
         auditRoleManager.grantRole(authenticatedUser, role, grantee);
 
         verify(mockWrappedRoleManager).grantRole(eq(authenticatedUser), eq(role), eq(grantee));
+        verify(mockAuditWhitelistManager).roleMembershipChanged();
     }
 
     @Test
@@ -193,6 +194,7 @@ public class TestAuditRoleManager
         auditRoleManager.revokeRole(authenticatedUser, role, grantee);
 
         verify(mockWrappedRoleManager).revokeRole(eq(authenticatedUser), eq(role), eq(grantee));
+        verify(mockAuditWhitelistManager).roleMembershipChanged();
     }
 
     @Test
@@ -319,6 +319,13 @@ public class TestAuditWhitelistManager
         verify(mockWhitelistDataAccess, times(1)).deleteWhitelist(eq(role));
     }
 
+    @Test
+    public void testRoleMembershipChanged()
+    {
+        whitelistManager.roleMembershipChanged();
+        verify(mockWhitelistDataAccess, times(1)).markRolesChanged();
+    }
+
     @Test
     public void testDropLegacyTable()
     {
@@ -16,25 +16,111 @@
 package com.ericsson.bss.cassandra.ecaudit.auth;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 
+import com.ericsson.bss.cassandra.ecaudit.test.mode.ClientInitializer;
+import org.apache.cassandra.auth.DataResource;
 import org.apache.cassandra.auth.Permission;
+import org.apache.cassandra.auth.RoleResource;
+import org.apache.cassandra.cql3.ColumnIdentifier;
+import org.apache.cassandra.cql3.ColumnSpecification;
+import org.apache.cassandra.cql3.QueryOptions;
+import org.apache.cassandra.cql3.ResultSet;
+import org.apache.cassandra.cql3.UntypedResultSet;
+import org.apache.cassandra.cql3.statements.SelectStatement;
+import org.apache.cassandra.cql3.statements.UpdateStatement;
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.apache.cassandra.db.marshal.AbstractType;
 import org.apache.cassandra.db.marshal.AsciiType;
+import org.apache.cassandra.db.marshal.SetType;
+import org.apache.cassandra.db.marshal.UTF8Type;
 import org.apache.cassandra.serializers.AsciiSerializer;
 import org.apache.cassandra.serializers.SetSerializer;
+import org.apache.cassandra.transport.messages.ResultMessage;
 import org.apache.cassandra.utils.ByteBufferUtil;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests the {@link WhitelistDataAccess} class.
  */
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
 public class TestWhitelistDataAccess
 {
+    private static final int ROLES_VALIDITY_MS = 2000;
+    private static final SetType<String> OPERATIONS_TYPE = SetType.getInstance(UTF8Type.instance, true);
+
+    @Mock
+    private ScheduledExecutorService mockScheduler;
+
+    @Mock
+    private SelectStatement mockLoadWhitelistStatement;
+
+    @Mock
+    private SelectStatement mockLoadAllWhitelistsStatement;
+
+    @Mock
+    private UpdateStatement mockAddToWhitelistStatement;
+
+    @Mock
+    private SelectStatement mockLoadGenerationMarkerStatement;
+
+    @Mock
+    private UpdateStatement mockUpdateGenerationMarkerStatement;
+
+    @Mock
+    private Runnable mockListener;
+
+    private int rolesValidity = ROLES_VALIDITY_MS;
+
+    private WhitelistDataAccess whitelistDataAccess;
+
+    @BeforeClass
+    public static void beforeAll()
+    {
+        ClientInitializer.beforeClass();
+    }
+
+    @AfterClass
+    public static void afterAll()
+    {
+        ClientInitializer.afterClass();
+    }
+
+    @Before
+    public void before()
+    {
+        whitelistDataAccess = new WhitelistDataAccess(mockScheduler, () -> rolesValidity,
+                                                      mockLoadWhitelistStatement, mockLoadAllWhitelistsStatement, mockAddToWhitelistStatement,
+                                                      mockLoadGenerationMarkerStatement, mockUpdateGenerationMarkerStatement);
+        whitelistDataAccess.addChangeListener(mockListener);
+    }
+
     @Test
     public void testGetSerializedUpdateValues() throws Exception
     {
@@ -55,4 +141,237 @@ public class TestWhitelistDataAccess
         ByteBuffer resourceByteBuffer = values.get(2);
         assertThat(ByteBufferUtil.string(resourceByteBuffer)).isEqualTo("Resource1");
     }
+
+    @Test
+    public void testMarkChangedUpdatesMarkerAndNotifiesListeners()
+    {
+        whitelistDataAccess.markChanged();
+
+        verify(mockUpdateGenerationMarkerStatement).execute(any(), any(), anyLong());
+        verify(mockListener).run();
+        assertThat(whitelistDataAccess.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    public void testListenersAreNotifiedWhenMarkerUpdateFails()
+    {
+        doThrow(new IllegalStateException("Expected")).when(mockUpdateGenerationMarkerStatement).execute(any(), any(), anyLong());
+
+        whitelistDataAccess.markChanged();
+
+        verify(mockListener).run();
+        assertThat(whitelistDataAccess.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAddToWhitelistMarksChanged()
+    {
+        givenEmptyWhitelist();
+
+        whitelistDataAccess.addToWhitelist(RoleResource.role("bob"), DataResource.keyspace("ks"), ImmutableSet.of(Permission.SELECT));
+
+        verify(mockAddToWhitelistStatement).execute(any(), any(), anyLong());
+        verify(mockUpdateGenerationMarkerStatement).execute(any(), any(), anyLong());
+        verify(mockListener).run();
+    }
+
+    @Test
+    public void testMigrationMarksChangedOnce()
+    {
+        givenEmptyWhitelist();
+        UntypedResultSet legacyWhitelists = resultOf(Arrays.asList(column("role", UTF8Type.instance), column("resources", OPERATIONS_TYPE)),
+                                                     Arrays.asList(legacyRow("bob", "data/ks1", "data/ks2"),
+                                                                   legacyRow("alice", "data/ks3")));
+
+        whitelistDataAccess.migrateWhitelists(legacyWhitelists);
+
+        verify(mockAddToWhitelistStatement, times(3)).execute(any(), any(), anyLong());
+        verify(mockUpdateGenerationMarkerStatement, times(1)).execute(any(), any(), anyLong());
+        verify(mockListener, times(1)).run();
+    }
+
+    @Test
+    public void testRolesChangeIsMarkedAgainWhenRolesCacheHasExpired()
+    {
+        ArgumentCaptor<Runnable> delayedMark = ArgumentCaptor.forClass(Runnable.class);
+
+        whitelistDataAccess.markRolesChanged();
+
+        verify(mockListener, times(1)).run();
+        verify(mockScheduler).schedule(delayedMark.capture(), eq((long) ROLES_VALIDITY_MS), eq(TimeUnit.MILLISECONDS));
+
+        delayedMark.getValue().run();
+
+        verify(mockUpdateGenerationMarkerStatement, times(2)).execute(any(), any(), anyLong());
+        verify(mockListener, times(2)).run();
+    }
+
+    @Test
+    public void testRolesChangeIsMarkedOnceWithoutRolesCache()
+    {
+        rolesValidity = 0;
+
+        whitelistDataAccess.markRolesChanged();
+
+        verify(mockUpdateGenerationMarkerStatement).execute(any(), any(), anyLong());
+        verify(mockListener).run();
+        verifyNoMoreInteractions(mockScheduler);
+    }
+
+    @Test
+    public void testChangedMarkerRefreshesSnapshotAndNotifiesListeners()
+    {
+        givenGenerationMarker("first");
+        givenWhitelists();
+
+        whitelistDataAccess.checkGeneration();
+
+        verify(mockLoadAllWhitelistsStatement).execute(any(), any(), anyLong());
+        verify(mockListener).run();
+        assertThat(whitelistDataAccess.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    public void testChangedMarkerRefreshesSnapshotAtLocalQuorum()
+    {
+        ArgumentCaptor<QueryOptions> snapshotRead = ArgumentCaptor.forClass(QueryOptions.class);
+        givenGenerationMarker("first");
+        givenWhitelists();
+
+        whitelistDataAccess.checkGeneration();
+
+        verify(mockLoadAllWhitelistsStatement).execute(any(), snapshotRead.capture(), anyLong());
+        assertThat(snapshotRead.getValue().getConsistency()).isEqualTo(ConsistencyLevel.LOCAL_QUORUM);
+    }
+
+    @Test
+    public void testUnchangedMarkerIsIgnored()
+    {
+        givenGenerationMarker("first");
+        givenWhitelists();
+        whitelistDataAccess.checkGeneration();
+
+        whitelistDataAccess.checkGeneration();
+
+        verify(mockLoadAllWhitelistsStatement, times(1)).execute(any(), any(), anyLong());
+        verify(mockListener, times(1)).run();
+        assertThat(whitelistDataAccess.getGeneration()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOwnMarkerIsIgnored()
+    {
+        ArgumentCaptor<QueryOptions> markerUpdate = ArgumentCaptor.forClass(QueryOptions.class);
+        whitelistDataAccess.markChanged();
+        verify(mockUpdateGenerationMarkerStatement).execute(any(), markerUpdate.capture(), anyLong());
+        Set<String> writtenMarker = OPERATIONS_TYPE.compose(markerUpdate.getValue().getValues().get(0));
+        givenGenerationMarker(writtenMarker.iterator().next());
+
+        whitelistDataAccess.checkGeneration();
+
+        verify(mockLoadAllWhitelistsStatement, never()).execute(any(), any(), anyLong());
+        verify(mockListener, times(1)).run();
+    }
+
+    @Test
+    public void testRefreshSnapshotReplacesSnapshot()
+    {
+        givenWhitelists(whitelistRow("bob", "data/ks", Permission.SELECT),
+                        whitelistRow("$ecaudit$", "generation", "marker"));
+
+        assertThat(whitelistDataAccess.refreshSnapshot()).isTrue();
+
+        assertThat(whitelistDataAccess.getWhitelist(RoleResource.role("bob")))
+        .containsOnlyKeys(DataResource.keyspace("ks"))
+        .containsValue(ImmutableSet.of(Permission.SELECT));
+        assertThat(whitelistDataAccess.getWhitelist(RoleResource.role("$ecaudit$"))).isEmpty();
+        verifyNoMoreInteractions(mockLoadWhitelistStatement);
+    }
+
+    @Test
+    public void testRefreshSnapshotNotifiesListenersWhenContentChanged()
+    {
+        givenWhitelists(whitelistRow("bob", "data/ks", Permission.SELECT));
+        assertThat(whitelistDataAccess.refreshSnapshot()).isTrue();
+        assertThat(whitelistDataAccess.refreshSnapshot()).isTrue();
+        verify(mockListener, never()).run();
+
+        givenWhitelists(whitelistRow("bob", "data/ks", Permission.MODIFY));
+        assertThat(whitelistDataAccess.refreshSnapshot()).isTrue();
+
+        verify(mockListener, times(1)).run();
+        assertThat(whitelistDataAccess.getGeneration()).isEqualTo(1);
+        assertThat(whitelistDataAccess.getWhitelist(RoleResource.role("bob")))
+        .containsValue(ImmutableSet.of(Permission.MODIFY));
+    }
+
+    @Test
+    public void testRefreshSnapshotIsDiscardedWhenWhitelistIsChangedDuringRefresh()
+    {
+        givenEmptyWhitelist();
+        when(mockLoadAllWhitelistsStatement.execute(any(), any(), anyLong())).thenAnswer(invocation -> {
+            whitelistDataAccess.addToWhitelist(RoleResource.role("bob"), DataResource.keyspace("ks"), ImmutableSet.of(Permission.SELECT));
+            return rowsOf(whitelistColumns(), Collections.emptyList());
+        });
+
+        assertThat(whitelistDataAccess.refreshSnapshot()).isFalse();
+
+        givenWhitelists();
+        assertThat(whitelistDataAccess.refreshSnapshot()).isTrue();
+    }
+
+    private void givenEmptyWhitelist()
+    {
+        when(mockLoadWhitelistStatement.execute(any(), any(), anyLong())).thenReturn(rowsOf(whitelistColumns(), Collections.emptyList()));
+    }
+
+    @SafeVarargs
+    private final void givenWhitelists(List<ByteBuffer>... rows)
+    {
+        when(mockLoadAllWhitelistsStatement.execute(any(), any(), anyLong())).thenReturn(rowsOf(whitelistColumns(), Arrays.asList(rows)));
+    }
+
+    private void givenGenerationMarker(String marker)
+    {
+        when(mockLoadGenerationMarkerStatement.execute(any(), any(), anyLong()))
+        .thenReturn(rowsOf(Collections.singletonList(column("operations", OPERATIONS_TYPE)),
+                           Collections.singletonList(Collections.singletonList(OPERATIONS_TYPE.decompose(Collections.singleton(marker))))));
+    }
+
+    private static List<ColumnSpecification> whitelistColumns()
+    {
+        return Arrays.asList(column("role", UTF8Type.instance), column("resource", UTF8Type.instance), column("operations", OPERATIONS_TYPE));
+    }
+
+    private static List<ByteBuffer> whitelistRow(String role, String resource, Permission operation)
+    {
+        return whitelistRow(role, resource, operation.name());
+    }
+
+    private static List<ByteBuffer> whitelistRow(String role, String resource, String operation)
+    {
+        return Arrays.asList(UTF8Type.instance.decompose(role),
+                             UTF8Type.instance.decompose(resource),
+                             OPERATIONS_TYPE.decompose(Collections.singleton(operation)));
+    }
+
+    private static List<ByteBuffer> legacyRow(String role, String... resources)
+    {
+        return Arrays.asList(UTF8Type.instance.decompose(role), OPERATIONS_TYPE.decompose(ImmutableSet.copyOf(resources)));
+    }
+
+    private static ColumnSpecification column(String name, AbstractType<?> type)
+    {
+        return new ColumnSpecification("system_auth", "role_audit_whitelists_v2", new ColumnIdentifier(name, true), type);
+    }
+
+    private static ResultMessage.Rows rowsOf(List<ColumnSpecification> columns, List<List<ByteBuffer>> rows)
+    {
+        return new ResultMessage.Rows(new ResultSet(new ResultSet.ResultMetadata(columns), rows));
+    }
+
+    private static UntypedResultSet resultOf(List<ColumnSpecification> columns, List<List<ByteBuffer>> rows)
+    {
+        return UntypedResultSet.create(new ResultSet(new ResultSet.ResultMetadata(columns), rows));
+    }
 }
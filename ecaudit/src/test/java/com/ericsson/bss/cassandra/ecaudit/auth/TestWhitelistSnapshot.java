@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.auth;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import org.apache.cassandra.auth.DataResource;
+import org.apache.cassandra.auth.IResource;
+import org.apache.cassandra.auth.Permission;
+import org.apache.cassandra.auth.RoleResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests the {@link WhitelistSnapshot} class.
+ */
+public class TestWhitelistSnapshot
+{
+    private static final RoleResource ROLE1 = RoleResource.role("role1");
+    private static final RoleResource ROLE2 = RoleResource.role("role2");
+    private static final Map<IResource, Set<Permission>> WHITELIST1 = ImmutableMap.of(DataResource.keyspace("ks1"), Sets.newHashSet(Permission.SELECT));
+    private static final Map<IResource, Set<Permission>> WHITELIST2 = ImmutableMap.of(DataResource.table("ks2", "tbl"), Sets.newHashSet(Permission.MODIFY, Permission.SELECT));
+
+    private final WhitelistSnapshot snapshot = new WhitelistSnapshot();
+
+    @Test
+    public void testNotLoaded()
+    {
+        assertThat(snapshot.isLoaded()).isFalse();
+        assertThat(snapshot.getWhitelist(ROLE1)).isNull();
+    }
+
+    @Test
+    public void testReplace()
+    {
+        boolean replaced = snapshot.replace(ImmutableMap.of("role1", WHITELIST1), snapshot.version());
+
+        assertThat(replaced).isTrue();
+        assertThat(snapshot.isLoaded()).isTrue();
+        assertThat(snapshot.getWhitelist(ROLE1)).isEqualTo(WHITELIST1);
+        assertThat(snapshot.getWhitelist(ROLE2)).isEmpty();
+    }
+
+    @Test
+    public void testSnapshotIsImmutableCopy()
+    {
+        Set<Permission> operations = Sets.newHashSet(Permission.SELECT);
+        Map<IResource, Set<Permission>> whitelist = new HashMap<>();
+        whitelist.put(DataResource.keyspace("ks1"), operations);
+        snapshot.replace(Collections.singletonMap("role1", whitelist), snapshot.version());
+
+        operations.add(Permission.MODIFY);
+        whitelist.put(DataResource.keyspace("ks2"), operations);
+
+        assertThat(snapshot.getWhitelist(ROLE1)).isEqualTo(WHITELIST1);
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+        .isThrownBy(() -> snapshot.getWhitelist(ROLE1).clear());
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+        .isThrownBy(() -> snapshot.getWhitelist(ROLE1).get(DataResource.keyspace("ks1")).clear());
+    }
+
+    @Test
+    public void testUpdate()
+    {
+        snapshot.replace(ImmutableMap.of("role1", WHITELIST1), snapshot.version());
+
+        snapshot.update(ROLE2, WHITELIST2);
+        assertThat(snapshot.getWhitelist(ROLE1)).isEqualTo(WHITELIST1);
+        assertThat(snapshot.getWhitelist(ROLE2)).isEqualTo(WHITELIST2);
+
+        snapshot.update(ROLE1, Collections.emptyMap());
+        assertThat(snapshot.getWhitelist(ROLE1)).isEmpty();
+        assertThat(snapshot.getWhitelist(ROLE2)).isEqualTo(WHITELIST2);
+    }
+
+    @Test
+    public void testUpdateBeforeLoaded()
+    {
+        snapshot.update(ROLE1, WHITELIST1);
+
+        assertThat(snapshot.isLoaded()).isFalse();
+        assertThat(snapshot.getWhitelist(ROLE1)).isNull();
+    }
+
+    @Test
+    public void testRefreshIsDiscardedAfterConcurrentUpdate()
+    {
+        snapshot.replace(ImmutableMap.of("role1", WHITELIST1), snapshot.version());
+        long version = snapshot.version();
+
+        snapshot.update(ROLE2, WHITELIST2);
+        boolean replaced = snapshot.replace(ImmutableMap.of("role1", WHITELIST1), version);
+
+        assertThat(replaced).isFalse();
+        assertThat(snapshot.getWhitelist(ROLE2)).isEqualTo(WHITELIST2);
+    }
+}
@@ -94,10 +94,25 @@ public class TestAuditYamlConfigurationLoader
         assertThat(config.getYamlWhitelist()).isEmpty();
         assertThat(config.isPostLogging()).isFalse();
         assertThat(config.getBoundValueSuppressor()).isEqualTo(SuppressNothing.class.getName());
+        assertThat(config.getBoundValueMaxLengths()).isEmpty();
+        assertThat(config.getOperationMaxLength()).isEqualTo(0);
         assertThat(config.getWhitelistCacheValidity()).isEqualTo(DatabaseDescriptor.getRolesValidity());
         assertThat(config.getWhitelistCacheUpdateInterval()).isEqualTo(DatabaseDescriptor.getRolesUpdateInterval());
         assertThat(config.getWhitelistCacheMaxEntries()).isEqualTo(DatabaseDescriptor.getRolesCacheMaxEntries() * 10);
+        assertThat(config.getRoleWhitelistCacheValidity()).isEqualTo(DatabaseDescriptor.getRolesValidity());
+        assertThat(config.getRoleWhitelistCacheUpdateInterval()).isEqualTo(DatabaseDescriptor.getRolesUpdateInterval());
+        assertThat(config.getRoleWhitelistCacheMaxEntries()).isEqualTo(DatabaseDescriptor.getRolesCacheMaxEntries());
+        assertThat(config.isWhitelistCacheWarmup()).isFalse();
+        assertThat(config.getWhitelistCacheWarmupConcurrency()).isEqualTo(4);
+        assertThat(config.getWhitelistSnapshotRefreshInterval()).isEqualTo(10000);
+        assertThat(config.getWhitelistNearCacheMaxEntries()).isEqualTo(0);
+        assertThat(config.getWhitelistGenerationCheckInterval()).isEqualTo(1000);
         assertThat(config.isSuppressPrepareStatements()).isEqualTo(true);
+        assertThat(config.getStatementCacheMaxEntries()).isEqualTo(10000);
+        assertThat(config.isAsyncAudit()).isFalse();
+        assertThat(config.getAsyncAuditQueueSize()).isEqualTo(65536);
+        assertThat(config.getAsyncAuditWorkerThreads()).isEqualTo(1);
+        assertThat(config.getAsyncAuditOverflowPolicy()).isEqualTo(AsyncOverflowPolicy.block);
     }
 
     @Test
@@ -120,10 +135,25 @@ public class TestAuditYamlConfigurationLoader
         assertThat(config.getYamlWhitelist()).containsOnly("User1", "User2");
         assertThat(config.isPostLogging()).isTrue();
         assertThat(config.getBoundValueSuppressor()).isEqualTo("SuppressBlobs");
+        assertThat(config.getBoundValueMaxLengths()).containsOnly(entry("blob", 37), entry("text", 36));
+        assertThat(config.getOperationMaxLength()).isEqualTo(35);
         assertThat(config.getWhitelistCacheValidity()).isEqualTo(42);
         assertThat(config.getWhitelistCacheUpdateInterval()).isEqualTo(41);
         assertThat(config.getWhitelistCacheMaxEntries()).isEqualTo(40);
+        assertThat(config.getRoleWhitelistCacheValidity()).isEqualTo(32);
+        assertThat(config.getRoleWhitelistCacheUpdateInterval()).isEqualTo(31);
+        assertThat(config.getRoleWhitelistCacheMaxEntries()).isEqualTo(30);
+        assertThat(config.isWhitelistCacheWarmup()).isTrue();
+        assertThat(config.getWhitelistCacheWarmupConcurrency()).isEqualTo(34);
+        assertThat(config.getWhitelistSnapshotRefreshInterval()).isEqualTo(33);
+        assertThat(config.getWhitelistNearCacheMaxEntries()).isEqualTo(29);
+        assertThat(config.getWhitelistGenerationCheckInterval()).isEqualTo(28);
         assertThat(config.isSuppressPrepareStatements()).isEqualTo(false);
+        assertThat(config.getStatementCacheMaxEntries()).isEqualTo(38);
+        assertThat(config.isAsyncAudit()).isTrue();
+        assertThat(config.getAsyncAuditQueueSize()).isEqualTo(39);
+        assertThat(config.getAsyncAuditWorkerThreads()).isEqualTo(2);
+        assertThat(config.getAsyncAuditOverflowPolicy()).isEqualTo(AsyncOverflowPolicy.drop_with_marker);
     }
 
     @Test
@@ -38,7 +38,7 @@ public class TestAuditEntry
 {
     private static final InetSocketAddress CLIENT = mock(InetSocketAddress.class);
     private static final InetAddress COORDINATOR = mock(InetAddress.class);
-    private static final Set<Permission> PERMISSIONS = Collections.emptySet();
+    private static final Set<Permission> PERMISSIONS = Collections.singleton(Permission.SELECT);
     private static final IResource RESOURCE = mock(IResource.class);
     private static final AuditOperation OPERATION = mock(AuditOperation.class);
     private static final String USER = "user1";
@@ -67,6 +67,7 @@ public class TestAuditEntry
         assertThat(auditEntry.getClientAddress()).isSameAs(newEntry.getClientAddress()).isSameAs(CLIENT);
         assertThat(auditEntry.getCoordinatorAddress()).isSameAs(newEntry.getCoordinatorAddress()).isSameAs(COORDINATOR);
         assertThat(auditEntry.getPermissions()).isSameAs(newEntry.getPermissions()).isSameAs(PERMISSIONS);
+        assertThat(auditEntry.getPermissionMask()).isEqualTo(newEntry.getPermissionMask()).isEqualTo(PermissionMask.fromPermission(Permission.SELECT));
         assertThat(auditEntry.getResource()).isSameAs(newEntry.getResource()).isSameAs(RESOURCE);
         assertThat(auditEntry.getOperation()).isSameAs(newEntry.getOperation()).isSameAs(OPERATION);
         assertThat(auditEntry.getUser()).isSameAs(newEntry.getUser()).isSameAs(USER);
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry;
+
+import java.util.Collections;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecaudit.entry.BoundValueLimits.TypeFamily;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class TestBoundValueLimits
+{
+    @Test
+    public void testNoLimits()
+    {
+        BoundValueLimits limits = BoundValueLimits.none();
+
+        for (TypeFamily family : TypeFamily.values())
+        {
+            assertThat(limits.getMaxValueLength(family)).isEqualTo(BoundValueLimits.UNLIMITED);
+        }
+        assertThat(limits.getMaxOperationLength()).isEqualTo(BoundValueLimits.UNLIMITED);
+    }
+
+    @Test
+    public void testConfiguredLimits()
+    {
+        BoundValueLimits limits = BoundValueLimits.create(ImmutableMap.of("blob", 100, "TEXT", 200, "other", 0), 300);
+
+        assertThat(limits.getMaxValueLength(TypeFamily.BLOB)).isEqualTo(100);
+        assertThat(limits.getMaxValueLength(TypeFamily.TEXT)).isEqualTo(200);
+        assertThat(limits.getMaxValueLength(TypeFamily.COLLECTION)).isEqualTo(BoundValueLimits.UNLIMITED);
+        assertThat(limits.getMaxValueLength(TypeFamily.OTHER)).isEqualTo(BoundValueLimits.UNLIMITED);
+        assertThat(limits.getMaxOperationLength()).isEqualTo(300);
+    }
+
+    @Test
+    public void testZeroOperationLengthIsUnlimited()
+    {
+        BoundValueLimits limits = BoundValueLimits.create(Collections.emptyMap(), 0);
+
+        assertThat(limits.getMaxOperationLength()).isEqualTo(BoundValueLimits.UNLIMITED);
+    }
+
+    @Test
+    public void testInvalidLimits()
+    {
+        assertThatIllegalArgumentException()
+        .isThrownBy(() -> BoundValueLimits.create(ImmutableMap.of("varchar", 100), 0))
+        .withMessage("Unknown bound value type family: varchar");
+        assertThatIllegalArgumentException()
+        .isThrownBy(() -> BoundValueLimits.create(ImmutableMap.of("blob", -1), 0))
+        .withMessage("Invalid bound value max length for blob: -1");
+        assertThatIllegalArgumentException()
+        .isThrownBy(() -> BoundValueLimits.create(Collections.emptyMap(), -1))
+        .withMessage("Invalid operation max length: -1");
+    }
+}
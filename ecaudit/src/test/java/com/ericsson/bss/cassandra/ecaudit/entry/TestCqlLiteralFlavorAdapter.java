@@ -16,19 +16,32 @@
 package com.ericsson.bss.cassandra.ecaudit.entry;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import com.ericsson.bss.cassandra.ecaudit.entry.BoundValueLimits.TypeFamily;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
 import org.apache.cassandra.cql3.ColumnSpecification;
+import org.apache.cassandra.cql3.FieldIdentifier;
 import org.apache.cassandra.db.marshal.AbstractType;
 import org.apache.cassandra.db.marshal.AsciiType;
 import org.apache.cassandra.db.marshal.BooleanType;
 import org.apache.cassandra.db.marshal.BytesType;
+import org.apache.cassandra.db.marshal.Int32Type;
+import org.apache.cassandra.db.marshal.ListType;
+import org.apache.cassandra.db.marshal.MapType;
+import org.apache.cassandra.db.marshal.ReversedType;
+import org.apache.cassandra.db.marshal.SetType;
 import org.apache.cassandra.db.marshal.TimestampType;
+import org.apache.cassandra.db.marshal.TupleType;
 import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.db.marshal.UserType;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -64,4 +77,105 @@ public class TestCqlLiteralFlavorAdapter
             { BytesType.instance, BytesType.instance.fromString("AABBCCDD"), "0xaabbccdd" },
         };
     }
+
+    @Test
+    @Parameters(method = "testAppendCompleteCQLLiteral_parameters")
+    public void testAppendCompleteCQLLiteral(AbstractType type, ByteBuffer value)
+    {
+        // Given
+        ColumnSpecification col = new ColumnSpecification("ks", "cf", null, type);
+        StringBuilder builder = new StringBuilder("prefix:");
+        // When
+        boolean complete = CqlLiteralFlavorAdapter.appendCQLLiteral(builder, value, col, Integer.MAX_VALUE);
+        // Then
+        assertThat(complete).isTrue();
+        assertThat(builder.toString()).isEqualTo("prefix:" + CqlLiteralFlavorAdapter.toCQLLiteral(value, col));
+    }
+
+    public Object[][] testAppendCompleteCQLLiteral_parameters()
+    {
+        ListType<String> listType = ListType.getInstance(UTF8Type.instance, true);
+        SetType<Integer> setType = SetType.getInstance(Int32Type.instance, false);
+        MapType<String, ByteBuffer> mapType = MapType.getInstance(UTF8Type.instance, BytesType.instance, true);
+        TupleType tupleType = new TupleType(Arrays.asList(UTF8Type.instance, Int32Type.instance));
+        UserType userType = userType(UTF8Type.instance, listType);
+        return new Object[][]{
+            { UTF8Type.instance, EMPTY_BUFFER },
+            { UTF8Type.instance, UTF8Type.instance.fromString("It's") },
+            { BytesType.instance, BytesType.instance.fromString("AABBCCDD") },
+            { TimestampType.instance, TimestampType.instance.fromTimeInMillis(42) },
+            { listType, listType.decompose(Arrays.asList("a'b", "c")) },
+            { listType, listType.decompose(Collections.emptyList()) },
+            { setType, setType.decompose(ImmutableSet.of(1, 2)) },
+            { mapType, mapType.decompose(ImmutableMap.of("k", BytesType.instance.fromString("0A"))) },
+            { ReversedType.getInstance(UTF8Type.instance), UTF8Type.instance.fromString("Kalle") },
+            { tupleType, TupleType.buildValue(new ByteBuffer[]{ UTF8Type.instance.decompose("a'b"), Int32Type.instance.decompose(1) }) },
+            { tupleType, TupleType.buildValue(new ByteBuffer[]{ null, Int32Type.instance.decompose(1) }) },
+            { userType, TupleType.buildValue(new ByteBuffer[]{ UTF8Type.instance.decompose("Kalle"), listType.decompose(Arrays.asList("a", "b")) }) },
+            { userType, TupleType.buildValue(new ByteBuffer[]{ UTF8Type.instance.decompose("Kalle") }) },
+        };
+    }
+
+    @Test
+    @Parameters(method = "testAppendTruncatedCQLLiteral_parameters")
+    public void testAppendTruncatedCQLLiteral(AbstractType type, ByteBuffer value, int maxLength, String expected)
+    {
+        // Given
+        ColumnSpecification col = new ColumnSpecification("ks", "cf", null, type);
+        StringBuilder builder = new StringBuilder("prefix:");
+        // When
+        boolean complete = CqlLiteralFlavorAdapter.appendCQLLiteral(builder, value, col, builder.length() + maxLength);
+        // Then
+        assertThat(complete).isFalse();
+        assertThat(builder.toString()).startsWith("prefix:" + expected);
+    }
+
+    public Object[][] testAppendTruncatedCQLLiteral_parameters()
+    {
+        ListType<String> listType = ListType.getInstance(UTF8Type.instance, true);
+        MapType<String, Integer> mapType = MapType.getInstance(UTF8Type.instance, Int32Type.instance, true);
+        TupleType tupleType = new TupleType(Arrays.asList(UTF8Type.instance, BytesType.instance));
+        UserType userType = userType(UTF8Type.instance, BytesType.instance);
+        return new Object[][]{
+            { UTF8Type.instance, UTF8Type.instance.fromString("Kalle Anka"), 6, "'Kalle" },
+            { UTF8Type.instance, UTF8Type.instance.fromString("ab\u00e5\u00e4"), 3, "'ab" },
+            { UTF8Type.instance, UTF8Type.instance.fromString("ab\u00e5\u00e4"), 4, "'ab\u00e5" },
+            { BytesType.instance, ByteBuffer.wrap(new byte[1_000_000]), 8, "0x000000" },
+            { listType, listType.decompose(Arrays.asList("first", "second", "third")), 12, "['first', 's" },
+            { mapType, mapType.decompose(ImmutableMap.of("k1", 1, "k2", 2, "k3", 3)), 10, "{'k1': 1, " },
+            { tupleType, TupleType.buildValue(new ByteBuffer[]{ UTF8Type.instance.decompose("a"), ByteBuffer.wrap(new byte[1_000_000]) }), 12, "('a', 0x0000" },
+            { userType, TupleType.buildValue(new ByteBuffer[]{ UTF8Type.instance.decompose("Kalle Anka"), ByteBuffer.wrap(new byte[1_000_000]) }), 12, "{name: 'Kall" },
+        };
+    }
+
+    private static UserType userType(AbstractType<?> nameType, AbstractType<?> dataType)
+    {
+        return new UserType("ks", UTF8Type.instance.decompose("person"),
+                            Arrays.asList(FieldIdentifier.forUnquoted("name"), FieldIdentifier.forUnquoted("data")),
+                            Arrays.asList(nameType, dataType), true);
+    }
+
+    @Test
+    @Parameters(method = "testTypeFamilyOf_parameters")
+    public void testTypeFamilyOf(AbstractType type, TypeFamily expected)
+    {
+        ColumnSpecification col = new ColumnSpecification("ks", "cf", null, type);
+
+        assertThat(CqlLiteralFlavorAdapter.typeFamilyOf(col)).isEqualTo(expected);
+    }
+
+    public Object[][] testTypeFamilyOf_parameters()
+    {
+        return new Object[][]{
+            { UTF8Type.instance, TypeFamily.TEXT },
+            { AsciiType.instance, TypeFamily.TEXT },
+            { ReversedType.getInstance(UTF8Type.instance), TypeFamily.TEXT },
+            { BytesType.instance, TypeFamily.BLOB },
+            { ListType.getInstance(UTF8Type.instance, true), TypeFamily.COLLECTION },
+            { SetType.getInstance(UTF8Type.instance, false), TypeFamily.COLLECTION },
+            { MapType.getInstance(UTF8Type.instance, UTF8Type.instance, true), TypeFamily.COLLECTION },
+            { BooleanType.instance, TypeFamily.OTHER },
+            { TimestampType.instance, TypeFamily.OTHER },
+        };
+    }
 }
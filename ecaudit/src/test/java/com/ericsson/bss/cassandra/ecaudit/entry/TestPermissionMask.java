@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import org.apache.cassandra.auth.Permission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestPermissionMask
+{
+    @Test
+    public void testEmptyAndNullPermissions()
+    {
+        assertThat(PermissionMask.fromPermissions(Collections.emptySet())).isEqualTo(PermissionMask.NONE);
+        assertThat(PermissionMask.fromPermissions((Set<Permission>) null)).isEqualTo(PermissionMask.NONE);
+    }
+
+    @Test
+    public void testEachPermissionHasItsOwnBit()
+    {
+        long mask = PermissionMask.NONE;
+        for (Permission permission : Permission.values())
+        {
+            assertThat(mask & PermissionMask.fromPermission(permission)).isEqualTo(PermissionMask.NONE);
+            mask |= PermissionMask.fromPermission(permission);
+        }
+        assertThat(Long.bitCount(mask)).isEqualTo(Permission.values().length);
+    }
+
+    @Test
+    public void testContains()
+    {
+        long mask = PermissionMask.fromPermissions(ImmutableSet.of(Permission.SELECT, Permission.MODIFY));
+
+        assertThat(PermissionMask.contains(mask, Permission.SELECT)).isTrue();
+        assertThat(PermissionMask.contains(mask, Permission.MODIFY)).isTrue();
+        assertThat(PermissionMask.contains(mask, Permission.CREATE)).isFalse();
+    }
+
+    @Test
+    public void testIterateOverPermissions()
+    {
+        EnumSet<Permission> permissions = EnumSet.of(Permission.CREATE, Permission.SELECT, Permission.EXECUTE);
+
+        List<Permission> iterated = new ArrayList<>();
+        for (long remaining = PermissionMask.fromPermissions(permissions); remaining != PermissionMask.NONE; remaining &= remaining - 1)
+        {
+            iterated.add(PermissionMask.lowest(remaining));
+        }
+
+        assertThat(iterated).containsExactlyElementsOf(permissions);
+    }
+}
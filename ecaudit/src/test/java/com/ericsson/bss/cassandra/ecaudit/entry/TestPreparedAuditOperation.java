@@ -17,10 +17,12 @@ package com.ericsson.bss.cassandra.ecaudit.entry;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -68,6 +70,58 @@ public class TestPreparedAuditOperation
         assertThat(auditOperation.getNakedOperationString()).isEqualTo(preparedStatement);
     }
 
+    @Test
+    public void testThatValuesAreAppended()
+    {
+        String preparedStatement = "select value1, value2 from ks.cf where pk = ? and ck = ?";
+        String expectedStatement = "select value1, value2 from ks.cf where pk = ? and ck = ?['text1', 'text2']";
+
+        List<ByteBuffer> values = createValues("text1", "text2");
+        ImmutableList<ColumnSpecification> columns = createTextColumns("col1", "col2");
+
+        when(mockOptions.hasColumnSpecifications()).thenReturn(true);
+        when(mockOptions.getColumnSpecifications()).thenReturn(columns);
+        when(mockOptions.getValues()).thenReturn(values);
+
+        PreparedAuditOperation auditOperation;
+        auditOperation = new PreparedAuditOperation(preparedStatement, mockOptions, SHOW_ALL_SUPPRESSOR);
+
+        StringBuilder builder = new StringBuilder("operation:");
+        auditOperation.appendOperationTo(builder);
+        assertThat(builder.toString()).isEqualTo("operation:" + expectedStatement);
+        assertThat(auditOperation.getOperationString()).isEqualTo(expectedStatement);
+
+        builder.setLength(0);
+        auditOperation.appendOperationTo(builder);
+        assertThat(builder.toString()).isEqualTo(expectedStatement);
+    }
+
+    @Test
+    public void testThatValuesAreCachedWhenAppendedAgain()
+    {
+        String preparedStatement = "select value1 from ks.cf where pk = ?";
+        String expectedStatement = "select value1 from ks.cf where pk = ?['text1']";
+
+        when(mockOptions.hasColumnSpecifications()).thenReturn(true);
+        when(mockOptions.getColumnSpecifications()).thenReturn(createTextColumns("col1"));
+        when(mockOptions.getValues()).thenReturn(createValues("text1"));
+
+        PreparedAuditOperation auditOperation = new PreparedAuditOperation(preparedStatement, mockOptions, SHOW_ALL_SUPPRESSOR);
+
+        StringBuilder first = new StringBuilder();
+        StringBuilder second = new StringBuilder("operation:");
+        StringBuilder third = new StringBuilder();
+        auditOperation.appendOperationTo(first);
+        auditOperation.appendOperationTo(second);
+        auditOperation.appendOperationTo(third);
+
+        assertThat(first.toString()).isEqualTo(expectedStatement);
+        assertThat(second.toString()).isEqualTo("operation:" + expectedStatement);
+        assertThat(third.toString()).isEqualTo(expectedStatement);
+        assertThat(auditOperation.getOperationString()).isEqualTo(expectedStatement);
+        verify(mockOptions, times(2)).getValues();
+    }
+
     @Test
     public void testThatValuesAreBoundWithFixedValues()
     {
@@ -138,6 +192,7 @@ public class TestPreparedAuditOperation
         when(mockOptions.getColumnSpecifications()).thenReturn(columns);
         when(mockOptions.getValues()).thenReturn(values);
 
+        when(mockSuppressor.planFor(eq(columns))).thenCallRealMethod();
         when(mockSuppressor.suppress(eq(columns.get(0)), eq(values.get(0)))).thenReturn(Optional.of("<ob1>"));
         when(mockSuppressor.suppress(eq(columns.get(1)), eq(values.get(1)))).thenReturn(Optional.empty());
         when(mockSuppressor.suppress(eq(columns.get(2)), eq(values.get(2)))).thenReturn(Optional.of("<ob3>"));
@@ -147,6 +202,45 @@ public class TestPreparedAuditOperation
         assertThat(auditOperation.getOperationString()).isEqualTo(expectedStatement);
     }
 
+    @Test
+    public void testThatLongValuesAreTruncated()
+    {
+        String preparedStatement = "insert into ks1.t1 (k1, k2) values (?, ?)";
+        String expectedStatement = "insert into ks1.t1 (k1, k2) values (?, ?)['short', 'a long...[truncated, 16 bytes]]";
+
+        List<ByteBuffer> values = createValues("short", "a long long text");
+        ImmutableList<ColumnSpecification> columns = createTextColumns("col1", "col2");
+
+        when(mockOptions.hasColumnSpecifications()).thenReturn(true);
+        when(mockOptions.getColumnSpecifications()).thenReturn(columns);
+        when(mockOptions.getValues()).thenReturn(values);
+
+        BoundValueLimits limits = BoundValueLimits.create(ImmutableMap.of("text", 7), 0);
+        PreparedAuditOperation auditOperation = new PreparedAuditOperation(preparedStatement, mockOptions, SHOW_ALL_SUPPRESSOR, limits);
+
+        assertThat(auditOperation.getOperationString()).isEqualTo(expectedStatement);
+    }
+
+    @Test
+    public void testThatLongOperationIsTruncated()
+    {
+        String preparedStatement = "insert into ks1.t1 (k1, k2, k3) values (?, ?, ?)";
+        String expectedStatement = "insert into ks1.t1 (k1, k2, k3) values (?, ?, ?)['text1', 'te...[truncated, 15 bytes]";
+
+        List<ByteBuffer> values = createValues("text1", "text2", "text3");
+        ImmutableList<ColumnSpecification> columns = createTextColumns("col1", "col2", "col3");
+
+        when(mockOptions.hasColumnSpecifications()).thenReturn(true);
+        when(mockOptions.getColumnSpecifications()).thenReturn(columns);
+        when(mockOptions.getValues()).thenReturn(values);
+
+        BoundValueLimits limits = BoundValueLimits.create(Collections.emptyMap(), preparedStatement.length() + 13);
+        PreparedAuditOperation auditOperation = new PreparedAuditOperation(preparedStatement, mockOptions, SHOW_ALL_SUPPRESSOR, limits);
+
+        assertThat(auditOperation.getOperationString()).isEqualTo(expectedStatement);
+        assertThat(auditOperation.getNakedOperationString()).isEqualTo(preparedStatement);
+    }
+
     private List<ByteBuffer> createValues(String... values)
     {
         List<ByteBuffer> rawValues = new ArrayList<>();
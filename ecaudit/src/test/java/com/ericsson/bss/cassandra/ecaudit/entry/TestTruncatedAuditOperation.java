@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry;
+
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditOperation;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestTruncatedAuditOperation
+{
+    @Test
+    public void testShortOperationIsNotTruncated()
+    {
+        String operation = "select * from ks.tbl";
+
+        AuditOperation auditOperation = TruncatedAuditOperation.create(operation, operation.length());
+
+        assertThat(auditOperation).isInstanceOf(SimpleAuditOperation.class);
+        assertThat(auditOperation.getOperationString()).isEqualTo(operation);
+    }
+
+    @Test
+    public void testLongOperationIsTruncated()
+    {
+        String operation = "insert into ks.tbl (id, data) values (1, 'aaaaaaaaaa')";
+
+        AuditOperation auditOperation = TruncatedAuditOperation.create(operation, 43);
+
+        assertThat(auditOperation.getOperationString()).isEqualTo("insert into ks.tbl (id, data) values (1, 'a...[truncated, 54 bytes]");
+        assertThat(auditOperation.getNakedOperationString()).isEqualTo(auditOperation.getOperationString());
+        assertThat(((TruncatedAuditOperation) auditOperation).getFullOperationString()).isEqualTo(operation);
+    }
+
+    @Test
+    public void testAppendedOperationIsTruncated()
+    {
+        String operation = "insert into ks.tbl (id, data) values (1, 'aaaaaaaaaa')";
+        AuditOperation auditOperation = TruncatedAuditOperation.create(operation, 43);
+
+        StringBuilder appended = new StringBuilder("prefix:");
+        auditOperation.appendOperationTo(appended);
+        String rendered = auditOperation.getOperationString();
+        StringBuilder appendedAgain = new StringBuilder("prefix:");
+        auditOperation.appendOperationTo(appendedAgain);
+
+        assertThat(appended.toString()).isEqualTo("prefix:" + rendered);
+        assertThat(appendedAgain.toString()).isEqualTo("prefix:" + rendered);
+    }
+
+    @Test
+    public void testSurrogatePairIsNotSplit()
+    {
+        String operation = "select '😀😀' from ks.tbl";
+
+        AuditOperation auditOperation = TruncatedAuditOperation.create(operation, 9);
+
+        assertThat(auditOperation.getOperationString()).isEqualTo("select '...[truncated, 29 bytes]");
+    }
+
+    @Test
+    public void testModifiedOperationIsTruncatedAlike()
+    {
+        TruncatedAuditOperation auditOperation = (TruncatedAuditOperation) TruncatedAuditOperation.create("select 'secret' from ks.tbl", 10);
+
+        assertThat(auditOperation.withOperationString("select '*****' from ks.tbl").getOperationString())
+        .isEqualTo("select '**...[truncated, 26 bytes]");
+        assertThat(auditOperation.withOperationString("select 1").getOperationString()).isEqualTo("select 1");
+    }
+}
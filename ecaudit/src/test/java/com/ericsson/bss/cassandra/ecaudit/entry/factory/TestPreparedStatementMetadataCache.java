@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry.factory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.entry.PreparedStatementMetadata;
+import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.SuppressionPlan;
+import org.apache.cassandra.cql3.CQLStatement;
+import org.apache.cassandra.cql3.statements.ParsedStatement;
+import org.apache.cassandra.utils.MD5Digest;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class TestPreparedStatementMetadataCache
+{
+    private static final String QUERY = "SELECT * FROM ks.tbl WHERE id = ?";
+    private static final MD5Digest ID = MD5Digest.compute(QUERY);
+
+    @Mock
+    private CQLStatement mockStatement;
+
+    private final AtomicInteger resolveCount = new AtomicInteger();
+    private Function<ParsedStatement.Prepared, PreparedStatementMetadata> resolver;
+
+    @Before
+    public void before()
+    {
+        resolver = prepared -> {
+            resolveCount.incrementAndGet();
+            return new PreparedStatementMetadata(prepared.rawCQLStatement, AuditEntry.newBuilder().build(), SuppressionPlan.SUPPRESS_NOTHING);
+        };
+    }
+
+    @Test
+    public void testCachedMetadataIsReturned()
+    {
+        PreparedStatementMetadataCache cache = new PreparedStatementMetadataCache(10);
+        ParsedStatement.Prepared prepared = givenPrepared();
+
+        PreparedStatementMetadata metadata = cache.get(ID, prepared, resolver);
+
+        assertThat(cache.get(ID, prepared, resolver)).isSameAs(metadata);
+        assertThat(metadata.getRawStatement()).isEqualTo(QUERY);
+        assertThat(resolveCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMetadataIsResolvedAgainForNewPreparedInstance()
+    {
+        PreparedStatementMetadataCache cache = new PreparedStatementMetadataCache(10);
+
+        PreparedStatementMetadata metadata = cache.get(ID, givenPrepared(), resolver);
+
+        assertThat(cache.get(ID, givenPrepared(), resolver)).isNotSameAs(metadata);
+        assertThat(resolveCount.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testInvalidatedMetadataIsResolvedAgain()
+    {
+        PreparedStatementMetadataCache cache = new PreparedStatementMetadataCache(10);
+        ParsedStatement.Prepared prepared = givenPrepared();
+
+        PreparedStatementMetadata metadata = cache.get(ID, prepared, resolver);
+        cache.invalidate(ID);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(ID, prepared, resolver)).isNotSameAs(metadata);
+        assertThat(resolveCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInvalidateAll()
+    {
+        PreparedStatementMetadataCache cache = new PreparedStatementMetadataCache(10);
+        cache.get(ID, givenPrepared(), resolver);
+        cache.get(MD5Digest.compute("SELECT * FROM ks.tbl2"), givenPrepared(), resolver);
+
+        cache.invalidateAll();
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testDisabledCache()
+    {
+        PreparedStatementMetadataCache cache = new PreparedStatementMetadataCache(0);
+        ParsedStatement.Prepared prepared = givenPrepared();
+
+        cache.get(ID, prepared, resolver);
+        cache.get(ID, prepared, resolver);
+
+        assertThat(cache.size()).isZero();
+        assertThat(resolveCount.get()).isEqualTo(2);
+    }
+
+    private ParsedStatement.Prepared givenPrepared()
+    {
+        ParsedStatement.Prepared prepared = new ParsedStatement.Prepared(mockStatement);
+        prepared.rawCQLStatement = QUERY;
+        return prepared;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.entry.factory;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.metrics.AuditMetrics;
+import org.apache.cassandra.auth.DataResource;
+import org.apache.cassandra.auth.Permission;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class TestStatementClassificationCache
+{
+    private static final String QUERY = "SELECT * FROM tbl";
+
+    @Mock
+    private AuditMetrics mockAuditMetrics;
+
+    @Test
+    public void testCachedStatementIsReturned()
+    {
+        StatementClassificationCache cache = new StatementClassificationCache(10, mockAuditMetrics);
+        AuditEntry template = givenTemplate("ks", "tbl");
+
+        assertThat(cache.get("ks", QUERY)).isNull();
+        cache.put("ks", QUERY, template);
+
+        assertThat(cache.get("ks", QUERY)).isSameAs(template);
+        verify(mockAuditMetrics).statementCacheMiss();
+        verify(mockAuditMetrics).statementCacheHit();
+    }
+
+    @Test
+    public void testCacheIsKeyspaceAware()
+    {
+        StatementClassificationCache cache = new StatementClassificationCache(10, mockAuditMetrics);
+        AuditEntry ks1Template = givenTemplate("ks1", "tbl");
+        AuditEntry noKeyspaceTemplate = givenTemplate("ks2", "tbl");
+
+        cache.put("ks1", QUERY, ks1Template);
+        cache.put(null, QUERY, noKeyspaceTemplate);
+
+        assertThat(cache.get("ks1", QUERY)).isSameAs(ks1Template);
+        assertThat(cache.get(null, QUERY)).isSameAs(noKeyspaceTemplate);
+        assertThat(cache.get("ks2", QUERY)).isNull();
+        verify(mockAuditMetrics, times(2)).statementCacheHit();
+        verify(mockAuditMetrics).statementCacheMiss();
+    }
+
+    @Test
+    public void testCacheIsBounded()
+    {
+        StatementClassificationCache cache = new StatementClassificationCache(5, mockAuditMetrics);
+
+        for (int i = 0; i < 100; i++)
+        {
+            cache.put("ks", "SELECT * FROM tbl" + i, givenTemplate("ks", "tbl" + i));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    public void testLongStatementIsNotCached()
+    {
+        StatementClassificationCache cache = new StatementClassificationCache(10, mockAuditMetrics);
+        String maxLengthQuery = givenQueryOfLength(StatementClassificationCache.MAX_STATEMENT_LENGTH);
+        String longQuery = givenQueryOfLength(StatementClassificationCache.MAX_STATEMENT_LENGTH + 1);
+
+        cache.put("ks", maxLengthQuery, givenTemplate("ks", "tbl"));
+        cache.put("ks", longQuery, givenTemplate("ks", "tbl"));
+
+        assertThat(cache.get("ks", longQuery)).isNull();
+        assertThat(cache.get("ks", maxLengthQuery)).isNotNull();
+        assertThat(cache.size()).isEqualTo(1);
+        verify(mockAuditMetrics).statementCacheHit();
+        verifyNoMoreInteractions(mockAuditMetrics);
+    }
+
+    @Test
+    public void testDisabledCache()
+    {
+        StatementClassificationCache cache = new StatementClassificationCache(0, mockAuditMetrics);
+
+        cache.put("ks", QUERY, givenTemplate("ks", "tbl"));
+
+        assertThat(cache.get("ks", QUERY)).isNull();
+        assertThat(cache.size()).isZero();
+        verifyZeroInteractions(mockAuditMetrics);
+    }
+
+    private static String givenQueryOfLength(int length)
+    {
+        StringBuilder query = new StringBuilder("INSERT INTO ks.tbl (key, value) VALUES (1, '");
+        while (query.length() < length - 2)
+        {
+            query.append('x');
+        }
+        return query.append("')").toString();
+    }
+
+    private static AuditEntry givenTemplate(String keyspace, String table)
+    {
+        return AuditEntry.newBuilder()
+                         .permissions(Collections.singleton(Permission.SELECT))
+                         .resource(DataResource.table(keyspace, table))
+                         .build();
+    }
+}
@@ -17,6 +17,7 @@ package com.ericsson.bss.cassandra.ecaudit.entry.suppressor;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.Test;
@@ -25,6 +26,7 @@ import org.junit.runner.RunWith;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
 import org.apache.cassandra.cql3.CQL3Type;
+import org.apache.cassandra.cql3.ColumnIdentifier;
 import org.apache.cassandra.cql3.ColumnSpecification;
 import org.apache.cassandra.db.marshal.AbstractType;
 import org.apache.cassandra.db.marshal.BytesType;
@@ -115,11 +117,45 @@ public class TestSuppressBlobs
         };
     }
 
+    @Test
+    public void testPlanIsComputedWithoutValues()
+    {
+        // Given
+        ByteBuffer valueMock = mock(ByteBuffer.class);
+        BoundValueSuppressor suppressor = new SuppressBlobs();
+        List<ColumnSpecification> columns = Arrays.asList(createNamedColumn("c1", UTF8Type.instance),
+                                                          createNamedColumn("c2", BytesType.instance),
+                                                          createNamedColumn("c3", tupleOf(UTF8Type.instance, BytesType.instance)));
+        // When
+        SuppressionPlan plan = suppressor.planFor(columns);
+        // Then
+        assertThat(plan.suppress(0, columns.get(0), valueMock)).isNull();
+        assertThat(plan.suppress(1, columns.get(1), valueMock)).isEqualTo("<blob>");
+        assertThat(plan.suppress(2, columns.get(2), valueMock)).isEqualTo("<tuple<text, blob>>");
+        verifyZeroInteractions(valueMock);
+    }
+
+    @Test
+    public void testPlanWithoutBlobsSuppressesNothing()
+    {
+        BoundValueSuppressor suppressor = new SuppressBlobs();
+
+        List<ColumnSpecification> columns = Arrays.asList(createNamedColumn("c1", UTF8Type.instance),
+                                                          createNamedColumn("c2", mapOf(UTF8Type.instance, UTF8Type.instance)));
+
+        assertThat(suppressor.planFor(columns)).isSameAs(SuppressionPlan.SUPPRESS_NOTHING);
+    }
+
     private static ColumnSpecification createColumn(AbstractType type)
     {
         return new ColumnSpecification("ks", "cf", null, type);
     }
 
+    private static ColumnSpecification createNamedColumn(String name, AbstractType type)
+    {
+        return new ColumnSpecification("ks", "cf", new ColumnIdentifier(name, true), type);
+    }
+
     private static <T> ListType<T> listOf(AbstractType<T> type)
     {
         return ListType.getInstance(type, false);
@@ -16,6 +16,7 @@
 package com.ericsson.bss.cassandra.ecaudit.entry.suppressor;
 
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.Optional;
 
 import org.junit.Test;
@@ -47,4 +48,12 @@ public class TestSuppressNothing
         assertThat(result).isEmpty();
         verifyZeroInteractions(valueMock);
     }
+
+    @Test
+    public void testPlanNeverSuppresses()
+    {
+        BoundValueSuppressor suppressor = new SuppressNothing();
+
+        assertThat(suppressor.planFor(Collections.emptyList())).isSameAs(SuppressionPlan.SUPPRESS_NOTHING);
+    }
 }
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.facade;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecaudit.config.AsyncOverflowPolicy;
+import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import org.awaitility.Awaitility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class TestAsyncAuditDispatcher
+{
+    private final List<AuditEntry> processed = new CopyOnWriteArrayList<>();
+    private final AtomicLong reportedLostRecords = new AtomicLong();
+    private final CountDownLatch unblockWorker = new CountDownLatch(1);
+    private final List<Runnable> shutdownHooks = new CopyOnWriteArrayList<>();
+
+    private AsyncAuditDispatcher dispatcher;
+
+    @After
+    public void after()
+    {
+        unblockWorker.countDown();
+        if (dispatcher != null)
+        {
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    public void testEntriesAreProcessedInOrder()
+    {
+        dispatcher = new AsyncAuditDispatcher(10, 1, AsyncOverflowPolicy.block, shutdownHooks::add);
+        dispatcher.start(processed::add, reportedLostRecords::addAndGet);
+
+        AuditEntry first = AuditEntry.newBuilder().build();
+        AuditEntry second = AuditEntry.newBuilder().build();
+        assertThat(dispatcher.dispatch(first)).isTrue();
+        assertThat(dispatcher.dispatch(second)).isTrue();
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 2);
+        assertThat(processed).containsExactly(first, second);
+        assertThat(reportedLostRecords.get()).isZero();
+    }
+
+    @Test
+    public void testDropWhenQueueIsFull()
+    {
+        dispatcher = new AsyncAuditDispatcher(1, 1, AsyncOverflowPolicy.drop, shutdownHooks::add);
+        dispatcher.start(this::blockingProcessor, reportedLostRecords::addAndGet);
+
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isTrue();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> dispatcher.queuedEntries() == 0);
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isTrue();
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isFalse();
+
+        unblockWorker.countDown();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 2);
+        assertThat(reportedLostRecords.get()).isZero();
+    }
+
+    @Test
+    public void testMarkerIsReportedWhenRecordsAreLost()
+    {
+        dispatcher = new AsyncAuditDispatcher(1, 1, AsyncOverflowPolicy.drop_with_marker, shutdownHooks::add);
+        dispatcher.start(this::blockingProcessor, reportedLostRecords::addAndGet);
+
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isTrue();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> dispatcher.queuedEntries() == 0);
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isTrue();
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isFalse();
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isFalse();
+
+        unblockWorker.countDown();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> reportedLostRecords.get() == 2);
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 2);
+    }
+
+    @Test
+    public void testBatchIsHandedOffAsOneUnit()
+    {
+        List<List<AuditEntry>> processedBatches = new CopyOnWriteArrayList<>();
+        dispatcher = new AsyncAuditDispatcher(1, 1, AsyncOverflowPolicy.block, shutdownHooks::add);
+        dispatcher.start(processed::add, processedBatches::add, reportedLostRecords::addAndGet);
+
+        List<AuditEntry> batch = Arrays.asList(AuditEntry.newBuilder().build(), AuditEntry.newBuilder().build());
+        AuditEntry single = AuditEntry.newBuilder().build();
+        assertThat(dispatcher.dispatchAll(batch)).isTrue();
+        assertThat(dispatcher.dispatch(single)).isTrue();
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 1);
+        assertThat(processedBatches).containsExactly(batch);
+        assertThat(processed).containsExactly(single);
+    }
+
+    @Test
+    public void testAllEntriesOfDroppedBatchAreReportedLost()
+    {
+        dispatcher = new AsyncAuditDispatcher(1, 1, AsyncOverflowPolicy.drop_with_marker, shutdownHooks::add);
+        dispatcher.start(this::blockingProcessor, reportedLostRecords::addAndGet);
+
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isTrue();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> dispatcher.queuedEntries() == 0);
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isTrue();
+        assertThat(dispatcher.dispatchAll(Arrays.asList(AuditEntry.newBuilder().build(), AuditEntry.newBuilder().build()))).isFalse();
+
+        unblockWorker.countDown();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> reportedLostRecords.get() == 2);
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 2);
+    }
+
+    @Test
+    public void testFailingProcessorDoesNotStopWorker()
+    {
+        dispatcher = new AsyncAuditDispatcher(10, 1, AsyncOverflowPolicy.block, shutdownHooks::add);
+        AuditEntry failing = AuditEntry.newBuilder().build();
+        AuditEntry working = AuditEntry.newBuilder().build();
+        dispatcher.start(entry -> {
+            if (entry == failing)
+            {
+                throw new IllegalStateException("Expected failure");
+            }
+            processed.add(entry);
+        }, reportedLostRecords::addAndGet);
+
+        dispatcher.dispatch(failing);
+        dispatcher.dispatch(working);
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 1);
+        assertThat(processed).containsExactly(working);
+    }
+
+    @Test
+    public void testDispatchBeforeStartFails()
+    {
+        dispatcher = new AsyncAuditDispatcher(10, 1, AsyncOverflowPolicy.block, shutdownHooks::add);
+
+        assertThatIllegalStateException().isThrownBy(() -> dispatcher.dispatch(AuditEntry.newBuilder().build()));
+    }
+
+    @Test
+    public void testDispatchAfterCloseFails()
+    {
+        dispatcher = new AsyncAuditDispatcher(10, 1, AsyncOverflowPolicy.block, shutdownHooks::add);
+        dispatcher.start(processed::add, reportedLostRecords::addAndGet);
+        dispatcher.close();
+
+        assertThatIllegalStateException().isThrownBy(() -> dispatcher.dispatch(AuditEntry.newBuilder().build()));
+    }
+
+    @Test
+    public void testStartIsIdempotent()
+    {
+        dispatcher = new AsyncAuditDispatcher(10, 1, AsyncOverflowPolicy.block, shutdownHooks::add);
+        assertThat(dispatcher.isStarted()).isFalse();
+
+        dispatcher.start(processed::add, reportedLostRecords::addAndGet);
+        dispatcher.start(processed::add, reportedLostRecords::addAndGet);
+
+        assertThat(dispatcher.isStarted()).isTrue();
+        assertThat(shutdownHooks).hasSize(1);
+    }
+
+    @Test
+    public void testShutdownHookProcessesQueuedEntries()
+    {
+        dispatcher = new AsyncAuditDispatcher(10, 1, AsyncOverflowPolicy.block, shutdownHooks::add);
+        dispatcher.start(this::blockingProcessor, reportedLostRecords::addAndGet);
+        dispatcher.dispatch(AuditEntry.newBuilder().build());
+        dispatcher.dispatch(AuditEntry.newBuilder().build());
+        dispatcher.dispatch(AuditEntry.newBuilder().build());
+
+        new Thread(this::delayedUnblockWorker).start();
+        shutdownHooks.forEach(Runnable::run);
+
+        assertThat(processed).hasSize(3);
+        assertThat(dispatcher.queuedEntries()).isZero();
+        assertThatIllegalStateException().isThrownBy(() -> dispatcher.dispatch(AuditEntry.newBuilder().build()));
+    }
+
+    @Test
+    public void testBlockedProducerGivesUpWhenClosed() throws Exception
+    {
+        dispatcher = new AsyncAuditDispatcher(1, 1, AsyncOverflowPolicy.block, shutdownHooks::add);
+        dispatcher.start(this::blockingProcessor, reportedLostRecords::addAndGet);
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isTrue();
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> dispatcher.queuedEntries() == 0);
+        assertThat(dispatcher.dispatch(AuditEntry.newBuilder().build())).isTrue();
+
+        CompletableFuture<Boolean> blockedDispatch = CompletableFuture.supplyAsync(() -> dispatcher.dispatch(AuditEntry.newBuilder().build()));
+        Thread closer = new Thread(dispatcher::close);
+        closer.start();
+
+        assertThat(blockedDispatch.get(5, TimeUnit.SECONDS)).isFalse();
+        unblockWorker.countDown();
+        closer.join();
+        assertThat(processed).hasSize(2);
+    }
+
+    @Test
+    public void testInvalidSettings()
+    {
+        assertThatIllegalArgumentException().isThrownBy(() -> new AsyncAuditDispatcher(0, 1, AsyncOverflowPolicy.block));
+        assertThatIllegalArgumentException().isThrownBy(() -> new AsyncAuditDispatcher(1, 0, AsyncOverflowPolicy.block));
+    }
+
+    private void delayedUnblockWorker()
+    {
+        try
+        {
+            Thread.sleep(100);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        unblockWorker.countDown();
+    }
+
+    private void blockingProcessor(AuditEntry entry)
+    {
+        try
+        {
+            unblockWorker.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        processed.add(entry);
+    }
+}
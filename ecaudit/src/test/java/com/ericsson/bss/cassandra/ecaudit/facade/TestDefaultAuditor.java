@@ -16,7 +16,12 @@
 package com.ericsson.bss.cassandra.ecaudit.facade;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 import org.junit.After;
 import org.junit.Before;
@@ -30,11 +35,14 @@ import com.ericsson.bss.cassandra.ecaudit.filter.AuditFilter;
 import com.ericsson.bss.cassandra.ecaudit.logger.AuditLogger;
 import com.ericsson.bss.cassandra.ecaudit.metrics.AuditMetrics;
 import com.ericsson.bss.cassandra.ecaudit.obfuscator.AuditObfuscator;
+import org.apache.cassandra.auth.DataResource;
+import org.apache.cassandra.auth.Permission;
 import org.apache.cassandra.db.ConsistencyLevel;
 import org.apache.cassandra.exceptions.CassandraException;
 import org.apache.cassandra.exceptions.ReadTimeoutException;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -42,8 +50,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -67,9 +77,21 @@ public class TestDefaultAuditor
     @Mock
     private LogTimingStrategy mockLogTimingStrategy;
 
+    @Mock
+    private AsyncAuditDispatcher mockAsyncDispatcher;
+
     @Captor
     private ArgumentCaptor<Long> timingCaptor;
 
+    @Captor
+    private ArgumentCaptor<Consumer<AuditEntry>> processorCaptor;
+
+    @Captor
+    private ArgumentCaptor<Consumer<List<AuditEntry>>> bulkProcessorCaptor;
+
+    @Captor
+    private ArgumentCaptor<LongConsumer> lostRecordsCaptor;
+
     private DefaultAuditor auditor;
 
     @Before
@@ -218,6 +240,185 @@ public class TestDefaultAuditor
         reset(mockFilter, mockObfuscator, mockAuditMetrics);
     }
 
+    @Test
+    public void testAsyncDispatcherIsStartedBySetup()
+    {
+        auditor = new DefaultAuditor(mockLogger, mockFilter, mockObfuscator, mockAuditMetrics, mockLogTimingStrategy, mockAsyncDispatcher);
+        verifyZeroInteractions(mockAsyncDispatcher);
+
+        auditor.setup();
+        when(mockAsyncDispatcher.isStarted()).thenReturn(true);
+        auditor.setup();
+
+        verify(mockFilter, times(2)).setup();
+        verify(mockAsyncDispatcher).start(any(), any(), any());
+    }
+
+    @Test
+    public void testAsyncDispatcherIsStartedByFirstEntryWithoutSetup()
+    {
+        AuditEntry logEntry = AuditEntry.newBuilder().build();
+        when(mockAsyncDispatcher.dispatch(logEntry)).thenReturn(true);
+        auditor = new DefaultAuditor(mockLogger, mockFilter, mockObfuscator, mockAuditMetrics, mockLogTimingStrategy, mockAsyncDispatcher);
+
+        auditor.audit(logEntry);
+
+        InOrder inOrder = inOrder(mockAsyncDispatcher);
+        inOrder.verify(mockAsyncDispatcher).start(any(), any(), any());
+        inOrder.verify(mockAsyncDispatcher).dispatch(logEntry);
+    }
+
+    @Test
+    public void testAsyncAuditIsHandedOff()
+    {
+        AuditEntry logEntry = AuditEntry.newBuilder().build();
+        when(mockAsyncDispatcher.dispatch(logEntry)).thenReturn(true);
+        auditor = new DefaultAuditor(mockLogger, mockFilter, mockObfuscator, mockAuditMetrics, mockLogTimingStrategy, mockAsyncDispatcher);
+
+        auditor.audit(logEntry);
+
+        verify(mockAsyncDispatcher).dispatch(logEntry);
+        verifyZeroInteractions(mockAuditMetrics);
+    }
+
+    @Test
+    public void testAsyncAuditDropIsCounted()
+    {
+        AuditEntry logEntry = AuditEntry.newBuilder().build();
+        when(mockAsyncDispatcher.dispatch(logEntry)).thenReturn(false);
+        auditor = new DefaultAuditor(mockLogger, mockFilter, mockObfuscator, mockAuditMetrics, mockLogTimingStrategy, mockAsyncDispatcher);
+
+        auditor.audit(logEntry);
+
+        verify(mockAuditMetrics).dropAuditRequest();
+    }
+
+    @Test
+    public void testAsyncWorkerPerformsAudit()
+    {
+        AuditEntry logEntry = AuditEntry.newBuilder().build();
+        when(mockFilter.isWhitelisted(logEntry)).thenReturn(false);
+        when(mockObfuscator.obfuscate(logEntry)).thenReturn(logEntry);
+        auditor = new DefaultAuditor(mockLogger, mockFilter, mockObfuscator, mockAuditMetrics, mockLogTimingStrategy, mockAsyncDispatcher);
+        auditor.setup();
+        verify(mockFilter).setup();
+        verify(mockAsyncDispatcher).start(processorCaptor.capture(), bulkProcessorCaptor.capture(), lostRecordsCaptor.capture());
+
+        processorCaptor.getValue().accept(logEntry);
+
+        verify(mockFilter).isWhitelisted(logEntry);
+        verify(mockObfuscator).obfuscate(logEntry);
+        verify(mockLogger).log(logEntry);
+    }
+
+    @Test
+    public void testAuditAllFiltersOncePerDistinctEntryKind()
+    {
+        AuditEntry selectEntry1 = givenEntry("user", "tbl1", Permission.SELECT);
+        AuditEntry selectEntry2 = givenEntry("user", "tbl1", Permission.SELECT);
+        AuditEntry modifyEntry = givenEntry("user", "tbl1", Permission.MODIFY);
+        AuditEntry otherTableEntry = givenEntry("user", "tbl2", Permission.SELECT);
+        when(mockFilter.isWhitelisted(selectEntry1)).thenReturn(false);
+        when(mockFilter.isWhitelisted(modifyEntry)).thenReturn(true);
+        when(mockFilter.isWhitelisted(otherTableEntry)).thenReturn(false);
+        when(mockObfuscator.obfuscate(any(AuditEntry.class))).then(invocation -> invocation.getArgument(0));
+
+        auditor.auditAll(Arrays.asList(selectEntry1, selectEntry2, modifyEntry, otherTableEntry));
+
+        verify(mockFilter).isWhitelisted(selectEntry1);
+        verify(mockFilter).isWhitelisted(modifyEntry);
+        verify(mockFilter).isWhitelisted(otherTableEntry);
+        verify(mockObfuscator, times(3)).obfuscate(any(AuditEntry.class));
+        verify(mockLogger).logAll(Arrays.asList(selectEntry1, selectEntry2, otherTableEntry));
+        verify(mockAuditMetrics, times(3)).filterAuditRequest(any(Long.class), eq(TimeUnit.NANOSECONDS));
+        verify(mockAuditMetrics).logAuditRequest(any(Long.class), eq(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testAuditAllNotLoggedWhenAllFiltered()
+    {
+        AuditEntry logEntry = givenEntry("user", "tbl1", Permission.SELECT);
+        when(mockFilter.isWhitelisted(logEntry)).thenReturn(true);
+
+        auditor.auditAll(Arrays.asList(logEntry, logEntry));
+
+        verify(mockFilter).isWhitelisted(logEntry);
+        verifyZeroInteractions(mockLogger, mockObfuscator);
+    }
+
+    @Test
+    public void testAsyncAuditAllIsHandedOffAsOneUnit()
+    {
+        List<AuditEntry> logEntries = Arrays.asList(AuditEntry.newBuilder().build(), AuditEntry.newBuilder().build());
+        when(mockAsyncDispatcher.dispatchAll(logEntries)).thenReturn(true);
+        auditor = new DefaultAuditor(mockLogger, mockFilter, mockObfuscator, mockAuditMetrics, mockLogTimingStrategy, mockAsyncDispatcher);
+
+        auditor.auditAll(logEntries);
+
+        verify(mockAsyncDispatcher).dispatchAll(logEntries);
+        verifyZeroInteractions(mockAuditMetrics);
+    }
+
+    @Test
+    public void testAsyncAuditAllDropIsCounted()
+    {
+        List<AuditEntry> logEntries = Arrays.asList(AuditEntry.newBuilder().build(), AuditEntry.newBuilder().build());
+        when(mockAsyncDispatcher.dispatchAll(logEntries)).thenReturn(false);
+        auditor = new DefaultAuditor(mockLogger, mockFilter, mockObfuscator, mockAuditMetrics, mockLogTimingStrategy, mockAsyncDispatcher);
+
+        auditor.auditAll(logEntries);
+
+        verify(mockAuditMetrics).dropAuditRequests(2);
+    }
+
+    @Test
+    public void testAsyncWorkerPerformsBulkAudit()
+    {
+        AuditEntry logEntry = givenEntry("user", "tbl1", Permission.SELECT);
+        when(mockFilter.isWhitelisted(logEntry)).thenReturn(false);
+        when(mockObfuscator.obfuscate(logEntry)).thenReturn(logEntry);
+        auditor = new DefaultAuditor(mockLogger, mockFilter, mockObfuscator, mockAuditMetrics, mockLogTimingStrategy, mockAsyncDispatcher);
+        auditor.setup();
+        verify(mockFilter).setup();
+        verify(mockAsyncDispatcher).start(processorCaptor.capture(), bulkProcessorCaptor.capture(), lostRecordsCaptor.capture());
+
+        bulkProcessorCaptor.getValue().accept(Arrays.asList(logEntry, logEntry));
+
+        verify(mockFilter).isWhitelisted(logEntry);
+        verify(mockObfuscator, times(2)).obfuscate(logEntry);
+        verify(mockLogger).logAll(Arrays.asList(logEntry, logEntry));
+    }
+
+    @Test
+    public void testAsyncWorkerLogsLostRecordsWithoutFilter()
+    {
+        auditor = new DefaultAuditor(mockLogger, mockFilter, mockObfuscator, mockAuditMetrics, mockLogTimingStrategy, mockAsyncDispatcher);
+        auditor.setup();
+        verify(mockFilter).setup();
+        verify(mockAsyncDispatcher).start(processorCaptor.capture(), bulkProcessorCaptor.capture(), lostRecordsCaptor.capture());
+
+        lostRecordsCaptor.getValue().accept(42);
+
+        ArgumentCaptor<AuditEntry> entryCaptor = ArgumentCaptor.forClass(AuditEntry.class);
+        verify(mockLogger).log(entryCaptor.capture());
+        AuditEntry marker = entryCaptor.getValue();
+        assertThat(marker.getUser()).isEqualTo(DefaultAuditor.LOST_RECORDS_USER);
+        assertThat(marker.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(marker.getOperation().getOperationString()).isEqualTo("42 audit records lost due to full audit queue");
+        assertThat(marker.getClientAddress()).isNotNull();
+        assertThat(marker.getCoordinatorAddress()).isNotNull();
+        assertThat(marker.getTimestamp()).isNotNull();
+    }
+
+    private static AuditEntry givenEntry(String user, String table, Permission permission)
+    {
+        return AuditEntry.newBuilder()
+                         .user(user)
+                         .resource(DataResource.table("ks", table))
+                         .permissions(Collections.singleton(permission))
+                         .build();
+    }
+
     private long timedOperation(Runnable runnable)
     {
         return timedOperation(runnable, null);
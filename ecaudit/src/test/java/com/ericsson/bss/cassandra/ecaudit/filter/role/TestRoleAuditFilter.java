@@ -34,6 +34,7 @@ import org.junit.runner.RunWith;
 import com.ericsson.bss.cassandra.ecaudit.auth.ConnectionResource;
 import com.ericsson.bss.cassandra.ecaudit.auth.GrantResource;
 import com.ericsson.bss.cassandra.ecaudit.auth.WhitelistDataAccess;
+import com.ericsson.bss.cassandra.ecaudit.config.AuditConfig;
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
 import com.ericsson.bss.cassandra.ecaudit.test.mode.ClientInitializer;
 import org.apache.cassandra.auth.DataResource;
@@ -45,6 +46,7 @@ import org.apache.cassandra.db.ConsistencyLevel;
 import org.apache.cassandra.exceptions.CassandraException;
 import org.apache.cassandra.exceptions.ReadTimeoutException;
 import org.apache.cassandra.exceptions.UnavailableException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -52,6 +54,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -70,6 +73,8 @@ public class TestRoleAuditFilter
     private WhitelistDataAccess whitelistDataAccessMock;
     @Mock
     private AuditFilterAuthorizer auditFilterAuthorizerMock;
+    @Mock
+    private AuditConfig auditConfigMock;
 
     private RoleAuditFilter filter;
 
@@ -106,6 +111,75 @@ public class TestRoleAuditFilter
         verify(whitelistDataAccessMock, times(1)).setup();
     }
 
+    @Test
+    public void testSetupWithoutWarmup()
+    {
+        filter.setup();
+        verify(whitelistDataAccessMock, never()).getWhitelist(any(RoleResource.class));
+    }
+
+    @Test
+    public void testSetupWarmsUpWhitelistCache()
+    {
+        givenWhitelistCacheWarmup();
+        Set<RoleResource> allRoles = Sets.newHashSet(RoleResource.role("primary"), RoleResource.role("inherited"));
+        filter = new RoleAuditFilter(getRolesFunctionMock, () -> allRoles, whitelistDataAccessMock, auditFilterAuthorizerMock, auditConfigMock);
+        givenRoleIsWhitelisted("inherited", Permission.SELECT, DataResource.fromName("data/ks"));
+        givenRolesOfRequest("primary", "inherited");
+
+        filter.setup();
+        verify(getRolesFunctionMock).apply(RoleResource.role("primary"));
+        verify(getRolesFunctionMock).apply(RoleResource.role("inherited"));
+        verify(whitelistDataAccessMock).getWhitelist(RoleResource.role("primary"));
+        verify(whitelistDataAccessMock).getWhitelist(RoleResource.role("inherited"));
+
+        AuditEntry auditEntry = givenAuditEntry(Collections.singleton(Permission.SELECT), DataResource.fromName("data/ks/tbl"));
+        assertThat(filter.isWhitelisted(auditEntry)).isTrue();
+        verify(whitelistDataAccessMock, times(2)).getWhitelist(any(RoleResource.class));
+    }
+
+    @Test
+    public void testWhitelistedWithNearCache()
+    {
+        givenWhitelistNearCache();
+        filter = new RoleAuditFilter(getRolesFunctionMock, Collections::emptySet, whitelistDataAccessMock, auditFilterAuthorizerMock, auditConfigMock);
+        givenRoleIsWhitelisted("primary", Permission.SELECT, DataResource.fromName("data/ks"));
+        givenRolesOfRequest("primary");
+        AuditEntry whitelistedEntry = givenAuditEntry(Collections.singleton(Permission.SELECT), DataResource.fromName("data/ks/tbl"));
+        AuditEntry auditedEntry = givenAuditEntry(Collections.singleton(Permission.MODIFY), DataResource.fromName("data/ks/tbl"));
+
+        for (int i = 0; i < 3; i++)
+        {
+            assertThat(filter.isWhitelisted(whitelistedEntry)).isTrue();
+            assertThat(filter.isWhitelisted(auditedEntry)).isFalse();
+        }
+
+        when(whitelistDataAccessMock.getGeneration()).thenReturn(1L);
+        assertThat(filter.isWhitelisted(whitelistedEntry)).isTrue();
+        assertThat(filter.isWhitelisted(auditedEntry)).isFalse();
+        verify(getRolesFunctionMock, times(2)).apply(RoleResource.role(USER));
+    }
+
+    @Test
+    public void testCachesAreInvalidatedOnWhitelistChange()
+    {
+        givenWhitelistNearCache();
+        filter = new RoleAuditFilter(getRolesFunctionMock, Collections::emptySet, whitelistDataAccessMock, auditFilterAuthorizerMock, auditConfigMock);
+        filter.setup();
+        ArgumentCaptor<Runnable> changeListener = ArgumentCaptor.forClass(Runnable.class);
+        verify(whitelistDataAccessMock).addChangeListener(changeListener.capture());
+        givenRolesOfRequest("primary");
+        AuditEntry auditEntry = givenAuditEntry(Collections.singleton(Permission.SELECT), DataResource.fromName("data/ks/tbl"));
+        assertThat(filter.isWhitelisted(auditEntry)).isFalse();
+
+        givenRoleIsWhitelisted("primary", Permission.SELECT, DataResource.fromName("data/ks"));
+        assertThat(filter.isWhitelisted(auditEntry)).isFalse(); // Still cached
+
+        changeListener.getValue().run();
+        when(whitelistDataAccessMock.getGeneration()).thenReturn(1L);
+        assertThat(filter.isWhitelisted(auditEntry)).isTrue();
+    }
+
     @Test
     public void primaryRoleWithWhitelistedDataRootDoSelect()
     {
@@ -258,6 +332,29 @@ public class TestRoleAuditFilter
         assertThat(filter.isWhitelisted(auditEntry)).isFalse();
     }
 
+    private void givenWhitelistCacheWarmup()
+    {
+        when(auditConfigMock.isWhitelistCacheWarmup()).thenReturn(true);
+        when(auditConfigMock.getWhitelistCacheWarmupConcurrency()).thenReturn(2);
+        when(auditConfigMock.getWhitelistCacheValidity()).thenReturn(60_000);
+        when(auditConfigMock.getWhitelistCacheUpdateInterval()).thenReturn(60_000);
+        when(auditConfigMock.getWhitelistCacheMaxEntries()).thenReturn(100);
+        when(auditConfigMock.getRoleWhitelistCacheValidity()).thenReturn(60_000);
+        when(auditConfigMock.getRoleWhitelistCacheUpdateInterval()).thenReturn(60_000);
+        when(auditConfigMock.getRoleWhitelistCacheMaxEntries()).thenReturn(10);
+    }
+
+    private void givenWhitelistNearCache()
+    {
+        when(auditConfigMock.getWhitelistNearCacheMaxEntries()).thenReturn(16);
+        when(auditConfigMock.getWhitelistCacheValidity()).thenReturn(60_000);
+        when(auditConfigMock.getWhitelistCacheUpdateInterval()).thenReturn(60_000);
+        when(auditConfigMock.getWhitelistCacheMaxEntries()).thenReturn(100);
+        when(auditConfigMock.getRoleWhitelistCacheValidity()).thenReturn(60_000);
+        when(auditConfigMock.getRoleWhitelistCacheUpdateInterval()).thenReturn(60_000);
+        when(auditConfigMock.getRoleWhitelistCacheMaxEntries()).thenReturn(10);
+    }
+
     private void givenRolesOfRequest(String... roleNames)
     {
         Set<RoleResource> roles = Arrays.stream(roleNames)
@@ -15,11 +15,9 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.filter.role;
 
-import java.util.Collections;
-import java.util.Set;
-
 import org.junit.Test;
 
+import com.ericsson.bss.cassandra.ecaudit.entry.PermissionMask;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.apache.cassandra.auth.DataResource;
 import org.apache.cassandra.auth.IResource;
@@ -35,13 +33,13 @@ public class TestRoleAuditFilterCacheKey
         // Given
         String user = "user";
         IResource resource = DataResource.fromName("data/ks/tbl");
-        Set<Permission> permissions = Collections.singleton(Permission.SELECT);
+        long permissionMask = PermissionMask.fromPermission(Permission.SELECT);
         // When
-        RoleAuditFilterCacheKey key = new RoleAuditFilterCacheKey(user, resource, permissions);
+        RoleAuditFilterCacheKey key = new RoleAuditFilterCacheKey(user, resource, permissionMask);
         // Then
         assertThat(key.getUser()).isSameAs(user);
         assertThat(key.getResource()).isSameAs(resource);
-        assertThat(key.getPermissions()).isSameAs(permissions);
+        assertThat(key.getPermissionMask()).isEqualTo(permissionMask);
     }
 
     @Test
@@ -49,6 +47,8 @@ public class TestRoleAuditFilterCacheKey
     {
         EqualsVerifier.forClass(RoleAuditFilterCacheKey.class)
                       .usingGetClass()
+                      .withCachedHashCode("hashCode", "calculateHashCode",
+                                          new RoleAuditFilterCacheKey("user", DataResource.fromName("data/ks"), PermissionMask.fromPermission(Permission.SELECT)))
                       .verify();
     }
 }
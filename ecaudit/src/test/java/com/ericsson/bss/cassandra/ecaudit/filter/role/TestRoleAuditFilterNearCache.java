@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.filter.role;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.Test;
+
+import com.ericsson.bss.cassandra.ecaudit.entry.PermissionMask;
+import org.apache.cassandra.auth.DataResource;
+import org.apache.cassandra.auth.IResource;
+import org.apache.cassandra.auth.Permission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class TestRoleAuditFilterNearCache
+{
+    private static final String USER = "user";
+    private static final IResource RESOURCE = DataResource.table("ks", "tbl");
+    private static final long SELECT = PermissionMask.fromPermission(Permission.SELECT);
+    private static final RoleAuditFilterCacheKey KEY = new RoleAuditFilterCacheKey(USER, RESOURCE, SELECT);
+
+    private final AtomicLong generation = new AtomicLong();
+
+    @Test
+    public void testCachedDecision()
+    {
+        RoleAuditFilterNearCache cache = new RoleAuditFilterNearCache(8, 60_000, generation::get);
+        assertThat(get(cache, USER, RESOURCE, SELECT)).isNull();
+
+        cache.put(KEY, generation.get(), true);
+
+        assertThat(get(cache, USER, RESOURCE, SELECT)).isTrue();
+        assertThat(get(cache, "other", RESOURCE, SELECT)).isNull();
+        assertThat(get(cache, USER, DataResource.table("ks", "other"), SELECT)).isNull();
+        assertThat(get(cache, USER, RESOURCE, PermissionMask.fromPermission(Permission.MODIFY))).isNull();
+    }
+
+    @Test
+    public void testDecisionIsInvalidatedByGeneration()
+    {
+        RoleAuditFilterNearCache cache = new RoleAuditFilterNearCache(8, 60_000, generation::get);
+        cache.put(KEY, generation.get(), false);
+        assertThat(get(cache, USER, RESOURCE, SELECT)).isFalse();
+
+        generation.incrementAndGet();
+
+        assertThat(get(cache, USER, RESOURCE, SELECT)).isNull();
+    }
+
+    @Test
+    public void testDecisionExpires()
+    {
+        RoleAuditFilterNearCache cache = new RoleAuditFilterNearCache(8, 1, generation::get);
+        cache.put(KEY, generation.get(), true);
+
+        Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+
+        assertThat(get(cache, USER, RESOURCE, SELECT)).isNull();
+    }
+
+    @Test
+    public void testDecisionsAreCachedPerThread() throws Exception
+    {
+        RoleAuditFilterNearCache cache = new RoleAuditFilterNearCache(8, 60_000, generation::get);
+        cache.put(KEY, generation.get(), true);
+
+        Boolean otherThreadDecision = CompletableFuture.supplyAsync(() -> get(cache, USER, RESOURCE, SELECT)).get();
+
+        assertThat(otherThreadDecision).isNull();
+        assertThat(get(cache, USER, RESOURCE, SELECT)).isTrue();
+    }
+
+    @Test
+    public void testCapacityIsRoundedUpToPowerOfTwo()
+    {
+        assertThat(new RoleAuditFilterNearCache(1, 60_000, generation::get).capacity()).isEqualTo(1);
+        assertThat(new RoleAuditFilterNearCache(20, 60_000, generation::get).capacity()).isEqualTo(32);
+        assertThat(new RoleAuditFilterNearCache(64, 60_000, generation::get).capacity()).isEqualTo(64);
+    }
+
+    @Test
+    public void testInvalidSize()
+    {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new RoleAuditFilterNearCache(0, 60_000, generation::get));
+    }
+
+    private static Boolean get(RoleAuditFilterNearCache cache, String user, IResource resource, long permissionMask)
+    {
+        return cache.get(user, resource, permissionMask, RoleAuditFilterCacheKey.hashCodeOf(user, resource, permissionMask));
+    }
+}
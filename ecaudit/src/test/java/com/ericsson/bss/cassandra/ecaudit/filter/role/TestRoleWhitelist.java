@@ -15,6 +15,7 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.filter.role;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,7 +37,7 @@ import org.apache.cassandra.auth.RoleResource;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @RunWith(JUnitParamsRunner.class)
-public class TestRoleWhitelistChecker
+public class TestRoleWhitelist
 {
     private static final Map<IResource, Set<Permission>> WHITELIST = ImmutableMap.of(
         DataResource.fromName("data/ks"), ImmutableSet.of(Permission.SELECT),
@@ -47,7 +48,7 @@ public class TestRoleWhitelistChecker
     );
 
     @SuppressWarnings("unused")
-    private Object[] parametersForTestWhitelistChecker()
+    private Object[] parametersForTestWhitelist()
     {
         return new Object[]{
             new Object[]{ Permission.SELECT, DataResource.fromName("data/ks"), true, false },       // keyspace whitelisted
@@ -57,18 +58,32 @@ public class TestRoleWhitelistChecker
             new Object[]{ Permission.DESCRIBE, DataResource.fromName("data/ks/tbl"), false, true }, // table (through data) grant whitelisted
             new Object[]{ Permission.ALTER, RoleResource.fromName("roles/kalle"), false, true },    // role (kalle) grant whitelisted
             new Object[]{ Permission.DROP, RoleResource.fromName("roles"), false, true },           // DROP grant whitelisted (through root-level grant)
+            new Object[]{ Permission.SELECT, DataResource.fromName("data/other"), false, false },   // other keyspace not whitelisted
+            new Object[]{ Permission.MODIFY, DataResource.fromName("data/ks/other"), false, false }, // other table not whitelisted
+            new Object[]{ Permission.ALTER, RoleResource.fromName("roles/olle"), false, false },    // other role not grant whitelisted
         };
     }
 
     @Test
     @Parameters
-    public void testWhitelistChecker(Permission operation, IResource resource, boolean expectedWhitelisted, boolean expectedGrantWhitelisted)
+    public void testWhitelist(Permission operation, IResource resource, boolean expectedWhitelisted, boolean expectedGrantWhitelisted)
     {
         List<? extends IResource> resourceChain = Resources.chain(resource);
 
-        RoleWhitelistChecker checker = new RoleWhitelistChecker(operation, resourceChain, WHITELIST);
+        RoleWhitelist whitelist = RoleWhitelist.compile(WHITELIST);
 
-        assertThat(checker.isWhitelisted()).isEqualTo(expectedWhitelisted);
-        assertThat(checker.isGrantWhitelisted()).isEqualTo(expectedGrantWhitelisted);
+        assertThat(whitelist.isWhitelisted(operation, resourceChain)).isEqualTo(expectedWhitelisted);
+        assertThat(whitelist.isGrantWhitelisted(operation, resourceChain)).isEqualTo(expectedGrantWhitelisted);
+    }
+
+    @Test
+    public void testEmptyWhitelist()
+    {
+        List<? extends IResource> resourceChain = Resources.chain(DataResource.fromName("data/ks/tbl"));
+
+        RoleWhitelist whitelist = RoleWhitelist.compile(Collections.emptyMap());
+
+        assertThat(whitelist.isWhitelisted(Permission.SELECT, resourceChain)).isFalse();
+        assertThat(whitelist.isGrantWhitelisted(Permission.SELECT, resourceChain)).isFalse();
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.filter.role;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.ericsson.bss.cassandra.ecaudit.config.AuditConfig;
+import com.ericsson.bss.cassandra.ecaudit.metrics.AuditMetrics;
+import org.apache.cassandra.auth.DataResource;
+import org.apache.cassandra.auth.IResource;
+import org.apache.cassandra.auth.Permission;
+import org.apache.cassandra.auth.Resources;
+import org.apache.cassandra.auth.RoleResource;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestRoleWhitelistCache
+{
+    private static final RoleResource ROLE = RoleResource.role("role1");
+    private static final Map<IResource, Set<Permission>> WHITELIST = Collections.singletonMap(DataResource.keyspace("ks"), Collections.singleton(Permission.SELECT));
+    private static final List<? extends IResource> RESOURCE_CHAIN = Resources.chain(DataResource.table("ks", "tbl"));
+
+    @Mock
+    AuditConfig auditConfig;
+
+    @Mock
+    AuditMetrics auditMetrics;
+
+    @Mock
+    Function<RoleResource, Map<IResource, Set<Permission>>> loadFunction;
+
+    @Test
+    public void testValueIsReadEveryTimeWhenCacheDisabled()
+    {
+        givenCacheValidity(0); // Disable cache
+
+        when(loadFunction.apply(ROLE)).thenReturn(WHITELIST, Collections.emptyMap());
+        RoleWhitelistCache cache = new RoleWhitelistCache(loadFunction, auditConfig, auditMetrics);
+
+        assertThat(cache.getWhitelist(ROLE).isWhitelisted(Permission.SELECT, RESOURCE_CHAIN)).isTrue();
+        assertThat(cache.getWhitelist(ROLE).isWhitelisted(Permission.SELECT, RESOURCE_CHAIN)).isFalse();
+        verify(loadFunction, times(2)).apply(ROLE);
+    }
+
+    @Test
+    public void testValueIsCached()
+    {
+        givenCacheValidity(500);
+
+        when(loadFunction.apply(ROLE)).thenReturn(WHITELIST, Collections.emptyMap());
+        RoleWhitelistCache cache = new RoleWhitelistCache(loadFunction, auditConfig, auditMetrics);
+
+        assertThat(cache.getWhitelist(ROLE).isWhitelisted(Permission.SELECT, RESOURCE_CHAIN)).isTrue();
+        assertThat(cache.getWhitelist(ROLE).isWhitelisted(Permission.SELECT, RESOURCE_CHAIN)).isTrue();
+        verify(loadFunction, times(1)).apply(ROLE);
+        verify(auditMetrics, times(2)).roleWhitelistCacheRequest();
+        verify(auditMetrics, times(1)).roleWhitelistCacheLoad(anyLong(), eq(TimeUnit.NANOSECONDS));
+    }
+
+    private void givenCacheValidity(int validityTime)
+    {
+        when(auditConfig.getRoleWhitelistCacheValidity()).thenReturn(validityTime);
+        when(auditConfig.getRoleWhitelistCacheUpdateInterval()).thenReturn(validityTime);
+        when(auditConfig.getRoleWhitelistCacheMaxEntries()).thenReturn(10);
+    }
+}
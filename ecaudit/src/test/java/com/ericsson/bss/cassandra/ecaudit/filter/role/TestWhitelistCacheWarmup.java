@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.filter.role;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.Test;
+
+import org.apache.cassandra.auth.RoleResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class TestWhitelistCacheWarmup
+{
+    private static final Set<RoleResource> ALL_ROLES = ImmutableSet.of(RoleResource.role("role1"),
+                                                                       RoleResource.role("role2"),
+                                                                       RoleResource.role("role3"),
+                                                                       RoleResource.role("role4"),
+                                                                       RoleResource.role("role5"));
+
+    @Test
+    public void testAllRolesAreLoaded()
+    {
+        Set<RoleResource> loadedRoles = ConcurrentHashMap.newKeySet();
+        WhitelistCacheWarmup warmup = new WhitelistCacheWarmup(() -> ALL_ROLES, loadedRoles::add, 2);
+
+        assertThat(warmup.run()).isEqualTo(5);
+        assertThat(loadedRoles).isEqualTo(ALL_ROLES);
+    }
+
+    @Test
+    public void testConcurrencyIsBounded()
+    {
+        AtomicInteger activeLoads = new AtomicInteger();
+        AtomicInteger maxActiveLoads = new AtomicInteger();
+        Consumer<RoleResource> roleLoader = role -> {
+            maxActiveLoads.accumulateAndGet(activeLoads.incrementAndGet(), Math::max);
+            Uninterruptibles.sleepUninterruptibly(20, TimeUnit.MILLISECONDS);
+            activeLoads.decrementAndGet();
+        };
+        WhitelistCacheWarmup warmup = new WhitelistCacheWarmup(() -> ALL_ROLES, roleLoader, 2);
+
+        assertThat(warmup.run()).isEqualTo(5);
+        assertThat(maxActiveLoads.get()).isBetween(1, 2);
+    }
+
+    @Test
+    public void testFailingRoleIsSkipped()
+    {
+        Consumer<RoleResource> roleLoader = role -> {
+            if ("role3".equals(role.getRoleName()))
+            {
+                throw new IllegalStateException("Expected failure");
+            }
+        };
+        WhitelistCacheWarmup warmup = new WhitelistCacheWarmup(() -> ALL_ROLES, roleLoader, 4);
+
+        assertThat(warmup.run()).isEqualTo(4);
+    }
+
+    @Test
+    public void testFailingRoleListingSkipsWarmup()
+    {
+        WhitelistCacheWarmup warmup = new WhitelistCacheWarmup(() -> {
+            throw new IllegalStateException("Expected failure");
+        }, role -> {}, 4);
+
+        assertThat(warmup.run()).isEqualTo(0);
+    }
+
+    @Test
+    public void testNoRoles()
+    {
+        WhitelistCacheWarmup warmup = new WhitelistCacheWarmup(Collections::emptySet, role -> {}, 4);
+
+        assertThat(warmup.run()).isEqualTo(0);
+    }
+
+    @Test
+    public void testInvalidConcurrency()
+    {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> new WhitelistCacheWarmup(() -> ALL_ROLES, role -> {}, 0));
+    }
+}
@@ -18,6 +18,7 @@ package com.ericsson.bss.cassandra.ecaudit.handler;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -29,7 +30,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import com.ericsson.bss.cassandra.ecaudit.AuditAdapter;
+import com.ericsson.bss.cassandra.ecaudit.AuditContext;
 import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
+import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.entry.PreparedStatementMetadata;
+import com.ericsson.bss.cassandra.ecaudit.entry.suppressor.SuppressionPlan;
 import com.ericsson.bss.cassandra.ecaudit.test.mode.ClientInitializer;
 import org.apache.cassandra.config.DatabaseDescriptor;
 import org.apache.cassandra.cql3.BatchQueryOptions;
@@ -93,6 +98,12 @@ public class TestAuditQueryHandler
     @Mock
     private AuditAdapter mockAdapter;
 
+    @Mock
+    private AuditContext mockAuditContext;
+
+    @Mock
+    private SuppressionPlan mockSuppressionPlan;
+
     @Captor
     private ArgumentCaptor<UUID> uuidCaptor;
 
@@ -124,7 +135,7 @@ public class TestAuditQueryHandler
     @After
     public void after()
     {
-        verifyNoMoreInteractions(mockHandler, mockAdapter);
+        verifyNoMoreInteractions(mockHandler, mockAdapter, mockAuditContext);
     }
 
     @Test
@@ -139,6 +150,7 @@ public class TestAuditQueryHandler
 
         when(mockHandler.getPrepared(statementId)).thenReturn(parsedPrepared);
         when(mockHandler.prepare(query, mockQueryState, customPayload)).thenReturn(prepared);
+        whenPreparedStatementMetadataIsResolved(statementId, parsedPrepared);
 
         Prepared resultPrepared = queryHandler.prepare(query, mockQueryState, customPayload);
         assertThat(resultPrepared).isSameAs(prepared);
@@ -147,8 +159,9 @@ public class TestAuditQueryHandler
         assertThat(stmt).isSameAs(mockStatement);
 
         verify(mockHandler, times(1)).prepare(eq(query), eq(mockQueryState), eq(customPayload));
-        verify(mockHandler, times(1)).getPrepared(eq(statementId));
+        verify(mockHandler, times(2)).getPrepared(eq(statementId));
         verify(mockAdapter, times(1)).auditPrepare(eq(query), eq(mockClientState), eq(Status.ATTEMPT), longThat(isCloseToNow()));
+        verify(mockAdapter, times(2)).getPreparedStatementMetadata(eq(statementId), eq(parsedPrepared));
     }
 
     @Test
@@ -169,18 +182,20 @@ public class TestAuditQueryHandler
         assertThat(queryHandler.getPrepared(resultPrepared.statementId)).isNull();
 
         verify(mockHandler, times(1)).prepare(eq(query), eq(mockQueryState), eq(customPayload));
-        verify(mockHandler, times(1)).getPrepared(eq(statementId));
+        verify(mockHandler, times(2)).getPrepared(eq(statementId));
         verify(mockAdapter, times(1)).auditPrepare(eq(query), eq(mockClientState), eq(Status.ATTEMPT), longThat(isCloseToNow()));
+        verify(mockAdapter, times(1)).invalidatePreparedStatementMetadata(eq(statementId));
     }
 
     @Test
     public void testProcessSuccessful()
     {
         String query = "select * from ks.ts";
+        whenRegularContextIsCreated(query);
 
         queryHandler.process(query, mockQueryState, mockOptions, customPayload, System.nanoTime());
-        verify(mockAdapter, times(1)).auditRegular(eq(query), eq(mockClientState), eq(Status.ATTEMPT), longThat(isCloseToNow()));
-        verify(mockAdapter, times(1)).auditRegular(eq(query), eq(mockClientState), eq(Status.SUCCEEDED), longThat(isCloseToNow()));
+        verify(mockAuditContext, times(1)).audit(eq(Status.ATTEMPT));
+        verify(mockAuditContext, times(1)).audit(eq(Status.SUCCEEDED));
         verify(mockHandler, times(1)).process(eq(query), eq(mockQueryState), eq(mockOptions), eq(customPayload), anyLong());
     }
 
@@ -188,14 +203,15 @@ public class TestAuditQueryHandler
     public void testProcessFailed()
     {
         String query = "select * from ks.ts";
+        whenRegularContextIsCreated(query);
         whenProcessThrowUnavailable(query);
 
         assertThatExceptionOfType(RequestExecutionException.class)
                 .isThrownBy(() -> queryHandler.process(query, mockQueryState, mockOptions, customPayload, System.nanoTime()));
 
-        verify(mockAdapter, times(1)).auditRegular(eq(query), eq(mockClientState), eq(Status.ATTEMPT), longThat(isCloseToNow()));
+        verify(mockAuditContext, times(1)).audit(eq(Status.ATTEMPT));
         verify(mockHandler, times(1)).process(eq(query), eq(mockQueryState), eq(mockOptions), eq(customPayload), anyLong());
-        verify(mockAdapter, times(1)).auditRegular(eq(query), eq(mockClientState), eq(Status.FAILED), longThat(isCloseToNow()));
+        verify(mockAuditContext, times(1)).audit(eq(Status.FAILED));
     }
 
     @Test
@@ -207,13 +223,16 @@ public class TestAuditQueryHandler
         parsedPrepared.rawCQLStatement = query;
 
         when(mockHandler.getPrepared(statementId)).thenReturn(parsedPrepared);
+        PreparedStatementMetadata metadata = whenPreparedStatementMetadataIsResolved(statementId, parsedPrepared);
+        whenPreparedContextIsCreated(metadata);
 
         CQLStatement stmt = queryHandler.getPrepared(statementId).statement;
         queryHandler.processPrepared(stmt, mockQueryState, mockOptions, customPayload, System.nanoTime());
 
         verify(mockHandler, times(1)).getPrepared(eq(statementId));
-        verify(mockAdapter, times(1)).auditPrepared(eq(query), eq(mockStatement), eq(mockClientState), eq(mockOptions), eq(Status.ATTEMPT), longThat(isCloseToNow()));
-        verify(mockAdapter, times(1)).auditPrepared(eq(query), eq(mockStatement), eq(mockClientState), eq(mockOptions), eq(Status.SUCCEEDED), longThat(isCloseToNow()));
+        verify(mockAdapter, times(1)).getPreparedStatementMetadata(eq(statementId), eq(parsedPrepared));
+        verify(mockAuditContext, times(1)).audit(eq(Status.ATTEMPT));
+        verify(mockAuditContext, times(1)).audit(eq(Status.SUCCEEDED));
         verify(mockHandler, times(1)).processPrepared(eq(mockStatement), eq(mockQueryState), eq(mockOptions), eq(customPayload), anyLong());
     }
 
@@ -226,6 +245,8 @@ public class TestAuditQueryHandler
         parsedPrepared.rawCQLStatement = query;
 
         when(mockHandler.getPrepared(statementId)).thenReturn(parsedPrepared);
+        PreparedStatementMetadata metadata = whenPreparedStatementMetadataIsResolved(statementId, parsedPrepared);
+        whenPreparedContextIsCreated(metadata);
         whenProcessPreparedThrowUnavailable();
 
         CQLStatement stmt = queryHandler.getPrepared(statementId).statement;
@@ -233,9 +254,10 @@ public class TestAuditQueryHandler
                 .isThrownBy(() -> queryHandler.processPrepared(stmt, mockQueryState, mockOptions, customPayload, System.nanoTime()));
 
         verify(mockHandler, times(1)).getPrepared(eq(statementId));
-        verify(mockAdapter, times(1)).auditPrepared(eq(query), eq(mockStatement), eq(mockClientState), eq(mockOptions), eq(Status.ATTEMPT), longThat(isCloseToNow()));
+        verify(mockAdapter, times(1)).getPreparedStatementMetadata(eq(statementId), eq(parsedPrepared));
+        verify(mockAuditContext, times(1)).audit(eq(Status.ATTEMPT));
         verify(mockHandler, times(1)).processPrepared(eq(mockStatement), eq(mockQueryState), eq(mockOptions), eq(customPayload), anyLong());
-        verify(mockAdapter, times(1)).auditPrepared(eq(query), eq(mockStatement), eq(mockClientState), eq(mockOptions), eq(Status.FAILED), longThat(isCloseToNow()));
+        verify(mockAuditContext, times(1)).audit(eq(Status.FAILED));
     }
 
     @Test
@@ -278,13 +300,15 @@ public class TestAuditQueryHandler
         ParsedStatement.Prepared parsedPrepared = new ParsedStatement.Prepared(mockStatement);
         parsedPrepared.rawCQLStatement = query;
 
-        givenBatchOfTwoStatementsArePrepared(statementId, parsedPrepared);
+        PreparedStatementMetadata metadata = givenBatchOfTwoStatementsArePrepared(statementId, parsedPrepared);
+        whenBatchContextIsCreated(Arrays.asList(metadata, metadata));
 
         queryHandler.processBatch(mockBatchStatement, mockQueryState, mockBatchOptions, customPayload, System.nanoTime());
 
         verify(mockHandler, times(2)).getPrepared(eq(statementId));
-        verify(mockAdapter, times(1)).auditBatch(eq(mockBatchStatement), eq(Arrays.asList(query, query)), any(UUID.class), eq(mockClientState), eq(mockBatchOptions), eq(Status.ATTEMPT), longThat(isCloseToNow()));
-        verify(mockAdapter, times(1)).auditBatch(eq(mockBatchStatement), eq(Arrays.asList(query, query)), any(UUID.class), eq(mockClientState), eq(mockBatchOptions), eq(Status.SUCCEEDED), longThat(isCloseToNow()));
+        verify(mockAdapter, times(2)).getPreparedStatementMetadata(eq(statementId), eq(parsedPrepared));
+        verify(mockAuditContext, times(1)).audit(eq(Status.ATTEMPT));
+        verify(mockAuditContext, times(1)).audit(eq(Status.SUCCEEDED));
         verify(mockHandler, times(1)).processBatch(eq(mockBatchStatement), eq(mockQueryState), eq(mockBatchOptions), eq(customPayload), anyLong());
     }
 
@@ -302,14 +326,18 @@ public class TestAuditQueryHandler
         parsedPrepared2.rawCQLStatement = query2;
 
         givenBatchOfTwoStatementsAreNotPrepared(statementId1, parsedPrepared1);
-        givenBatchOfTwoStatementsArePrepared(statementId2, parsedPrepared2);
+        PreparedStatementMetadata metadata2 = givenBatchOfTwoStatementsArePrepared(statementId2, parsedPrepared2);
+        whenBatchContextIsCreated(Arrays.asList(metadata2, metadata2));
 
         queryHandler.processBatch(mockBatchStatement, mockQueryState, mockBatchOptions, customPayload, System.nanoTime());
 
         verify(mockHandler, times(2)).getPrepared(eq(statementId1));
         verify(mockHandler, times(2)).getPrepared(eq(statementId2));
-        verify(mockAdapter, times(1)).auditBatch(eq(mockBatchStatement), eq(Arrays.asList(query2, query2)), any(UUID.class), eq(mockClientState), eq(mockBatchOptions), eq(Status.ATTEMPT), longThat(isCloseToNow()));
-        verify(mockAdapter, times(1)).auditBatch(eq(mockBatchStatement), eq(Arrays.asList(query2, query2)), any(UUID.class), eq(mockClientState), eq(mockBatchOptions), eq(Status.SUCCEEDED), longThat(isCloseToNow()));
+        verify(mockAdapter, times(1)).getPreparedStatementMetadata(eq(statementId1), eq(parsedPrepared1));
+        verify(mockAdapter, times(1)).invalidatePreparedStatementMetadata(eq(statementId1));
+        verify(mockAdapter, times(2)).getPreparedStatementMetadata(eq(statementId2), eq(parsedPrepared2));
+        verify(mockAuditContext, times(1)).audit(eq(Status.ATTEMPT));
+        verify(mockAuditContext, times(1)).audit(eq(Status.SUCCEEDED));
         verify(mockHandler, times(1)).processBatch(eq(mockBatchStatement), eq(mockQueryState), eq(mockBatchOptions), eq(customPayload), anyLong());
     }
 
@@ -321,24 +349,26 @@ public class TestAuditQueryHandler
         ParsedStatement.Prepared parsedPrepared = new ParsedStatement.Prepared(mockStatement);
         parsedPrepared.rawCQLStatement = query;
 
-        givenBatchOfTwoStatementsArePrepared(statementId, parsedPrepared);
+        PreparedStatementMetadata metadata = givenBatchOfTwoStatementsArePrepared(statementId, parsedPrepared);
+        whenBatchContextIsCreated(Arrays.asList(metadata, metadata));
         whenProcessBatchThrowUnavailable();
 
         assertThatExceptionOfType(RequestExecutionException.class)
                 .isThrownBy(() -> queryHandler.processBatch(mockBatchStatement, mockQueryState, mockBatchOptions, customPayload, System.nanoTime()));
 
         verify(mockHandler, times(2)).getPrepared(eq(statementId));
-        verify(mockAdapter, times(1)).auditBatch(eq(mockBatchStatement), eq(Arrays.asList(query, query)), any(UUID.class), eq(mockClientState), eq(mockBatchOptions), eq(Status.ATTEMPT), longThat(isCloseToNow()));
+        verify(mockAdapter, times(2)).getPreparedStatementMetadata(eq(statementId), eq(parsedPrepared));
+        verify(mockAuditContext, times(1)).audit(eq(Status.ATTEMPT));
         verify(mockHandler, times(1)).processBatch(eq(mockBatchStatement), eq(mockQueryState), eq(mockBatchOptions), eq(customPayload), anyLong());
-        verify(mockAdapter, times(1)).auditBatch(eq(mockBatchStatement), eq(Arrays.asList(query, query)), any(UUID.class), eq(mockClientState), eq(mockBatchOptions), eq(Status.FAILED), longThat(isCloseToNow()));
+        verify(mockAuditContext, times(1)).audit(eq(Status.FAILED));
     }
 
     @Test
     public void testTimeBaseUuidIsCreatedForBatchId()
     {
+        when(mockAdapter.createBatchContext(any(), any(), uuidCaptor.capture(), any(), any(), anyLong())).thenReturn(mockAuditContext);
         queryHandler.processBatch(mockBatchStatement, mockQueryState, mockBatchOptions, customPayload, System.nanoTime());
-        verify(mockAdapter).auditBatch(any(), any(), uuidCaptor.capture(), any(), any(), eq(Status.ATTEMPT), anyLong());
-        reset(mockAdapter, mockHandler);
+        reset(mockAdapter, mockHandler, mockAuditContext);
         assertThat(uuidCaptor.getValue().version()).as("UUID version should be time-based").isEqualTo(1);
     }
 
@@ -353,17 +383,43 @@ public class TestAuditQueryHandler
         ParsedStatement.Prepared prepared = queryHandler.getPrepared(statementId);
         assertThat(prepared).isNull();
         verify(mockHandler, times(1)).getPrepared(statementId);
+        verify(mockAdapter, times(1)).invalidatePreparedStatementMetadata(statementId);
+    }
+
+    private void whenRegularContextIsCreated(String query)
+    {
+        when(mockAdapter.createRegularContext(eq(query), eq(mockClientState), longThat(isCloseToNow()))).thenReturn(mockAuditContext);
+    }
+
+    private PreparedStatementMetadata whenPreparedStatementMetadataIsResolved(MD5Digest statementId, ParsedStatement.Prepared parsedPrepared)
+    {
+        PreparedStatementMetadata metadata = new PreparedStatementMetadata(parsedPrepared.rawCQLStatement, AuditEntry.newBuilder().build(), mockSuppressionPlan);
+        when(mockAdapter.getPreparedStatementMetadata(eq(statementId), eq(parsedPrepared))).thenReturn(metadata);
+        return metadata;
+    }
+
+    private void whenPreparedContextIsCreated(PreparedStatementMetadata metadata)
+    {
+        when(mockAdapter.createPreparedContext(eq(metadata), eq(mockClientState), eq(mockOptions), longThat(isCloseToNow()))).thenReturn(mockAuditContext);
+    }
+
+    private void whenBatchContextIsCreated(List<PreparedStatementMetadata> preparedStatements)
+    {
+        when(mockAdapter.createBatchContext(eq(mockBatchStatement), eq(preparedStatements), any(UUID.class), eq(mockClientState), eq(mockBatchOptions), longThat(isCloseToNow()))).thenReturn(mockAuditContext);
     }
 
-    private void givenBatchOfTwoStatementsArePrepared(MD5Digest statementId, ParsedStatement.Prepared parsedPrepared)
+    private PreparedStatementMetadata givenBatchOfTwoStatementsArePrepared(MD5Digest statementId, ParsedStatement.Prepared parsedPrepared)
     {
         when(mockHandler.getPrepared(eq(statementId))).thenReturn(parsedPrepared);
+        PreparedStatementMetadata metadata = whenPreparedStatementMetadataIsResolved(statementId, parsedPrepared);
         queryHandler.getPrepared(statementId);
         queryHandler.getPrepared(statementId);
+        return metadata;
     }
 
     private void givenBatchOfTwoStatementsAreNotPrepared(MD5Digest statementId, ParsedStatement.Prepared parsedPrepared) {
         when(mockHandler.getPrepared(eq(statementId))).thenReturn(parsedPrepared).thenReturn(null);
+        whenPreparedStatementMetadataIsResolved(statementId, parsedPrepared);
         queryHandler.getPrepared(statementId);
         queryHandler.getPrepared(statementId);
     }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+import java.util.Collections;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class TestCharacterEscaper
+{
+    @Test
+    public void testNoEscapeCharacters()
+    {
+        CharacterEscaper escaper = new CharacterEscaper(Collections.emptySet());
+        String input = "select \"a\" from b";
+
+        assertThat(escaper.escape(input)).isSameAs(input);
+    }
+
+    @Test
+    public void testInputWithoutEscapeCharactersIsNotCopied()
+    {
+        CharacterEscaper escaper = new CharacterEscaper(ImmutableSet.of("\""));
+        String input = "select a from b";
+
+        assertThat(escaper.escape(input)).isSameAs(input);
+    }
+
+    @Test
+    public void testEscapeCharactersInSinglePass()
+    {
+        CharacterEscaper escaper = new CharacterEscaper(ImmutableSet.of("\"", "\\", "."));
+
+        assertThat(escaper.escape("\"ks\".\"tbl\" \\x")).isEqualTo("\\\"ks\\\"\\.\\\"tbl\\\" \\\\x");
+    }
+
+    @Test
+    public void testEscapeBuilderInPlace()
+    {
+        CharacterEscaper escaper = new CharacterEscaper(ImmutableSet.of("\"", "\\", "."));
+        StringBuilder builder = new StringBuilder("keep.\"this\"|");
+        int start = builder.length();
+        builder.append("\"ks\".\"tbl\" \\x");
+
+        escaper.escapeFrom(builder, start);
+
+        assertThat(builder.toString()).isEqualTo("keep.\"this\"|\\\"ks\\\"\\.\\\"tbl\\\" \\\\x");
+    }
+
+    @Test
+    public void testEscapeBuilderWithoutEscapeCharacters()
+    {
+        CharacterEscaper escaper = new CharacterEscaper(ImmutableSet.of("."));
+        StringBuilder builder = new StringBuilder("a.b|plain");
+
+        escaper.escapeFrom(builder, 4);
+
+        assertThat(builder.toString()).isEqualTo("a.b|plain");
+    }
+
+    @Test
+    public void testEscapeNonAsciiCharacter()
+    {
+        CharacterEscaper escaper = new CharacterEscaper(ImmutableSet.of("å"));
+
+        assertThat(escaper.escape("råd")).isEqualTo("r\\åd");
+    }
+
+    @Test
+    public void testInvalidEscapeCharacter()
+    {
+        assertThatIllegalArgumentException().isThrownBy(() -> new CharacterEscaper(ImmutableSet.of("ab")))
+                                            .withMessage("Invalid escape character: ab");
+    }
+}
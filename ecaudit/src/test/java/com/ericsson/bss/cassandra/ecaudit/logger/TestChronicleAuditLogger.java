@@ -19,6 +19,9 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.After;
@@ -26,8 +29,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditBatchWriteMarshallable;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditRecordWriteMarshallable;
 import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector;
 import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector.Field;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.RecordFormat;
 import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
@@ -41,6 +47,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.verify;
@@ -94,6 +101,64 @@ public class TestChronicleAuditLogger
         assertThatWireMatchRecord(expectedAuditEntry);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batchOfStatementsIsHandedOffOnce() throws Exception
+    {
+        logger = new ChronicleAuditLogger(mockWriter, FieldSelector.DEFAULT_FIELDS, RecordFormat.BITMAPPED, true);
+        AuditEntry first = likeGenericRecord().batch(UUID.fromString("4910e9a6-9d26-40f8-ad8c-5c0436784969")).build();
+        AuditEntry second = likeGenericRecord().batch(UUID.fromString("4910e9a6-9d26-40f8-ad8c-5c0436784969")).build();
+
+        AuditEntry other = likeGenericRecord().status(Status.FAILED).build();
+
+        logger.logAll(Arrays.asList(first, second, other));
+
+        ArgumentCaptor<List<WriteMarshallable>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockWriter).putAll(captor.capture());
+        verifyNoMoreInteractions(mockWriter);
+        assertThat(captor.getValue()).hasSize(2);
+        assertThat(captor.getValue().get(0)).isInstanceOf(AuditBatchWriteMarshallable.class);
+        assertThat(captor.getValue().get(1)).isInstanceOf(AuditRecordWriteMarshallable.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batchOfStatementsIsWrittenAsSeparateRecordsByDefault() throws Exception
+    {
+        AuditEntry first = likeGenericRecord().batch(UUID.fromString("4910e9a6-9d26-40f8-ad8c-5c0436784969")).build();
+        AuditEntry second = likeGenericRecord().batch(UUID.fromString("4910e9a6-9d26-40f8-ad8c-5c0436784969")).build();
+
+        logger.logAll(Arrays.asList(first, second));
+
+        ArgumentCaptor<List<WriteMarshallable>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockWriter).putAll(captor.capture());
+        verifyNoMoreInteractions(mockWriter);
+        assertThat(captor.getValue()).hasSize(2);
+        assertThat(captor.getValue()).allMatch(AuditRecordWriteMarshallable.class::isInstance);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void largeBatchIsSplitIntoSeveralCompactRecords() throws Exception
+    {
+        logger = new ChronicleAuditLogger(mockWriter, FieldSelector.DEFAULT_FIELDS, RecordFormat.BITMAPPED, true);
+        List<AuditEntry> entries = new ArrayList<>();
+        for (int i = 0; i < ChronicleAuditLogger.MAX_BATCH_RECORD_OPERATIONS * 2 + 1; i++)
+        {
+            entries.add(likeGenericRecord().batch(UUID.fromString("4910e9a6-9d26-40f8-ad8c-5c0436784969")).build());
+        }
+
+        logger.logAll(entries);
+
+        ArgumentCaptor<List<WriteMarshallable>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockWriter).putAll(captor.capture());
+        verifyNoMoreInteractions(mockWriter);
+        assertThat(captor.getValue()).hasSize(3);
+        assertThat(captor.getValue().get(0)).isInstanceOf(AuditBatchWriteMarshallable.class);
+        assertThat(captor.getValue().get(1)).isInstanceOf(AuditBatchWriteMarshallable.class);
+        assertThat(captor.getValue().get(2)).isInstanceOf(AuditRecordWriteMarshallable.class);
+    }
+
     @Test
     public void interruptOnPut() throws Exception
     {
@@ -159,7 +224,7 @@ public class TestChronicleAuditLogger
         verify(mockWire).write(eq("status"));
         verify(mockValue).text(eq(expectedAuditEntry.getStatus().name()));
         verify(mockWire).write(eq("operation"));
-        verify(mockValue).text(eq(expectedAuditEntry.getOperation().getOperationString()));
+        verify(mockValue).text(textEq(expectedAuditEntry.getOperation().getOperationString()));
 
         if (expectedAuditEntry.getBatchId().isPresent())
         {
@@ -167,4 +232,9 @@ public class TestChronicleAuditLogger
             verify(mockValue).uuid(eq(expectedAuditEntry.getBatchId().get()));
         }
     }
+
+    private static CharSequence textEq(String expected)
+    {
+        return argThat(text -> text != null && expected.contentEquals(text));
+    }
 }
@@ -15,6 +15,7 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.logger;
 
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.Map;
 
@@ -24,6 +25,7 @@ import org.junit.Test;
 
 import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector;
 import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector.Field;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.RecordFormat;
 import net.openhft.chronicle.queue.RollCycles;
 import org.apache.cassandra.exceptions.ConfigurationException;
 
@@ -125,6 +127,257 @@ public class TestChronicleAuditLoggerConfig
         assertThat(config.getMaxLogSize()).isEqualTo(1024L);
     }
 
+    @Test
+    public void testDefaultBufferConfig()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.getBufferSize()).isEqualTo(256);
+        assertThat(config.getWaitStrategy()).isEqualTo(WaitStrategy.PARK);
+    }
+
+    @Test
+    public void testValidBufferConfig()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "buffer_size", "4096",
+                                                      "wait_strategy", "YIELD");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.getBufferSize()).isEqualTo(4096);
+        assertThat(config.getWaitStrategy()).isEqualTo(WaitStrategy.YIELD);
+    }
+
+    @Test
+    public void testInvalidBufferSize()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "buffer_size", "-1");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("Invalid chronicle logger buffer size")
+        .withMessageContaining("-1");
+    }
+
+    @Test
+    public void testInvalidWaitStrategy()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "wait_strategy", "SLEEP");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("Invalid chronicle logger wait strategy")
+        .withMessageContaining("SLEEP");
+    }
+
+    @Test
+    public void testDefaultRecordFormat()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.getRecordFormat()).isEqualTo(RecordFormat.BITMAPPED);
+    }
+
+    @Test
+    public void testCompactRecordFormat()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "record_format", "COMPACT");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.getRecordFormat()).isEqualTo(RecordFormat.COMPACT);
+    }
+
+    @Test
+    public void testInvalidRecordFormat()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "record_format", "TINY");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("Invalid chronicle logger record format")
+        .withMessageContaining("TINY");
+    }
+
+    @Test
+    public void testDefaultDictionaryEncoding()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.isDictionaryEncoding()).isFalse();
+    }
+
+    @Test
+    public void testDictionaryEncoding()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "record_format", "COMPACT",
+                                                      "dictionary_encoding", "true");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.isDictionaryEncoding()).isTrue();
+    }
+
+    @Test
+    public void testInvalidDictionaryEncoding()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "record_format", "COMPACT",
+                                                      "dictionary_encoding", "yes");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("Invalid chronicle logger dictionary encoding")
+        .withMessageContaining("yes");
+    }
+
+    @Test
+    public void testDictionaryEncodingRequiresCompactRecordFormat()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "dictionary_encoding", "true");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("requires the COMPACT record format");
+    }
+
+    @Test
+    public void testDefaultCompactBatches()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.isCompactBatches()).isFalse();
+    }
+
+    @Test
+    public void testCompactBatches()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "compact_batches", "true");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.isCompactBatches()).isTrue();
+    }
+
+    @Test
+    public void testInvalidCompactBatches()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "compact_batches", "yes");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("Invalid chronicle logger compact batches")
+        .withMessageContaining("yes");
+    }
+
+    @Test
+    public void testDefaultCycleCompression()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.getCycleCompression()).isEqualTo(CycleCompression.NONE);
+    }
+
+    @Test
+    public void testLz4CycleCompression()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "cycle_compression", "LZ4");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.getCycleCompression()).isEqualTo(CycleCompression.LZ4);
+    }
+
+    @Test
+    public void testInvalidCycleCompression()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp",
+                                                      "cycle_compression", "GZIP");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("Invalid chronicle logger cycle compression")
+        .withMessageContaining("GZIP");
+    }
+
+    @Test
+    public void testDefaultCycleFileRemoval()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.getCycleFileRemoval()).isSameAs(CycleFileRemoval.deleting());
+    }
+
+    @Test
+    public void testArchivingCycleFileRemoval()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp/audit",
+                                                      "archive_dir", "/tmp/archive",
+                                                      "archive_max_rate", "1048576");
+
+        ChronicleAuditLoggerConfig config = new ChronicleAuditLoggerConfig(options);
+
+        assertThat(config.getCycleFileRemoval().getArchivePath()).isEqualTo(Paths.get("/tmp/archive"));
+        assertThat(config.getCycleFileRemoval().getMaxArchiveRate()).isEqualTo(1048576L);
+    }
+
+    @Test
+    public void testArchiveDirIsLogDir()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp/audit",
+                                                      "archive_dir", "/tmp/audit/");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("archive directory must not be the log directory");
+    }
+
+    @Test
+    public void testInvalidArchiveMaxRate()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp/audit",
+                                                      "archive_dir", "/tmp/archive",
+                                                      "archive_max_rate", "-1");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("Invalid chronicle logger archive max rate")
+        .withMessageContaining("-1");
+    }
+
+    @Test
+    public void testArchiveMaxRateRequiresArchiveDir()
+    {
+        Map<String, String> options = ImmutableMap.of("log_dir", "/tmp/audit",
+                                                      "archive_max_rate", "1048576");
+
+        assertThatExceptionOfType(ConfigurationException.class)
+        .isThrownBy(() -> new ChronicleAuditLoggerConfig(options))
+        .withMessageContaining("archive_dir");
+    }
+
     @Test
     public void testDefaultFieldsConfig()
     {
@@ -15,6 +15,12 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -22,15 +28,19 @@ import org.junit.runner.RunWith;
 
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.wire.DocumentContext;
+import net.openhft.chronicle.wire.WireOut;
 import net.openhft.chronicle.wire.WriteMarshallable;
+import org.awaitility.Awaitility;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -45,6 +55,9 @@ public class TestChronicleWriter
     @Mock
     private ExcerptAppender mockAppender;
 
+    @Mock
+    private DocumentContext mockDocumentContext;
+
     @Mock
     private WriteMarshallable marshallable;
 
@@ -54,6 +67,7 @@ public class TestChronicleWriter
     public void before()
     {
         when(mockChronicleQueue.acquireAppender()).thenReturn(mockAppender);
+        lenient().when(mockAppender.writingDocument()).thenReturn(mockDocumentContext);
         writer = new ChronicleWriter(mockChronicleQueue);
     }
 
@@ -72,7 +86,9 @@ public class TestChronicleWriter
         Thread.sleep(50);
         writer.close();
 
-        verify(mockAppender).writeDocument(eq(marshallable));
+        verify(mockAppender).writingDocument();
+        verify(marshallable).writeMarshallable(any());
+        verify(mockDocumentContext).close();
         verify(mockChronicleQueue).close();
     }
 
@@ -104,14 +120,15 @@ public class TestChronicleWriter
                 Thread.currentThread().interrupt();
             }
             return null;
-        }).when(mockAppender).writeDocument(any(WriteMarshallable.class));
+        }).when(marshallable).writeMarshallable(any());
 
         writer.put(marshallable);
         Thread.sleep(50);
 
         writer.close();
 
-        verify(mockAppender).writeDocument(eq(marshallable));
+        verify(mockAppender).writingDocument();
+        verify(marshallable).writeMarshallable(any());
         verify(mockChronicleQueue).close();
         assertThat(Thread.currentThread().isInterrupted()).isTrue();
 
@@ -119,6 +136,136 @@ public class TestChronicleWriter
         Thread.interrupted();
     }
 
+    @Test
+    public void putManyAreWrittenInOrder() throws Exception
+    {
+        List<WriteMarshallable> written = new CopyOnWriteArrayList<>();
+        List<WriteMarshallable> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            WriteMarshallable record = new RecordingMarshallable(written);
+            records.add(record);
+            writer.put(record);
+        }
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> written.size() == records.size());
+        writer.close();
+
+        assertThat(written).containsExactlyElementsOf(records);
+        verify(mockAppender, times(records.size())).writingDocument();
+        verify(mockChronicleQueue).close();
+    }
+
+    @Test
+    public void putAllAreWrittenInOrder() throws Exception
+    {
+        List<WriteMarshallable> written = new CopyOnWriteArrayList<>();
+        WriteMarshallable single = new RecordingMarshallable(written);
+        List<WriteMarshallable> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            batch.add(new RecordingMarshallable(written));
+        }
+
+        writer.putAll(batch);
+        writer.put(single);
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> written.size() == batch.size() + 1);
+        writer.close();
+
+        assertThat(written.subList(0, batch.size())).containsExactlyElementsOf(batch);
+        assertThat(written.get(batch.size())).isSameAs(single);
+        verify(mockAppender, times(batch.size() + 1)).writingDocument();
+        verify(mockChronicleQueue).close();
+    }
+
+    @Test
+    public void putBlocksWhileBufferIsFull() throws Exception
+    {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writerBlocked.countDown();
+            releaseWriter.await();
+            return null;
+        }).when(marshallable).writeMarshallable(any());
+        writer.close();
+        verify(mockChronicleQueue).close();
+
+        writer = new ChronicleWriter(mockChronicleQueue, 2, WaitStrategy.PARK);
+        writer.put(marshallable);
+        assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.put(marshallable);
+        writer.put(marshallable);
+
+        Thread producer = new Thread(() -> {
+            try
+            {
+                writer.put(marshallable);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(100);
+        assertThat(producer.isAlive()).isTrue();
+
+        releaseWriter.countDown();
+        producer.join(5000);
+        assertThat(producer.isAlive()).isFalse();
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> verify(marshallable, times(4)).writeMarshallable(any()));
+        verify(mockAppender, times(4)).writingDocument();
+        writer.close();
+        verify(mockChronicleQueue, times(2)).acquireAppender();
+        verify(mockChronicleQueue, times(2)).close();
+    }
+
+    @Test
+    public void failingRecordIsRolledBackAndWriterContinues() throws Exception
+    {
+        List<WriteMarshallable> written = new CopyOnWriteArrayList<>();
+        WriteMarshallable working = new RecordingMarshallable(written);
+        doThrow(new IllegalStateException("Expected failure")).when(marshallable).writeMarshallable(any());
+
+        writer.put(marshallable);
+        writer.put(working);
+
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> written.size() == 1);
+        writer.close();
+
+        assertThat(written).containsExactly(working);
+        verify(mockAppender, times(2)).writingDocument();
+        verify(mockDocumentContext).rollbackOnClose();
+        verify(mockChronicleQueue).close();
+    }
+
+    @Test
+    public void putFailsWhenWriterThreadHasStopped() throws Exception
+    {
+        doThrow(new AssertionError("Expected failure")).when(marshallable).writeMarshallable(any());
+        writer.close();
+        verify(mockChronicleQueue).close();
+
+        writer = new ChronicleWriter(mockChronicleQueue, 2, WaitStrategy.PARK);
+        assertThatIllegalStateException()
+        .isThrownBy(() -> {
+            for (int i = 0; i < 4; i++)
+            {
+                writer.put(marshallable);
+            }
+        })
+        .withMessageContaining("stopped");
+
+        writer.close();
+        verify(marshallable).writeMarshallable(any());
+        verify(mockChronicleQueue, times(2)).acquireAppender();
+        verify(mockAppender).writingDocument();
+        verify(mockChronicleQueue, times(2)).close();
+    }
+
     @Test
     public void closeQueueOnceOnly()
     {
@@ -127,4 +274,20 @@ public class TestChronicleWriter
 
         verify(mockChronicleQueue, times(1)).close();
     }
+
+    private static class RecordingMarshallable implements WriteMarshallable
+    {
+        private final List<WriteMarshallable> written;
+
+        RecordingMarshallable(List<WriteMarshallable> written)
+        {
+            this.written = written;
+        }
+
+        @Override
+        public void writeMarshallable(WireOut wire)
+        {
+            written.add(this);
+        }
+    }
 }
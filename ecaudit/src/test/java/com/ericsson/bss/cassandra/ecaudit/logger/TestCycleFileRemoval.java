@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class TestCycleFileRemoval
+{
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path tempDir;
+
+    @Before
+    public void before()
+    {
+        tempDir = temporaryFolder.getRoot().toPath();
+    }
+
+    @Test
+    public void testDeletedFile() throws IOException
+    {
+        File file = givenFile("20190327-1231.cq4", 1000);
+
+        CycleFileRemoval.deleting().remove(file);
+
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void testArchivedFile() throws IOException
+    {
+        File file = givenFile("20190327-1231.cq4", 1000);
+        Path archivePath = tempDir.resolve("archive");
+
+        CycleFileRemoval.archivingTo(archivePath, 1_000_000).remove(file);
+
+        assertThat(file).doesNotExist();
+        assertThat(archivePath.resolve("20190327-1231.cq4").toFile()).hasBinaryContent(new byte[1000]);
+    }
+
+    @Test
+    public void testArchivedFileReplacesExistingFile() throws IOException
+    {
+        Path archivePath = Files.createDirectory(tempDir.resolve("archive"));
+        Files.write(archivePath.resolve("20190327-1231.cq4"), new byte[10]);
+        File file = givenFile("20190327-1231.cq4", 1000);
+
+        CycleFileRemoval.archivingTo(archivePath, CycleFileRemoval.UNTHROTTLED).remove(file);
+
+        assertThat(file).doesNotExist();
+        assertThat(archivePath.resolve("20190327-1231.cq4").toFile()).hasBinaryContent(new byte[1000]);
+    }
+
+    @Test(timeout = 10_000)
+    public void testCopyOnlyThrottlesWrittenChunks() throws IOException
+    {
+        File file = tempDir.resolve("20190327-1231.cq4").toFile();
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw"))
+        {
+            out.setLength(8 * 1024 * 1024);
+            out.write(new byte[]{ 1, 2, 3 });
+            out.seek(4 * 1024 * 1024);
+            out.write(new byte[]{ 4, 5, 6 });
+        }
+        Path archivePath = Files.createDirectory(tempDir.resolve("archive"));
+        Path target = archivePath.resolve("20190327-1231.cq4");
+
+        // Copying all of the file at this rate would take two minutes
+        CycleFileRemoval.archivingTo(archivePath, 64 * 1024).copy(file.toPath(), target);
+
+        assertThat(Files.readAllBytes(target)).isEqualTo(Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void testMissingFile()
+    {
+        File file = tempDir.resolve("20190327-1231.cq4").toFile();
+
+        assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> CycleFileRemoval.deleting().remove(file));
+        assertThatExceptionOfType(IOException.class)
+        .isThrownBy(() -> CycleFileRemoval.archivingTo(tempDir.resolve("archive"), CycleFileRemoval.UNTHROTTLED).remove(file));
+    }
+
+    @Test
+    public void testNegativeArchiveRate()
+    {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+        .isThrownBy(() -> CycleFileRemoval.archivingTo(tempDir.resolve("archive"), -1));
+    }
+
+    private File givenFile(String name, int size) throws IOException
+    {
+        return Files.write(tempDir.resolve(name), new byte[size]).toFile();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class TestMpscRingBuffer
+{
+    @Test
+    public void testCapacityIsRoundedToPowerOfTwo()
+    {
+        assertThat(new MpscRingBuffer<Integer>(1).capacity()).isEqualTo(1);
+        assertThat(new MpscRingBuffer<Integer>(100).capacity()).isEqualTo(128);
+        assertThat(new MpscRingBuffer<Integer>(256).capacity()).isEqualTo(256);
+    }
+
+    @Test
+    public void testInvalidCapacity()
+    {
+        assertThatIllegalArgumentException().isThrownBy(() -> new MpscRingBuffer<Integer>(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new MpscRingBuffer<Integer>(-1));
+    }
+
+    @Test
+    public void testOfferFailsWhenFull()
+    {
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++)
+        {
+            assertThat(ringBuffer.offer(i)).isTrue();
+        }
+
+        assertThat(ringBuffer.offer(4)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ringBuffer.drain(drained::add, 1)).isEqualTo(1);
+        assertThat(ringBuffer.offer(4)).isTrue();
+        assertThat(ringBuffer.drain(drained::add, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    public void testDrainEmpty()
+    {
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        assertThat(ringBuffer.drain(drained::add, 10)).isZero();
+        assertThat(drained).isEmpty();
+    }
+
+    @Test
+    public void testWrapAround()
+    {
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++)
+        {
+            assertThat(ringBuffer.offer(i)).isTrue();
+            assertThat(ringBuffer.offer(-i)).isTrue();
+            assertThat(ringBuffer.drain(drained::add, 10)).isEqualTo(2);
+        }
+
+        assertThat(drained).hasSize(200);
+    }
+
+    @Test
+    public void testConcurrentProducersPreserveOrderPerProducer() throws Exception
+    {
+        int producers = 4;
+        int recordsPerProducer = 10_000;
+        MpscRingBuffer<long[]> ringBuffer = new MpscRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int p = 0; p < producers; p++)
+        {
+            long producer = p;
+            executor.execute(() -> {
+                awaitUninterruptibly(start);
+                for (long i = 0; i < recordsPerProducer; i++)
+                {
+                    long[] record = { producer, i };
+                    while (!ringBuffer.offer(record))
+                    {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+
+        long[] nextExpected = new long[producers];
+        int[] received = new int[1];
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received[0] < producers * recordsPerProducer && System.nanoTime() < deadline)
+        {
+            ringBuffer.drain(record -> {
+                assertThat(record[1]).isEqualTo(nextExpected[(int) record[0]]);
+                nextExpected[(int) record[0]]++;
+                received[0]++;
+            }, 16);
+        }
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received[0]).isEqualTo(producers * recordsPerProducer);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -22,11 +22,19 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.CompressedCycleFiles;
 import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -37,6 +45,7 @@ public class TestSizeRotatingStoreFileListener
 {
     private File tempDir;
     private int fileCycle = 0;
+    private int acquiredCycle = 0;
 
     private SizeRotatingStoreFileListener storeFileListener;
 
@@ -47,6 +56,15 @@ public class TestSizeRotatingStoreFileListener
         tempDir.deleteOnExit();
     }
 
+    @After
+    public void after()
+    {
+        if (storeFileListener != null)
+        {
+            storeFileListener.close();
+        }
+    }
+
     @Test
     public void testManySmallAreRotated() throws IOException
     {
@@ -89,6 +107,85 @@ public class TestSizeRotatingStoreFileListener
         smallFiles.forEach(file -> assertThat(file).exists());
     }
 
+    @Test
+    public void testRotatedFilesAreArchived() throws IOException
+    {
+        File archiveDir = new File(tempDir, "archive");
+        givenArchivingStoreFileListener(49, archiveDir.toPath());
+        List<File> firstFiles = givenRotatedFiles(10, 10);
+        List<File> lastFiles = givenRotatedFiles(10, 4);
+
+        firstFiles.forEach(file -> assertThat(file).doesNotExist());
+        firstFiles.forEach(file -> assertThat(new File(archiveDir, file.getName())).exists());
+        lastFiles.forEach(file -> assertThat(file).exists());
+        lastFiles.forEach(file -> assertThat(new File(archiveDir, file.getName())).doesNotExist());
+    }
+
+    @Test
+    public void testRotatedFilesAreRemovedByLifecycleThread() throws Exception
+    {
+        ExecutorService lifecycleExecutor = Executors.newSingleThreadExecutor();
+        CountDownLatch lifecycleBlocked = new CountDownLatch(1);
+        lifecycleExecutor.execute(() -> Uninterruptibles.awaitUninterruptibly(lifecycleBlocked));
+        storeFileListener = new SizeRotatingStoreFileListener(tempDir.toPath(), 49, CycleCompression.NONE, CycleFileRemoval.deleting(), lifecycleExecutor);
+
+        List<File> files = givenRotatedFiles(50, 1);
+        assertThat(files.get(0)).exists();
+
+        lifecycleBlocked.countDown();
+        lifecycleExecutor.shutdown();
+        assertThat(lifecycleExecutor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(files.get(0)).doesNotExist();
+    }
+
+    @Test
+    public void testPendingRemovalIsAccountedUntilRemoved() throws Exception
+    {
+        ExecutorService lifecycleExecutor = Executors.newSingleThreadExecutor();
+        CountDownLatch lifecycleBlocked = new CountDownLatch(1);
+        lifecycleExecutor.execute(() -> Uninterruptibles.awaitUninterruptibly(lifecycleBlocked));
+        storeFileListener = new SizeRotatingStoreFileListener(tempDir.toPath(), 49, CycleCompression.NONE, CycleFileRemoval.deleting(), lifecycleExecutor);
+
+        List<File> firstFiles = givenRotatedFiles(10, 5);
+        assertThat(storeFileListener.accountedFileSize()).isEqualTo(50);
+
+        // The pending removal is on its way out, so it does not cause more files to be removed
+        List<File> lastFiles = givenRotatedFiles(10, 1);
+        assertThat(storeFileListener.accountedFileSize()).isEqualTo(60);
+
+        lifecycleBlocked.countDown();
+        awaitLifecycle(lifecycleExecutor);
+        assertThat(storeFileListener.accountedFileSize()).isEqualTo(40);
+        firstFiles.subList(0, 2).forEach(file -> assertThat(file).doesNotExist());
+        firstFiles.subList(2, 5).forEach(file -> assertThat(file).exists());
+        lastFiles.forEach(file -> assertThat(file).exists());
+    }
+
+    @Test
+    public void testPendingRemovalIsNotDiscoveredAgainAfterFailedRemoval() throws Exception
+    {
+        ExecutorService lifecycleExecutor = Executors.newSingleThreadExecutor();
+        CountDownLatch lifecycleBlocked = new CountDownLatch(1);
+        lifecycleExecutor.execute(() -> Uninterruptibles.awaitUninterruptibly(lifecycleBlocked));
+        storeFileListener = new SizeRotatingStoreFileListener(tempDir.toPath(), 49, CycleCompression.NONE, CycleFileRemoval.deleting(), lifecycleExecutor);
+
+        List<File> firstFiles = givenRotatedFiles(10, 5);
+        assertThat(firstFiles.get(0).delete()).isTrue();
+        List<File> moreFiles = givenRotatedFiles(10, 1);
+
+        // Removal of the lost file fails, while the removal of the next file is pending
+        lifecycleBlocked.countDown();
+        awaitLifecycle(lifecycleExecutor);
+        List<File> lastFiles = givenRotatedFiles(10, 1);
+        awaitLifecycle(lifecycleExecutor);
+
+        assertThat(storeFileListener.accountedFileSize()).isEqualTo(40);
+        firstFiles.subList(0, 3).forEach(file -> assertThat(file).doesNotExist());
+        firstFiles.subList(3, 5).forEach(file -> assertThat(file).exists());
+        moreFiles.forEach(file -> assertThat(file).exists());
+        lastFiles.forEach(file -> assertThat(file).exists());
+    }
+
     @Test
     public void testExistingFilesAreRotated() throws IOException
     {
@@ -166,9 +263,136 @@ public class TestSizeRotatingStoreFileListener
         lastFiles.forEach(file -> assertThat(file).exists());
     }
 
+    @Test
+    public void testReleasedFileIsCompressedWhenNextCycleIsAcquired() throws IOException
+    {
+        givenCompressingStoreFileListener(10_000);
+        File file = createFile(1000);
+
+        storeFileListener.onAcquired(1, file);
+        storeFileListener.onReleased(1, file);
+        storeFileListener.onAcquired(1, file);
+        storeFileListener.onReleased(1, file);
+
+        assertThat(file).exists();
+        assertThat(CompressedCycleFiles.compressedFileOf(file)).doesNotExist();
+
+        storeFileListener.onAcquired(2, createFile(1000));
+
+        assertThat(file).doesNotExist();
+        assertThat(CompressedCycleFiles.compressedFileOf(file)).exists();
+    }
+
+    @Test
+    public void testFileReleasedAfterNextCycleIsAcquiredIsCompressed() throws IOException
+    {
+        givenCompressingStoreFileListener(10_000);
+        File file = createFile(1000);
+
+        storeFileListener.onAcquired(1, file);
+        storeFileListener.onAcquired(2, createFile(1000));
+        storeFileListener.onReleased(1, file);
+
+        assertThat(file).doesNotExist();
+        assertThat(CompressedCycleFiles.compressedFileOf(file)).exists();
+    }
+
+    @Test
+    public void testCompressedSizeCountsTowardMaxLogSize() throws IOException
+    {
+        givenCompressingStoreFileListener(2500);
+        List<File> files = givenReleasedCycles(1000, 10);
+
+        files.subList(0, 9).forEach(file -> assertThat(CompressedCycleFiles.compressedFileOf(file)).exists());
+        assertThat(files.get(9)).exists();
+    }
+
+    @Test
+    public void testCompressedFilesAreRotated() throws IOException
+    {
+        givenCompressingStoreFileListener(1100);
+        List<File> firstFiles = givenReleasedCycles(1000, 2);
+        List<File> lastFiles = givenReleasedCycles(1000, 2);
+
+        firstFiles.forEach(file -> assertThat(file).doesNotExist());
+        firstFiles.forEach(file -> assertThat(CompressedCycleFiles.compressedFileOf(file)).doesNotExist());
+        assertThat(CompressedCycleFiles.compressedFileOf(lastFiles.get(0))).exists();
+        assertThat(lastFiles.get(1)).exists();
+    }
+
+    @Test
+    public void testExistingFilesAreCompressed() throws IOException
+    {
+        List<File> existingFiles = givenExistingFiles(1000, 3);
+        givenCompressingStoreFileListener(10_000);
+        givenReleasedCycles(1000, 1);
+
+        existingFiles.forEach(file -> assertThat(file).doesNotExist());
+        existingFiles.forEach(file -> assertThat(CompressedCycleFiles.compressedFileOf(file)).exists());
+    }
+
+    @Test
+    public void testExistingCompressedFilesAreRotated() throws IOException
+    {
+        List<File> existingFiles = givenExistingFiles(1000, 3);
+        for (File existingFile : existingFiles)
+        {
+            CompressedCycleFiles.compress(existingFile);
+            assertThat(existingFile.delete()).isTrue();
+        }
+        givenStoreFileListener(1999);
+        givenRotatedFiles(1000, 2);
+
+        existingFiles.forEach(file -> assertThat(CompressedCycleFiles.compressedFileOf(file)).doesNotExist());
+    }
+
+    @Test
+    public void testExistingFileNextToItsCompressedFileIsCompressedAgain() throws IOException
+    {
+        File existingFile = givenExistingFiles(1000, 1).get(0);
+        File compressedFile = CompressedCycleFiles.compressedFileOf(existingFile);
+        Files.write(compressedFile.toPath(), new byte[10]);
+        givenCompressingStoreFileListener(10_000);
+        givenReleasedCycles(1000, 1);
+
+        assertThat(existingFile).doesNotExist();
+        assertThat(compressedFile.length()).isGreaterThan(10);
+    }
+
+    private static void awaitLifecycle(ExecutorService lifecycleExecutor) throws Exception
+    {
+        lifecycleExecutor.submit(() -> {}).get(10, TimeUnit.SECONDS);
+    }
+
     private void givenStoreFileListener(long maxLogSize)
     {
-        storeFileListener = new SizeRotatingStoreFileListener(tempDir.toPath(), maxLogSize);
+        storeFileListener = new SizeRotatingStoreFileListener(tempDir.toPath(), maxLogSize, CycleCompression.NONE, CycleFileRemoval.deleting(), MoreExecutors.newDirectExecutorService());
+    }
+
+    private void givenArchivingStoreFileListener(long maxLogSize, Path archivePath)
+    {
+        storeFileListener = new SizeRotatingStoreFileListener(tempDir.toPath(), maxLogSize, CycleCompression.NONE, CycleFileRemoval.archivingTo(archivePath, CycleFileRemoval.UNTHROTTLED), MoreExecutors.newDirectExecutorService());
+    }
+
+    private void givenCompressingStoreFileListener(long maxLogSize)
+    {
+        storeFileListener = new SizeRotatingStoreFileListener(tempDir.toPath(), maxLogSize, CycleCompression.LZ4, CycleFileRemoval.deleting(), MoreExecutors.newDirectExecutorService());
+    }
+
+    private List<File> givenReleasedCycles(int size, int count) throws IOException
+    {
+        List<File> files = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++)
+        {
+            File file = createFile(size);
+            acquiredCycle++;
+            storeFileListener.onAcquired(acquiredCycle, file);
+            storeFileListener.onReleased(acquiredCycle, file);
+            files.add(file);
+        }
+
+        return files;
     }
 
     private List<File> givenRotatedFiles(int size, int count) throws IOException
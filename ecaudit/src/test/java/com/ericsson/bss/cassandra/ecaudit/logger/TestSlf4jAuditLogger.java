@@ -48,10 +48,12 @@ import org.mockito.junit.MockitoJUnitRunner;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 @RunWith(MockitoJUnitRunner.StrictStubs.class)
 public class TestSlf4jAuditLogger
@@ -85,7 +87,7 @@ public class TestSlf4jAuditLogger
     {
         InetAddress expectedCoordinatorAddress = mock(InetAddress.class);
         when(expectedCoordinatorAddress.getHostAddress()).thenReturn(EXPECTED_COORDINATOR_ADDRESS);
-        AuditOperation auditOperation = mock(AuditOperation.class);
+        AuditOperation auditOperation = mock(AuditOperation.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
         when(auditOperation.getOperationString()).thenReturn(EXPECTED_STATEMENT);
         when(auditOperation.getNakedOperationString()).thenReturn(EXPECTED_STATEMENT_NAKED);
         logEntryWithAll = AuditEntry.newBuilder()
@@ -157,7 +159,7 @@ public class TestSlf4jAuditLogger
         Set<String> escapeChars = new HashSet<>();
         escapeChars.add("\"");
         Slf4jAuditLogger logger = loggerWithConfig(jsonFormat, escapeChars);
-        AuditOperation auditOperation = mock(AuditOperation.class);
+        AuditOperation auditOperation = mock(AuditOperation.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
         when(auditOperation.getOperationString()).thenReturn("select somethingX from \"testKeyspace.table1\"");
         AuditEntry logEntry = AuditEntry.newBuilder()
                                         .user(EXPECTED_USER)
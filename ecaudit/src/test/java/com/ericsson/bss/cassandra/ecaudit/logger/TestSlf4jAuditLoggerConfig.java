@@ -104,4 +104,24 @@ public class TestSlf4jAuditLoggerConfig
         .withMessageContaining("Invalid SLF4J logger time zone parameter")
         .withMessageContaining("DoesNotExist");
     }
+
+    @Test
+    public void testGetEscapeCharacters()
+    {
+        Map<String, String> options = ImmutableMap.of("escape_characters", "\", ' , \\");
+
+        Slf4jAuditLoggerConfig auditConfig = new Slf4jAuditLoggerConfig(options);
+
+        assertThat(auditConfig.getEscapeCharacters()).containsExactlyInAnyOrder("\"", "'", "\\");
+    }
+
+    @Test
+    public void testGetEscapeCharactersSkipsEntriesWhichAreNotSingleCharacters()
+    {
+        Map<String, String> options = ImmutableMap.of("escape_characters", "\",ab, \\.");
+
+        Slf4jAuditLoggerConfig auditConfig = new Slf4jAuditLoggerConfig(options);
+
+        assertThat(auditConfig.getEscapeCharacters()).containsExactly("\"");
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.logger;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestWaitStrategy
+{
+    @Test
+    public void testParkTimeIsDoubledForEachPark()
+    {
+        assertThat(WaitStrategy.parkNanos(0)).isEqualTo(TimeUnit.MICROSECONDS.toNanos(10));
+        assertThat(WaitStrategy.parkNanos(1)).isEqualTo(TimeUnit.MICROSECONDS.toNanos(20));
+        assertThat(WaitStrategy.parkNanos(2)).isEqualTo(TimeUnit.MICROSECONDS.toNanos(40));
+    }
+
+    @Test
+    public void testParkTimeIsCapped()
+    {
+        assertThat(WaitStrategy.parkNanos(10)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(WaitStrategy.parkNanos(100)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(WaitStrategy.parkNanos(Integer.MAX_VALUE)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+}
@@ -22,6 +22,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 import org.apache.cassandra.metrics.CassandraMetricsRegistry;
 import org.mockito.Mock;
@@ -31,6 +32,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,14 +41,23 @@ public class TestAuditMetrics
 {
     private static final String METRIC_NAME_FILTER = "Filter";
     private static final String METRIC_NAME_LOG = "Log";
+    private static final String METRIC_NAME_DROPPED = "Dropped";
+    private static final String METRIC_NAME_STATEMENT_CACHE_HIT = "StatementCacheHit";
+    private static final String METRIC_NAME_STATEMENT_CACHE_MISS = "StatementCacheMiss";
+    private static final String METRIC_NAME_ROLE_WHITELIST_CACHE_REQUEST = "RoleWhitelistCacheRequest";
+    private static final String METRIC_NAME_ROLE_WHITELIST_CACHE_LOAD = "RoleWhitelistCacheLoad";
 
     @Mock
     private Function<CassandraMetricsRegistry.MetricName, Timer> mockTimerFunction;
 
+    @Mock
+    private Function<CassandraMetricsRegistry.MetricName, Meter> mockMeterFunction;
+
     @Before
     public void init()
     {
         when(mockTimerFunction.apply(any())).thenReturn(mock(Timer.class));
+        when(mockMeterFunction.apply(any())).thenReturn(mock(Meter.class));
     }
 
     @Test
@@ -57,7 +68,7 @@ public class TestAuditMetrics
 
         when(mockTimerFunction.apply(eq(metric))).thenReturn(mockTimer);
 
-        AuditMetrics auditMetrics = new AuditMetrics(mockTimerFunction);
+        AuditMetrics auditMetrics = new AuditMetrics(mockTimerFunction, mockMeterFunction);
         verify(mockTimerFunction).apply(eq(metric));
 
         auditMetrics.filterAuditRequest(999L, TimeUnit.NANOSECONDS);
@@ -72,13 +83,68 @@ public class TestAuditMetrics
 
         when(mockTimerFunction.apply(eq(metric))).thenReturn(mockTimer);
 
-        AuditMetrics auditMetrics = new AuditMetrics(mockTimerFunction);
+        AuditMetrics auditMetrics = new AuditMetrics(mockTimerFunction, mockMeterFunction);
         verify(mockTimerFunction).apply(eq(metric));
 
         auditMetrics.logAuditRequest(999L, TimeUnit.NANOSECONDS);
         verify(mockTimer).update(eq(999L), eq(TimeUnit.NANOSECONDS));
     }
 
+    @Test
+    public void testDroppedRequestMeter()
+    {
+        Meter mockMeter = mock(Meter.class);
+        CassandraMetricsRegistry.MetricName metric = AuditMetrics.createMetricName(METRIC_NAME_DROPPED);
+
+        when(mockMeterFunction.apply(eq(metric))).thenReturn(mockMeter);
+
+        AuditMetrics auditMetrics = new AuditMetrics(mockTimerFunction, mockMeterFunction);
+        verify(mockMeterFunction).apply(eq(metric));
+
+        auditMetrics.dropAuditRequest();
+        verify(mockMeter).mark();
+    }
+
+    @Test
+    public void testStatementCacheMeters()
+    {
+        Meter mockHitMeter = mock(Meter.class);
+        Meter mockMissMeter = mock(Meter.class);
+        CassandraMetricsRegistry.MetricName hitMetric = AuditMetrics.createMetricName(METRIC_NAME_STATEMENT_CACHE_HIT);
+        CassandraMetricsRegistry.MetricName missMetric = AuditMetrics.createMetricName(METRIC_NAME_STATEMENT_CACHE_MISS);
+
+        when(mockMeterFunction.apply(eq(hitMetric))).thenReturn(mockHitMeter);
+        when(mockMeterFunction.apply(eq(missMetric))).thenReturn(mockMissMeter);
+
+        AuditMetrics auditMetrics = new AuditMetrics(mockTimerFunction, mockMeterFunction);
+
+        auditMetrics.statementCacheHit();
+        auditMetrics.statementCacheHit();
+        auditMetrics.statementCacheMiss();
+        verify(mockHitMeter, times(2)).mark();
+        verify(mockMissMeter).mark();
+    }
+
+    @Test
+    public void testRoleWhitelistCacheMetrics()
+    {
+        Meter mockRequestMeter = mock(Meter.class);
+        Timer mockLoadTimer = mock(Timer.class);
+        CassandraMetricsRegistry.MetricName requestMetric = AuditMetrics.createMetricName(METRIC_NAME_ROLE_WHITELIST_CACHE_REQUEST);
+        CassandraMetricsRegistry.MetricName loadMetric = AuditMetrics.createMetricName(METRIC_NAME_ROLE_WHITELIST_CACHE_LOAD);
+
+        when(mockMeterFunction.apply(eq(requestMetric))).thenReturn(mockRequestMeter);
+        when(mockTimerFunction.apply(eq(loadMetric))).thenReturn(mockLoadTimer);
+
+        AuditMetrics auditMetrics = new AuditMetrics(mockTimerFunction, mockMeterFunction);
+
+        auditMetrics.roleWhitelistCacheRequest();
+        auditMetrics.roleWhitelistCacheRequest();
+        auditMetrics.roleWhitelistCacheLoad(999L, TimeUnit.NANOSECONDS);
+        verify(mockRequestMeter, times(2)).mark();
+        verify(mockLoadTimer).update(eq(999L), eq(TimeUnit.NANOSECONDS));
+    }
+
     @Test
     public void testCreateMetricName()
     {
@@ -28,6 +28,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.ericsson.bss.cassandra.ecaudit.entry.AuditEntry;
+import com.ericsson.bss.cassandra.ecaudit.entry.TruncatedAuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.AuditOperation;
 import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
 import org.apache.cassandra.auth.DataResource;
@@ -144,6 +145,30 @@ public class TestPasswordObfuscator
         validateUnknownQueries(alterUserQueries);
     }
 
+    @Test
+    public void testUnparsedStatementWithSeveralPasswordsObfuscation()
+    {
+        String query = "BEGIN BATCH CREATE ROLE a WITH PASSWORD = 'one'; CREATE ROLE b WITH PASSWORD = 'two'; APPLY BATCH extra_characters;";
+        String expected = "BEGIN BATCH CREATE ROLE a WITH PASSWORD = '*****'; CREATE ROLE b WITH PASSWORD = '*****'; APPLY BATCH extra_characters;";
+
+        validateUnknownQueries(Collections.singletonMap(query, expected));
+    }
+
+    @Test
+    public void testTruncatedPasswordObfuscation()
+    {
+        String query = "CREATE ROLE coach WITH PASSWORD = 'secret' AND LOGIN = true;";
+        AuditEntry entry = AuditEntry.newBuilder()
+                                     .operation(TruncatedAuditOperation.create(query, 38))
+                                     .permissions(Sets.immutableEnumSet(Permission.CREATE))
+                                     .resource(RoleResource.fromName("roles/coach"))
+                                     .build();
+
+        AuditEntry obfuscated = myObfuscator.obfuscate(entry);
+
+        assertThat(obfuscated.getOperation().getOperationString()).isEqualTo("CREATE ROLE coach WITH PASSWORD = '***...[truncated, 59 bytes]");
+    }
+
     private void validateUnmodifiedQueries(List<String> queries, String username, Permission permission)
     {
         for (String query : queries)
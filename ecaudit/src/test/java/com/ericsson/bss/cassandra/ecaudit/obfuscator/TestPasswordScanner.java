@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.obfuscator;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestPasswordScanner
+{
+    private static final String MASK = "*****";
+
+    @Test
+    public void testOperationWithoutKeywordIsReturnedAsIs()
+    {
+        String operation = "SELECT * FROM ks.tbl WHERE key = 'value'";
+
+        assertThat(PasswordScanner.obfuscate(operation, MASK)).isSameAs(operation);
+    }
+
+    @Test
+    public void testKeywordWithoutValueIsReturnedAsIs()
+    {
+        String operation = "SELECT password FROM ks.tbl";
+
+        assertThat(PasswordScanner.obfuscate(operation, MASK)).isSameAs(operation);
+    }
+
+    @Test
+    public void testKeywordIsCaseInsensitive()
+    {
+        assertThat(PasswordScanner.obfuscate("ALTER ROLE a WITH PaSsWoRd = 'secret'", MASK))
+        .isEqualTo("ALTER ROLE a WITH PaSsWoRd = '*****'");
+    }
+
+    @Test
+    public void testAllOccurrencesAreMasked()
+    {
+        assertThat(PasswordScanner.obfuscate("CREATE USER a WITH PASSWORD 'one'; CREATE USER b WITH PASSWORD 'two';", MASK))
+        .isEqualTo("CREATE USER a WITH PASSWORD '*****'; CREATE USER b WITH PASSWORD '*****';");
+    }
+
+    @Test
+    public void testQuotedLiteralWithEscapedQuotesAndWhitespace()
+    {
+        assertThat(PasswordScanner.obfuscate("ALTER ROLE a WITH PASSWORD = 'it''s a secret' AND LOGIN = true", MASK))
+        .isEqualTo("ALTER ROLE a WITH PASSWORD = '*****' AND LOGIN = true");
+    }
+
+    @Test
+    public void testDollarQuotedLiteral()
+    {
+        assertThat(PasswordScanner.obfuscate("ALTER ROLE a WITH PASSWORD = $$it's secret$$ AND LOGIN = true", MASK))
+        .isEqualTo("ALTER ROLE a WITH PASSWORD = $$*****$$ AND LOGIN = true");
+    }
+
+    @Test
+    public void testMalformedLiteralIsMaskedToLastQuoteInRun()
+    {
+        assertThat(PasswordScanner.obfuscate("ALTER ROLE a WITH PASSWORD = 'sec'ret' extra", MASK))
+        .isEqualTo("ALTER ROLE a WITH PASSWORD = '*****' extra");
+    }
+
+    @Test
+    public void testUnterminatedLiteralIsReturnedAsIs()
+    {
+        String operation = "ALTER ROLE a WITH PASSWORD = 'secret";
+
+        assertThat(PasswordScanner.obfuscate(operation, MASK)).isSameAs(operation);
+    }
+
+    @Test(timeout = 5000)
+    public void testPathologicalOperationIsScannedInLinearTime()
+    {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 4_000_000)
+        {
+            builder.append("password 'password='");
+        }
+        String operation = builder.toString();
+
+        assertThat(PasswordScanner.obfuscate(operation, MASK)).startsWith("password '*****'");
+    }
+}
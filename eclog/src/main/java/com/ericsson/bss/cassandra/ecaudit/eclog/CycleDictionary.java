@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.eclog;
+
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditRecordReadMarshallable;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.ReadDictionary;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.RollCycle;
+
+/**
+ * The dictionary of the roll cycle which a tailer currently reads.
+ *
+ * Definitions are forgotten when the tailer moves on to another roll cycle. When the tailer starts reading in the
+ * middle of a roll cycle, e.g. when only the last records are read, the definitions of the preceding records in the
+ * roll cycle are loaded first.
+ */
+class CycleDictionary extends ReadDictionary
+{
+    private final ChronicleQueue queue;
+    private final ExcerptTailer tailer;
+    private final RollCycle rollCycle;
+
+    private int cycle = Integer.MIN_VALUE;
+    private boolean loading;
+
+    CycleDictionary(ChronicleQueue queue, ExcerptTailer tailer, RollCycle rollCycle)
+    {
+        super();
+        this.queue = queue;
+        this.tailer = tailer;
+        this.rollCycle = rollCycle;
+    }
+
+    @Override
+    public void define(int id, String text)
+    {
+        followTailer();
+        super.define(id, text);
+    }
+
+    @Override
+    public String resolve(int id)
+    {
+        followTailer();
+        return super.resolve(id);
+    }
+
+    /**
+     * Invoked while the tailer reads a record, so the cycle and index of the tailer are those of the record.
+     */
+    private void followTailer()
+    {
+        if (loading || tailer.cycle() == cycle)
+        {
+            return;
+        }
+
+        clear();
+        cycle = tailer.cycle();
+        loadPrecedingDefinitions(tailer.index());
+    }
+
+    private void loadPrecedingDefinitions(long index)
+    {
+        long firstIndex = rollCycle.toIndex(cycle, 0);
+        if (index <= firstIndex)
+        {
+            return;
+        }
+
+        loading = true;
+        try
+        {
+            ExcerptTailer scanner = queue.createTailer();
+            boolean available = scanner.moveToIndex(firstIndex);
+            while (available && scanner.index() < index)
+            {
+                available = scanner.readDocument(new AuditRecordReadMarshallable(this));
+            }
+        }
+        finally
+        {
+            loading = false;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.eclog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.CompressedCycleFiles;
+
+/**
+ * Makes a log directory holding compressed cycle files readable by Chronicle.
+ * <p>
+ * Chronicle can only read plain cycle files. The log directory is therefore read through a temporary staging directory,
+ * holding links to the queue metadata and the plain cycle files of the log directory, and decompressed copies of the
+ * compressed cycle files. Cycles are staged one at a time, in order, as the reader reaches the end of the staged
+ * cycles on {@link #refresh()}. This way only the cycles which are actually read are decompressed, and a cycle which is
+ * compressed while the log directory is followed is picked up from its compressed file. When only the tail of the log
+ * is read, staging starts with the last cycle, and earlier cycles are staged by {@link #stagePreviousCycle()} until
+ * they hold the tail. Only the two most recently decompressed cycles are kept in the staging directory once read, and
+ * the staging directory is deleted when the JVM exits.
+ * <p>
+ * Log directories without compressed cycle files are read as they are, unless they are followed.
+ */
+final class CycleFileStaging
+{
+    private static final CycleFileStaging NONE = new CycleFileStaging(null, null);
+    private static final int MAX_DECOMPRESSED_CYCLES = 2;
+
+    private final Path logPath;
+    private final Path stagingPath;
+    private final Deque<Path> decompressedCycles = new ArrayDeque<>();
+    private String firstStagedCycle; // The plain name of the first staged cycle
+    private String lastStagedCycle; // The plain name of the last staged cycle
+
+    private CycleFileStaging(Path logPath, Path stagingPath)
+    {
+        this.logPath = logPath;
+        this.stagingPath = stagingPath;
+    }
+
+    /**
+     * @return a staging which never stages anything, for queues which are opened by the caller
+     */
+    static CycleFileStaging none()
+    {
+        return NONE;
+    }
+
+    /**
+     * Stage the first cycle of a log directory if it holds compressed cycle files.
+     *
+     * @param logPath the log directory
+     * @return the staging of the log directory
+     * @throws IOException if the log directory could not be listed or a compressed cycle file could not be decompressed
+     */
+    static CycleFileStaging stage(Path logPath) throws IOException
+    {
+        return stage(logPath, false, false);
+    }
+
+    /**
+     * Stage the first, or the last, cycle of a log directory if it holds compressed cycle files or if it is followed.
+     *
+     * @param logPath   the log directory
+     * @param follow    true if the log directory is followed, in which case cycles may be compressed while reading
+     * @param lastCycle true to start with the last cycle of the log directory, when only the tail of the log is read
+     * @return the staging of the log directory
+     * @throws IOException if the log directory could not be listed or a compressed cycle file could not be decompressed
+     */
+    static CycleFileStaging stage(Path logPath, boolean follow, boolean lastCycle) throws IOException
+    {
+        if (!Files.isDirectory(logPath) || !follow && listFiles(logPath).stream().noneMatch(CompressedCycleFiles::isCompressed))
+        {
+            return new CycleFileStaging(logPath, null);
+        }
+
+        Path stagingPath = Files.createTempDirectory("eclog");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteRecursively(stagingPath)));
+
+        CycleFileStaging staging = new CycleFileStaging(logPath, stagingPath);
+        if (lastCycle)
+        {
+            staging.skipToLastCycle();
+        }
+        staging.stageNextCycle();
+        return staging;
+    }
+
+    /**
+     * @return the directory to read the queue from
+     */
+    Path path()
+    {
+        return stagingPath == null ? logPath : stagingPath;
+    }
+
+    /**
+     * Stage the cycle following the last staged cycle, if it has appeared in the log directory.
+     *
+     * @return true if a cycle was staged
+     */
+    boolean refresh()
+    {
+        if (stagingPath == null)
+        {
+            return false;
+        }
+
+        try
+        {
+            return stageNextCycle();
+        }
+        catch (IOException e)
+        {
+            // Retried on next refresh
+            System.err.println("Failed to stage Chronicle files: " + e.getMessage()); // NOPMD
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the log directory is read through a staging directory
+     */
+    boolean isStaged()
+    {
+        return stagingPath != null;
+    }
+
+    /**
+     * Stage the cycle preceding the first staged cycle, when the tail of the log spans more than the staged cycles.
+     *
+     * @return true if a cycle was staged
+     * @throws IOException if the log directory could not be listed or a compressed cycle file could not be decompressed
+     */
+    boolean stagePreviousCycle() throws IOException
+    {
+        if (stagingPath == null || firstStagedCycle == null)
+        {
+            return false;
+        }
+
+        Map.Entry<String, File> previousCycle = cycleFilesOf(listFiles(logPath)).lowerEntry(firstStagedCycle);
+        if (previousCycle == null)
+        {
+            return false;
+        }
+
+        if (CompressedCycleFiles.isCompressed(previousCycle.getValue()))
+        {
+            // Read before the cycles which are already staged
+            decompressedCycles.addFirst(decompress(previousCycle.getValue()));
+        }
+        else
+        {
+            link(previousCycle.getValue());
+        }
+        firstStagedCycle = previousCycle.getKey();
+        return true;
+    }
+
+    private void skipToLastCycle() throws IOException
+    {
+        NavigableMap<String, File> cycles = cycleFilesOf(listFiles(logPath));
+        if (!cycles.isEmpty())
+        {
+            lastStagedCycle = cycles.lowerKey(cycles.lastKey());
+        }
+    }
+
+    private boolean stageNextCycle() throws IOException
+    {
+        List<File> files = listFiles(logPath);
+        linkMetadataFiles(files);
+
+        NavigableMap<String, File> cycles = cycleFilesOf(files);
+        Map.Entry<String, File> nextCycle = lastStagedCycle == null ? cycles.firstEntry() : cycles.higherEntry(lastStagedCycle);
+        if (nextCycle == null)
+        {
+            return false;
+        }
+
+        if (CompressedCycleFiles.isCompressed(nextCycle.getValue()))
+        {
+            // Cycles which have been read are no longer needed, the reader only moves forward
+            decompressedCycles.addLast(decompress(nextCycle.getValue()));
+            while (decompressedCycles.size() > MAX_DECOMPRESSED_CYCLES)
+            {
+                Files.deleteIfExists(decompressedCycles.removeFirst());
+            }
+        }
+        else
+        {
+            link(nextCycle.getValue());
+        }
+        if (firstStagedCycle == null)
+        {
+            firstStagedCycle = nextCycle.getKey();
+        }
+        lastStagedCycle = nextCycle.getKey();
+        return true;
+    }
+
+    /**
+     * Map the plain name of each cycle to its cycle file. The compressed file is used if the log directory holds both
+     * the plain and the compressed file of a cycle, since the plain file is about to be deleted.
+     */
+    private static NavigableMap<String, File> cycleFilesOf(List<File> files)
+    {
+        NavigableMap<String, File> cycles = new TreeMap<>();
+        for (File file : files)
+        {
+            if (CompressedCycleFiles.isCompressed(file))
+            {
+                cycles.put(CompressedCycleFiles.plainNameOf(file), file);
+            }
+            else if (CompressedCycleFiles.isCycleFile(file))
+            {
+                cycles.putIfAbsent(file.getName(), file);
+            }
+        }
+        return cycles;
+    }
+
+    private void linkMetadataFiles(List<File> files) throws IOException
+    {
+        for (File file : files)
+        {
+            if (!CompressedCycleFiles.isCycleFile(file))
+            {
+                link(file);
+            }
+        }
+    }
+
+    private Path decompress(File compressedFile) throws IOException
+    {
+        String plainName = CompressedCycleFiles.plainNameOf(compressedFile);
+        Path plainPath = stagingPath.resolve(plainName);
+        Path temporaryPath = stagingPath.resolve(plainName + ".tmp");
+        CompressedCycleFiles.decompress(compressedFile, temporaryPath.toFile());
+        Files.move(temporaryPath, plainPath, StandardCopyOption.REPLACE_EXISTING);
+        return plainPath;
+    }
+
+    private void link(File file) throws IOException
+    {
+        Path link = stagingPath.resolve(file.getName());
+        if (!Files.exists(link, LinkOption.NOFOLLOW_LINKS))
+        {
+            Files.createSymbolicLink(link, file.toPath().toAbsolutePath());
+        }
+    }
+
+    private static List<File> listFiles(Path path) throws IOException
+    {
+        try (Stream<Path> files = Files.list(path))
+        {
+            return files.filter(Files::isRegularFile)
+                        .map(Path::toFile)
+                        .collect(Collectors.toList());
+        }
+    }
+
+    private static void deleteRecursively(Path path)
+    {
+        try (Stream<Path> files = Files.walk(path))
+        {
+            files.sorted(Comparator.reverseOrder())
+                 .map(Path::toFile)
+                 .forEach(File::delete);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Failed to delete staged Chronicle files in " + path + ": " + e.getMessage()); // NOPMD
+        }
+    }
+}
@@ -50,8 +50,6 @@ class LogPrinter
         this.pollIntervalMs = pollIntervalMs;
         messageFormatter = LogMessageFormatter.<StoredAuditRecord>builder()
                            .format(config.getLogFormat())
-                           .anchor("%s")
-                           .escape("%", "%%")
                            .availableFields(getAvailableFieldFunctionMap(config))
                            .build();
     }
@@ -86,8 +84,7 @@ class LogPrinter
             while (isEligibleForPrint(queueReader, printedRecords))
             {
                 StoredAuditRecord auditEntry = queueReader.nextRecord();
-                String logText = String.format(messageFormatter.getLogTemplate(), messageFormatter.getArgumentsForEntry(auditEntry));
-                out.println(logText);
+                out.println(messageFormatter.format(auditEntry));
 
                 printedRecords++;
             }
@@ -15,38 +15,101 @@
  */
 package com.ericsson.bss.cassandra.ecaudit.eclog;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditRecordReadMarshallable;
 import com.ericsson.bss.cassandra.ecaudit.common.record.StoredAuditRecord;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ChronicleQueueBuilder;
 import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.RollCycle;
+import net.openhft.chronicle.queue.TailerDirection;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
 import net.openhft.chronicle.queue.impl.single.SingleChronicleQueueBuilder;
+import net.openhft.chronicle.wire.DocumentContext;
 
 /**
  * Read AuditRecord entries from a Chronicle queue.
  *
  * The Chronicle queue is opened and scanned as defined by the supplied ToolOptions.
+ * Compact batch records are expanded and returned one by one. Strings of compact records which are encoded with the
+ * dictionary of the roll cycle are resolved transparently, and so are compressed cycle files.
  */
 public class QueueReader
 {
     private final ExcerptTailer tailer;
-
-    private StoredAuditRecord nextRecord;
+    private final CycleDictionary dictionary;
+    private final CycleFileStaging staging;
+    private final Deque<StoredAuditRecord> pendingRecords = new ArrayDeque<>();
 
     public QueueReader(ToolOptions toolOptions)
     {
-        this(toolOptions, getChronicleQueue(toolOptions));
+        this(toolOptions, getCycleFileStaging(toolOptions));
+    }
+
+    private QueueReader(ToolOptions toolOptions, CycleFileStaging staging)
+    {
+        this(toolOptions, getChronicleQueue(toolOptions, staging), staging);
+    }
+
+    private QueueReader(ToolOptions toolOptions, SingleChronicleQueue chronicleQueue, CycleFileStaging staging)
+    {
+        this(toolOptions, chronicleQueue, chronicleQueue.rollCycle(), staging);
     }
 
     // Visible for testing
-    QueueReader(ToolOptions toolOptions, ChronicleQueue chronicleQueue)
+    QueueReader(ToolOptions toolOptions, ChronicleQueue chronicleQueue, RollCycle rollCycle)
+    {
+        this(toolOptions, chronicleQueue, rollCycle, CycleFileStaging.none());
+    }
+
+    private QueueReader(ToolOptions toolOptions, ChronicleQueue chronicleQueue, RollCycle rollCycle, CycleFileStaging staging)
+    {
+        tailer = getExcerptTailer(toolOptions, chronicleQueue, rollCycle);
+        dictionary = new CycleDictionary(chronicleQueue, tailer, rollCycle);
+        this.staging = staging;
+    }
+
+    private static CycleFileStaging getCycleFileStaging(ToolOptions toolOptions)
+    {
+        try
+        {
+            CycleFileStaging staging = CycleFileStaging.stage(toolOptions.path(), toolOptions.follow(), toolOptions.tail().isPresent());
+            if (toolOptions.tail().isPresent() && staging.isStaged())
+            {
+                stageTail(toolOptions, staging, toolOptions.tail().get());
+            }
+            return staging;
+        }
+        catch (IOException e)
+        {
+            System.err.println("Failed to decompress Chronicle files: " + e.getMessage()); // NOPMD
+            System.exit(2); // NOPMD
+            return null;
+        }
+    }
+
+    /**
+     * Staging starts with the last cycle, stage earlier cycles until the staged cycles hold the tail.
+     */
+    private static void stageTail(ToolOptions toolOptions, CycleFileStaging staging, long tail) throws IOException
     {
-        tailer = getExcerptTailer(toolOptions, chronicleQueue);
+        long stagedExcerpts = 0;
+        do
+        {
+            try (SingleChronicleQueue chronicleQueue = getChronicleQueue(toolOptions, staging))
+            {
+                stagedExcerpts += chronicleQueue.exceptsPerCycle(chronicleQueue.firstCycle());
+            }
+        }
+        while (stagedExcerpts < tail && staging.stagePreviousCycle());
     }
 
-    private static ChronicleQueue getChronicleQueue(ToolOptions toolOptions)
+    private static SingleChronicleQueue getChronicleQueue(ToolOptions toolOptions, CycleFileStaging staging)
     {
-        SingleChronicleQueueBuilder chronicleBuilder = ChronicleQueueBuilder.single(toolOptions.path().toFile())
+        SingleChronicleQueueBuilder chronicleBuilder = ChronicleQueueBuilder.single(staging.path().toFile())
                                                                             .readOnly(true);
         toolOptions.rollCycle().ifPresent(chronicleBuilder::rollCycle);
 
@@ -62,7 +125,7 @@ public class QueueReader
         }
     }
 
-    private static ExcerptTailer getExcerptTailer(ToolOptions toolOptions, ChronicleQueue chronicle)
+    private static ExcerptTailer getExcerptTailer(ToolOptions toolOptions, ChronicleQueue chronicle, RollCycle rollCycle)
     {
         ExcerptTailer tempTailer = chronicle.createTailer();
 
@@ -72,6 +135,13 @@ public class QueueReader
 
             tempTailer = tempTailer.toEnd();
 
+            // Indexes are only consecutive within a cycle
+            if (rollCycle.toSequenceNumber(tempTailer.index()) < toolOptions.tail().get())
+            {
+                moveBackToTail(tempTailer, toolOptions.tail().get());
+                return tempTailer;
+            }
+
             long newIndex = tempTailer.index() - toolOptions.tail().get();
             newIndex = Math.max(newIndex, startIndex);
 
@@ -81,34 +151,82 @@ public class QueueReader
         return tempTailer;
     }
 
+    private static void moveBackToTail(ExcerptTailer tailer, long tail)
+    {
+        tailer.direction(TailerDirection.BACKWARD).toEnd();
+
+        long tailIndex = -1;
+        for (long i = 0; i < tail; i++)
+        {
+            try (DocumentContext documentContext = tailer.readingDocument())
+            {
+                if (!documentContext.isPresent())
+                {
+                    break;
+                }
+                tailIndex = documentContext.index();
+            }
+        }
+
+        tailer.direction(TailerDirection.FORWARD);
+        if (tailIndex == -1)
+        {
+            tailer.toStart();
+        }
+        else
+        {
+            tailer.moveToIndex(tailIndex);
+        }
+    }
+
     public boolean hasRecordAvailable()
     {
         maybeReadNext();
-        return nextRecord != null;
+        return !pendingRecords.isEmpty();
     }
 
     private void maybeReadNext()
     {
-        if (nextRecord == null)
+        // Compact batch records holding no operations are skipped
+        boolean documentRead = true;
+        while (pendingRecords.isEmpty() && documentRead)
+        {
+            documentRead = readNext();
+        }
+    }
+
+    private boolean readNext()
+    {
+        if (readDocument())
+        {
+            return true;
+        }
+
+        // Stage the next cycle as the end of the staged cycles is reached
+        while (staging.refresh())
         {
-            readNext();
+            if (readDocument())
+            {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void readNext()
+    private boolean readDocument()
     {
-        AuditRecordReadMarshallable recordMarshallable = new AuditRecordReadMarshallable();
+        AuditRecordReadMarshallable recordMarshallable = new AuditRecordReadMarshallable(dictionary);
         if (tailer.readDocument(recordMarshallable))
         {
-            nextRecord = recordMarshallable.getAuditRecord();
+            pendingRecords.addAll(recordMarshallable.getAuditRecords());
+            return true;
         }
+        return false;
     }
 
     public StoredAuditRecord nextRecord()
     {
         maybeReadNext();
-        StoredAuditRecord entry = nextRecord;
-        nextRecord = null; // NOPMD
-        return entry;
+        return pendingRecords.poll();
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.eclog;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditRecordWriteMarshallable;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.RecordFormat;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.WriteDictionary;
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditRecord;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
+import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
+import com.ericsson.bss.cassandra.ecaudit.common.record.StoredAuditRecord;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.ChronicleQueueBuilder;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.RollCycles;
+import net.openhft.chronicle.wire.DocumentContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that the {@link CycleDictionary} resolves dictionary encoded records written to a real queue.
+ */
+public class TestCycleDictionary
+{
+    private static final long START_TIME = 1_600_000_000_000L;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final SetTimeProvider timeProvider = new SetTimeProvider(START_TIME);
+    private final WriteDictionary dictionary = new WriteDictionary(16);
+
+    private ChronicleQueue queue;
+    private ExcerptAppender appender;
+
+    @Before
+    public void before()
+    {
+        queue = ChronicleQueueBuilder.single(temporaryFolder.getRoot())
+                                     .rollCycle(RollCycles.TEST_SECONDLY)
+                                     .timeProvider(timeProvider)
+                                     .build();
+        appender = queue.acquireAppender();
+    }
+
+    @After
+    public void after()
+    {
+        queue.close();
+    }
+
+    @Test
+    public void testDictionaryStartsOverInEachRollCycle() throws Exception
+    {
+        write(likeRecord("bob", "SELECT * FROM ks.tbl WHERE key = ?", "['a']"));
+        write(likeRecord("bob", "SELECT * FROM ks.tbl WHERE key = ?", "['b']"));
+        timeProvider.currentTimeMillis(START_TIME + 1_000);
+        write(likeRecord("alice", "DELETE FROM ks.tbl WHERE key = ?", "['c']"));
+        write(likeRecord("bob", "SELECT * FROM ks.tbl WHERE key = ?", "['d']"));
+
+        QueueReader reader = new QueueReader(ToolOptions.builder().build(), queue, RollCycles.TEST_SECONDLY);
+
+        assertRecord(reader.nextRecord(), "bob", "SELECT * FROM ks.tbl WHERE key = ?['a']");
+        assertRecord(reader.nextRecord(), "bob", "SELECT * FROM ks.tbl WHERE key = ?['b']");
+        assertRecord(reader.nextRecord(), "alice", "DELETE FROM ks.tbl WHERE key = ?['c']");
+        assertRecord(reader.nextRecord(), "bob", "SELECT * FROM ks.tbl WHERE key = ?['d']");
+        assertThat(reader.hasRecordAvailable()).isFalse();
+    }
+
+    @Test
+    public void testDefinitionsAreLoadedWhenTailing() throws Exception
+    {
+        write(likeRecord("bob", "SELECT * FROM ks.tbl WHERE key = ?", "['a']"));
+        write(likeRecord("alice", "SELECT * FROM ks.tbl WHERE key = ?", "['b']"));
+        write(likeRecord("bob", "SELECT * FROM ks.tbl WHERE key = ?", "['c']"));
+
+        QueueReader reader = new QueueReader(ToolOptions.builder().withTail(1).build(), queue, RollCycles.TEST_SECONDLY);
+
+        assertRecord(reader.nextRecord(), "bob", "SELECT * FROM ks.tbl WHERE key = ?['c']");
+        assertThat(reader.hasRecordAvailable()).isFalse();
+    }
+
+    private void write(AuditRecord auditRecord)
+    {
+        try (DocumentContext context = appender.writingDocument())
+        {
+            dictionary.useCycle(appender.cycle());
+            new AuditRecordWriteMarshallable(auditRecord, FieldSelector.DEFAULT_FIELDS, RecordFormat.COMPACT, dictionary).writeMarshallable(context.wire());
+        }
+    }
+
+    private static AuditRecord likeRecord(String user, String statement, String values) throws UnknownHostException
+    {
+        AuditRecord auditRecord = mock(AuditRecord.class);
+        when(auditRecord.getTimestamp()).thenReturn(START_TIME);
+        when(auditRecord.getClientAddress()).thenReturn(new InetSocketAddress(InetAddress.getByName("1.2.3.4"), 567));
+        when(auditRecord.getCoordinatorAddress()).thenReturn(InetAddress.getByName("5.6.7.8"));
+        when(auditRecord.getUser()).thenReturn(user);
+        when(auditRecord.getBatchId()).thenReturn(Optional.empty());
+        when(auditRecord.getStatus()).thenReturn(Status.ATTEMPT);
+        when(auditRecord.getOperation()).thenReturn(new PreparedOperation(statement, values));
+        when(auditRecord.getSubject()).thenReturn(Optional.empty());
+        return auditRecord;
+    }
+
+    private static void assertRecord(StoredAuditRecord actualRecord, String expectedUser, String expectedOperation)
+    {
+        assertThat(actualRecord.getUser()).contains(expectedUser);
+        assertThat(actualRecord.getOperation()).contains(expectedOperation);
+    }
+
+    private static class PreparedOperation extends SimpleAuditOperation
+    {
+        private final String statement;
+
+        PreparedOperation(String statement, String values)
+        {
+            super(statement + values);
+            this.statement = statement;
+        }
+
+        @Override
+        public String getNakedOperationString()
+        {
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026 Telefonaktiebolaget LM Ericsson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ericsson.bss.cassandra.ecaudit.eclog;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.AuditRecordWriteMarshallable;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.CompressedCycleFiles;
+import com.ericsson.bss.cassandra.ecaudit.common.chronicle.FieldSelector;
+import com.ericsson.bss.cassandra.ecaudit.common.record.AuditRecord;
+import com.ericsson.bss.cassandra.ecaudit.common.record.SimpleAuditOperation;
+import com.ericsson.bss.cassandra.ecaudit.common.record.Status;
+import net.openhft.chronicle.core.time.SetTimeProvider;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.ChronicleQueueBuilder;
+import net.openhft.chronicle.queue.ExcerptAppender;
+import net.openhft.chronicle.queue.RollCycles;
+import net.openhft.chronicle.queue.impl.single.SingleChronicleQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that the {@link QueueReader} reads compressed cycle files through the {@link CycleFileStaging}.
+ */
+public class TestCycleFileStaging
+{
+    private static final long START_TIME = 1_600_000_000_000L;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final SetTimeProvider timeProvider = new SetTimeProvider(START_TIME);
+
+    private Path logPath;
+    private ChronicleQueue queue;
+    private ExcerptAppender appender;
+
+    @Before
+    public void before() throws IOException
+    {
+        logPath = temporaryFolder.newFolder().toPath();
+        queue = ChronicleQueueBuilder.single(logPath.toFile())
+                                     .rollCycle(RollCycles.TEST_SECONDLY)
+                                     .timeProvider(timeProvider)
+                                     .build();
+        appender = queue.acquireAppender();
+    }
+
+    @After
+    public void after()
+    {
+        queue.close();
+    }
+
+    @Test
+    public void testUncompressedLogIsNotStaged() throws IOException
+    {
+        write("alice");
+
+        CycleFileStaging staging = CycleFileStaging.stage(logPath);
+
+        assertThat(staging.path()).isEqualTo(logPath);
+    }
+
+    @Test
+    public void testCompressedCyclesAreRead() throws IOException
+    {
+        write("alice");
+        givenNextCycle();
+        write("bob");
+        givenNextCycle();
+        write("carol");
+        compressReleasedCycles();
+
+        QueueReader reader = new QueueReader(givenToolOptions());
+
+        assertThat(reader.nextRecord().getUser()).contains("alice");
+        assertThat(reader.nextRecord().getUser()).contains("bob");
+        assertThat(reader.nextRecord().getUser()).contains("carol");
+        assertThat(reader.hasRecordAvailable()).isFalse();
+    }
+
+    @Test
+    public void testNewCyclesAreFollowed() throws IOException
+    {
+        write("alice");
+        givenNextCycle();
+        write("bob");
+        compressReleasedCycles();
+
+        QueueReader reader = new QueueReader(givenToolOptions());
+
+        assertThat(reader.nextRecord().getUser()).contains("alice");
+        assertThat(reader.nextRecord().getUser()).contains("bob");
+        assertThat(reader.hasRecordAvailable()).isFalse();
+
+        givenNextCycle();
+        write("carol");
+
+        assertThat(reader.hasRecordAvailable()).isTrue();
+        assertThat(reader.nextRecord().getUser()).contains("carol");
+    }
+
+    @Test
+    public void testCyclesAreDecompressedOnDemand() throws IOException
+    {
+        write("alice");
+        givenNextCycle();
+        write("bob");
+        givenNextCycle();
+        write("carol");
+        compressReleasedCycles();
+
+        CycleFileStaging staging = CycleFileStaging.stage(logPath, false, false);
+
+        assertThat(stagedCycles(staging)).containsExactly("19700101-002640.cq4");
+        assertThat(staging.refresh()).isTrue();
+        assertThat(stagedCycles(staging)).containsExactly("19700101-002640.cq4", "19700101-002641.cq4");
+        assertThat(staging.refresh()).isTrue();
+        assertThat(stagedCycles(staging)).containsExactly("19700101-002640.cq4", "19700101-002641.cq4", "19700101-002642.cq4");
+        assertThat(staging.refresh()).isFalse();
+    }
+
+    @Test
+    public void testOnlyLastCycleIsStagedForTail() throws IOException
+    {
+        write("alice");
+        givenNextCycle();
+        write("bob");
+        givenNextCycle();
+        write("carol");
+        compressReleasedCycles();
+
+        CycleFileStaging staging = CycleFileStaging.stage(logPath, false, true);
+
+        assertThat(stagedCycles(staging)).containsExactly("19700101-002642.cq4");
+
+        QueueReader reader = new QueueReader(givenToolOptionsBuilder().withTail(1).build());
+
+        assertThat(reader.nextRecord().getUser()).contains("carol");
+        assertThat(reader.hasRecordAvailable()).isFalse();
+    }
+
+    @Test
+    public void testTailSpanningCyclesIsRead() throws IOException
+    {
+        write("alice");
+        write("bob");
+        givenNextCycle();
+        write("carol");
+        givenNextCycle();
+        write("dave");
+        compressReleasedCycles();
+
+        QueueReader reader = new QueueReader(givenToolOptionsBuilder().withTail(3).build());
+
+        assertThat(reader.nextRecord().getUser()).contains("bob");
+        assertThat(reader.nextRecord().getUser()).contains("carol");
+        assertThat(reader.nextRecord().getUser()).contains("dave");
+        assertThat(reader.hasRecordAvailable()).isFalse();
+    }
+
+    @Test
+    public void testFollowedTailSpanningCyclesIsRead() throws IOException
+    {
+        write("alice");
+        write("bob");
+        givenNextCycle();
+        write("carol");
+
+        QueueReader reader = new QueueReader(givenToolOptionsBuilder().withTail(2).withFollow(true).build());
+
+        assertThat(reader.nextRecord().getUser()).contains("bob");
+        assertThat(reader.nextRecord().getUser()).contains("carol");
+        assertThat(reader.hasRecordAvailable()).isFalse();
+    }
+
+    @Test
+    public void testUncompressedLogIsStagedWhenFollowed() throws IOException
+    {
+        write("alice");
+
+        CycleFileStaging staging = CycleFileStaging.stage(logPath, true, false);
+
+        assertThat(staging.path()).isNotEqualTo(logPath);
+        assertThat(stagedCycles(staging)).containsExactly("19700101-002640.cq4");
+    }
+
+    @Test
+    public void testCyclesCompressedWhileFollowedAreRead() throws IOException
+    {
+        write("alice");
+        givenNextCycle();
+        write("bob");
+        givenNextCycle();
+        write("carol");
+
+        QueueReader reader = new QueueReader(givenToolOptionsBuilder().withFollow(true).build());
+
+        assertThat(reader.nextRecord().getUser()).contains("alice");
+
+        compressReleasedCycles();
+
+        assertThat(reader.nextRecord().getUser()).contains("bob");
+        assertThat(reader.nextRecord().getUser()).contains("carol");
+        assertThat(reader.hasRecordAvailable()).isFalse();
+    }
+
+    private ToolOptions givenToolOptions()
+    {
+        return givenToolOptionsBuilder().build();
+    }
+
+    private ToolOptions.Builder givenToolOptionsBuilder()
+    {
+        return ToolOptions.builder()
+                          .withPath(logPath)
+                          .withRollCycle(RollCycles.TEST_SECONDLY);
+    }
+
+    private static List<String> stagedCycles(CycleFileStaging staging) throws IOException
+    {
+        try (Stream<Path> files = Files.list(staging.path()))
+        {
+            return files.map(path -> path.getFileName().toString())
+                        .filter(name -> name.endsWith(SingleChronicleQueue.SUFFIX))
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    private void givenNextCycle()
+    {
+        timeProvider.advanceMillis(1000);
+    }
+
+    private void compressReleasedCycles() throws IOException
+    {
+        // Chronicle use filenames which allow sorting in chronological order, the last one is active
+        List<File> cycleFiles = Arrays.stream(logPath.toFile().listFiles())
+                                      .filter(file -> file.getName().endsWith(SingleChronicleQueue.SUFFIX))
+                                      .sorted()
+                                      .collect(Collectors.toList());
+        for (File file : cycleFiles.subList(0, cycleFiles.size() - 1))
+        {
+            CompressedCycleFiles.compress(file);
+            Files.delete(file.toPath());
+        }
+    }
+
+    private void write(String user) throws IOException
+    {
+        appender.writeDocument(new AuditRecordWriteMarshallable(likeRecord(user), FieldSelector.DEFAULT_FIELDS));
+    }
+
+    private static AuditRecord likeRecord(String user) throws IOException
+    {
+        AuditRecord auditRecord = mock(AuditRecord.class);
+        when(auditRecord.getTimestamp()).thenReturn(START_TIME);
+        when(auditRecord.getClientAddress()).thenReturn(new InetSocketAddress(InetAddress.getByName("1.2.3.4"), 567));
+        when(auditRecord.getCoordinatorAddress()).thenReturn(InetAddress.getByName("5.6.7.8"));
+        when(auditRecord.getUser()).thenReturn(user);
+        when(auditRecord.getBatchId()).thenReturn(Optional.empty());
+        when(auditRecord.getStatus()).thenReturn(Status.ATTEMPT);
+        when(auditRecord.getOperation()).thenReturn(new SimpleAuditOperation("SELECT SOMETHING"));
+        when(auditRecord.getSubject()).thenReturn(Optional.empty());
+        return auditRecord;
+    }
+}
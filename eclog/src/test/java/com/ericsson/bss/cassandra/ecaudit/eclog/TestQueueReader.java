@@ -30,6 +30,7 @@ import com.ericsson.bss.cassandra.ecaudit.test.chronicle.RecordValues;
 import net.openhft.chronicle.core.io.IORuntimeException;
 import net.openhft.chronicle.queue.ChronicleQueue;
 import net.openhft.chronicle.queue.ExcerptTailer;
+import net.openhft.chronicle.queue.RollCycles;
 import net.openhft.chronicle.wire.ReadMarshallable;
 import net.openhft.chronicle.wire.ValueIn;
 import net.openhft.chronicle.wire.WireIn;
@@ -129,6 +130,24 @@ public class TestQueueReader
         assertRecordMatchesWire(auditRecord, defaultValues);
     }
 
+    @Test
+    public void testCompactBatchRecordIsExpanded() throws UnknownHostException
+    {
+        RecordValues batchValues = defaultValues.butWithType("ecaudit-compact-batch")
+                                                .butWithBatchId(UUID.fromString("b23534c7-93af-497f-b00c-1edaaa335caa"));
+        WireIn wireMock = givenNextRecordIs(batchValues);
+        ValueIn operationCountValueMock = mock(ValueIn.class);
+        when(operationCountValueMock.int32()).thenReturn(2);
+        when(wireMock.read(eq("operation_count"))).thenReturn(operationCountValueMock);
+        QueueReader reader = givenReader();
+
+        assertThat(reader.hasRecordAvailable()).isTrue();
+        assertRecordMatchesWire(reader.nextRecord(), batchValues);
+        assertThat(reader.hasRecordAvailable()).isTrue();
+        assertRecordMatchesWire(reader.nextRecord(), batchValues);
+        verify(tailer).readDocument(any(ReadMarshallable.class));
+    }
+
     @Test
     public void testFailOnCorruptRecord()
     {
@@ -140,7 +159,7 @@ public class TestQueueReader
         .withMessageContaining("Corrupt");
     }
 
-    private void givenNextRecordIs(RecordValues recordValues)
+    private WireIn givenNextRecordIs(RecordValues recordValues)
     {
         WireIn wireMock = mock(WireIn.class);
 
@@ -199,6 +218,7 @@ public class TestQueueReader
                         return true;
                     }
         );
+        return wireMock;
     }
 
     private QueueReader givenReader()
@@ -208,7 +228,7 @@ public class TestQueueReader
 
     private QueueReader givenReader(ToolOptions toolOptions)
     {
-        return new QueueReader(toolOptions, queue);
+        return new QueueReader(toolOptions, queue, RollCycles.HOURLY);
     }
 
     private void assertRecordMatchesWire(StoredAuditRecord actualAuditRecord, RecordValues expectedValues) throws UnknownHostException
@@ -17,6 +17,7 @@ package com.ericsson.bss.cassandra.ecaudit.integration.standard;
 
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Splitter;
@@ -35,10 +36,14 @@ import com.datastax.driver.core.exceptions.UnauthorizedException;
 import com.ericsson.bss.cassandra.ecaudit.test.daemon.CassandraDaemonForAuditTest;
 import net.jcip.annotations.NotThreadSafe;
 import org.apache.cassandra.auth.Permission;
+import org.apache.cassandra.cql3.QueryProcessor;
+import org.apache.cassandra.db.ConsistencyLevel;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 /**
  * This test class provides a functional integration test with Cassandra itself.
@@ -453,7 +458,23 @@ public class ITVerifyWhitelistManagement
         assertRoleOperations("temporary_user", "data", asList("CREATE", "ALTER", "SELECT", "AUTHORIZE"));
     }
 
-    private void given_temporary_user(Session privateSession)
+    @Test
+    public void testWhitelistChangedOnOtherNodeIsAppliedWhenGenerationMarkerChanges()
+    {
+        given_temporary_user(superSession);
+
+        // Written to the tables directly, the way a change on another node arrives on this node
+        QueryProcessor.process("UPDATE system_auth.role_audit_whitelists_v2 SET operations = operations + {'SELECT'} " +
+                               "WHERE role = 'temporary_user' AND resource = 'data/ecks_itvwm'", ConsistencyLevel.ONE);
+        QueryProcessor.process("UPDATE system_auth.role_audit_whitelists_v2 SET operations = {'" + UUID.randomUUID() + "'} " +
+                               "WHERE role = '$ecaudit$' AND resource = 'generation'", ConsistencyLevel.ONE);
+
+        // Well within the periodic refresh of the white-list snapshot
+        await().atMost(5, SECONDS)
+               .untilAsserted(() -> assertRoleOperations("temporary_user", "data/ecks_itvwm", asList("SELECT")));
+    }
+
+        private void given_temporary_user(Session privateSession)
     {
         privateSession.execute(new SimpleStatement(
         "CREATE ROLE temporary_user WITH PASSWORD = 'secret' AND LOGIN = true"));